@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * Utility methods for setting up benchmark data.
+ * @author Matthew Tropiano
+ */
+final class BenchmarkUtils
+{
+	private BenchmarkUtils() {}
+
+	/**
+	 * Creates 16-bit signed, native-ordered PCM data of a sine wave.
+	 * @param frames the amount of sample frames.
+	 * @param channels the amount of channels.
+	 * @param rate the sampling rate.
+	 * @return a new array of PCM data.
+	 */
+	static byte[] createSinePCM(int frames, int channels, int rate)
+	{
+		boolean bigEndian = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+		byte[] out = new byte[frames * channels * 2];
+		int i = 0;
+		for (int f = 0; f < frames; f++)
+		{
+			short s = (short)(Math.sin(2.0 * Math.PI * 440.0 * f / rate) * 16000.0);
+			byte hi = (byte)(s >> 8);
+			byte lo = (byte)s;
+			for (int c = 0; c < channels; c++)
+			{
+				out[i++] = bigEndian ? hi : lo;
+				out[i++] = bigEndian ? lo : hi;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Creates a direct, native-ordered buffer of 16-bit PCM data of a sine wave.
+	 * @param bytes the size of the buffer in bytes.
+	 * @param channels the amount of channels.
+	 * @param rate the sampling rate.
+	 * @return a new buffer.
+	 */
+	static ByteBuffer createSineBuffer(int bytes, int channels, int rate)
+	{
+		byte[] pcm = createSinePCM(bytes / (channels * 2), channels, rate);
+		ByteBuffer out = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+		out.put(pcm);
+		out.rewind();
+		return out;
+	}
+
+	/**
+	 * Creates the contents of a 16-bit WAV file of a sine wave.
+	 * @param seconds the length in seconds.
+	 * @param channels the amount of channels.
+	 * @param rate the sampling rate.
+	 * @return the file data.
+	 * @throws IOException if the data could not be written.
+	 */
+	static byte[] createSineWAV(int seconds, int channels, int rate) throws IOException
+	{
+		int frames = seconds * rate;
+		byte[] pcm = createSinePCM(frames, channels, rate);
+		AudioFormat format = new AudioFormat(rate, 16, channels, true, ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+		AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), format, frames);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AudioSystem.write(in, AudioFileFormat.Type.WAVE, out);
+		return out.toByteArray();
+	}
+
+}
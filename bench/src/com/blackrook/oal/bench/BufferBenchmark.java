@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.oal.OALBuffer;
+import com.blackrook.oal.OALSystem;
+import com.blackrook.oal.enums.SoundFormat;
+
+/**
+ * Cost of uploading PCM data into a buffer.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferBenchmark
+{
+	@Param({"4096", "65536", "1048576"})
+	public int size;
+
+	private OALSystem system;
+	private OALBuffer buffer;
+	private ByteBuffer data;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		system = new OALSystem();
+		buffer = system.createBuffer();
+		buffer.setFormat(SoundFormat.STEREO16);
+		buffer.setSamplingRate(OALBuffer.FREQ_44KHZ);
+		data = BenchmarkUtils.createSineBuffer(size, 2, OALBuffer.FREQ_44KHZ);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public void loadPCMData()
+	{
+		buffer.loadPCMData(data, size);
+	}
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.commons.Common;
+import com.blackrook.oal.JSPISoundHandle;
+import com.blackrook.oal.OALBuffer;
+import com.blackrook.oal.OALSystem;
+
+/**
+ * Decoder throughput, and the cost of a full decode-and-upload into a buffer.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecoderBenchmark
+{
+	@Param({"1", "10"})
+	public int seconds;
+
+	private OALSystem system;
+	private JSPISoundHandle handle;
+	private byte[] chunk;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, UnsupportedAudioFileException
+	{
+		system = new OALSystem();
+		handle = new JSPISoundHandle("sine.wav", BenchmarkUtils.createSineWAV(seconds, 2, OALBuffer.FREQ_44KHZ));
+		chunk = new byte[16384];
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public long decode() throws IOException
+	{
+		JSPISoundHandle.Decoder decoder = handle.getDecoder();
+		long total = 0L;
+		int l;
+		try {
+			while ((l = decoder.readPCMBytes(chunk)) > 0)
+				total += l;
+		} finally {
+			Common.close(decoder);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void createBuffer() throws IOException
+	{
+		system.createBuffer(handle).destroy();
+	}
+
+}
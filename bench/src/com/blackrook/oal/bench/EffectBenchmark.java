@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.oal.OALEffectSlot;
+import com.blackrook.oal.OALSystem;
+import com.blackrook.oal.effect.ReverbEffect;
+import com.blackrook.oal.effect.ReverbPreset;
+import com.blackrook.oal.filter.LowPassFilter;
+
+/**
+ * Cost of effect and filter parameter writes, with the effect in an auto-updating slot.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EffectBenchmark
+{
+	private OALSystem system;
+	private ReverbEffect reverb;
+	private OALEffectSlot slot;
+	private LowPassFilter filter;
+	private float step;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		system = new OALSystem();
+		reverb = system.createReverbEffect();
+		slot = system.createEffectSlot();
+		slot.setEffect(reverb);
+		filter = system.createLowPassFilter();
+		step = 0f;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public void setReverbDecayTime()
+	{
+		step += 0.001f;
+		reverb.setDecayTime(1f + (step % 1f));
+	}
+
+	@Benchmark
+	public void setReverbParameters()
+	{
+		step += 0.001f;
+		float f = step % 1f;
+		reverb.setDecayTime(1f + f);
+		reverb.setDensity(f);
+		reverb.setDiffusion(f);
+		reverb.setDecayHFRatio(0.5f + f);
+	}
+
+	@Benchmark
+	public void setReverbParametersBatched()
+	{
+		step += 0.001f;
+		float f = step % 1f;
+		reverb.begin();
+		reverb.setDecayTime(1f + f);
+		reverb.setDensity(f);
+		reverb.setDiffusion(f);
+		reverb.setDecayHFRatio(0.5f + f);
+		reverb.commit();
+	}
+
+	@Benchmark
+	public void setReverbPreset()
+	{
+		step += 0.001f;
+		reverb.setPreset((step % 1f) < 0.5f ? ReverbPreset.HALLWAY : ReverbPreset.STONE_CORRIDOR);
+	}
+
+	@Benchmark
+	public void setFilterGain()
+	{
+		step += 0.001f;
+		filter.setGain(step % 1f);
+	}
+
+}
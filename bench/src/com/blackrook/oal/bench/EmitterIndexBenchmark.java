@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.commons.list.List;
+import com.blackrook.oal.OALEmitter;
+import com.blackrook.oal.OALEmitterIndex;
+
+/**
+ * Cost of finding the most audible emitters around a moving listener,
+ * by amount of emitters scattered over a square kilometer.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmitterIndexBenchmark
+{
+	/** Size of the area covered by emitters. */
+	private static final float AREA = 1000f;
+	/** Emitters found per query. */
+	private static final int COUNT = 32;
+
+	@Param({"1000", "10000", "100000"})
+	public int emitters;
+
+	private OALEmitterIndex<Integer> index;
+	private List<OALEmitter<Integer>> out;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		random = new Random(0L);
+		index = new OALEmitterIndex<Integer>(25f);
+		index.setMaxDistanceCulling(true);
+		for (int i = 0; i < emitters; i++)
+		{
+			OALEmitter<Integer> e = index.add(i, random.nextFloat() * AREA, 0f, random.nextFloat() * AREA);
+			e.setAttenuation(1f, 1f, 10f + random.nextFloat() * 20f, 1f);
+		}
+		out = new List<OALEmitter<Integer>>(COUNT);
+	}
+
+	@Benchmark
+	public int mostAudible()
+	{
+		return index.getMostAudible(random.nextFloat() * AREA, 0f, random.nextFloat() * AREA, COUNT, out);
+	}
+
+}
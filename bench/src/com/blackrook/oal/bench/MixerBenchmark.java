@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.oal.OALBuffer;
+import com.blackrook.oal.OALSource;
+import com.blackrook.oal.OALSystem;
+import com.blackrook.oal.backend.SoftwareBackend;
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+import com.blackrook.oal.enums.SoundFormat;
+
+/**
+ * Cost of mixing one block with the software backend, by amount of playing sources.
+ * Sources are spread around the listener and pitched differently, so every one
+ * is attenuated, panned and resampled.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MixerBenchmark
+{
+	/** Sample frames rendered per call. */
+	private static final int FRAMES = 512;
+
+	@Param({"1", "16", "64"})
+	public int sources;
+
+	private OALSystem system;
+	private OALBuffer buffer;
+	private FloatBuffer out;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		system = new OALSystem(new SoftwareBackend(), OALBuffer.FREQ_44KHZ, RenderChannels.STEREO, RenderSampleType.FLOAT);
+		buffer = system.createBuffer();
+		buffer.setFormat(SoundFormat.MONO16);
+		buffer.setSamplingRate(OALBuffer.FREQ_22KHZ);
+		buffer.loadPCMData(BenchmarkUtils.createSineBuffer(22050 * 2, 1, OALBuffer.FREQ_22KHZ));
+
+		for (int i = 0; i < sources; i++)
+		{
+			double angle = 2.0 * Math.PI * i / sources;
+			OALSource source = system.createSource();
+			source.setBuffer(buffer);
+			source.setLooping(true);
+			source.setPosition((float)Math.cos(angle) * 4f, 0f, (float)Math.sin(angle) * 4f);
+			source.setPitch(0.75f + 0.5f * i / sources);
+			source.play();
+		}
+
+		out = ByteBuffer.allocateDirect(FRAMES * system.getRenderFrameSize()).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public FloatBuffer renderBlock()
+	{
+		out.clear();
+		system.renderSamples(out, FRAMES);
+		return out;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.oal.OALBuffer;
+import com.blackrook.oal.OALSource;
+import com.blackrook.oal.OALSystem;
+import com.blackrook.oal.enums.SoundFormat;
+
+/**
+ * Cost of cycling buffers through a source's queue, like a streaming source does.
+ * The source is never played, so all queued buffers can be dequeued right away.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueueBenchmark
+{
+	@Param({"2", "4", "8"})
+	public int count;
+
+	private OALSystem system;
+	private OALSource source;
+	private OALBuffer[] buffers;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		system = new OALSystem();
+		source = system.createSource();
+		buffers = system.createBuffers(count);
+		for (OALBuffer b : buffers)
+		{
+			b.setFormat(SoundFormat.MONO16);
+			b.setSamplingRate(OALBuffer.FREQ_44KHZ);
+			b.loadPCMData(BenchmarkUtils.createSineBuffer(4096, 1, OALBuffer.FREQ_44KHZ));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public OALBuffer[] enqueueDequeue()
+	{
+		source.enqueueBuffers(buffers);
+		return source.dequeueAllBuffers();
+	}
+
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blackrook.oal.OALListener;
+import com.blackrook.oal.OALSource;
+import com.blackrook.oal.OALSystem;
+
+/**
+ * Per-call cost of source and listener attribute updates.
+ * @author Matthew Tropiano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SourceBenchmark
+{
+	private OALSystem system;
+	private OALSource source;
+	private OALListener listener;
+	private float step;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		system = new OALSystem();
+		source = system.createSource();
+		listener = system.getListener();
+		step = 0f;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		system.shutDown();
+	}
+
+	@Benchmark
+	public void setPosition()
+	{
+		step += 0.001f;
+		source.setPosition(step, 0f, -step);
+	}
+
+	@Benchmark
+	public void setPositionUnchanged()
+	{
+		source.setPosition(1f, 2f, 3f);
+	}
+
+	@Benchmark
+	public void setGain()
+	{
+		step += 0.001f;
+		source.setGain(step % 1f);
+	}
+
+	@Benchmark
+	public void setListenerPosition()
+	{
+		step += 0.001f;
+		listener.setPosition(step, 0f, -step);
+	}
+
+	@Benchmark
+	public void setListenerOrientation()
+	{
+		step += 0.001f;
+		listener.setOrientation(step, 0f, -1f, 0f, 1f, 0f);
+	}
+
+	@Benchmark
+	public boolean isPlaying()
+	{
+		return source.isPlaying();
+	}
+
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.nio.ByteBuffer;
+
+import com.blackrook.oal.enums.SoundFormat;
+
+/**
+ * Encodes 16-bit PCM data into IMA4 ADPCM, for buffers that use
+ * {@link SoundFormat#MONO_IMA4} or {@link SoundFormat#STEREO_IMA4}.
+ * IMA4 data takes a little over a quarter of the space of the 16-bit data it came from.
+ * <p>
+ * Encoded blocks are laid out the way OpenAL expects them with its default block alignment:
+ * for each channel, a 4-byte header with the first sample and step index, followed by the
+ * remaining 64 samples as 4-bit codes, interleaved per channel in groups of 8.
+ * This does not make any OpenAL calls, so it is safe to call from any thread.
+ * @author Matthew Tropiano
+ */
+public final class ADPCMEncoder
+{
+	/** Sample frames per IMA4 block. */
+	public static final int IMA4_BLOCK_FRAMES = 65;
+	/** Bytes per IMA4 block, per channel. */
+	public static final int IMA4_CHANNEL_BLOCK_SIZE = 36;
+
+	/** IMA step sizes, by step index. */
+	private static final int[] IMA_STEP_SIZE = {
+		7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+		50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230,
+		253, 279, 307, 337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963,
+		1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066, 2272, 2499, 2749, 3024, 3327,
+		3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487,
+		12635, 13899, 15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+	};
+	/** IMA step index adjustment, by code magnitude. */
+	private static final int[] IMA_INDEX_ADJUST = {-1, -1, -1, -1, 2, 4, 6, 8};
+	/** Highest step index. */
+	private static final int IMA_MAX_INDEX = IMA_STEP_SIZE.length - 1;
+
+	private ADPCMEncoder() {}
+
+	/**
+	 * Returns the length in bytes of the IMA4 data for an amount of sample frames.
+	 * Data is always a whole number of blocks, so the last block is padded out.
+	 * @param frames the amount of sample frames.
+	 * @param channels the amount of channels.
+	 */
+	public static int getIMA4Length(int frames, int channels)
+	{
+		int blocks = (frames + IMA4_BLOCK_FRAMES - 1) / IMA4_BLOCK_FRAMES;
+		return blocks * IMA4_CHANNEL_BLOCK_SIZE * channels;
+	}
+
+	/**
+	 * Encodes 16-bit signed PCM data into IMA4 ADPCM data.
+	 * <p>
+	 * The input is read from its position to its limit, in its byte order, and the
+	 * output is written at its position. Both positions are advanced. The output can
+	 * be the same buffer as the input (encoding in place), since the output never
+	 * catches up with the input - if it is, its position ends up after the encoded data.
+	 * @param in the interleaved 16-bit PCM data.
+	 * @param out the buffer to write the IMA4 data to.
+	 * @param channels the amount of channels.
+	 * @return the amount of bytes written.
+	 * @throws IllegalArgumentException if channels is less than 1, or the output does not have room
+	 * for {@link #getIMA4Length(int, int)} bytes.
+	 */
+	public static int encodeIMA4(ByteBuffer in, ByteBuffer out, int channels)
+	{
+		if (channels < 1)
+			throw new IllegalArgumentException("Channels must be 1 or more.");
+
+		int frames = in.remaining() / (2 * channels);
+		int length = getIMA4Length(frames, channels);
+		int inPos = in.position();
+		int outPos = out.position();
+		if (out.limit() - outPos < length)
+			throw new IllegalArgumentException("Output buffer is too small. Needs "+length+" bytes.");
+
+		short[] block = new short[IMA4_BLOCK_FRAMES * channels];
+		int[] predictor = new int[channels];
+		int[] index = new int[channels];
+		int left = frames;
+		while (left > 0)
+		{
+			int n = Math.min(left, IMA4_BLOCK_FRAMES) * channels;
+			for (int i = 0; i < n; i++, inPos += 2)
+				block[i] = in.getShort(inPos);
+			// pad out a partial block with its last frame.
+			for (int i = n; i < block.length; i++)
+				block[i] = block[i - channels];
+			if (left == frames)
+				startIndex(block, index, channels);
+			outPos = encodeIMA4Block(block, predictor, index, channels, out, outPos);
+			left -= IMA4_BLOCK_FRAMES;
+		}
+
+		in.position(inPos);
+		out.position(outPos);
+		return length;
+	}
+
+	// Sets each channel's first step index to fit its first change, instead of ramping up from 0.
+	private static void startIndex(short[] block, int[] index, int channels)
+	{
+		for (int c = 0; c < channels; c++)
+		{
+			int diff = Math.abs(block[channels + c] - block[c]);
+			int i = 0;
+			while (i < IMA_MAX_INDEX && IMA_STEP_SIZE[i] < diff)
+				i++;
+			index[c] = i;
+		}
+	}
+
+	// Encodes one block of interleaved samples. Returns the new output position.
+	private static int encodeIMA4Block(short[] block, int[] predictor, int[] index, int channels, ByteBuffer out, int pos)
+	{
+		// headers: first sample as-is, then the step index (16-bit little-endian).
+		for (int c = 0; c < channels; c++)
+		{
+			predictor[c] = block[c];
+			out.put(pos++, (byte)predictor[c]);
+			out.put(pos++, (byte)(predictor[c] >> 8));
+			out.put(pos++, (byte)index[c]);
+			out.put(pos++, (byte)0);
+		}
+
+		// codes: 8 per channel per 32-bit little-endian word, first sample in the lowest bits.
+		for (int f = 1; f < IMA4_BLOCK_FRAMES; f += 8)
+		{
+			for (int c = 0; c < channels; c++)
+			{
+				int word = 0;
+				for (int k = 0; k < 8; k++)
+					word |= encodeIMA4Sample(block[(f + k) * channels + c], predictor, index, c) << (k * 4);
+				out.put(pos++, (byte)word);
+				out.put(pos++, (byte)(word >> 8));
+				out.put(pos++, (byte)(word >> 16));
+				out.put(pos++, (byte)(word >> 24));
+			}
+		}
+		return pos;
+	}
+
+	// Encodes one sample into a 4-bit code, and steps the channel's decoder state the way OpenAL will.
+	private static int encodeIMA4Sample(int sample, int[] predictor, int[] index, int c)
+	{
+		int step = IMA_STEP_SIZE[index[c]];
+		int diff = sample - predictor[c];
+		int code = 0;
+		if (diff < 0)
+		{
+			code = 8;
+			diff = -diff;
+		}
+
+		// OpenAL decodes a code of magnitude m as (2m + 1) * step / 8.
+		int magnitude = Math.min(((diff << 3) / step) >> 1, 7);
+		code |= magnitude;
+
+		int delta = (magnitude * 2 + 1) * step / 8;
+		int p = predictor[c] + ((code & 8) != 0 ? -delta : delta);
+		predictor[c] = Math.max(Short.MIN_VALUE, Math.min(p, Short.MAX_VALUE));
+		index[c] = Math.max(0, Math.min(index[c] + IMA_INDEX_ADJUST[magnitude], IMA_MAX_INDEX));
+		return code;
+	}
+
+}
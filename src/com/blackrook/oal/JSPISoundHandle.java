@@ -13,7 +13,11 @@ package com.blackrook.oal;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.sound.sampled.AudioFileFormat;
 import javax.sound.sampled.AudioFormat;
@@ -31,6 +35,11 @@ import com.blackrook.oal.exception.SoundException;
  */
 public class JSPISoundHandle
 {
+	/** Size of the scratch array used for reading into direct buffers. */
+	private static final int SCRATCH_SIZE = 16384;
+	/** Marks the end of read-ahead data. */
+	private static final ByteBuffer END_OF_DATA = ByteBuffer.allocate(0);
+	
 	/** Name of this data stream. */
 	private String dataName;
 	/** Audio file format. */
@@ -112,10 +121,21 @@ public class JSPISoundHandle
 	
 	/**
 	 * Returns a decoder class that can decode this data into PCM data.
+	 * Data is decoded to 8-bit unsigned or 16-bit signed samples.
 	 */
 	public Decoder getDecoder() throws IOException
 	{
-		return new Decoder();
+		return new Decoder(false);
+	}
+	
+	/**
+	 * Returns a decoder class that can decode this data into PCM data.
+	 * @param floatOutput if true, float data and integer data with more than 16 bits per sample
+	 * is decoded to 32-bit float samples instead of being reduced to 16-bit.
+	 */
+	public Decoder getDecoder(boolean floatOutput) throws IOException
+	{
+		return new Decoder(floatOutput);
 	}
 	
 	/**
@@ -136,6 +156,15 @@ public class JSPISoundHandle
 		return sb.toString();
 	}
 
+	/**
+	 * @return the audio file format specs of this handle's data.
+	 * @see AudioFileFormat
+	 */
+	public final AudioFileFormat getAudioFileFormat()
+	{
+		return audioFileFormat;
+	}
+
 	/**
 	 * @return the dataName
 	 */
@@ -144,6 +173,133 @@ public class JSPISoundHandle
 		return dataName;
 	}
 
+	/**
+	 * Maps the sample data of this handle straight from its file, if it is 
+	 * uncompressed WAV or AIFF data in a layout that OpenAL formats can take as-is: 
+	 * 8-bit unsigned, 16-bit signed in native byte order, or 32-bit float in native byte order, 
+	 * with 1, 2, 4, 6, 7 or 8 channels.
+	 * This skips the Java Sound decoding path entirely. Most of these layouts need an extension, 
+	 * so the caller still has to check that the format is supported, 
+	 * with {@link OALSystem#isFormatSupported(com.blackrook.oal.enums.SoundFormat)}.
+	 * @return a read-only buffer of the sample data, or null if this handle 
+	 * is not a file or its data can't be used as-is.
+	 * @throws IOException if the file can't be read.
+	 */
+	ByteBuffer mapPCMData() throws IOException
+	{
+		if (dataFile == null || !isLoadableAsIs(audioFileFormat.getFormat()))
+			return null;
+		
+		AudioFileFormat.Type type = audioFileFormat.getType();
+		boolean wave = AudioFileFormat.Type.WAVE.equals(type);
+		if (!wave && !AudioFileFormat.Type.AIFF.equals(type))
+			return null;
+		
+		ByteBuffer mapped;
+		FileChannel channel = null;
+		try {
+			channel = new RandomAccessFile(dataFile, "r").getChannel();
+			if (channel.size() > Integer.MAX_VALUE)
+				return null;
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			Common.close(channel);
+		}
+		
+		ByteBuffer out = wave ? findWAVEData(mapped) : findAIFFData(mapped);
+		if (out == null)
+			return null;
+		
+		// trim to whole frames.
+		int frameSize = audioFileFormat.getFormat().getFrameSize();
+		out.limit(out.limit() - (out.remaining() % frameSize));
+		return out;
+	}
+
+	// Checks if a format can be handed to OpenAL as-is.
+	private static boolean isLoadableAsIs(AudioFormat format)
+	{
+		switch (format.getChannels())
+		{
+			case 1:
+			case 2:
+			case 4:
+			case 6:
+			case 7:
+			case 8:
+				break;
+			default:
+				return false;
+		}
+		
+		boolean nativeOrder = format.isBigEndian() == (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+		switch (format.getSampleSizeInBits())
+		{
+			case 8:
+				return AudioFormat.Encoding.PCM_UNSIGNED.equals(format.getEncoding());
+			case 16:
+				return AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()) && nativeOrder;
+			case 32:
+				return AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding()) && nativeOrder;
+			default:
+				return false;
+		}
+	}
+	
+	// Finds the "data" chunk of a RIFF WAVE file. Returns null if not found.
+	private static ByteBuffer findWAVEData(ByteBuffer file)
+	{
+		file.order(ByteOrder.LITTLE_ENDIAN);
+		if (file.remaining() < 12 || file.getInt(0) != 0x46464952 || file.getInt(8) != 0x45564157) // "RIFF", "WAVE"
+			return null;
+		
+		long pos = 12;
+		while (pos + 8 <= file.limit())
+		{
+			int id = file.getInt((int)pos);
+			long size = file.getInt((int)pos + 4) & 0xFFFFFFFFL;
+			if (id == 0x61746164) // "data"
+				return slice(file, pos + 8, size);
+			pos += 8 + size + (size & 1);
+		}
+		return null;
+	}
+	
+	// Finds the "SSND" chunk of an AIFF file. Returns null if not found.
+	private static ByteBuffer findAIFFData(ByteBuffer file)
+	{
+		file.order(ByteOrder.BIG_ENDIAN);
+		if (file.remaining() < 12 || file.getInt(0) != 0x464F524D || file.getInt(8) != 0x41494646) // "FORM", "AIFF"
+			return null;
+		
+		long pos = 12;
+		while (pos + 8 <= file.limit())
+		{
+			int id = file.getInt((int)pos);
+			long size = file.getInt((int)pos + 4) & 0xFFFFFFFFL;
+			if (id == 0x53534E44) // "SSND"
+			{
+				if (size < 8)
+					return null;
+				long offset = file.getInt((int)pos + 8) & 0xFFFFFFFFL;
+				return slice(file, pos + 16 + offset, size - 8 - offset);
+			}
+			pos += 8 + size + (size & 1);
+		}
+		return null;
+	}
+	
+	// Slices a region of a buffer, clamped to its end. Returns null if out of bounds.
+	private static ByteBuffer slice(ByteBuffer file, long offset, long length)
+	{
+		if (offset > file.limit() || length < 0)
+			return null;
+		ByteBuffer out = file.duplicate();
+		out.position((int)offset);
+		out.limit((int)Math.min(file.limit(), offset + length));
+		return out.slice().order(ByteOrder.nativeOrder());
+	}
+
 	// Creates the stream for the decoder.
 	private AudioInputStream startStream() throws IOException
 	{
@@ -173,23 +329,66 @@ public class JSPISoundHandle
 		private AudioFormat decodedAudioFormat;
 		/** Audio input stream to decode to. */
 		private AudioInputStream decodedAudioStream;
+		/** Scratch array for reading into direct buffers. */
+		private byte[] scratch;
+		/** Read-ahead thread, if started. */
+		private ReadAheadThread readAhead;
+		/** Does this start over at the end of the data? */
+		private volatile boolean looping;
 		
-		Decoder() throws IOException
+		Decoder(boolean floatOutput) throws IOException
 		{
 			audioStream = startStream();
 			audioFormat = audioStream.getFormat();
+			
+			int bits = audioFormat.getSampleSizeInBits();
+			AudioFormat.Encoding encoding;
+			if (floatOutput && (bits > 16 || AudioFormat.Encoding.PCM_FLOAT.equals(audioFormat.getEncoding())))
+			{
+				encoding = AudioFormat.Encoding.PCM_FLOAT;
+				bits = 32;
+			}
+			else if (bits == 8)
+				encoding = AudioFormat.Encoding.PCM_UNSIGNED;
+			else
+			{
+				encoding = AudioFormat.Encoding.PCM_SIGNED;
+				bits = 16;
+			}
+			
 			decodedAudioFormat = new AudioFormat(
-				audioFormat.getSampleSizeInBits() == 8 ? AudioFormat.Encoding.PCM_UNSIGNED : AudioFormat.Encoding.PCM_SIGNED, 
+				encoding, 
 				audioFormat.getSampleRate(), 
-				audioFormat.getSampleSizeInBits() != AudioSystem.NOT_SPECIFIED ? audioFormat.getSampleSizeInBits() : 16, 
+				bits, 
 				audioFormat.getChannels(),
-				audioFormat.getChannels() * 2,
+				audioFormat.getChannels() * (bits / 8),
 				audioFormat.getSampleRate(),
 				ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN
 			);
 			decodedAudioStream = AudioSystem.getAudioInputStream(decodedAudioFormat, audioStream);
+			looping = false;
 		}
 		
+		/**
+		 * Sets whether this decoder starts over from the beginning of the data when it 
+		 * reaches the end, so that reads never run out (unless there is no data at all).
+		 * The data is reopened by whichever thread is decoding, so a started read-ahead 
+		 * thread keeps running, and keeps its chunks, across the loop.
+		 * @param looping true to loop, false to not.
+		 */
+		public void setLooping(boolean looping)
+		{
+			this.looping = looping;
+		}
+
+		/**
+		 * Returns true if this decoder starts over from the beginning of the data when it reaches the end.
+		 */
+		public boolean isLooping()
+		{
+			return looping;
+		}
+
 		/**
 		 * Reads a bunch of decoded bytes into the byte array.
 		 * @param b	the byte array.
@@ -198,14 +397,139 @@ public class JSPISoundHandle
 		 */
 		public int readPCMBytes(byte[] b) throws IOException
 		{
+			return readPCMBytes(b, 0, b.length);
+		}
+
+		/**
+		 * Reads a bunch of decoded bytes into a section of the byte array.
+		 * @param b	the byte array.
+		 * @param offset the starting offset into the array.
+		 * @param length the maximum amount of bytes to read.
+		 * @return how many bytes were written.
+		 * @throws IOException if the data can't be decompressed.
+		 */
+		public int readPCMBytes(byte[] b, int offset, int length) throws IOException
+		{
+			if (readAhead != null)
+				return readAhead.read(b, offset, length);
+			return readStream(b, offset, length);
+		}
+
+		/**
+		 * Reads a bunch of decoded bytes into a buffer, from its current position
+		 * up to its limit. The buffer's position is advanced past the bytes read.
+		 * Heap buffers are read into directly, and direct buffers through a scratch array
+		 * kept by this decoder.
+		 * @param b	the buffer.
+		 * @return how many bytes were written.
+		 * @throws IOException if the data can't be decompressed.
+		 */
+		public int readPCM(ByteBuffer b) throws IOException
+		{
+			if (b.hasArray())
+			{
+				int out = readPCMBytes(b.array(), b.arrayOffset() + b.position(), b.remaining());
+				b.position(b.position() + out);
+				return out;
+			}
+			
+			if (scratch == null)
+				scratch = new byte[SCRATCH_SIZE];
+			
+			int out = 0;
+			while (b.hasRemaining())
+			{
+				int want = wholeFrames(Math.min(scratch.length, b.remaining()));
+				if (want == 0)
+					break;
+				int l = readPCMBytes(scratch, 0, want);
+				b.put(scratch, 0, l);
+				out += l;
+				if (l < want)
+					break;
+			}
+			return out;
+		}
+
+		/**
+		 * Starts decoding ahead on a background thread, keeping up to a set amount
+		 * of decoded chunks ready in native-ordered direct buffers.
+		 * After this is called, all reads are served from the decoded chunks, and 
+		 * {@link #readChunk()} can be used to take whole chunks without copying them.
+		 * This does nothing if read-ahead was already started.
+		 * @param chunkSize the size of each chunk in bytes.
+		 * @param chunkCount the maximum amount of chunks decoded ahead.
+		 * @throws IllegalArgumentException if chunkSize or chunkCount is less than 1.
+		 */
+		public void startReadAhead(int chunkSize, int chunkCount)
+		{
+			if (chunkSize < 1)
+				throw new IllegalArgumentException("Chunk size must be greater than 0.");
+			if (chunkCount < 1)
+				throw new IllegalArgumentException("Chunk count must be greater than 0.");
+			if (readAhead != null)
+				return;
+			readAhead = new ReadAheadThread(chunkSize, chunkCount);
+			readAhead.start();
+		}
+
+		/**
+		 * Returns true if this decoder is reading ahead.
+		 */
+		public boolean isReadingAhead()
+		{
+			return readAhead != null;
+		}
+
+		/**
+		 * Takes the next whole decoded chunk, waiting for it to be decoded if necessary.
+		 * The chunk is a flipped, native-ordered direct buffer, ready to hand to 
+		 * {@link OALBuffer#loadPCMData(java.nio.Buffer, int)}, and must be given back 
+		 * via {@link #recycleChunk(ByteBuffer)} once it is no longer used.
+		 * Only the last chunk can be smaller than the chunk size.
+		 * @return the next chunk, or null if there is no more data.
+		 * @throws IOException if the data can't be decompressed.
+		 * @throws IllegalStateException if read-ahead was not started.
+		 */
+		public ByteBuffer readChunk() throws IOException
+		{
+			if (readAhead == null)
+				throw new IllegalStateException("Read-ahead was not started.");
+			return readAhead.takeChunk();
+		}
+
+		/**
+		 * Gives back a chunk taken via {@link #readChunk()}, so it can be decoded into again.
+		 * @param chunk the chunk.
+		 */
+		public void recycleChunk(ByteBuffer chunk)
+		{
+			if (readAhead != null)
+				readAhead.recycle(chunk);
+		}
+
+		// Reads decoded bytes straight from the stream.
+		private int readStream(byte[] b, int offset, int length) throws IOException
+		{
+			// the stream only reads whole frames, and reads nothing if asked for less.
+			length = wholeFrames(length);
 			int i = 0;
 			int buf = 0;
-			while (i != b.length)
+			boolean rewound = false;
+			while (i != length)
 			{
-				buf = decodedAudioStream.read(b, i, b.length-i);
+				buf = decodedAudioStream.read(b, offset + i, length - i);
 				if (buf != -1)
 				{
 					i += buf;
+					if (buf > 0)
+						rewound = false;
+				}
+				// start over once, but not again if nothing was read since.
+				else if (looping && !rewound)
+				{
+					rewind();
+					rewound = true;
 				}
 				else break;
 			}
@@ -213,6 +537,35 @@ public class JSPISoundHandle
 			return i;
 		}
 
+		// Reopens the streams at the beginning of the data.
+		private void rewind() throws IOException
+		{
+			Common.close(audioStream);
+			Common.close(decodedAudioStream);
+			audioStream = startStream();
+			decodedAudioStream = AudioSystem.getAudioInputStream(decodedAudioFormat, audioStream);
+		}
+
+		// Rounds a byte length down to whole frames of the decoded format.
+		private int wholeFrames(int length)
+		{
+			int frameSize = decodedAudioFormat.getFrameSize();
+			return frameSize > 0 ? length - length % frameSize : length;
+		}
+
+		/**
+		 * Returns the expected length of the decoded data in bytes, 
+		 * or -1 if the length of the underlying stream is not known.
+		 */
+		public long getDecodedLength()
+		{
+			long frames = decodedAudioStream.getFrameLength();
+			if (frames == AudioSystem.NOT_SPECIFIED)
+				return -1L;
+			int sampleBytes = (decodedAudioFormat.getSampleSizeInBits() + 7) / 8;
+			return frames * decodedAudioFormat.getChannels() * sampleBytes;
+		}
+
 		/**
 		 * @return the audio format specs.
 		 * @see AudioFormat
@@ -245,6 +598,8 @@ public class JSPISoundHandle
 		 */
 		public void close() throws IOException
 		{
+			if (readAhead != null)
+				readAhead.shutDown();
 			Common.close(audioStream);
 			Common.close(decodedAudioStream);
 		}
@@ -258,6 +613,147 @@ public class JSPISoundHandle
 			super.finalize();
 		}
 
+		/**
+		 * Background thread that decodes chunks ahead of the reader.
+		 */
+		private class ReadAheadThread extends Thread
+		{
+			/** Decoded chunks, in order. */
+			private BlockingQueue<ByteBuffer> ready;
+			/** Chunks free for decoding into. */
+			private BlockingQueue<ByteBuffer> free;
+			/** Chunk partially consumed by byte reads. */
+			private ByteBuffer current;
+			/** Decoding error, if any. */
+			private volatile IOException error;
+			/** Has the end of the data been taken? */
+			private boolean ended;
+			/** Is this thread running? */
+			private volatile boolean running;
+
+			ReadAheadThread(int chunkSize, int chunkCount)
+			{
+				super("JSPISoundHandle-ReadAhead-" + dataName);
+				setDaemon(true);
+				this.ready = new ArrayBlockingQueue<ByteBuffer>(chunkCount + 1);
+				this.free = new ArrayBlockingQueue<ByteBuffer>(chunkCount);
+				for (int i = 0; i < chunkCount; i++)
+					free.add(ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.nativeOrder()));
+				this.current = null;
+				this.error = null;
+				this.ended = false;
+				this.running = true;
+			}
+
+			@Override
+			public void run()
+			{
+				byte[] b = new byte[Math.min(SCRATCH_SIZE, free.peek().capacity())];
+				try {
+					while (running)
+					{
+						ByteBuffer chunk = free.take();
+						chunk.clear();
+						int l;
+						do {
+							l = readStream(b, 0, Math.min(b.length, chunk.remaining()));
+							chunk.put(b, 0, l);
+						} while (l > 0 && chunk.hasRemaining());
+						chunk.flip();
+						
+						boolean last = chunk.limit() < chunk.capacity();
+						if (chunk.hasRemaining())
+							ready.put(chunk);
+						else
+							free.put(chunk);
+						if (last)
+							running = false;
+					}
+				} catch (InterruptedException e) {
+					// closed.
+				} catch (IOException e) {
+					error = e;
+				} catch (Throwable t) {
+					error = new IOException("Couldn't decode " + dataName + ".", t);
+				} finally {
+					// always room: there is one more place than there are chunks.
+					ready.offer(END_OF_DATA);
+				}
+			}
+
+			// Takes the next chunk, or null at the end.
+			ByteBuffer takeChunk() throws IOException
+			{
+				if (current != null)
+				{
+					ByteBuffer out = current;
+					current = null;
+					return out;
+				}
+				if (ended)
+					return null;
+				try {
+					ByteBuffer out = ready.take();
+					if (out == END_OF_DATA)
+					{
+						ended = true;
+						if (error != null)
+							throw error;
+						return null;
+					}
+					return out;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for decoded data.");
+				}
+			}
+
+			// Gives back a chunk.
+			void recycle(ByteBuffer chunk)
+			{
+				if (chunk != END_OF_DATA)
+					free.offer(chunk);
+			}
+
+			// Reads bytes out of the decoded chunks.
+			int read(byte[] b, int offset, int length) throws IOException
+			{
+				int out = 0;
+				while (out < length)
+				{
+					if (current == null || !current.hasRemaining())
+					{
+						if (current != null)
+							recycle(current);
+						current = null;
+						ByteBuffer next = takeChunk();
+						if (next == null)
+							break;
+						current = next;
+					}
+					int l = Math.min(length - out, current.remaining());
+					current.get(b, offset + out, l);
+					out += l;
+				}
+				return out;
+			}
+
+			// Stops decoding and waits for the thread to end.
+			void shutDown()
+			{
+				running = false;
+				interrupt();
+				if (this != Thread.currentThread())
+				{
+					try {
+						join();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		}
+
 	}
 	
 }
@@ -35,6 +35,11 @@ public final class OALBuffer extends OALObject
 	public static final int FREQ_44KHZ = 44100;
 	public static final int FREQ_48KHZ = 48000;
 	
+	/** Initial load buffer size when the decoded length is not known. */
+	private static final int LOAD_INITIAL_SIZE = 1024 * 256;
+	/** Size of chunks read from decoders. */
+	private static final int LOAD_CHUNK_SIZE = 16384;
+	
 	/** The sizes of each of the buffers. */
 	protected int bufferSize;
 	/** Sound format. */
@@ -61,10 +66,39 @@ public final class OALBuffer extends OALObject
 	 * @throws IOException if a handle Decoder cannot be opened. 
 	 */
 	OALBuffer(OALSystem system, JSPISoundHandle handle) throws IOException
+	{
+		this(system, handle, false);
+	}
+	
+	/**
+	 * Constructs a new sound buffer with an entire buffer filled with data, decoded,
+	 * and compressed to IMA4 ADPCM if requested and possible.
+	 * @param handle the data to use.
+	 * @param compress if true, 16-bit mono or stereo data is compressed if the system supports IMA4.
+	 * @throws IOException if a handle Decoder cannot be opened. 
+	 */
+	OALBuffer(OALSystem system, JSPISoundHandle handle, boolean compress) throws IOException
 	{
 		this(system);
-		Decoder decoder = handle.getDecoder();
-		loadFromDecoder(decoder);
+		
+		// uncompressed files are mapped and loaded as-is.
+		AudioFormat format = handle.getAudioFileFormat().getFormat();
+		ByteBuffer mapped = handle.mapPCMData();
+		if (mapped != null && system.isFormatSupported(getSoundFormat(format)))
+		{
+			SoundFormat compressed = compress ? getCompressedFormat(system, format) : null;
+			if (compressed != null)
+				loadCompressed(mapped, format, compressed);
+			else
+			{
+				setFrequencyAndFormat(format);
+				loadPCMData(mapped, mapped.remaining());
+			}
+			return;
+		}
+		
+		Decoder decoder = handle.getDecoder(!compress && system.isFloatFormatSupported());
+		loadFromDecoder(decoder, compress);
 		Common.close(decoder);
 	}
 	
@@ -75,23 +109,144 @@ public final class OALBuffer extends OALObject
 	 */
 	OALBuffer(OALSystem system, JSPISoundHandle.Decoder decoder) throws IOException
 	{
-		super(system);
-		loadFromDecoder(decoder);
+		this(system, decoder, false);
+	}
+
+	/**
+	 * Constructs a new sound buffer with an entire buffer filled with a decoder's 
+	 * contents, compressed to IMA4 ADPCM if requested and possible.
+	 * @param decoder the decoder to use.
+	 * @param compress if true, 16-bit mono or stereo data is compressed if the system supports IMA4.
+	 */
+	OALBuffer(OALSystem system, JSPISoundHandle.Decoder decoder, boolean compress) throws IOException
+	{
+		this(system);
+		loadFromDecoder(decoder, compress);
 	}
 
-	private void loadFromDecoder(JSPISoundHandle.Decoder decoder) throws IOException
+	/**
+	 * Decodes all of a decoder's data into one direct buffer and loads it.
+	 */
+	private void loadFromDecoder(JSPISoundHandle.Decoder decoder, boolean compress) throws IOException
 	{
 		AudioFormat df = decoder.getDecodedAudioFormat();
-		setFrequencyAndFormat(df);
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		byte[] by = new byte[16384];
-		int l = 0;
-		do {
-			l = decoder.readPCMBytes(by);
-			bos.write(by, 0, l);
-		} while (l == by.length);
+		SoundFormat compressed = compress ? getCompressedFormat(system, df) : null;
+		if (compressed == null)
+			setFrequencyAndFormat(df);
+		
+		ByteBuffer data = decodeAll(system, decoder);
+		try {
+			if (compressed != null)
+				loadCompressed(data, df, compressed);
+			else
+				loadPCMData(data, data.limit());
+		} finally {
+			system.releaseLoadBuffer(data);
+		}
+	}
+
+	/**
+	 * Encodes 16-bit PCM data to IMA4 and loads it. 
+	 * Writable data is encoded in place if the encoded data fits in it, 
+	 * otherwise it is encoded into a borrowed load buffer.
+	 */
+	private void loadCompressed(ByteBuffer data, AudioFormat format, SoundFormat compressed)
+	{
+		setSamplingRate((int)format.getSampleRate());
+		setFormat(compressed);
+		
+		int frames = data.remaining() / (compressed.channels * 2);
+		int encodedLength = ADPCMEncoder.getIMA4Length(frames, compressed.channels);
+		// a whole block is bigger than sounds shorter than 18 frames.
+		ByteBuffer out = data;
+		if (data.isReadOnly() || encodedLength > data.remaining())
+			out = system.acquireLoadBuffer(encodedLength);
+		
+		try {
+			int start = out.position();
+			int length = ADPCMEncoder.encodeIMA4(data, out, compressed.channels);
+			out.position(start);
+			loadPCMData(out, length);
+		} finally {
+			if (out != data)
+				system.releaseLoadBuffer(out);
+		}
+	}
 
-		loadPCMData(ByteBuffer.wrap(bos.toByteArray()));
+	/**
+	 * Returns the IMA4 format that 16-bit PCM data of an audio format
+	 * can be compressed to, or null if it can't be, or the system does not support it.
+	 */
+	static SoundFormat getCompressedFormat(OALSystem system, AudioFormat format)
+	{
+		if (format.getSampleSizeInBits() != 16 || !AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()))
+			return null;
+		
+		SoundFormat out;
+		switch (format.getChannels())
+		{
+			case 1:
+				out = SoundFormat.MONO_IMA4;
+				break;
+			case 2:
+				out = SoundFormat.STEREO_IMA4;
+				break;
+			default:
+				return null;
+		}
+		return system.isFormatSupported(out) ? out : null;
+	}
+
+	/**
+	 * Decodes all of a decoder's data into one direct buffer.
+	 * The direct buffer is sized from the decoded length if it is known, 
+	 * and is borrowed from the system so that it is reused across loads.
+	 * This does not make any OpenAL calls, so it is safe to call from any thread.
+	 * @param system the system to borrow the buffer from.
+	 * @param decoder the decoder to read.
+	 * @return the flipped buffer with the decoded data. It should be returned
+	 * via {@link OALSystem#releaseLoadBuffer(ByteBuffer)} once it is no longer used.
+	 * @throws IOException if the data can't be decoded.
+	 */
+	static ByteBuffer decodeAll(OALSystem system, JSPISoundHandle.Decoder decoder) throws IOException
+	{
+		boolean trace = system.isTracing();
+		long start = trace ? System.nanoTime() : 0L;
+		long length = decoder.getDecodedLength();
+		int capacity = length >= 0 && length <= Integer.MAX_VALUE ? (int)length : LOAD_INITIAL_SIZE;
+		ByteBuffer data = system.acquireLoadBuffer(capacity);
+		try {
+			byte[] by = new byte[LOAD_CHUNK_SIZE];
+			int l = 0;
+			do {
+				l = decoder.readPCMBytes(by);
+				if (data.remaining() < l)
+					data = growLoadBuffer(system, data, l);
+				data.put(by, 0, l);
+			} while (l > 0); // reads can be short of the array on formats with odd frame sizes.
+		} catch (IOException | RuntimeException e) {
+			system.releaseLoadBuffer(data);
+			throw e;
+		}
+		data.flip();
+		if (trace)
+			system.traceBufferDecoded(decoder.getDecodedAudioFormat(), data.limit(), System.nanoTime() - start);
+		return data;
+	}
+
+	/**
+	 * Replaces a load buffer with one at least twice as large, 
+	 * with the contents of the old one.
+	 */
+	private static ByteBuffer growLoadBuffer(OALSystem system, ByteBuffer data, int needed)
+	{
+		long capacity = Math.max((long)data.capacity() * 2, (long)data.position() + needed);
+		if (capacity > Integer.MAX_VALUE)
+			throw new SoundException("Decoded data is too large for one buffer.");
+		ByteBuffer out = system.acquireLoadBuffer((int)capacity);
+		data.flip();
+		out.put(data);
+		return out;
 	}
 	
 	/**
@@ -102,15 +257,18 @@ public final class OALBuffer extends OALObject
 	public void setFrequencyAndFormat(AudioFormat format)
 	{
 		setSamplingRate((int)format.getSampleRate());
-		setFormatByChannelsAndBits(format.getChannels(), format.getSampleSizeInBits());
+		setFormatByChannelsAndBits(format.getChannels(), format.getSampleSizeInBits(), 
+			AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding()));
 	}
 	
 	protected final int allocate()
 	{
 		int[] STATE_NUMBER = new int[1];
-		al.alGetError();
-		al.alGenBuffers(1, STATE_NUMBER, 0);
-		errorCheck();
+		if (system.takeReservedName(OALSystem.NAME_BUFFER, STATE_NUMBER))
+			return STATE_NUMBER[0];
+		prepareAllocation();
+		backend.alGenBuffers(1, STATE_NUMBER, 0);
+		allocationCheck(STATE_NUMBER[0]);
 		return STATE_NUMBER[0];
 	}
 	
@@ -119,7 +277,7 @@ public final class OALBuffer extends OALObject
 	{
 		int[] STATE_NUMBER = new int[1];
 		STATE_NUMBER[0] = getALId();
-		al.alDeleteBuffers(1, STATE_NUMBER, 0);
+		backend.alDeleteBuffers(1, STATE_NUMBER, 0);
 		errorCheck();
 	}
 
@@ -130,9 +288,14 @@ public final class OALBuffer extends OALObject
 	 */
 	public synchronized void loadPCMData(Buffer pcmData, int len)
 	{
+		system.countBufferBytes(len - bufferSize);
 		bufferSize = len;
 		clearError();
-		al.alBufferData(getALId(), bufferFormat.alVal, pcmData, len, bufferRate);
+		boolean trace = system.isTracing();
+		long start = trace ? System.nanoTime() : 0L;
+		backend.alBufferData(getALId(), bufferFormat.alVal, pcmData, len, bufferRate);
+		if (trace)
+			system.traceBufferUploaded(this, len, System.nanoTime() - start);
 		errorCheck();
 	}
 
@@ -151,13 +314,29 @@ public final class OALBuffer extends OALObject
 		return bufferSize;
 	}
 
+	/** 
+	 * Get the play duration of the data in this buffer in seconds,
+	 * calculated from its size, format and sampling rate. 
+	 */
+	public float getDuration()
+	{
+		if (bufferRate == 0)
+			return 0f;
+		return (float)(bufferSize / bufferFormat.blockSize * bufferFormat.blockFrames) / bufferRate;
+	}
+
 	/**
 	 * Sets this buffer's bitrate format.
 	 * @param format This buffer's format.
 	 * @throws IllegalArgumentException if this is not set using a valid constant.
+	 * @throws SoundException if the format needs an OpenAL extension that is not present.
 	 */
 	public void setFormat(SoundFormat format)
 	{
+		if (format == null)
+			throw new IllegalArgumentException("Format cannot be null.");
+		if (!system.isFormatSupported(format))
+			throw new SoundException("Format " + format + " needs the " + format.extension + " extension, which is not present.");
 		bufferFormat = format;
 	}
 	
@@ -191,37 +370,38 @@ public final class OALBuffer extends OALObject
 	 * @param channels amount of channels.
 	 * @param bits bit per sample.
 	 * @throws IllegalArgumentException if the combination of channels and bits create an unsupported format.
+	 * @throws SoundException if the format needs an OpenAL extension that is not present.
 	 */
 	public void setFormatByChannelsAndBits(int channels, int bits)
 	{
-		switch(channels)
-		{
-			case 1:
-				switch (bits)
-				{
-					case 8:
-						setFormat(SoundFormat.MONO8);
-						return;
-					case 16:
-						setFormat(SoundFormat.MONO16);
-						return;
-				}
-				break;
-				
-			case 2:
-				switch (bits)
-				{
-					case 8:
-						setFormat(SoundFormat.STEREO8);
-						return;
-					case 16:
-						setFormat(SoundFormat.STEREO16);
-						return;
-				}
-				break;
-		}
-		throw new IllegalArgumentException(
-				"Unsupported set of channels and bytes. "+channels+" channels, "+bits+"-bits.");
+		setFormatByChannelsAndBits(channels, bits, false);
+	}
+
+	/**
+	 * Sets format by channels, bits and sample type.
+	 * @param channels amount of channels.
+	 * @param bits bit per sample.
+	 * @param floating if true, samples are floating-point.
+	 * @throws IllegalArgumentException if the combination of channels and bits create an unsupported format.
+	 * @throws SoundException if the format needs an OpenAL extension that is not present.
+	 */
+	public void setFormatByChannelsAndBits(int channels, int bits, boolean floating)
+	{
+		SoundFormat format = SoundFormat.get(channels, bits, floating);
+		if (format == null)
+			throw new IllegalArgumentException(
+				"Unsupported set of channels and bytes. "+channels+" channels, "+bits+"-bits"+(floating ? " float." : "."));
+		setFormat(format);
+	}
+
+	/**
+	 * Returns the sound format that matches an audio format, or null if there isn't one.
+	 * This does not check if the format is supported.
+	 */
+	static SoundFormat getSoundFormat(AudioFormat format)
+	{
+		return SoundFormat.get(format.getChannels(), format.getSampleSizeInBits(), 
+			AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding()));
 	}
 
 	@Override
@@ -230,20 +410,34 @@ public final class OALBuffer extends OALObject
 		StringBuilder sb = new StringBuilder();
 		sb.append("Buffer ");
 		sb.append(getALId()+" ");
-		switch (getFormat())
+		switch (getFormat().channels)
 		{
-			case MONO8:
-				sb.append("Mono 8-bit");
+			case 1:
+				sb.append("Mono ");
 				break;
-			case MONO16:
-				sb.append("Mono 16-bit");
+			case 2:
+				sb.append("Stereo ");
 				break;
-			case STEREO8:
-				sb.append("Stereo 8-bit");
+			case 4:
+				sb.append("Quad ");
 				break;
-			case STEREO16:
-				sb.append("Stereo 16-bit");
+			case 6:
+				sb.append("5.1 ");
 				break;
+			case 7:
+				sb.append("6.1 ");
+				break;
+			case 8:
+				sb.append("7.1 ");
+				break;
+		}
+		if (getFormat().isCompressed())
+			sb.append(getFormat().extension.equals(SoundFormat.EXT_IMA4) ? "IMA4" : "MSADPCM");
+		else
+		{
+			sb.append(getFormat().bits).append("-bit");
+			if (getFormat().floating)
+				sb.append(" float");
 		}
 		sb.append(' ');
 		sb.append(getFrequency()+"Hz ");
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of buffers keyed by sound data name, so that sounds used by many
+ * sources are decoded and stored only once.
+ * <p>
+ * Buffers are reference counted: each {@link #acquire(JSPISoundHandle)} must be paired
+ * with a {@link #release(JSPISoundHandle)} once no source is bound to the buffer anymore.
+ * Unreferenced buffers stay cached until the total size of all cached buffers goes
+ * over the byte budget, at which point the least-recently-used unreferenced
+ * buffers are destroyed until it fits again. Referenced buffers are never evicted,
+ * so the cache can go over budget if everything in it is in use.
+ * @author Matthew Tropiano
+ */
+public class OALBufferCache
+{
+	/** Owning system. */
+	private OALSystem system;
+	/** Entries by name, in least-recently-used order. */
+	private LinkedHashMap<String, Entry> entries;
+	/** Byte budget. */
+	private long byteBudget;
+	/** Total bytes of all cached buffers. */
+	private long totalBytes;
+
+	/**
+	 * Creates a new buffer cache.
+	 * @param system the owning system.
+	 * @param byteBudget the maximum total size of cached buffers in bytes.
+	 */
+	OALBufferCache(OALSystem system, long byteBudget)
+	{
+		this.system = system;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+		this.byteBudget = byteBudget;
+		this.totalBytes = 0L;
+	}
+
+	/**
+	 * Gets the buffer for a sound, loading it if it isn't cached, and adds a reference to it.
+	 * Sounds are keyed by {@link JSPISoundHandle#getDataName()}.
+	 * @param handle the handle to the sound data.
+	 * @return the shared buffer.
+	 * @throws IOException if the sound data could not be read.
+	 */
+	public synchronized OALBuffer acquire(JSPISoundHandle handle) throws IOException
+	{
+		String name = handle.getDataName();
+		Entry entry = entries.get(name);
+		if (entry == null)
+		{
+			entry = new Entry(system.createBuffer(handle));
+			entries.put(name, entry);
+			totalBytes += entry.size;
+		}
+		entry.references++;
+		evict();
+		return entry.buffer;
+	}
+
+	/**
+	 * Removes a reference to a sound's buffer.
+	 * The buffer stays cached until it is evicted.
+	 * @param handle the handle to the sound data.
+	 * @return true if the buffer was cached and referenced, false otherwise.
+	 */
+	public boolean release(JSPISoundHandle handle)
+	{
+		return release(handle.getDataName());
+	}
+
+	/**
+	 * Removes a reference to a sound's buffer.
+	 * The buffer stays cached until it is evicted.
+	 * @param name the data name of the sound.
+	 * @return true if the buffer was cached and referenced, false otherwise.
+	 */
+	public synchronized boolean release(String name)
+	{
+		Entry entry = entries.get(name);
+		if (entry == null || entry.references == 0)
+			return false;
+		entry.references--;
+		evict();
+		return true;
+	}
+
+	/**
+	 * Checks if a sound's buffer is cached.
+	 * This does not count as a use for eviction order.
+	 * @param name the data name of the sound.
+	 */
+	public synchronized boolean contains(String name)
+	{
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * Returns the amount of references to a sound's buffer, or 0 if it is not cached.
+	 * @param name the data name of the sound.
+	 */
+	public synchronized int getReferenceCount(String name)
+	{
+		Entry entry = entries.get(name);
+		return entry != null ? entry.references : 0;
+	}
+
+	/**
+	 * Returns the amount of cached buffers.
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Returns the total size of all cached buffers in bytes.
+	 */
+	public synchronized long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	/**
+	 * Returns the maximum total size of cached buffers in bytes.
+	 */
+	public synchronized long getByteBudget()
+	{
+		return byteBudget;
+	}
+
+	/**
+	 * Sets the maximum total size of cached buffers in bytes,
+	 * and evicts unreferenced buffers until it is met.
+	 * @param byteBudget the new budget.
+	 */
+	public synchronized void setByteBudget(long byteBudget)
+	{
+		this.byteBudget = byteBudget;
+		evict();
+	}
+
+	/**
+	 * Destroys all unreferenced buffers, regardless of budget.
+	 */
+	public synchronized void trim()
+	{
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext())
+		{
+			Entry entry = it.next();
+			if (entry.references == 0)
+			{
+				it.remove();
+				remove(entry);
+			}
+		}
+	}
+
+	// Destroys least-recently-used unreferenced buffers until the budget is met.
+	private void evict()
+	{
+		Iterator<Entry> it = entries.values().iterator();
+		while (totalBytes > byteBudget && it.hasNext())
+		{
+			Entry entry = it.next();
+			if (entry.references == 0)
+			{
+				it.remove();
+				remove(entry);
+			}
+		}
+	}
+
+	// Destroys an evicted entry's buffer.
+	private void remove(Entry entry)
+	{
+		totalBytes -= entry.size;
+		entry.buffer.destroy();
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("BufferCache ");
+		sb.append(entries.size()).append(" buffers, ");
+		sb.append(totalBytes).append('/').append(byteBudget).append(" bytes");
+		return sb.toString();
+	}
+
+	/**
+	 * A single cached buffer.
+	 */
+	private static class Entry
+	{
+		/** The buffer. */
+		private OALBuffer buffer;
+		/** Size when cached. */
+		private long size;
+		/** Reference count. */
+		private int references;
+
+		Entry(OALBuffer buffer)
+		{
+			this.buffer = buffer;
+			this.size = buffer.getSize();
+			this.references = 0;
+		}
+	}
+
+}
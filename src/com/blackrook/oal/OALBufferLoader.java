@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sound.sampled.AudioFormat;
+
+import com.blackrook.commons.Common;
+import com.blackrook.oal.exception.SoundException;
+
+/**
+ * Loads buffers asynchronously.
+ * <p>
+ * Sound data is decoded on a pool of worker threads, since decoding is CPU-bound
+ * and independent per sound. Only the final upload into a new buffer is done
+ * on the thread that owns OpenAL: if the system's {@link OALCommandThread} is running,
+ * uploads are posted to it, otherwise they wait until {@link #processUploads()} or
+ * {@link #waitFor(Future)} is called by the owning thread.
+ * <p>
+ * Do not call {@link Future#get()} on the owning thread unless the command thread
+ * is running - the upload would never happen. Use {@link #waitFor(Future)} instead.
+ * @author Matthew Tropiano
+ */
+public class OALBufferLoader
+{
+	/** Next loader thread id. */
+	private static final AtomicInteger loaderThreadId = new AtomicInteger(0);
+
+	/** Owning system. */
+	private OALSystem system;
+	/** Decoding executor. */
+	private ExecutorService executor;
+	/** Does this loader shut down its executor? */
+	private boolean ownsExecutor;
+	/** Uploads waiting for the owning thread. */
+	private BlockingQueue<Runnable> uploads;
+	/** Loads not yet done, queued, decoding or waiting to upload. */
+	private Set<LoadJob> pending;
+	/** Has this loader been shut down? */
+	private volatile boolean shutDown;
+
+	/**
+	 * Creates a new buffer loader.
+	 * @param system the owning system.
+	 * @param executor the executor to decode on.
+	 * @param ownsExecutor if true, the executor is shut down with this loader.
+	 */
+	OALBufferLoader(OALSystem system, ExecutorService executor, boolean ownsExecutor)
+	{
+		this.system = system;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.uploads = new LinkedBlockingQueue<Runnable>();
+		this.pending = Collections.newSetFromMap(new ConcurrentHashMap<LoadJob, Boolean>());
+		this.shutDown = false;
+	}
+
+	/**
+	 * Creates a new buffer loader with its own pool of daemon worker threads.
+	 * @param system the owning system.
+	 * @param threads the amount of worker threads.
+	 * @throws IllegalArgumentException if threads is less than 1.
+	 */
+	OALBufferLoader(OALSystem system, int threads)
+	{
+		this(system, Executors.newFixedThreadPool(threads, new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread out = new Thread(r, "OALBufferLoader-" + loaderThreadId.getAndIncrement());
+				out.setDaemon(true);
+				return out;
+			}
+		}), true);
+	}
+
+	/**
+	 * Decodes a sound on a worker thread and uploads it into a new buffer.
+	 * @param handle the handle to the sound data to load.
+	 * @return a future for the new buffer. If decoding fails, it completes with the
+	 * decoding exception as its cause. If this loader is shut down first, it is cancelled.
+	 */
+	public Future<OALBuffer> load(JSPISoundHandle handle)
+	{
+		LoadJob job = new LoadJob(handle);
+		pending.add(job);
+		// checked after adding, so that a concurrent shutDown() can't miss it.
+		if (shutDown)
+			job.upload.cancel(false);
+		else
+			executor.execute(job);
+		return job.upload;
+	}
+
+	/**
+	 * Decodes many sounds on worker threads and uploads them into new buffers.
+	 * @param handles the handles to the sound data to load.
+	 * @return the futures for the new buffers, in the same order as the handles.
+	 */
+	@SuppressWarnings("unchecked")
+	public Future<OALBuffer>[] loadAll(JSPISoundHandle ... handles)
+	{
+		Future<OALBuffer>[] out = (Future<OALBuffer>[])new Future<?>[handles.length];
+		for (int i = 0; i < handles.length; i++)
+			out[i] = load(handles[i]);
+		return out;
+	}
+
+	/**
+	 * Runs all of the uploads waiting for the owning thread.
+	 * This should be called from the thread that owns OpenAL, usually once per frame.
+	 * @return the amount of uploads run.
+	 */
+	public int processUploads()
+	{
+		int out = 0;
+		Runnable r;
+		while ((r = uploads.poll()) != null)
+		{
+			r.run();
+			out++;
+		}
+		return out;
+	}
+
+	/**
+	 * Waits for a buffer to finish loading, running waiting uploads in the meantime.
+	 * This should be called from the thread that owns OpenAL.
+	 * @param future a future returned by this loader.
+	 * @return the loaded buffer.
+	 * @throws IOException if the sound data could not be decoded.
+	 * @throws SoundException if the wait was interrupted or cancelled, or the upload failed.
+	 */
+	public OALBuffer waitFor(Future<OALBuffer> future) throws IOException
+	{
+		try {
+			while (!future.isDone())
+			{
+				Runnable r = uploads.poll(1L, TimeUnit.MILLISECONDS);
+				if (r != null)
+					r.run();
+			}
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SoundException("Interrupted while waiting for a buffer to load.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException)cause;
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			else if (cause instanceof Error)
+				throw (Error)cause;
+			throw new SoundException("Buffer could not be loaded.", cause);
+		} catch (CancellationException e) {
+			throw new SoundException("Buffer load was cancelled.", e);
+		}
+	}
+
+	/**
+	 * Shuts down this loader. Every load that is not done yet, whether it is waiting to be decoded
+	 * or waiting to be uploaded, is cancelled, so threads waiting on them are released.
+	 * If this loader created its own worker threads, they are stopped.
+	 */
+	public void shutDown()
+	{
+		shutDown = true;
+		for (LoadJob job : pending)
+			job.upload.cancel(false);
+		pending.clear();
+		if (ownsExecutor)
+			executor.shutdownNow();
+		uploads.clear();
+		system.removeBufferLoader(this);
+	}
+
+	// Hands an upload to the owning thread.
+	private void postUpload(Runnable upload)
+	{
+		OALCommandThread commandThread = system.getCommandThread();
+		if (commandThread != null)
+			commandThread.invoke(upload);
+		else
+			uploads.add(upload);
+	}
+
+	/**
+	 * A single load: decoded on a worker thread, then uploaded on the owning thread.
+	 */
+	private class LoadJob implements Runnable, Callable<OALBuffer>
+	{
+		/** Handle to load. */
+		private JSPISoundHandle handle;
+		/** Decoded format. */
+		private AudioFormat format;
+		/** Decoded data. */
+		private ByteBuffer data;
+		/** Is the data mapped from a file instead of decoded? */
+		private boolean mapped;
+		/** Decoding error, if any. */
+		private Throwable error;
+		/** Upload task, also the future handed back. */
+		private FutureTask<OALBuffer> upload;
+
+		LoadJob(JSPISoundHandle handle)
+		{
+			this.handle = handle;
+			this.format = null;
+			this.data = null;
+			this.mapped = false;
+			this.error = null;
+			this.upload = new FutureTask<OALBuffer>(this)
+			{
+				@Override
+				protected void done()
+				{
+					pending.remove(LoadJob.this);
+				}
+			};
+		}
+
+		// Decodes on a worker thread.
+		@Override
+		public void run()
+		{
+			if (upload.isCancelled())
+				return;
+
+			JSPISoundHandle.Decoder decoder = null;
+			try {
+				// uncompressed files are mapped and loaded as-is.
+				data = handle.mapPCMData();
+				if (data != null && system.isFormatSupported(OALBuffer.getSoundFormat(handle.getAudioFileFormat().getFormat())))
+				{
+					mapped = true;
+					format = handle.getAudioFileFormat().getFormat();
+				}
+				else
+				{
+					decoder = handle.getDecoder(system.isFloatFormatSupported());
+					format = decoder.getDecodedAudioFormat();
+					data = OALBuffer.decodeAll(system, decoder);
+				}
+			} catch (Throwable t) {
+				error = t;
+			} finally {
+				if (decoder != null)
+					Common.close(decoder);
+			}
+			if (upload.isCancelled())
+			{
+				if (data != null && !mapped)
+					system.releaseLoadBuffer(data);
+				data = null;
+				return;
+			}
+			postUpload(upload);
+		}
+
+		// Uploads on the owning thread.
+		@Override
+		public OALBuffer call() throws Exception
+		{
+			if (error instanceof Exception)
+				throw (Exception)error;
+			else if (error instanceof Error)
+				throw (Error)error;
+
+			OALBuffer out = null;
+			try {
+				out = system.createBuffer();
+				out.setFrequencyAndFormat(format);
+				out.loadPCMData(data, data.limit());
+				return out;
+			} catch (RuntimeException e) {
+				if (out != null)
+					out.destroy();
+				throw e;
+			} finally {
+				if (!mapped)
+					system.releaseLoadBuffer(data);
+				data = null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,602 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single thread that owns all OpenAL calls made through it.
+ * <p>
+ * Any number of threads may post commands to this thread. Commands are written into
+ * a fixed ring of pre-allocated command cells using a lock-free claim-and-publish scheme,
+ * so posting a command never allocates, never takes a lock, and never waits on a native call.
+ * The only time a posting thread waits is if the ring is completely full, in which case it
+ * yields until the audio thread frees a cell - size the ring for your peak command rate.
+ * <p>
+ * Commands are executed in the order that they were claimed.
+ * Commands posted from the command thread itself (for instance, from an invoked Runnable) are
+ * executed immediately.
+ * @author Matthew Tropiano
+ */
+public final class OALCommandThread extends Thread
+{
+	/** Default command ring capacity. */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private static final int CMD_RUNNABLE = 0;
+	private static final int CMD_SOURCE_PLAY = 1;
+	private static final int CMD_SOURCE_PAUSE = 2;
+	private static final int CMD_SOURCE_STOP = 3;
+	private static final int CMD_SOURCE_REWIND = 4;
+	private static final int CMD_SOURCE_GAIN = 5;
+	private static final int CMD_SOURCE_PITCH = 6;
+	private static final int CMD_SOURCE_POSITION = 7;
+	private static final int CMD_SOURCE_VELOCITY = 8;
+	private static final int CMD_SOURCE_DIRECTION = 9;
+	private static final int CMD_SOURCE_LOOPING = 10;
+	private static final int CMD_SOURCE_BUFFER = 11;
+	private static final int CMD_SOURCE_ENQUEUE = 12;
+	private static final int CMD_SOURCE_DEQUEUE = 13;
+	private static final int CMD_LISTENER_POSITION = 14;
+	private static final int CMD_LISTENER_VELOCITY = 15;
+	private static final int CMD_LISTENER_FACING = 16;
+	private static final int CMD_LISTENER_TOP = 17;
+	private static final int CMD_LISTENER_GAIN = 18;
+
+	/** Time to park when idle, in nanoseconds. */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	/** Empty polls before parking. */
+	private static final int IDLE_SPINS = 64;
+	/** Enqueue position once the thread has ended, so that no more cells can be claimed. */
+	private static final long CLOSED = Long.MIN_VALUE;
+
+	/** Next thread id. */
+	private static int threadId = 0;
+
+	/** Owning system. */
+	private OALSystem system;
+
+	/** Command cells. */
+	private final Command[] cells;
+	/** Cell sequence numbers. */
+	private final AtomicLongArray sequences;
+	/** Cell index mask. */
+	private final int mask;
+	/** Next position to claim (producers). */
+	private final AtomicLong enqueuePosition;
+	/** Next position to execute (command thread only). */
+	private long dequeuePosition;
+
+	/** Is this thread running? Once not, it runs what is left in the ring and closes it. */
+	private volatile boolean running;
+	/** Is this thread parked? */
+	private volatile boolean parked;
+	/** Handler for exceptions thrown by commands. */
+	private volatile UncaughtExceptionHandler commandExceptionHandler;
+
+	/**
+	 * Creates a new command thread.
+	 * @param system the owning system.
+	 * @param capacity the command ring capacity. Rounded up to the next power of two.
+	 */
+	OALCommandThread(OALSystem system, int capacity)
+	{
+		super("OALCommandThread-" + nextThreadId());
+		setDaemon(true);
+		if (capacity < 2)
+			throw new IllegalArgumentException("Capacity must be at least 2.");
+
+		int cap = Integer.highestOneBit(capacity - 1) << 1;
+		this.system = system;
+		this.cells = new Command[cap];
+		this.sequences = new AtomicLongArray(cap);
+		this.mask = cap - 1;
+		for (int i = 0; i < cap; i++)
+		{
+			cells[i] = new Command();
+			sequences.set(i, i);
+		}
+		this.enqueuePosition = new AtomicLong(0L);
+		this.dequeuePosition = 0L;
+		this.running = true;
+		this.parked = false;
+		this.commandExceptionHandler = null;
+	}
+
+	private static synchronized int nextThreadId()
+	{
+		return threadId++;
+	}
+
+	/**
+	 * Returns the capacity of the command ring.
+	 */
+	public int getCapacity()
+	{
+		return cells.length;
+	}
+
+	/**
+	 * Returns the approximate amount of commands waiting to be executed.
+	 */
+	public int getPendingCount()
+	{
+		long pos = enqueuePosition.get();
+		return pos == CLOSED ? 0 : (int)Math.max(0L, pos - dequeuePosition);
+	}
+
+	/**
+	 * Sets the handler called when a command throws an exception.
+	 * If null, the exception goes to this thread's uncaught exception handler,
+	 * which is {@link Thread#getDefaultUncaughtExceptionHandler()} unless one was set on this thread.
+	 * Either way, the command thread keeps running.
+	 * @param handler the handler to use.
+	 */
+	public void setCommandExceptionHandler(UncaughtExceptionHandler handler)
+	{
+		this.commandExceptionHandler = handler;
+	}
+
+	/**
+	 * Posts a command that runs arbitrary code on the command thread.
+	 * This is for less frequent operations, like effect changes, that have no dedicated command.
+	 * @param runnable the runnable to run.
+	 */
+	public void invoke(Runnable runnable)
+	{
+		long pos = claim();
+		if (pos < 0L)
+		{
+			runnable.run();
+			return;
+		}
+		Command c = cells[(int)(pos & mask)];
+		c.op = CMD_RUNNABLE;
+		c.runnable = runnable;
+		publish(pos);
+	}
+
+	/**
+	 * Posts an {@link OALSource#play()} command.
+	 * @param source the target source.
+	 */
+	public void play(OALSource source)
+	{
+		postSource(CMD_SOURCE_PLAY, source);
+	}
+
+	/**
+	 * Posts an {@link OALSource#pause()} command.
+	 * @param source the target source.
+	 */
+	public void pause(OALSource source)
+	{
+		postSource(CMD_SOURCE_PAUSE, source);
+	}
+
+	/**
+	 * Posts an {@link OALSource#stop()} command.
+	 * @param source the target source.
+	 */
+	public void stop(OALSource source)
+	{
+		postSource(CMD_SOURCE_STOP, source);
+	}
+
+	/**
+	 * Posts an {@link OALSource#rewind()} command.
+	 * @param source the target source.
+	 */
+	public void rewind(OALSource source)
+	{
+		postSource(CMD_SOURCE_REWIND, source);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setGain(float)} command.
+	 * @param source the target source.
+	 * @param gain the new gain.
+	 */
+	public void setGain(OALSource source, float gain)
+	{
+		postSource(CMD_SOURCE_GAIN, source, gain, 0f, 0f);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setPitch(float)} command.
+	 * @param source the target source.
+	 * @param pitch the new pitch.
+	 */
+	public void setPitch(OALSource source, float pitch)
+	{
+		postSource(CMD_SOURCE_PITCH, source, pitch, 0f, 0f);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setPosition(float, float, float)} command.
+	 * @param source the target source.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setPosition(OALSource source, float x, float y, float z)
+	{
+		postSource(CMD_SOURCE_POSITION, source, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setVelocity(float, float, float)} command.
+	 * @param source the target source.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setVelocity(OALSource source, float x, float y, float z)
+	{
+		postSource(CMD_SOURCE_VELOCITY, source, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setDirection(float, float, float)} command.
+	 * @param source the target source.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setDirection(OALSource source, float x, float y, float z)
+	{
+		postSource(CMD_SOURCE_DIRECTION, source, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setLooping(boolean)} command.
+	 * @param source the target source.
+	 * @param looping the looping flag.
+	 */
+	public void setLooping(OALSource source, boolean looping)
+	{
+		long pos = claim();
+		if (pos < 0L)
+		{
+			source.setLooping(looping);
+			return;
+		}
+		Command c = cells[(int)(pos & mask)];
+		c.op = CMD_SOURCE_LOOPING;
+		c.source = source;
+		c.flag = looping;
+		publish(pos);
+	}
+
+	/**
+	 * Posts an {@link OALSource#setBuffer(OALBuffer)} command.
+	 * @param source the target source.
+	 * @param buffer the buffer to bind (can be null).
+	 */
+	public void setBuffer(OALSource source, OALBuffer buffer)
+	{
+		postSourceBuffer(CMD_SOURCE_BUFFER, source, buffer);
+	}
+
+	/**
+	 * Posts an {@link OALSource#enqueueBuffer(OALBuffer)} command.
+	 * @param source the target source.
+	 * @param buffer the buffer to enqueue.
+	 */
+	public void enqueueBuffer(OALSource source, OALBuffer buffer)
+	{
+		postSourceBuffer(CMD_SOURCE_ENQUEUE, source, buffer);
+	}
+
+	/**
+	 * Posts an {@link OALSource#dequeueBuffer()} command.
+	 * The dequeued buffer is reported through the source's listeners.
+	 * @param source the target source.
+	 */
+	public void dequeueBuffer(OALSource source)
+	{
+		postSource(CMD_SOURCE_DEQUEUE, source);
+	}
+
+	/**
+	 * Posts an {@link OALListener#setPosition(float, float, float)} command.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setListenerPosition(float x, float y, float z)
+	{
+		postSource(CMD_LISTENER_POSITION, null, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALListener#setVelocity(float, float, float)} command.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setListenerVelocity(float x, float y, float z)
+	{
+		postSource(CMD_LISTENER_VELOCITY, null, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALListener#setFacing(float, float, float)} command.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setListenerFacing(float x, float y, float z)
+	{
+		postSource(CMD_LISTENER_FACING, null, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALListener#setTop(float, float, float)} command.
+	 * @param x the x value.
+	 * @param y the y value.
+	 * @param z the z value.
+	 */
+	public void setListenerTop(float x, float y, float z)
+	{
+		postSource(CMD_LISTENER_TOP, null, x, y, z);
+	}
+
+	/**
+	 * Posts an {@link OALListener#setGain(float)} command.
+	 * @param gain the new gain.
+	 */
+	public void setListenerGain(float gain)
+	{
+		postSource(CMD_LISTENER_GAIN, null, gain, 0f, 0f);
+	}
+
+	/**
+	 * Stops this thread once every command posted so far has run, and waits for it to end.
+	 * Commands posted while it is stopping are still run by it, in order. 
+	 * Commands posted after it has stopped are run on the calling thread.
+	 */
+	public void shutDown()
+	{
+		running = false;
+		LockSupport.unpark(this);
+		if (Thread.currentThread() != this)
+		{
+			try {
+				join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		int idle = 0;
+		while (true)
+		{
+			if (poll())
+			{
+				idle = 0;
+				continue;
+			}
+
+			if (!running)
+			{
+				// close the ring once drained, so that later posts are run by their own threads.
+				long pos = enqueuePosition.get();
+				if (pos == dequeuePosition && enqueuePosition.compareAndSet(pos, CLOSED))
+					break;
+				Thread.yield();
+				continue;
+			}
+
+			if (++idle < IDLE_SPINS)
+			{
+				Thread.yield();
+				continue;
+			}
+
+			parked = true;
+			if (running && enqueuePosition.get() == dequeuePosition)
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			parked = false;
+		}
+	}
+
+	// Executes the next command, if any. Returns true if one was executed.
+	private boolean poll()
+	{
+		long pos = dequeuePosition;
+		int index = (int)(pos & mask);
+		if (sequences.get(index) != pos + 1)
+			return false;
+
+		Command c = cells[index];
+		try {
+			execute(c);
+		} catch (Throwable t) {
+			UncaughtExceptionHandler handler = commandExceptionHandler;
+			if (handler == null)
+				handler = getUncaughtExceptionHandler();
+			handler.uncaughtException(this, t);
+		} finally {
+			c.clear();
+			dequeuePosition = pos + 1;
+			sequences.set(index, pos + cells.length);
+		}
+		return true;
+	}
+
+	// Claims a cell position. Returns -1 if the command should be run on the calling thread.
+	private long claim()
+	{
+		if (Thread.currentThread() == this)
+			return -1L;
+
+		long pos = enqueuePosition.get();
+		while (true)
+		{
+			if (pos == CLOSED)
+				return -1L;
+			int index = (int)(pos & mask);
+			long diff = sequences.get(index) - pos;
+			if (diff == 0L)
+			{
+				if (enqueuePosition.compareAndSet(pos, pos + 1))
+					return pos;
+			}
+			else if (diff < 0L)
+			{
+				// ring is full - wait for the command thread to catch up.
+				if (!isAlive() && getState() != State.NEW)
+					return -1L;
+				LockSupport.unpark(this);
+				Thread.yield();
+			}
+			pos = enqueuePosition.get();
+		}
+	}
+
+	// Publishes a written cell to the command thread.
+	private void publish(long pos)
+	{
+		sequences.set((int)(pos & mask), pos + 1);
+		if (parked)
+			LockSupport.unpark(this);
+	}
+
+	private void postSource(int op, OALSource source)
+	{
+		postSource(op, source, 0f, 0f, 0f);
+	}
+
+	private void postSource(int op, OALSource source, float x, float y, float z)
+	{
+		long pos = claim();
+		Command c = pos < 0L ? new Command() : cells[(int)(pos & mask)];
+		c.op = op;
+		c.source = source;
+		c.x = x;
+		c.y = y;
+		c.z = z;
+		if (pos < 0L)
+			execute(c);
+		else
+			publish(pos);
+	}
+
+	private void postSourceBuffer(int op, OALSource source, OALBuffer buffer)
+	{
+		long pos = claim();
+		Command c = pos < 0L ? new Command() : cells[(int)(pos & mask)];
+		c.op = op;
+		c.source = source;
+		c.buffer = buffer;
+		if (pos < 0L)
+			execute(c);
+		else
+			publish(pos);
+	}
+
+	// Executes a command.
+	private void execute(Command c)
+	{
+		switch (c.op)
+		{
+			case CMD_RUNNABLE:
+				c.runnable.run();
+				break;
+			case CMD_SOURCE_PLAY:
+				c.source.play();
+				break;
+			case CMD_SOURCE_PAUSE:
+				c.source.pause();
+				break;
+			case CMD_SOURCE_STOP:
+				c.source.stop();
+				break;
+			case CMD_SOURCE_REWIND:
+				c.source.rewind();
+				break;
+			case CMD_SOURCE_GAIN:
+				c.source.setGain(c.x);
+				break;
+			case CMD_SOURCE_PITCH:
+				c.source.setPitch(c.x);
+				break;
+			case CMD_SOURCE_POSITION:
+				c.source.setPosition(c.x, c.y, c.z);
+				break;
+			case CMD_SOURCE_VELOCITY:
+				c.source.setVelocity(c.x, c.y, c.z);
+				break;
+			case CMD_SOURCE_DIRECTION:
+				c.source.setDirection(c.x, c.y, c.z);
+				break;
+			case CMD_SOURCE_LOOPING:
+				c.source.setLooping(c.flag);
+				break;
+			case CMD_SOURCE_BUFFER:
+				c.source.setBuffer(c.buffer);
+				break;
+			case CMD_SOURCE_ENQUEUE:
+				c.source.enqueueBuffer(c.buffer);
+				break;
+			case CMD_SOURCE_DEQUEUE:
+				c.source.dequeueBuffer();
+				break;
+			case CMD_LISTENER_POSITION:
+				system.getListener().setPosition(c.x, c.y, c.z);
+				break;
+			case CMD_LISTENER_VELOCITY:
+				system.getListener().setVelocity(c.x, c.y, c.z);
+				break;
+			case CMD_LISTENER_FACING:
+				system.getListener().setFacing(c.x, c.y, c.z);
+				break;
+			case CMD_LISTENER_TOP:
+				system.getListener().setTop(c.x, c.y, c.z);
+				break;
+			case CMD_LISTENER_GAIN:
+				system.getListener().setGain(c.x);
+				break;
+		}
+	}
+
+	/**
+	 * A pre-allocated command cell.
+	 */
+	private static class Command
+	{
+		int op;
+		OALSource source;
+		OALBuffer buffer;
+		Runnable runnable;
+		float x;
+		float y;
+		float z;
+		boolean flag;
+
+		// Drops object references so that cells don't keep things alive.
+		void clear()
+		{
+			source = null;
+			buffer = null;
+			runnable = null;
+		}
+	}
+
+}
@@ -10,27 +10,173 @@
  *******************************************************************************/
 package com.blackrook.oal;
 
+import java.util.Arrays;
+
+import com.blackrook.commons.hash.Hash;
 import com.jogamp.openal.ALExt;
 
 /**
  * Effect object for OpenAL sources.
+ * <p>
+ * Parameter changes are written right away, but changes to an effect only reach
+ * the slots it is in once it is bound to them again. To change many parameters at once,
+ * call {@link #begin()}, set them, then call {@link #commit()}: changed parameters are 
+ * held until the commit, then written in one pass, and the effect is re-bound to every 
+ * slot it is in, once.
  * @author Matthew Tropiano
  */
 public abstract class OALEffect extends OALObject
 {
+	/** Slots that this effect is in. */
+	private Hash<OALEffectSlot> slots;
+	/** Amount of open begin() calls. */
+	private int transactionDepth;
+	/** Parameters changed in the current transaction. */
+	private int[] pendingParams;
+	/** Values of changed parameters (float values as raw bits). */
+	private int[] pendingValues;
+	/** Are changed parameters float-valued? */
+	private boolean[] pendingFloat;
+	/** Amount of changed parameters. */
+	private int pendingCount;
+	
 	protected OALEffect(OALSystem system, int alEffectType)
 	{
 		super(system);
-		alext.alEffecti(getALId(), ALExt.AL_EFFECT_TYPE, alEffectType);
+		slots = new Hash<OALEffectSlot>();
+		transactionDepth = 0;
+		pendingParams = new int[8];
+		pendingValues = new int[8];
+		pendingFloat = new boolean[8];
+		pendingCount = 0;
+		backend.alEffecti(getALId(), ALExt.AL_EFFECT_TYPE, alEffectType);
+	}
+	
+	/**
+	 * Starts a batch of parameter changes. Until the matching {@link #commit()},
+	 * changed parameters are held instead of written.
+	 * Calls can be nested - only the outermost commit writes the changes.
+	 */
+	public synchronized void begin()
+	{
+		transactionDepth++;
+	}
+	
+	/**
+	 * Ends a batch of parameter changes started with {@link #begin()}. At the outermost commit,
+	 * all changed parameters are written, and this effect is re-bound to every slot that it is in,
+	 * so that the changes are heard. If there is no open batch, this just re-binds the effect,
+	 * which applies changes made outside of one.
+	 */
+	public synchronized void commit()
+	{
+		if (transactionDepth > 0 && --transactionDepth > 0)
+			return;
+		
+		int id = getALId();
+		for (int i = 0; i < pendingCount; i++)
+		{
+			if (pendingFloat[i])
+				backend.alEffectf(id, pendingParams[i], Float.intBitsToFloat(pendingValues[i]));
+			else
+				backend.alEffecti(id, pendingParams[i], pendingValues[i]);
+		}
+		pendingCount = 0;
+		errorCheck();
+		
+		for (OALEffectSlot slot : slots)
+			slot.rebind();
+	}
+	
+	/**
+	 * Returns true if a batch of parameter changes is open.
+	 */
+	public synchronized boolean isInTransaction()
+	{
+		return transactionDepth > 0;
+	}
+	
+	/**
+	 * Sets a float-valued effect parameter, or holds it until commit if a batch is open.
+	 * @param param the AL parameter.
+	 * @param value the value.
+	 */
+	protected final synchronized void setFloatParameter(int param, float value)
+	{
+		if (transactionDepth > 0)
+			hold(param, Float.floatToRawIntBits(value), true);
+		else
+		{
+			backend.alEffectf(getALId(), param, value);
+			errorCheck();
+		}
+	}
+	
+	/**
+	 * Sets an integer-valued effect parameter, or holds it until commit if a batch is open.
+	 * @param param the AL parameter.
+	 * @param value the value.
+	 */
+	protected final synchronized void setIntParameter(int param, int value)
+	{
+		if (transactionDepth > 0)
+			hold(param, value, false);
+		else
+		{
+			backend.alEffecti(getALId(), param, value);
+			errorCheck();
+		}
+	}
+	
+	// Holds a changed parameter, replacing an earlier change to the same one.
+	private void hold(int param, int value, boolean isFloat)
+	{
+		int i = 0;
+		while (i < pendingCount && pendingParams[i] != param)
+			i++;
+		
+		if (i == pendingCount)
+		{
+			if (pendingCount == pendingParams.length)
+			{
+				int len = pendingCount * 2;
+				pendingParams = Arrays.copyOf(pendingParams, len);
+				pendingValues = Arrays.copyOf(pendingValues, len);
+				pendingFloat = Arrays.copyOf(pendingFloat, len);
+			}
+			pendingCount++;
+		}
+		
+		pendingParams[i] = param;
+		pendingValues[i] = value;
+		pendingFloat[i] = isFloat;
+	}
+	
+	/**
+	 * Called when this effect is put in a slot.
+	 */
+	synchronized void attach(OALEffectSlot slot)
+	{
+		slots.put(slot);
+	}
+	
+	/**
+	 * Called when this effect is taken out of a slot.
+	 */
+	synchronized void detach(OALEffectSlot slot)
+	{
+		slots.remove(slot);
 	}
 	
 	@Override
 	protected final int allocate()
 	{
 		int[] STATE_NUMBER = new int[1];
-		al.alGetError();
-		alext.alGenEffects(1, STATE_NUMBER, 0);
-		errorCheck();
+		if (system.takeReservedName(OALSystem.NAME_EFFECT, STATE_NUMBER))
+			return STATE_NUMBER[0];
+		prepareAllocation();
+		backend.alGenEffects(1, STATE_NUMBER, 0);
+		allocationCheck(STATE_NUMBER[0]);
 		return STATE_NUMBER[0];
 	}
 	
@@ -38,7 +184,7 @@ public abstract class OALEffect extends OALObject
 	protected final void free()
 	{
 		int[] STATE_NUMBER = {getALId()};
-		alext.alDeleteEffects(1, STATE_NUMBER, 0);
+		backend.alDeleteEffects(1, STATE_NUMBER, 0);
 		errorCheck();
 	}
 	
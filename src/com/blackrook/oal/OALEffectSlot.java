@@ -42,9 +42,11 @@ public class OALEffectSlot extends OALObject
 	protected int allocate() throws SoundException
 	{
 		int[] STATE_NUMBER = new int[1];
-		al.alGetError();
-		alext.alGenAuxiliaryEffectSlots(1, STATE_NUMBER, 0);
-		errorCheck();
+		if (system.takeReservedName(OALSystem.NAME_EFFECT_SLOT, STATE_NUMBER))
+			return STATE_NUMBER[0];
+		prepareAllocation();
+		backend.alGenAuxiliaryEffectSlots(1, STATE_NUMBER, 0);
+		allocationCheck(STATE_NUMBER[0]);
 		return STATE_NUMBER[0];
 	}
 
@@ -52,8 +54,10 @@ public class OALEffectSlot extends OALObject
 	protected final void free() throws SoundException
 	{
 		int[] STATE_NUMBER = new int[1];
+		if (effect != null)
+			effect.detach(this);
 		STATE_NUMBER[0] = getALId();
-		alext.alDeleteAuxiliaryEffectSlots(1, STATE_NUMBER, 0);
+		backend.alDeleteAuxiliaryEffectSlots(1, STATE_NUMBER, 0);
 		errorCheck();
 	}
 
@@ -63,8 +67,20 @@ public class OALEffectSlot extends OALObject
 	 */
 	public void setEffect(OALEffect effect)
 	{
+		if (this.effect != null)
+			this.effect.detach(this);
 		this.effect = effect;
-		alext.alAuxiliaryEffectSloti(getALId(), ALExt.AL_EFFECTSLOT_EFFECT, effect == null ? ALExt.AL_EFFECT_NULL : effect.getALId());
+		if (effect != null)
+			effect.attach(this);
+		rebind();
+	}
+	
+	/**
+	 * Binds the current effect to this slot again, so that changes to it are applied.
+	 */
+	void rebind()
+	{
+		backend.alAuxiliaryEffectSloti(getALId(), ALExt.AL_EFFECTSLOT_EFFECT, effect == null ? ALExt.AL_EFFECT_NULL : effect.getALId());
 		errorCheck();
 	}
 	
@@ -101,7 +117,7 @@ public class OALEffectSlot extends OALObject
 	public void setGain(float gain)
 	{
 		slotGain = gain;
-		alext.alAuxiliaryEffectSlotf(getALId(), ALExt.AL_EFFECTSLOT_GAIN, gain);
+		backend.alAuxiliaryEffectSlotf(getALId(), ALExt.AL_EFFECTSLOT_GAIN, gain);
 		errorCheck();
 	}
 
@@ -115,7 +131,7 @@ public class OALEffectSlot extends OALObject
 	public final void setAutoUpdating(boolean autoUpdate)
 	{
 		this.autoUpdating = autoUpdate;
-		alext.alAuxiliaryEffectSloti(getALId(), ALExt.AL_EFFECTSLOT_AUXILIARY_SEND_AUTO, autoUpdate ? AL.AL_TRUE : AL.AL_FALSE);
+		backend.alAuxiliaryEffectSloti(getALId(), ALExt.AL_EFFECTSLOT_AUXILIARY_SEND_AUTO, autoUpdate ? AL.AL_TRUE : AL.AL_FALSE);
 		errorCheck();
 	}
 
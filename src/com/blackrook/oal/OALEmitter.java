@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+/**
+ * A positional sound emitter registered in an {@link OALEmitterIndex}.
+ * <p>
+ * An emitter has a position and the same attenuation attributes as a source,
+ * and carries an object of the caller's choosing, like a voice or a game entity.
+ * Positions are always in world space (not relative to the listener).
+ * <p>
+ * Changes are synchronized on the owning index.
+ * @author Matthew Tropiano
+ * @param <T> the type of object carried.
+ */
+public final class OALEmitter<T>
+{
+	/** Owning index, or null if removed. */
+	OALEmitterIndex<T> index;
+	/** Carried object. */
+	private T object;
+
+	/** Position. */
+	float x, y, z;
+	/** Gain. */
+	float gain;
+	/** Reference distance. */
+	float referenceDistance;
+	/** Max distance. */
+	float maxDistance;
+	/** Rolloff factor. */
+	float rolloff;
+
+	/** Distance past which this is never audible, or infinity if it can be heard from any distance. */
+	float range;
+	/** True if this is in the index's always-checked list instead of cells. */
+	boolean global;
+	/** Covered cells, inclusive, if not global. */
+	int cellX0, cellY0, cellZ0, cellX1, cellY1, cellZ1;
+	/** Audibility from the last query that checked it. */
+	float audibility;
+
+	OALEmitter(OALEmitterIndex<T> index, T object, float x, float y, float z)
+	{
+		this.index = index;
+		this.object = object;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.gain = 1f;
+		this.referenceDistance = 1f;
+		this.maxDistance = Float.MAX_VALUE;
+		this.rolloff = 1f;
+		this.audibility = 0f;
+	}
+
+	/**
+	 * Returns the object that this emitter carries.
+	 */
+	public T getObject()
+	{
+		return object;
+	}
+
+	/**
+	 * Sets this emitter's position.
+	 * This is cheap unless the emitter moves into other grid cells.
+	 * @param x the x-coordinate.
+	 * @param y the y-coordinate.
+	 * @param z the z-coordinate.
+	 */
+	public void setPosition(float x, float y, float z)
+	{
+		OALEmitterIndex<T> i = index;
+		if (i != null)
+			i.move(this, x, y, z);
+		else
+		{
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+	}
+
+	/** Returns this emitter's position x-coordinate. */
+	public float getPositionX()
+	{
+		return x;
+	}
+
+	/** Returns this emitter's position y-coordinate. */
+	public float getPositionY()
+	{
+		return y;
+	}
+
+	/** Returns this emitter's position z-coordinate. */
+	public float getPositionZ()
+	{
+		return z;
+	}
+
+	/**
+	 * Sets all of this emitter's attenuation attributes at once.
+	 * Changing these recalculates how far this emitter can be heard,
+	 * so it is more expensive than moving it.
+	 * @param gain the gain.
+	 * @param referenceDistance the reference distance.
+	 * @param maxDistance the max distance.
+	 * @param rolloff the rolloff factor.
+	 */
+	public void setAttenuation(float gain, float referenceDistance, float maxDistance, float rolloff)
+	{
+		OALEmitterIndex<T> i = index;
+		if (i != null)
+			i.attenuate(this, gain, referenceDistance, maxDistance, rolloff);
+		else
+		{
+			this.gain = gain;
+			this.referenceDistance = referenceDistance;
+			this.maxDistance = maxDistance;
+			this.rolloff = rolloff;
+		}
+	}
+
+	/** Sets this emitter's gain. */
+	public void setGain(float gain)
+	{
+		setAttenuation(gain, referenceDistance, maxDistance, rolloff);
+	}
+
+	/** Returns this emitter's gain. */
+	public float getGain()
+	{
+		return gain;
+	}
+
+	/** Sets this emitter's reference distance. */
+	public void setReferenceDistance(float referenceDistance)
+	{
+		setAttenuation(gain, referenceDistance, maxDistance, rolloff);
+	}
+
+	/** Returns this emitter's reference distance. */
+	public float getReferenceDistance()
+	{
+		return referenceDistance;
+	}
+
+	/** Sets this emitter's max distance. */
+	public void setMaxDistance(float maxDistance)
+	{
+		setAttenuation(gain, referenceDistance, maxDistance, rolloff);
+	}
+
+	/** Returns this emitter's max distance. */
+	public float getMaxDistance()
+	{
+		return maxDistance;
+	}
+
+	/** Sets this emitter's rolloff factor. */
+	public void setRolloff(float rolloff)
+	{
+		setAttenuation(gain, referenceDistance, maxDistance, rolloff);
+	}
+
+	/** Returns this emitter's rolloff factor. */
+	public float getRolloff()
+	{
+		return rolloff;
+	}
+
+	/**
+	 * Returns the distance past which this emitter is never audible with its index's
+	 * distance model and minimum audibility, or {@link Float#POSITIVE_INFINITY} if it can be heard from any distance.
+	 */
+	public float getAudibleRange()
+	{
+		return range;
+	}
+
+	/**
+	 * Returns this emitter's audibility (gain attenuated by distance)
+	 * from the last query that checked it.
+	 */
+	public float getAudibility()
+	{
+		return audibility;
+	}
+
+	/**
+	 * Removes this emitter from its index. It cannot be added back.
+	 */
+	public void remove()
+	{
+		OALEmitterIndex<T> i = index;
+		if (i != null)
+			i.remove(this);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Emitter " + object + " (" + x + ", " + y + ", " + z + ")";
+	}
+
+}
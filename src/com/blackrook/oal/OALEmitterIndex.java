@@ -0,0 +1,665 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.util.Arrays;
+
+import com.blackrook.commons.list.List;
+import com.blackrook.commons.math.geometry.Point3F;
+import com.blackrook.oal.enums.DistanceModel;
+
+/**
+ * A uniform grid of {@link OALEmitter}s, for finding the most audible ones around
+ * a position without checking every emitter.
+ * <p>
+ * Each emitter has an audible range: the distance past which its gain, attenuated by
+ * the index's distance model, is at or below the minimum audibility. An emitter is
+ * put in every grid cell that its range touches, so a query only has to check the
+ * emitters in the cell that the position is in. Emitters that can be heard from
+ * further than {@value #MAX_CELL_SPAN} cells across (or from any distance) are
+ * checked on every query instead.
+ * <p>
+ * Cells should be about as large as the typical audible range, so that most emitters
+ * are in few cells, and each cell has few emitters.
+ * <p>
+ * The clamped inverse and exponent models never attenuate past the max distance, so
+ * unless the minimum audibility is above that gain, such emitters can be heard from any
+ * distance. Turning on max distance culling treats emitters past their max distance
+ * as inaudible, the way most games use it.
+ * <p>
+ * Changes and queries are synchronized.
+ * @author Matthew Tropiano
+ * @param <T> the type of object carried by the emitters.
+ */
+public class OALEmitterIndex<T>
+{
+	/** Largest amount of cells an emitter can cover on one axis before it is checked on every query. */
+	public static final int MAX_CELL_SPAN = 8;
+	/** Distance treated as infinitely far. */
+	private static final float FAR_DISTANCE = 1e30f;
+	/** Bisection steps for audible ranges. */
+	private static final int RANGE_STEPS = 24;
+
+	/** Grid cell size. */
+	private float cellSize;
+	/** Distance model for audible ranges and queries. */
+	private DistanceModel distanceModel;
+	/** Audibility at or below which an emitter is not audible. */
+	private float minAudibility;
+	/** If true, emitters are not audible past their max distance. */
+	private boolean maxDistanceCulling;
+
+	/** All emitters. */
+	private List<OALEmitter<T>> emitters;
+	/** Emitters checked on every query. */
+	private Cell<T> globalCell;
+	/** Grid cells by packed cell coordinates. */
+	private CellMap<T> cells;
+
+	// ======= Scratch for queries: a min-heap of the best candidates so far.
+	private OALEmitter<?>[] heap;
+
+	/**
+	 * Creates a new emitter index with the {@link DistanceModel#INVERSE_DISTANCE_CLAMPED}
+	 * distance model and a minimum audibility of {@link OALVoicePool#DEFAULT_MIN_AUDIBILITY}.
+	 * @param cellSize the size of each grid cell.
+	 * @throws IllegalArgumentException if cellSize is not more than 0.
+	 */
+	public OALEmitterIndex(float cellSize)
+	{
+		this(cellSize, DistanceModel.INVERSE_DISTANCE_CLAMPED, OALVoicePool.DEFAULT_MIN_AUDIBILITY);
+	}
+
+	/**
+	 * Creates a new emitter index.
+	 * @param cellSize the size of each grid cell.
+	 * @param model the distance model. This should be the same as the system's.
+	 * @param minAudibility the audibility at or below which an emitter is not audible.
+	 * @throws IllegalArgumentException if cellSize is not more than 0.
+	 */
+	public OALEmitterIndex(float cellSize, DistanceModel model, float minAudibility)
+	{
+		if (!(cellSize > 0f))
+			throw new IllegalArgumentException("Cell size must be more than 0.");
+		this.cellSize = cellSize;
+		this.distanceModel = model;
+		this.minAudibility = minAudibility;
+		this.maxDistanceCulling = false;
+		this.emitters = new List<OALEmitter<T>>();
+		this.globalCell = new Cell<T>();
+		this.cells = new CellMap<T>();
+		this.heap = new OALEmitter<?>[8];
+	}
+
+	/**
+	 * Adds a new emitter to this index, with OpenAL's default attenuation attributes
+	 * (gain 1, reference distance 1, no max distance, rolloff 1).
+	 * @param object the object for the emitter to carry.
+	 * @param x the position x-coordinate.
+	 * @param y the position y-coordinate.
+	 * @param z the position z-coordinate.
+	 * @return the new emitter.
+	 */
+	public synchronized OALEmitter<T> add(T object, float x, float y, float z)
+	{
+		OALEmitter<T> out = new OALEmitter<T>(this, object, x, y, z);
+		out.range = getAudibleRange(out);
+		emitters.add(out);
+		insert(out);
+		return out;
+	}
+
+	/**
+	 * Removes all emitters from this index.
+	 */
+	public synchronized void clear()
+	{
+		for (OALEmitter<T> e : emitters)
+			e.index = null;
+		emitters.clear();
+		globalCell.clear();
+		cells.clear();
+	}
+
+	/**
+	 * Returns the amount of emitters in this index.
+	 */
+	public synchronized int size()
+	{
+		return emitters.size();
+	}
+
+	/**
+	 * Returns the amount of emitters checked on every query, because of their range.
+	 */
+	public synchronized int getGlobalCount()
+	{
+		return globalCell.size;
+	}
+
+	/**
+	 * Sets the distance model, and recalculates the ranges of all emitters.
+	 * @param model the new model. This should be the same as the system's.
+	 */
+	public synchronized void setDistanceModel(DistanceModel model)
+	{
+		this.distanceModel = model;
+		rebuild();
+	}
+
+	/**
+	 * Returns the distance model.
+	 */
+	public DistanceModel getDistanceModel()
+	{
+		return distanceModel;
+	}
+
+	/**
+	 * Sets the audibility at or below which an emitter is not audible,
+	 * and recalculates the ranges of all emitters.
+	 * @param audibility the new threshold.
+	 */
+	public synchronized void setMinimumAudibility(float audibility)
+	{
+		this.minAudibility = audibility;
+		rebuild();
+	}
+
+	/**
+	 * Returns the audibility at or below which an emitter is not audible.
+	 */
+	public float getMinimumAudibility()
+	{
+		return minAudibility;
+	}
+
+	/**
+	 * Sets if emitters past their max distance are not audible, regardless of their gain there,
+	 * and recalculates the ranges of all emitters. By default, this is false.
+	 * @param enabled true to cull emitters past their max distance.
+	 */
+	public synchronized void setMaxDistanceCulling(boolean enabled)
+	{
+		this.maxDistanceCulling = enabled;
+		rebuild();
+	}
+
+	/**
+	 * Returns true if emitters past their max distance are not audible.
+	 */
+	public boolean isMaxDistanceCulling()
+	{
+		return maxDistanceCulling;
+	}
+
+	/**
+	 * Finds the most audible emitters at the listener's position.
+	 * @param listener the listener.
+	 * @param count the maximum amount of emitters to find.
+	 * @param out the list to fill, which is cleared first.
+	 * @return the amount of emitters found.
+	 * @see #getMostAudible(float, float, float, int, List)
+	 */
+	public int getMostAudible(OALListener listener, int count, List<OALEmitter<T>> out)
+	{
+		Point3F p = listener.getPosition();
+		return getMostAudible(p.x, p.y, p.z, count, out);
+	}
+
+	/**
+	 * Finds the most audible emitters at a position: those with the highest
+	 * gain attenuated by distance, above the minimum audibility, most audible first.
+	 * The audibility of each one is set for {@link OALEmitter#getAudibility()}.
+	 * @param x the position x-coordinate.
+	 * @param y the position y-coordinate.
+	 * @param z the position z-coordinate.
+	 * @param count the maximum amount of emitters to find.
+	 * @param out the list to fill, which is cleared first.
+	 * @return the amount of emitters found.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized int getMostAudible(float x, float y, float z, int count, List<OALEmitter<T>> out)
+	{
+		out.clear();
+		if (count <= 0)
+			return 0;
+		if (heap.length < count)
+			heap = new OALEmitter<?>[count];
+
+		int n = 0;
+		n = collect(globalCell, x, y, z, count, n);
+		Cell<T> cell = cells.get(key(cellOf(x), cellOf(y), cellOf(z)));
+		if (cell != null)
+			n = collect(cell, x, y, z, count, n);
+
+		// move the least audible to the back, one at a time, leaving the most audible in front.
+		for (int i = n - 1; i > 0; i--)
+		{
+			OALEmitter<?> least = heap[0];
+			heap[0] = heap[i];
+			heap[i] = least;
+			siftDown(0, i);
+		}
+		for (int i = 0; i < n; i++)
+			out.add((OALEmitter<T>)heap[i]);
+		Arrays.fill(heap, 0, n, null);
+		return n;
+	}
+
+	// Checks the emitters in a cell, keeping the best in the heap. Returns the new heap size.
+	private int collect(Cell<T> cell, float x, float y, float z, int count, int n)
+	{
+		for (int i = 0; i < cell.size; i++)
+		{
+			OALEmitter<T> e = cell.emitters[i];
+			float dx = e.x - x;
+			float dy = e.y - y;
+			float dz = e.z - z;
+			float distance = (float)Math.sqrt(dx * dx + dy * dy + dz * dz);
+			if (distance > e.range)
+				continue;
+			e.audibility = e.gain * distanceModel.getGain(distance, e.referenceDistance, e.maxDistance, e.rolloff);
+			if (e.audibility <= minAudibility)
+				continue;
+
+			if (n < count)
+			{
+				heap[n] = e;
+				siftUp(n++);
+			}
+			else if (e.audibility > heap[0].audibility)
+			{
+				heap[0] = e;
+				siftDown(0, n);
+			}
+		}
+		return n;
+	}
+
+	// Moves a heap entry up to its place, least audible on top.
+	private void siftUp(int i)
+	{
+		OALEmitter<?> e = heap[i];
+		while (i > 0)
+		{
+			int parent = (i - 1) >> 1;
+			if (heap[parent].audibility <= e.audibility)
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = e;
+	}
+
+	// Moves a heap entry down to its place, least audible on top.
+	private void siftDown(int i, int n)
+	{
+		OALEmitter<?> e = heap[i];
+		while (true)
+		{
+			int child = (i << 1) + 1;
+			if (child >= n)
+				break;
+			if (child + 1 < n && heap[child + 1].audibility < heap[child].audibility)
+				child++;
+			if (e.audibility <= heap[child].audibility)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = e;
+	}
+
+	/**
+	 * Moves an emitter, changing its cells if it has to.
+	 */
+	synchronized void move(OALEmitter<T> e, float x, float y, float z)
+	{
+		if (e.index != this)
+			return;
+		e.x = x;
+		e.y = y;
+		e.z = z;
+		if (e.global)
+			return;
+
+		float r = e.range;
+		if (cellOf(x - r) != e.cellX0 || cellOf(y - r) != e.cellY0 || cellOf(z - r) != e.cellZ0
+			|| cellOf(x + r) != e.cellX1 || cellOf(y + r) != e.cellY1 || cellOf(z + r) != e.cellZ1)
+		{
+			extract(e);
+			insert(e);
+		}
+	}
+
+	/**
+	 * Changes an emitter's attenuation, and recalculates its range.
+	 */
+	synchronized void attenuate(OALEmitter<T> e, float gain, float referenceDistance, float maxDistance, float rolloff)
+	{
+		if (e.index != this)
+			return;
+		e.gain = gain;
+		e.referenceDistance = referenceDistance;
+		e.maxDistance = maxDistance;
+		e.rolloff = rolloff;
+
+		float range = getAudibleRange(e);
+		if (range != e.range)
+		{
+			extract(e);
+			e.range = range;
+			insert(e);
+		}
+	}
+
+	/**
+	 * Removes an emitter.
+	 */
+	synchronized void remove(OALEmitter<T> e)
+	{
+		if (e.index != this)
+			return;
+		extract(e);
+		emitters.remove(e);
+		e.index = null;
+	}
+
+	// Recalculates all ranges and cells.
+	private void rebuild()
+	{
+		globalCell.clear();
+		cells.clear();
+		for (OALEmitter<T> e : emitters)
+		{
+			e.range = getAudibleRange(e);
+			insert(e);
+		}
+	}
+
+	// Adds an emitter to the cells that its range covers.
+	private void insert(OALEmitter<T> e)
+	{
+		float r = e.range;
+		int x0 = cellOf(e.x - r), x1 = cellOf(e.x + r);
+		int y0 = cellOf(e.y - r), y1 = cellOf(e.y + r);
+		int z0 = cellOf(e.z - r), z1 = cellOf(e.z + r);
+		if (r > cellSize * MAX_CELL_SPAN || (long)x1 - x0 >= MAX_CELL_SPAN || (long)y1 - y0 >= MAX_CELL_SPAN || (long)z1 - z0 >= MAX_CELL_SPAN)
+		{
+			e.global = true;
+			globalCell.add(e);
+			return;
+		}
+
+		e.global = false;
+		e.cellX0 = x0;
+		e.cellY0 = y0;
+		e.cellZ0 = z0;
+		e.cellX1 = x1;
+		e.cellY1 = y1;
+		e.cellZ1 = z1;
+		for (int cx = x0; cx <= x1; cx++)
+			for (int cy = y0; cy <= y1; cy++)
+				for (int cz = z0; cz <= z1; cz++)
+				{
+					long key = key(cx, cy, cz);
+					Cell<T> cell = cells.get(key);
+					if (cell == null)
+						cells.put(key, cell = new Cell<T>());
+					cell.add(e);
+				}
+	}
+
+	// Removes an emitter from its cells.
+	private void extract(OALEmitter<T> e)
+	{
+		if (e.global)
+		{
+			globalCell.remove(e);
+			return;
+		}
+
+		for (int cx = e.cellX0; cx <= e.cellX1; cx++)
+			for (int cy = e.cellY0; cy <= e.cellY1; cy++)
+				for (int cz = e.cellZ0; cz <= e.cellZ1; cz++)
+				{
+					long key = key(cx, cy, cz);
+					Cell<T> cell = cells.get(key);
+					if (cell != null && cell.remove(e) && cell.size == 0)
+						cells.remove(key);
+				}
+	}
+
+	// Returns the cell coordinate of a position coordinate.
+	private int cellOf(float v)
+	{
+		return (int)Math.floor(v / cellSize);
+	}
+
+	// Packs cell coordinates. Far apart cells may share a key, which only adds candidates.
+	// Keys are never negative.
+	private static long key(int x, int y, int z)
+	{
+		return ((long)(x & 0x1FFFFF) << 42) | ((long)(y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+	}
+
+	/**
+	 * Finds the distance past which an emitter is never audible, or infinity if it can be
+	 * heard from any distance.
+	 */
+	private float getAudibleRange(OALEmitter<T> e)
+	{
+		float range = getAttenuationRange(e);
+		return maxDistanceCulling ? Math.min(range, Math.max(e.maxDistance, 0f)) : range;
+	}
+
+	// Finds the distance past which an emitter's attenuated gain is never above the minimum audibility.
+	// Past the reference distance, all models attenuate as distance grows, so this is found by
+	// bisection from there, and rounded up.
+	private float getAttenuationRange(OALEmitter<T> e)
+	{
+		float ref = Math.max(e.referenceDistance, 0f);
+		if (!(e.rolloff >= 0f) || audibility(e, FAR_DISTANCE) > minAudibility)
+			return Float.POSITIVE_INFINITY;
+		if (audibility(e, ref) <= minAudibility)
+			return ref;
+
+		float lo = ref;
+		float hi = Math.max(ref * 2f, 1f);
+		while (audibility(e, hi) > minAudibility)
+		{
+			lo = hi;
+			hi *= 2f;
+		}
+		for (int i = 0; i < RANGE_STEPS; i++)
+		{
+			float mid = (lo + hi) * 0.5f;
+			if (audibility(e, mid) > minAudibility)
+				lo = mid;
+			else
+				hi = mid;
+		}
+		return hi;
+	}
+
+	// Returns an emitter's attenuated gain at a distance.
+	private float audibility(OALEmitter<T> e, float distance)
+	{
+		return e.gain * distanceModel.getGain(distance, e.referenceDistance, e.maxDistance, e.rolloff);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("EmitterIndex ");
+		sb.append(emitters.size()).append(" emitters, ");
+		sb.append(cells.size()).append(" cells, ");
+		sb.append(globalCell.size).append(" global");
+		return sb.toString();
+	}
+
+	/**
+	 * A grid cell's emitters.
+	 */
+	private static final class Cell<T>
+	{
+		/** Emitters, unordered. */
+		private OALEmitter<T>[] emitters;
+		/** Amount of emitters. */
+		private int size;
+
+		@SuppressWarnings("unchecked")
+		Cell()
+		{
+			this.emitters = (OALEmitter<T>[])new OALEmitter<?>[4];
+			this.size = 0;
+		}
+
+		void add(OALEmitter<T> e)
+		{
+			if (size == emitters.length)
+				emitters = Arrays.copyOf(emitters, size * 2);
+			emitters[size++] = e;
+		}
+
+		// Removes by swapping in the last one. True if it was found.
+		boolean remove(OALEmitter<T> e)
+		{
+			for (int i = 0; i < size; i++)
+			{
+				if (emitters[i] == e)
+				{
+					emitters[i] = emitters[--size];
+					emitters[size] = null;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void clear()
+		{
+			Arrays.fill(emitters, 0, size, null);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Grid cells by packed cell key, in an open-addressed table, 
+	 * so that looking cells up makes no garbage.
+	 */
+	private static final class CellMap<T>
+	{
+		/** Key of an empty slot. */
+		private static final long EMPTY = -1L;
+
+		/** Keys, by slot. */
+		private long[] keys;
+		/** Cells, by slot. */
+		private Cell<T>[] values;
+		/** Amount of cells. */
+		private int size;
+
+		CellMap()
+		{
+			allocate(16);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void allocate(int capacity)
+		{
+			this.keys = new long[capacity];
+			Arrays.fill(keys, EMPTY);
+			this.values = (Cell<T>[])new Cell<?>[capacity];
+			this.size = 0;
+		}
+
+		// Returns the first slot to probe for a key.
+		private int slot(long key)
+		{
+			return (int)((key * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+		}
+
+		int size()
+		{
+			return size;
+		}
+
+		Cell<T> get(long key)
+		{
+			int mask = keys.length - 1;
+			for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask)
+				if (keys[i] == key)
+					return values[i];
+			return null;
+		}
+
+		void put(long key, Cell<T> cell)
+		{
+			// kept at most half full.
+			if ((size + 1) * 2 > keys.length)
+			{
+				long[] oldKeys = keys;
+				Cell<T>[] oldValues = values;
+				allocate(keys.length * 2);
+				for (int i = 0; i < oldKeys.length; i++)
+					if (oldKeys[i] != EMPTY)
+						put(oldKeys[i], oldValues[i]);
+			}
+
+			int mask = keys.length - 1;
+			int i = slot(key);
+			while (keys[i] != EMPTY && keys[i] != key)
+				i = (i + 1) & mask;
+			if (keys[i] == EMPTY)
+				size++;
+			keys[i] = key;
+			values[i] = cell;
+		}
+
+		void remove(long key)
+		{
+			int mask = keys.length - 1;
+			int i = slot(key);
+			while (keys[i] != key)
+			{
+				if (keys[i] == EMPTY)
+					return;
+				i = (i + 1) & mask;
+			}
+
+			// shift later entries of the probe run back, so that none are cut off from their slot.
+			int hole = i;
+			for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask)
+			{
+				if (((j - slot(keys[j])) & mask) >= ((j - hole) & mask))
+				{
+					keys[hole] = keys[j];
+					values[hole] = values[j];
+					hole = j;
+				}
+			}
+			keys[hole] = EMPTY;
+			values[hole] = null;
+			size--;
+		}
+
+		void clear()
+		{
+			Arrays.fill(keys, EMPTY);
+			Arrays.fill(values, null);
+			size = 0;
+		}
+	}
+
+}
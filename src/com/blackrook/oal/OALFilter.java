@@ -22,16 +22,18 @@ public abstract class OALFilter extends OALObject
 	protected OALFilter(OALSystem system, int alFilterType)
 	{
 		super(system);
-		alext.alFilteri(getALId(), ALExt.AL_FILTER_TYPE, alFilterType);
+		backend.alFilteri(getALId(), ALExt.AL_FILTER_TYPE, alFilterType);
 	}
 
 	@Override
 	protected int allocate() throws SoundException
 	{
 		int[] STATE_NUMBER = new int[1];
-		al.alGetError();
-		alext.alGenFilters(1, STATE_NUMBER, 0);
-		errorCheck();
+		if (system.takeReservedName(OALSystem.NAME_FILTER, STATE_NUMBER))
+			return STATE_NUMBER[0];
+		prepareAllocation();
+		backend.alGenFilters(1, STATE_NUMBER, 0);
+		allocationCheck(STATE_NUMBER[0]);
 		return STATE_NUMBER[0];
 	}
 
@@ -40,7 +42,7 @@ public abstract class OALFilter extends OALObject
 	{
 		int[] STATE_NUMBER = new int[1];
 		STATE_NUMBER[0] = getALId(); 
-		alext.alDeleteFilters(1, STATE_NUMBER, 0);
+		backend.alDeleteFilters(1, STATE_NUMBER, 0);
 		errorCheck();
 	}
 
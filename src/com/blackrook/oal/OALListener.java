@@ -12,9 +12,8 @@ package com.blackrook.oal;
 
 import com.blackrook.commons.math.geometry.Point3F;
 import com.blackrook.commons.math.geometry.Vect3F;
-import com.blackrook.oal.exception.SoundException;
+import com.blackrook.oal.backend.OALBackend;
 import com.jogamp.openal.AL;
-import com.jogamp.openal.ALC;
 
 /**
  * The Listener in the sound environment.
@@ -22,10 +21,10 @@ import com.jogamp.openal.ALC;
  */
 public class OALListener
 {
-	/** Link to AL instance. */
-	protected AL al;
-	/** Link to ALC instance. */
-	protected ALC alc;
+	/** Link to system. */
+	protected OALSystem system;
+	/** Link to the system's backend. */
+	protected OALBackend backend;
 	
 	/** Listener's position. */
 	protected final Point3F position;
@@ -42,15 +41,19 @@ public class OALListener
 	/** Is velocity automatically calculated? */
 	protected boolean autoVelocity;
 	
+	// ======= Temp data for value submission.
+	private final float[] VECTOR = new float[3];
+	private final float[] ORIENTATION = new float[6];
+	
 	/**
 	 * Constructs a new Listener.
 	 * Default position and velocity is (0,0,0), facing is -Z (0,0,-1), up is (0,1,0) (y-axis).
 	 * Gain is 1.0.
 	 * There should only be one of these in a sound system.
 	 */
-	OALListener(AL al, ALC alc)
+	OALListener(OALSystem system)
 	{
-		this(al,alc, false);
+		this(system, false);
 	}
 	
 	/**
@@ -60,10 +63,10 @@ public class OALListener
 	 * There should only be one of these in a sound system.
 	 * @param autovel	should velocity automatically be calculated?
 	 */
-	OALListener(AL al, ALC alc, boolean autovel)
+	OALListener(OALSystem system, boolean autovel)
 	{
-		this.al = al;
-		this.alc = alc;
+		this.system = system;
+		this.backend = system.getBackend();
 		
 		autoVelocity = autovel;
 		
@@ -75,20 +78,17 @@ public class OALListener
 
 		setPosition(0,0,0);
 		setVelocity(0,0,0);
-		setTop(0,1,0);
-		setFacing(0,0,1);
+		setOrientation(0,0,-1,0,1,0);
 		setGain(1f);
 	}
 	
 	/**
 	 * Convenience method for checking for an OpenAL error and throwing a SoundException
-	 * if an error is raised. 
+	 * if an error is raised, depending on the system's error checking mode. 
 	 */
 	private void errorCheck()
 	{
-		int error = al.alGetError();
-		if (error != AL.AL_NO_ERROR)
-			throw new SoundException("Listener: AL returned \""+al.alGetString(error)+"\"");
+		system.errorCheck(this);
 	}
 	
 	/**
@@ -100,9 +100,9 @@ public class OALListener
 	public void setPosition(float x, float y, float z)
 	{
 		if (autoVelocity)
-			setVelocity((float)(x-position.x), (float)(y-position.y), (float)(z-position.y));
-		position.set(x,y,z);
-		al.alListenerfv(AL.AL_POSITION,new float[]{(float)position.x, (float)position.y, (float)position.z},0);
+			writeVelocity(x - position.x, y - position.y, z - position.z);
+		writePosition(x, y, z);
+		errorCheck();
 	}
 
 	/**
@@ -113,9 +113,8 @@ public class OALListener
 	 */
 	public void setVelocity(float x, float y, float z)
 	{
-		al.alListenerfv(AL.AL_VELOCITY,new float[]{(float)velocity.x, (float)velocity.y, (float)velocity.z},0);
+		writeVelocity(x, y, z);
 		errorCheck();
-		velocity.set(x,y,z);
 	}
 
 	/**
@@ -126,12 +125,8 @@ public class OALListener
 	 */
 	public void setFacing(float x, float y, float z)
 	{
-		al.alListenerfv(AL.AL_ORIENTATION, new float[]{
-			(float)orientationFacing.x, (float)orientationFacing.y, (float)orientationFacing.z, 
-			(float)orientationUp.x, (float)orientationUp.y, (float)orientationUp.z}, 
-			0);
+		writeOrientation(x, y, z, orientationUp.x, orientationUp.y, orientationUp.z);
 		errorCheck();
-		orientationFacing.set(x,y,z);
 	}
 
 	/**
@@ -142,12 +137,84 @@ public class OALListener
 	 */
 	public void setTop(float x, float y, float z)
 	{
-		al.alListenerfv(AL.AL_ORIENTATION, new float[]{
-			(float)orientationFacing.x, (float)orientationFacing.y, (float)orientationFacing.z, 
-			(float)orientationUp.x, (float)orientationUp.y, (float)orientationUp.z}, 
-			0);
+		writeOrientation(orientationFacing.x, orientationFacing.y, orientationFacing.z, x, y, z);
+		errorCheck();
+	}
+
+	/**
+	 * Sets the Listener's facing and top-orientation in one call.
+	 * @param fx	the facing x value.
+	 * @param fy	the facing y value.
+	 * @param fz	the facing z value.
+	 * @param ux	the top x value.
+	 * @param uy	the top y value.
+	 * @param uz	the top z value.
+	 */
+	public void setOrientation(float fx, float fy, float fz, float ux, float uy, float uz)
+	{
+		writeOrientation(fx, fy, fz, ux, uy, uz);
 		errorCheck();
-		orientationUp.set(x,y,z);
+	}
+
+	/**
+	 * Sets the Listener's facing and top-orientation in one call.
+	 * @param facing	the facing vector.
+	 * @param up		the top vector.
+	 */
+	public void setOrientation(Vect3F facing, Vect3F up)
+	{
+		setOrientation(facing.x, facing.y, facing.z, up.x, up.y, up.z);
+	}
+
+	/**
+	 * Sets all of the Listener's positional attributes at once, 
+	 * using one native call each for position, velocity and orientation.
+	 * The velocity is set as-is, even if automatic velocity calculation is on.
+	 * @param position	the position.
+	 * @param velocity	the velocity vector.
+	 * @param facing	the facing vector.
+	 * @param up		the top vector.
+	 */
+	public void setTransform(Point3F position, Vect3F velocity, Vect3F facing, Vect3F up)
+	{
+		writePosition(position.x, position.y, position.z);
+		writeVelocity(velocity.x, velocity.y, velocity.z);
+		writeOrientation(facing.x, facing.y, facing.z, up.x, up.y, up.z);
+		errorCheck();
+	}
+
+	// Writes the position.
+	private void writePosition(float x, float y, float z)
+	{
+		position.set(x, y, z);
+		VECTOR[0] = x;
+		VECTOR[1] = y;
+		VECTOR[2] = z;
+		backend.alListenerfv(AL.AL_POSITION, VECTOR, 0);
+	}
+
+	// Writes the velocity.
+	private void writeVelocity(float x, float y, float z)
+	{
+		velocity.set(x, y, z);
+		VECTOR[0] = x;
+		VECTOR[1] = y;
+		VECTOR[2] = z;
+		backend.alListenerfv(AL.AL_VELOCITY, VECTOR, 0);
+	}
+
+	// Writes both orientation vectors.
+	private void writeOrientation(float fx, float fy, float fz, float ux, float uy, float uz)
+	{
+		orientationFacing.set(fx, fy, fz);
+		orientationUp.set(ux, uy, uz);
+		ORIENTATION[0] = fx;
+		ORIENTATION[1] = fy;
+		ORIENTATION[2] = fz;
+		ORIENTATION[3] = ux;
+		ORIENTATION[4] = uy;
+		ORIENTATION[5] = uz;
+		backend.alListenerfv(AL.AL_ORIENTATION, ORIENTATION, 0);
 	}
 
 	/**
@@ -157,7 +224,8 @@ public class OALListener
 	public void setGain(float f)
 	{
 		gain = f;
-		al.alListenerf(AL.AL_GAIN, gain);
+		backend.alListenerf(AL.AL_GAIN, gain);
+		errorCheck();
 	}
 	
 	/**
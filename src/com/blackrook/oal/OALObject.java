@@ -10,10 +10,8 @@
  *******************************************************************************/
 package com.blackrook.oal;
 
+import com.blackrook.oal.backend.OALBackend;
 import com.blackrook.oal.exception.SoundException;
-import com.jogamp.openal.AL;
-import com.jogamp.openal.ALC;
-import com.jogamp.openal.ALExt;
 
 /**
  * Generic OpenAL object type. 
@@ -23,12 +21,8 @@ public abstract class OALObject
 {
 	/** Link to AL instance. */
 	protected OALSystem system;
-	/** Link to AL instance. */
-	protected AL al;
-	/** Link to ALC instance. */
-	protected ALC alc;
-	/** Link to ALExt instance. */
-	protected ALExt alext;
+	/** Link to the system's backend. */
+	protected OALBackend backend;
 	
 	/** This object's ALId. */
 	private int alId;
@@ -41,15 +35,12 @@ public abstract class OALObject
 	public OALObject(OALSystem system)
 	{
 		this.system = system;
-		this.al = system.getAL();
-		this.alc = system.getALC();
-		this.alext = system.getALExt();
+		this.backend = system.getBackend();
 		alId = alloc();
 	}
 	
 	private final int alloc() throws SoundException 
 	{
-		clearError(); 
 		int a = allocate(); 
 		allocated = true; 
 		system.addObjectReference(this);
@@ -83,8 +74,19 @@ public abstract class OALObject
 		allocated = false;
 	}
 
+	/**
+	 * Marks this object as freed without freeing it, 
+	 * for when it was deleted in bulk by the system. 
+	 */
+	final void invalidate()
+	{
+		allocated = false;
+	}
+
 	/**	 
 	 * Allocates a new type of this object in OpenAL.
+	 * Implementations should use a name reserved by the system, if one is available,
+	 * and call {@link #prepareAllocation()} before generating one and {@link #allocationCheck(int)} after.
 	 * Called by OALObject constructor.
 	 * @return	the ALId of this new object.
 	 * @throws SoundException if the allocation cannot happen.
@@ -100,21 +102,45 @@ public abstract class OALObject
 	
 	/**
 	 * Convenience method for clearing the OpenAL error state.
+	 * Does nothing if the system is not checking errors immediately.
+	 * @see OALSystem#getErrorCheckMode()
 	 */
 	protected void clearError()
 	{
-		while (al.alGetError() != AL.AL_NO_ERROR) ;
+		system.clearError();
+	}
+
+	/**
+	 * Convenience method for readying the OpenAL error state before generating an object name.
+	 * Errors raised by earlier calls are cleared, or kept for the next deferred check
+	 * if the system is deferring error checks.
+	 * @see OALSystem#getErrorCheckMode()
+	 */
+	protected final void prepareAllocation()
+	{
+		system.prepareAllocation();
+	}
+
+	/**
+	 * Convenience method for checking for an OpenAL error after generating an object name.
+	 * Allocations are always checked, regardless of the system's error checking mode,
+	 * since a failed one leaves the object unusable. If the check fails, the name is deleted.
+	 * @param name the generated name.
+	 */
+	protected final void allocationCheck(int name)
+	{
+		system.allocationCheck(this, name);
 	}
 
 	/**
 	 * Convenience method for checking for an OpenAL error and throwing a SoundException
-	 * if an error is raised. 
+	 * if an error is raised. If the system is deferring error checks, the call is recorded
+	 * for the next {@link OALSystem#checkErrors()} instead.
+	 * @see OALSystem#getErrorCheckMode()
 	 */
 	protected final void errorCheck()
 	{
-		int error = al.alGetError();
-		if (error != AL.AL_NO_ERROR)
-			throw new SoundException("Object " + getClass().getSimpleName() + ": AL returned \"" + al.alGetString(error) + "\"");
+		system.errorCheck(this);
 	}
 	
 	/**
@@ -27,6 +27,22 @@ public final class OALSource extends OALObject
 	public static final boolean AUTO_VELOCITY = true;
 	public static final boolean NO_AUTO_VELOCITY = false;
 
+	private static final int DIRTY_POSITION = 1 << 0;
+	private static final int DIRTY_VELOCITY = 1 << 1;
+	private static final int DIRTY_DIRECTION = 1 << 2;
+	private static final int DIRTY_PITCH = 1 << 3;
+	private static final int DIRTY_GAIN = 1 << 4;
+	private static final int DIRTY_MIN_GAIN = 1 << 5;
+	private static final int DIRTY_MAX_GAIN = 1 << 6;
+	private static final int DIRTY_ROLLOFF = 1 << 7;
+	private static final int DIRTY_REFERENCE_DISTANCE = 1 << 8;
+	private static final int DIRTY_MAX_DISTANCE = 1 << 9;
+	private static final int DIRTY_INNER_CONE = 1 << 10;
+	private static final int DIRTY_OUTER_CONE = 1 << 11;
+	private static final int DIRTY_OUTER_CONE_GAIN = 1 << 12;
+	private static final int DIRTY_LOOPING = 1 << 13;
+	private static final int DIRTY_RELATIVE = 1 << 14;
+
 	/** Source's position. */
 	private float[] position;
 	/** Source's velocity vector. */
@@ -64,6 +80,11 @@ public final class OALSource extends OALObject
 	
 	/** Is velocity automatically calculated? */
 	private boolean autoVelocity;
+	
+	/** Are attribute changes deferred until commit? */
+	private boolean deferredUpdates;
+	/** Attributes changed since the last commit. */
+	private int dirty;
 
 	/** Singley-bound buffer. */
 	private OALBuffer buffer;
@@ -82,6 +103,17 @@ public final class OALSource extends OALObject
 	/** Source listeners. */
 	private List<OALSourceListener> sourceListeners; 
 	
+	/** Lock for waiting on the end of playback. */
+	private final Object endLock;
+	/** Is this being watched by the system's source monitor? */
+	private boolean monitored;
+	/** Processed buffer count on the source monitor's last pass. */
+	int monitorProcessed;
+	/** Buffers newly processed on the source monitor's last pass. */
+	int monitorNewlyProcessed;
+	/** Did the source monitor see this stop on its own? */
+	boolean monitorStopped;
+	
 	// ======= Temp data for value retrieval.
 	private int[] STATE_DEQUEUE = new int[1];
 	private int[] STATE_ENQUEUE = new int[1];
@@ -99,6 +131,8 @@ public final class OALSource extends OALObject
 		this.buffer = null;
 		this.bufferQueue = new Queue<OALBuffer>();
 		this.sourceListeners = new List<OALSourceListener>(3);
+		this.endLock = new Object();
+		this.monitored = false;
 		this.autoVelocity = autovel;
 
 		this.position = new float[3];
@@ -108,6 +142,23 @@ public final class OALSource extends OALObject
 		this.auxEffectSlots = new OALEffectSlot[effectSlots];
 		this.auxEffectSlotFilters = new OALFilter[effectSlots];
 
+		// a new source starts with OpenAL's defaults - shadow them so that
+		// reset() only writes what actually differs.
+		this.pitch = 1.0f;
+		this.gain = 1.0f;
+		this.minGain = 0.0f;
+		this.maxGain = 1.0f;
+		this.rolloff = 1.0f;
+		this.referenceDistance = 1.0f;
+		this.maxDistance = Float.MAX_VALUE;
+		this.innerCone = 360f;
+		this.outerCone = 360f;
+		this.outerConeGain = 0f;
+		this.looping = false;
+		this.relative = false;
+		this.deferredUpdates = false;
+		this.dirty = 0;
+
 		reset();
 	}
 
@@ -115,8 +166,11 @@ public final class OALSource extends OALObject
 	protected final int allocate()
 	{
 		int[] STATE_NUMBER = new int[1];
-		al.alGenSources(1, STATE_NUMBER, 0);
-		errorCheck();
+		if (system.takeReservedName(OALSystem.NAME_SOURCE, STATE_NUMBER))
+			return STATE_NUMBER[0];
+		prepareAllocation();
+		backend.alGenSources(1, STATE_NUMBER, 0);
+		allocationCheck(STATE_NUMBER[0]);
 		return STATE_NUMBER[0];
 	}
 	
@@ -126,12 +180,13 @@ public final class OALSource extends OALObject
 	@Override
 	protected final void free()
 	{
+		system.unwatchSource(this);
 		if (isPlaying()) 
 			stop();
 		setBuffer(null);
 		int[] STATE_NUMBER = new int[1];
 		STATE_NUMBER[0] = getALId();
-		al.alDeleteSources(1, STATE_NUMBER, 0);
+		backend.alDeleteSources(1, STATE_NUMBER, 0);
 		errorCheck();
 	}
 
@@ -191,7 +246,7 @@ public final class OALSource extends OALObject
 	 */
 	public void setEffectSlot(int slot, OALEffectSlot effectSlot, OALFilter wetFilter)
 	{
-		al.alSource3i(
+		backend.alSource3i(
 			getALId(), 
 			ALExt.AL_AUXILIARY_SEND_FILTER, 
 			effectSlot == null ? ALExt.AL_EFFECTSLOT_NULL : effectSlot.getALId(), 
@@ -210,26 +265,20 @@ public final class OALSource extends OALObject
 	public void setFilter(OALFilter dryFilter)
 	{
 		this.dryFilter = dryFilter;
-		al.alSourcei(getALId(), ALExt.AL_DIRECT_FILTER, dryFilter == null ? ALExt.AL_FILTER_NULL : dryFilter.getALId());
+		backend.alSourcei(getALId(), ALExt.AL_DIRECT_FILTER, dryFilter == null ? ALExt.AL_FILTER_NULL : dryFilter.getALId());
 		errorCheck();
 	}
 	
 	/**
-	 * Sets the Listener's position attributes.
+	 * Sets the Source's position attributes.
 	 * @param x			the x value.
 	 * @param y			the y value.
 	 * @param z			the z value.
 	 */
 	public void setPosition(float x, float y, float z)
 	{
-		if (autoVelocity)
-			setVelocity(x - position[0], y - position[1], z - position[2]);
-
-		position[0] = x;
-		position[1] = y;
-		position[2] = z;
-		al.alSourcefv(getALId(), AL.AL_POSITION, position, 0);
-		errorCheck();
+		if (updatePosition(x, y, z))
+			errorCheck();
 	}
 
 	/**
@@ -238,12 +287,7 @@ public final class OALSource extends OALObject
 	 */
 	public void setPosition(float[] f)
 	{
-		if (autoVelocity)
-			setVelocity(f[0]-position[0],f[1]-position[1],f[2]-position[2]);
-
-		System.arraycopy(f, 0, position, 0, Math.min(f.length, 3));
-		al.alSourcefv(getALId(), AL.AL_POSITION, position, 0);
-		errorCheck();
+		setPosition(f.length > 0 ? f[0] : position[0], f.length > 1 ? f[1] : position[1], f.length > 2 ? f[2] : position[2]);
 	}
 	
 	/**
@@ -254,11 +298,8 @@ public final class OALSource extends OALObject
 	 */
 	public void setVelocity(float x, float y, float z)
 	{
-		velocity[0] = x;
-		velocity[1] = y;
-		velocity[2] = z;
-		al.alSourcefv(getALId(), AL.AL_VELOCITY, velocity, 0);
-		errorCheck();
+		if (updateVelocity(x, y, z))
+			errorCheck();
 	}
 
 	/**
@@ -267,9 +308,7 @@ public final class OALSource extends OALObject
 	 */
 	public void setVelocity(float[] f)
 	{
-		System.arraycopy(f,0,velocity,0,Math.min(f.length,3));
-		al.alSourcefv(getALId(), AL.AL_VELOCITY, velocity, 0);
-		errorCheck();
+		setVelocity(f.length > 0 ? f[0] : velocity[0], f.length > 1 ? f[1] : velocity[1], f.length > 2 ? f[2] : velocity[2]);
 	}
 		
 	/**
@@ -280,11 +319,8 @@ public final class OALSource extends OALObject
 	 */
 	public void setDirection(float x, float y, float z)
 	{
-		direction[0] = x;
-		direction[1] = y;
-		direction[2] = z;
-		al.alSourcefv(getALId(), AL.AL_DIRECTION, direction, 0);
-		errorCheck();
+		if (updateDirection(x, y, z))
+			errorCheck();
 	}
 
 	/**
@@ -293,9 +329,7 @@ public final class OALSource extends OALObject
 	 */
 	public void setDirection(float[] f)
 	{
-		System.arraycopy(f, 0, direction, 0, Math.min(f.length, 3));
-		al.alSourcefv(getALId(), AL.AL_DIRECTION, direction, 0);
-		errorCheck();
+		setDirection(f.length > 0 ? f[0] : direction[0], f.length > 1 ? f[1] : direction[1], f.length > 2 ? f[2] : direction[2]);
 	}
 	
 	/**
@@ -304,9 +338,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setGain(float f)
 	{
-		gain = RMath.clampValue(f, 0f, 1f);
-		al.alSourcef(getALId(), AL.AL_GAIN, gain);
-		errorCheck();
+		f = RMath.clampValue(f, 0f, 1f);
+		if (gain == f)
+			return;
+		gain = f;
+		changed(DIRTY_GAIN);
 	}
 
 	/**
@@ -316,9 +352,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setMinGain(float f)
 	{
-		minGain = RMath.clampValue(f, 0f, 1f);
-		al.alSourcef(getALId(), AL.AL_MIN_GAIN, minGain);
-		errorCheck();
+		f = RMath.clampValue(f, 0f, 1f);
+		if (minGain == f)
+			return;
+		minGain = f;
+		changed(DIRTY_MIN_GAIN);
 	}
 
 	/**
@@ -328,9 +366,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setMaxGain(float f)
 	{
-		maxGain = RMath.clampValue(f, 0f, 1f);
-		al.alSourcef(getALId(), AL.AL_MAX_GAIN, maxGain);
-		errorCheck();
+		f = RMath.clampValue(f, 0f, 1f);
+		if (maxGain == f)
+			return;
+		maxGain = f;
+		changed(DIRTY_MAX_GAIN);
 	}
 
 	/**
@@ -339,9 +379,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setPitch(float f)
 	{
-		pitch = Math.max(0, f);
-		al.alSourcef(getALId(), AL.AL_PITCH, pitch);
-		errorCheck();
+		f = Math.max(0, f);
+		if (pitch == f)
+			return;
+		pitch = f;
+		changed(DIRTY_PITCH);
 	}
 
 	/**
@@ -370,9 +412,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setRolloff(float f)
 	{
-		rolloff = Math.max(0, f);
-		al.alSourcef(getALId(), AL.AL_ROLLOFF_FACTOR, rolloff);
-		errorCheck();
+		f = Math.max(0, f);
+		if (rolloff == f)
+			return;
+		rolloff = f;
+		changed(DIRTY_ROLLOFF);
 	}
 
 	/**
@@ -382,9 +426,10 @@ public final class OALSource extends OALObject
 	 */
 	public void setOuterConeGain(float f)
 	{
+		if (outerConeGain == f)
+			return;
 		outerConeGain = f;
-		al.alSourcef(getALId(), AL.AL_CONE_OUTER_GAIN, outerConeGain);
-		errorCheck();
+		changed(DIRTY_OUTER_CONE_GAIN);
 	}
 
 	/**
@@ -395,9 +440,10 @@ public final class OALSource extends OALObject
 	 */
 	public void setOuterConeAngle(float f)
 	{
+		if (outerCone == f)
+			return;
 		outerCone = f;
-		al.alSourcef(getALId(), AL.AL_CONE_OUTER_ANGLE, outerCone);
-		errorCheck();
+		changed(DIRTY_OUTER_CONE);
 	}
 
 	/**
@@ -408,9 +454,10 @@ public final class OALSource extends OALObject
 	 */
 	public void setInnerConeAngle(float f)
 	{
+		if (innerCone == f)
+			return;
 		innerCone = f;
-		al.alSourcef(getALId(), AL.AL_CONE_INNER_ANGLE, innerCone);
-		errorCheck();
+		changed(DIRTY_INNER_CONE);
 	}
 
 	/**
@@ -421,9 +468,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setMaxDistance(float f)
 	{
-		maxDistance = Math.max(0, f);
-		al.alSourcef(getALId(), AL.AL_MAX_DISTANCE, maxDistance);
-		errorCheck();
+		f = Math.max(0, f);
+		if (maxDistance == f)
+			return;
+		maxDistance = f;
+		changed(DIRTY_MAX_DISTANCE);
 	}
 
 	/**
@@ -434,9 +483,11 @@ public final class OALSource extends OALObject
 	 */
 	public void setReferenceDistance(float f)
 	{
-		referenceDistance = Math.max(0, f);
-		al.alSourcef(getALId(),	AL.AL_REFERENCE_DISTANCE, referenceDistance);
-		errorCheck();
+		f = Math.max(0, f);
+		if (referenceDistance == f)
+			return;
+		referenceDistance = f;
+		changed(DIRTY_REFERENCE_DISTANCE);
 	}
 
 	/**
@@ -445,9 +496,10 @@ public final class OALSource extends OALObject
 	 */
 	public void setLooping(boolean loop)
 	{
+		if (looping == loop)
+			return;
 		looping = loop;
-		al.alSourcei(getALId(), AL.AL_LOOPING, looping ? AL.AL_TRUE : AL.AL_FALSE);
-		errorCheck();
+		changed(DIRTY_LOOPING);
 	}
 	
 	/**
@@ -455,10 +507,181 @@ public final class OALSource extends OALObject
 	 */
 	public void setRelative(boolean r)
 	{
+		if (relative == r)
+			return;
 		relative = r;
-		al.alSourcei(getALId(), AL.AL_SOURCE_RELATIVE, relative ? AL.AL_TRUE : AL.AL_FALSE);
+		changed(DIRTY_RELATIVE);
+	}
+
+	/**
+	 * Sets if changes to this Source's attributes are deferred until {@link #commit()} is called.
+	 * If false (the default), each change is sent to OpenAL as it happens.
+	 * In either case, setting an attribute to the value it already has does not call OpenAL.
+	 * Turning this off commits any pending changes.
+	 * @param deferred true to defer, false to not.
+	 */
+	public void setDeferredUpdates(boolean deferred)
+	{
+		deferredUpdates = deferred;
+		if (!deferred)
+			commit();
+	}
+	
+	/**
+	 * Returns true if changes to this Source's attributes are deferred until {@link #commit()} is called.
+	 */
+	public boolean isDeferringUpdates()
+	{
+		return deferredUpdates;
+	}
+	
+	/**
+	 * Returns true if this Source has attribute changes that were not yet sent to OpenAL.
+	 */
+	public boolean isDirty()
+	{
+		return dirty != 0;
+	}
+	
+	/**
+	 * Sends all pending attribute changes to OpenAL, one call per changed attribute,
+	 * no matter how many times each attribute was changed since the last commit.
+	 * Does nothing if no attributes changed.
+	 */
+	public void commit()
+	{
+		if (dirty == 0)
+			return;
+		int flags = dirty;
+		dirty = 0;
+		for (int flag = 1; flags != 0; flag <<= 1)
+		{
+			if ((flags & flag) != 0)
+			{
+				writeAttribute(flag);
+				flags &= ~flag;
+			}
+		}
 		errorCheck();
 	}
+	
+	/**
+	 * Sets the position (and velocity, if automatic) without checking for errors.
+	 * @return true if OpenAL was called.
+	 */
+	boolean updatePosition(float x, float y, float z)
+	{
+		boolean out = false;
+		if (autoVelocity)
+			out = updateVelocity(x - position[0], y - position[1], z - position[2]);
+
+		if (position[0] == x && position[1] == y && position[2] == z)
+			return out;
+		position[0] = x;
+		position[1] = y;
+		position[2] = z;
+		return write(DIRTY_POSITION) || out;
+	}
+	
+	/**
+	 * Sets the velocity without checking for errors.
+	 * @return true if OpenAL was called.
+	 */
+	boolean updateVelocity(float x, float y, float z)
+	{
+		if (velocity[0] == x && velocity[1] == y && velocity[2] == z)
+			return false;
+		velocity[0] = x;
+		velocity[1] = y;
+		velocity[2] = z;
+		return write(DIRTY_VELOCITY);
+	}
+	
+	/**
+	 * Sets the direction without checking for errors.
+	 * @return true if OpenAL was called.
+	 */
+	boolean updateDirection(float x, float y, float z)
+	{
+		if (direction[0] == x && direction[1] == y && direction[2] == z)
+			return false;
+		direction[0] = x;
+		direction[1] = y;
+		direction[2] = z;
+		return write(DIRTY_DIRECTION);
+	}
+	
+	// Marks an attribute as changed, and writes and checks it if updates aren't deferred.
+	private void changed(int flag)
+	{
+		if (write(flag))
+			errorCheck();
+	}
+	
+	// Marks an attribute as changed, and writes it if updates aren't deferred. Returns true if written.
+	private boolean write(int flag)
+	{
+		if (deferredUpdates)
+		{
+			dirty |= flag;
+			return false;
+		}
+		writeAttribute(flag);
+		return true;
+	}
+	
+	// Writes a single attribute to OpenAL.
+	private void writeAttribute(int flag)
+	{
+		switch (flag)
+		{
+			case DIRTY_POSITION:
+				backend.alSourcefv(getALId(), AL.AL_POSITION, position, 0);
+				break;
+			case DIRTY_VELOCITY:
+				backend.alSourcefv(getALId(), AL.AL_VELOCITY, velocity, 0);
+				break;
+			case DIRTY_DIRECTION:
+				backend.alSourcefv(getALId(), AL.AL_DIRECTION, direction, 0);
+				break;
+			case DIRTY_PITCH:
+				backend.alSourcef(getALId(), AL.AL_PITCH, pitch);
+				break;
+			case DIRTY_GAIN:
+				backend.alSourcef(getALId(), AL.AL_GAIN, gain);
+				break;
+			case DIRTY_MIN_GAIN:
+				backend.alSourcef(getALId(), AL.AL_MIN_GAIN, minGain);
+				break;
+			case DIRTY_MAX_GAIN:
+				backend.alSourcef(getALId(), AL.AL_MAX_GAIN, maxGain);
+				break;
+			case DIRTY_ROLLOFF:
+				backend.alSourcef(getALId(), AL.AL_ROLLOFF_FACTOR, rolloff);
+				break;
+			case DIRTY_REFERENCE_DISTANCE:
+				backend.alSourcef(getALId(), AL.AL_REFERENCE_DISTANCE, referenceDistance);
+				break;
+			case DIRTY_MAX_DISTANCE:
+				backend.alSourcef(getALId(), AL.AL_MAX_DISTANCE, maxDistance);
+				break;
+			case DIRTY_INNER_CONE:
+				backend.alSourcef(getALId(), AL.AL_CONE_INNER_ANGLE, innerCone);
+				break;
+			case DIRTY_OUTER_CONE:
+				backend.alSourcef(getALId(), AL.AL_CONE_OUTER_ANGLE, outerCone);
+				break;
+			case DIRTY_OUTER_CONE_GAIN:
+				backend.alSourcef(getALId(), AL.AL_CONE_OUTER_GAIN, outerConeGain);
+				break;
+			case DIRTY_LOOPING:
+				backend.alSourcei(getALId(), AL.AL_LOOPING, looping ? AL.AL_TRUE : AL.AL_FALSE);
+				break;
+			case DIRTY_RELATIVE:
+				backend.alSourcei(getALId(), AL.AL_SOURCE_RELATIVE, relative ? AL.AL_TRUE : AL.AL_FALSE);
+				break;
+		}
+	}
 
 	/**
 	 * Returns true if "auto velocity" is on.
@@ -559,8 +782,9 @@ public final class OALSource extends OALObject
 		{
 			STATE_DEQUEUE[0] = out.getALId();
 			clearError();
-			al.alSourceUnqueueBuffers(getALId(), 1, STATE_DEQUEUE, 0);
+			system.unqueueSourceBuffer(this, STATE_DEQUEUE);
 			errorCheck();
+			system.countDequeue();
 			fireSourceBufferDequeuedEvent(this, out);
 		}
 		return out;
@@ -606,8 +830,9 @@ public final class OALSource extends OALObject
 		{
 			STATE_ENQUEUE[0] = b.getALId();
 			clearError();
-			al.alSourceQueueBuffers(getALId(), 1, STATE_ENQUEUE, 0);
+			backend.alSourceQueueBuffers(getALId(), 1, STATE_ENQUEUE, 0);
 			errorCheck();
+			system.countEnqueue();
 			bufferQueue.add(b);
 			fireSourceBufferEnqueuedEvent(this, b);
 		}
@@ -627,25 +852,50 @@ public final class OALSource extends OALObject
 			dequeueAllBuffers();
 		if (b == null)
 		{
-			al.alSourcei(getALId(), AL.AL_BUFFER, 0);
+			backend.alSourcei(getALId(), AL.AL_BUFFER, 0);
 			errorCheck();
 			buffer = null;
 		}
 		else
 		{
-			al.alSourcei(getALId(), AL.AL_BUFFER, b.getALId());
+			backend.alSourcei(getALId(), AL.AL_BUFFER, b.getALId());
 			errorCheck();
 			buffer = b;
 		}
 	}
 
+	/**
+	 * Sets the playback position of this source in seconds, 
+	 * from the start of the bound buffer (or queue).
+	 * If this source is not playing or paused, this is applied when it is played.
+	 * @param seconds the offset in seconds.
+	 */
+	public void setSecondOffset(float seconds)
+	{
+		backend.alSourcef(getALId(), AL.AL_SEC_OFFSET, seconds);
+		errorCheck();
+	}
+
+	/**
+	 * Gets the playback position of this source in seconds, 
+	 * from the start of the bound buffer (or queue).
+	 * This is 0 if this source is stopped.
+	 */
+	public float getSecondOffset()
+	{
+		float[] out = new float[1];
+		backend.alGetSourcef(getALId(), AL.AL_SEC_OFFSET, out, 0);
+		errorCheck();
+		return out[0];
+	}
+
 	/**
 	 * How many buffers are queued up for this source?
 	 */
 	public int getQueuedBufferCount()
 	{
 		int[] out = new int[1];
-		al.alGetSourcei(getALId(), AL.AL_BUFFERS_QUEUED, out, 0);
+		backend.alGetSourcei(getALId(), AL.AL_BUFFERS_QUEUED, out, 0);
 		errorCheck();
 		return out[0];
 	}
@@ -657,7 +907,7 @@ public final class OALSource extends OALObject
 	public int getProcessedBufferCount()
 	{
 		int[] out = new int[1];  
-		al.alGetSourcei(getALId(), AL.AL_BUFFERS_PROCESSED, out, 0);
+		backend.alGetSourcei(getALId(), AL.AL_BUFFERS_PROCESSED, out, 0);
 		errorCheck();
 		return out[0];
 	}
@@ -693,6 +943,7 @@ public final class OALSource extends OALObject
 	 */
 	private void fireSourcePlayedEvent(OALSource source)
 	{
+		system.traceSourcePlayed(source);
 		for (OALSourceListener sl : sourceListeners)
 			sl.sourcePlayed(source);
 	}
@@ -718,12 +969,36 @@ public final class OALSource extends OALObject
 	/**
 	 * Fires a sourceStopped(). 
 	 */
-	private void fireSourceStoppedEvent(OALSource source)
+	void fireSourceStoppedEvent(OALSource source)
 	{
+		system.traceSourceStopped(source);
 		for (OALSourceListener sl : sourceListeners)
 			sl.sourceStopped(source);
 	}
 
+	/**
+	 * Fires a sourceBuffersProcessed(). 
+	 */
+	void fireSourceBuffersProcessedEvent(OALSource source, int count)
+	{
+		for (OALSourceListener sl : sourceListeners)
+			sl.sourceBuffersProcessed(source, count);
+	}
+
+	/**
+	 * Sets if this is being watched by the source monitor.
+	 * Threads waiting on the end of this source are released when this is set to false.
+	 */
+	void setMonitored(boolean monitored)
+	{
+		synchronized (endLock)
+		{
+			this.monitored = monitored;
+			if (!monitored)
+				endLock.notifyAll();
+		}
+	}
+
 	/**
 	 * Fires a sourceBufferDequeued(). 
 	 */
@@ -745,24 +1020,42 @@ public final class OALSource extends OALObject
 	/**
 	 * Makes the calling thread wait for this source to stop playing.
 	 * Pausing this does not make the thread continue.
+	 * If the system's source monitor is running, this waits to be woken by it,
+	 * otherwise this polls the source's state.
 	 * @see #stop()
+	 * @see OALSystem#startSourceMonitor()
 	 */
 	public void waitForEnd()
 	{
-		while (isPlaying())
+		synchronized (endLock)
+		{
+			while (monitored)
+			{
+				try {
+					endLock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		while (isPlaying() || isPaused())
 			Common.sleep(1);
 	}
 	
 	/** 
 	 * Plays this source.
+	 * Any deferred attribute changes are committed first.
 	 * This does nothing if this is not bound to a buffer.
 	 */
 	public void play()
 	{
 		if (isBoundToABuffer())
 		{
-			al.alSourcePlay(getALId());
+			commit();
+			backend.alSourcePlay(getALId());
 			errorCheck();
+			system.watchSource(this);
 			fireSourcePlayedEvent(this);
 		}
 	}
@@ -787,7 +1080,7 @@ public final class OALSource extends OALObject
 	{
 		if (isBoundToABuffer())
 		{
-			al.alSourcePause(getALId());
+			backend.alSourcePause(getALId());
 			errorCheck();
 			fireSourcePausedEvent(this);
 		}
@@ -800,8 +1093,9 @@ public final class OALSource extends OALObject
 	{
 		if (isBoundToABuffer())
 		{
+			system.unwatchSource(this);
 			boolean event = !isStopped();
-			al.alSourceStop(getALId());
+			backend.alSourceStop(getALId());
 			errorCheck();
 			if (event)
 				fireSourceStoppedEvent(this);
@@ -813,7 +1107,8 @@ public final class OALSource extends OALObject
 	{
 		if (isBoundToABuffer())
 		{
-			al.alSourceRewind(getALId());
+			system.unwatchSource(this);
+			backend.alSourceRewind(getALId());
 			errorCheck();
 			fireSourceRewoundEvent(this);
 		}
@@ -854,7 +1149,7 @@ public final class OALSource extends OALObject
 	 */
 	protected final int getState()
 	{
-		al.alGetSourcei(getALId(), AL.AL_SOURCE_STATE, STATE_BUFFER, 0);
+		backend.alGetSourcei(getALId(), AL.AL_SOURCE_STATE, STATE_BUFFER, 0);
 		errorCheck();
 		return STATE_BUFFER[0];		
 	}
@@ -24,6 +24,12 @@ public class OALSourceAdapter implements OALSourceListener
 		// Do nothing.
 	}
 
+	@Override
+	public void sourceBuffersProcessed(OALSource source, int count)
+	{
+		// Do nothing.
+	}
+
 	@Override
 	public void sourceBufferEnqueued(OALSource source, OALBuffer buffer)
 	{
@@ -32,7 +32,9 @@ public interface OALSourceListener
 	public void sourceRewound(OALSource source);
 	
 	/**
-	 * Called when a Source is stopped, NOT when it stops naturally.
+	 * Called when a Source is stopped.
+	 * If the system's source monitor is running, this is also called when 
+	 * it stops on its own, from the monitor's thread.
 	 * @param source 	the source that this occurred on. 
 	 */
 	public void sourceStopped(OALSource source);
@@ -51,4 +53,14 @@ public interface OALSourceListener
 	 */
 	public void sourceBufferDequeued(OALSource source, OALBuffer buffer);
 	
+	/**
+	 * Called when a Source finishes playing one or more of its queued buffers.
+	 * This is only called while the system's source monitor is running,
+	 * from the monitor's thread.
+	 * @param source 	the source that this occurred on. 
+	 * @param count 	the amount of buffers newly processed. 
+	 * @see OALSystem#startSourceMonitor()
+	 */
+	public void sourceBuffersProcessed(OALSource source, int count);
+	
 }
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import com.blackrook.commons.hash.Hash;
+import com.blackrook.commons.list.List;
+import com.blackrook.oal.backend.OALBackend;
+import com.jogamp.openal.AL;
+
+/**
+ * A single thread that watches all playing sources of a system.
+ * <p>
+ * Sources are watched from the moment they are played until they stop. On each pass,
+ * the state and processed buffer count of every watched source is polled, and when
+ * a source runs out on its own or finishes buffers, {@link OALSourceListener#sourceStopped(OALSource)}
+ * or {@link OALSourceListener#sourceBuffersProcessed(OALSource, int)} is called on its listeners.
+ * Events are fired from this thread, not from the thread that played the source.
+ * <p>
+ * While this is running, {@link OALSource#waitForEnd()} waits on this thread instead of polling.
+ * @author Matthew Tropiano
+ */
+public final class OALSourceMonitor extends Thread
+{
+	/** Default time between passes in milliseconds. */
+	public static final long DEFAULT_INTERVAL = 10L;
+
+	/** Next thread id. */
+	private static int threadId = 0;
+
+	/** Owning system. */
+	private OALSystem system;
+	/** Link to the system's backend. */
+	private OALBackend backend;
+	/** Watched sources. */
+	private Hash<OALSource> watched;
+	/** Sources that ended on the last pass. */
+	private List<OALSource> ended;
+	/** Sources that processed buffers on the last pass. */
+	private List<OALSource> processed;
+	/** Time between passes. */
+	private volatile long interval;
+	/** Is this thread running? */
+	private volatile boolean running;
+
+	// ======= Temp data for value retrieval.
+	private int[] STATE_BUFFER = new int[1];
+
+	/**
+	 * Creates a new source monitor.
+	 * @param system the owning system.
+	 * @param interval the time between passes in milliseconds.
+	 */
+	OALSourceMonitor(OALSystem system, long interval)
+	{
+		super("OALSourceMonitor-" + nextThreadId());
+		setDaemon(true);
+		this.system = system;
+		this.backend = system.getBackend();
+		this.watched = new Hash<OALSource>();
+		this.ended = new List<OALSource>();
+		this.processed = new List<OALSource>();
+		this.interval = Math.max(1L, interval);
+		this.running = true;
+	}
+
+	private static synchronized int nextThreadId()
+	{
+		return threadId++;
+	}
+
+	/**
+	 * Sets the time between passes.
+	 * @param millis the interval in milliseconds.
+	 */
+	public void setInterval(long millis)
+	{
+		this.interval = Math.max(1L, millis);
+	}
+
+	/**
+	 * Returns the time between passes in milliseconds.
+	 */
+	public long getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Starts watching a source.
+	 */
+	synchronized void watch(OALSource source)
+	{
+		if (!running)
+			return;
+		source.monitorProcessed = 0;
+		watched.put(source);
+		source.setMonitored(true);
+	}
+
+	/**
+	 * Stops watching a source, without firing any events.
+	 */
+	synchronized void unwatch(OALSource source)
+	{
+		watched.remove(source);
+		source.setMonitored(false);
+	}
+
+	/**
+	 * Unqueues a buffer from a source, and takes it off of the source's processed count
+	 * so that the next buffer processed is not mistaken for the one removed.
+	 */
+	synchronized void unqueue(OALSource source, int[] bufferId)
+	{
+		backend.alSourceUnqueueBuffers(source.getALId(), 1, bufferId, 0);
+		if (source.monitorProcessed > 0)
+			source.monitorProcessed--;
+	}
+
+	/**
+	 * Stops this thread and waits for it to end.
+	 * Threads waiting on the end of watched sources are released.
+	 */
+	void shutDown()
+	{
+		running = false;
+		interrupt();
+		if (this != Thread.currentThread())
+		{
+			try {
+				join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		synchronized (this)
+		{
+			for (OALSource source : watched)
+				source.setMonitored(false);
+			watched.clear();
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		while (running)
+		{
+			poll();
+			dispatch();
+			try {
+				Thread.sleep(interval);
+			} catch (InterruptedException e) {
+				// woken up to end, probably.
+			}
+		}
+	}
+
+	// Polls all watched sources.
+	private synchronized void poll()
+	{
+		for (OALSource source : watched)
+		{
+			int id = source.getALId();
+			backend.alGetSourcei(id, AL.AL_BUFFERS_PROCESSED, STATE_BUFFER, 0);
+			int count = STATE_BUFFER[0];
+			if (count > source.monitorProcessed)
+			{
+				source.monitorNewlyProcessed = count - source.monitorProcessed;
+				processed.add(source);
+			}
+			source.monitorProcessed = count;
+
+			backend.alGetSourcei(id, AL.AL_SOURCE_STATE, STATE_BUFFER, 0);
+			int state = STATE_BUFFER[0];
+			if (state != AL.AL_PLAYING && state != AL.AL_PAUSED)
+			{
+				source.monitorStopped = state == AL.AL_STOPPED;
+				ended.add(source);
+			}
+		}
+
+		for (OALSource source : ended)
+			watched.remove(source);
+	}
+
+	// Fires the events found on the last pass, outside of the lock.
+	private void dispatch()
+	{
+		for (OALSource source : processed)
+			source.fireSourceBuffersProcessedEvent(source, source.monitorNewlyProcessed);
+		processed.clear();
+		for (OALSource source : ended)
+		{
+			if (source.monitorStopped)
+				source.fireSourceStoppedEvent(source);
+			release(source);
+		}
+		ended.clear();
+	}
+
+	// Releases threads waiting on a source's end, unless it was played again.
+	private synchronized void release(OALSource source)
+	{
+		if (!watched.contains(source))
+			source.setMonitored(false);
+	}
+
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+/**
+ * An immutable snapshot of what a sound system is doing, taken by {@link OALSystem#getStatistics()}.
+ * <p>
+ * Object counts and buffer bytes are what is alive when the snapshot is taken.
+ * Call, error and queue counts are totals since the system was created, so rates
+ * can be found by comparing two snapshots with {@link #getTime()}.
+ * @author Matthew Tropiano
+ */
+public final class OALStatistics
+{
+	/** Time taken, in nanoseconds. */
+	private long time;
+
+	/** Live sources. */
+	private int sourceCount;
+	/** Live buffers. */
+	private int bufferCount;
+	/** Live effects. */
+	private int effectCount;
+	/** Live filters. */
+	private int filterCount;
+	/** Live effect slots. */
+	private int effectSlotCount;
+	/** Bytes of sample data in live buffers. */
+	private long bufferBytes;
+
+	/** Backend calls made. */
+	private long callCount;
+	/** AL errors found. */
+	private long errorCount;
+	/** Buffers enqueued on sources. */
+	private long enqueueCount;
+	/** Buffers dequeued from sources. */
+	private long dequeueCount;
+
+	OALStatistics(long time, int sourceCount, int bufferCount, int effectCount, int filterCount, int effectSlotCount,
+		long bufferBytes, long callCount, long errorCount, long enqueueCount, long dequeueCount)
+	{
+		this.time = time;
+		this.sourceCount = sourceCount;
+		this.bufferCount = bufferCount;
+		this.effectCount = effectCount;
+		this.filterCount = filterCount;
+		this.effectSlotCount = effectSlotCount;
+		this.bufferBytes = bufferBytes;
+		this.callCount = callCount;
+		this.errorCount = errorCount;
+		this.enqueueCount = enqueueCount;
+		this.dequeueCount = dequeueCount;
+	}
+
+	/**
+	 * Returns when this snapshot was taken, from {@link System#nanoTime()}.
+	 */
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Returns the amount of live sources, including streaming sources.
+	 */
+	public int getSourceCount()
+	{
+		return sourceCount;
+	}
+
+	/**
+	 * Returns the amount of live buffers.
+	 */
+	public int getBufferCount()
+	{
+		return bufferCount;
+	}
+
+	/**
+	 * Returns the amount of live effects.
+	 */
+	public int getEffectCount()
+	{
+		return effectCount;
+	}
+
+	/**
+	 * Returns the amount of live filters.
+	 */
+	public int getFilterCount()
+	{
+		return filterCount;
+	}
+
+	/**
+	 * Returns the amount of live auxiliary effect slots.
+	 */
+	public int getEffectSlotCount()
+	{
+		return effectSlotCount;
+	}
+
+	/**
+	 * Returns the total size in bytes of the sample data in all live buffers.
+	 */
+	public long getBufferBytes()
+	{
+		return bufferBytes;
+	}
+
+	/**
+	 * Returns the amount of calls made through the system's backend, or -1 if they are not counted.
+	 * Calls are counted if the system was created with a {@link com.blackrook.oal.backend.CountingBackend},
+	 * or if the {@value OALSystem#COUNT_CALLS_PROPERTY} system property is "true".
+	 */
+	public long getCallCount()
+	{
+		return callCount;
+	}
+
+	/**
+	 * Returns the amount of AL errors that the system found.
+	 */
+	public long getErrorCount()
+	{
+		return errorCount;
+	}
+
+	/**
+	 * Returns the amount of buffers enqueued on sources.
+	 */
+	public long getEnqueueCount()
+	{
+		return enqueueCount;
+	}
+
+	/**
+	 * Returns the amount of buffers dequeued from sources.
+	 */
+	public long getDequeueCount()
+	{
+		return dequeueCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("OALStatistics ");
+		sb.append(sourceCount).append(" sources, ");
+		sb.append(bufferCount).append(" buffers (").append(bufferBytes).append(" bytes), ");
+		sb.append(effectCount).append(" effects, ");
+		sb.append(filterCount).append(" filters, ");
+		sb.append(effectSlotCount).append(" effect slots, ");
+		if (callCount >= 0L)
+			sb.append(callCount).append(" calls, ");
+		sb.append(errorCount).append(" errors, ");
+		sb.append(enqueueCount).append(" enqueued, ");
+		sb.append(dequeueCount).append(" dequeued");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+/**
+ * The management interface of a sound system's statistics, registered by {@link OALSystem#registerMBean()}.
+ * Each attribute is read straight from the system's counters, without taking a whole snapshot.
+ * @author Matthew Tropiano
+ */
+public interface OALStatisticsMXBean
+{
+	/** @see OALStatistics#getSourceCount() */
+	public int getSourceCount();
+
+	/** @see OALStatistics#getBufferCount() */
+	public int getBufferCount();
+
+	/** @see OALStatistics#getEffectCount() */
+	public int getEffectCount();
+
+	/** @see OALStatistics#getFilterCount() */
+	public int getFilterCount();
+
+	/** @see OALStatistics#getEffectSlotCount() */
+	public int getEffectSlotCount();
+
+	/** @see OALStatistics#getBufferBytes() */
+	public long getBufferBytes();
+
+	/** @see OALStatistics#getCallCount() */
+	public long getCallCount();
+
+	/** @see OALStatistics#getErrorCount() */
+	public long getErrorCount();
+
+	/** @see OALStatistics#getEnqueueCount() */
+	public long getEnqueueCount();
+
+	/** @see OALStatistics#getDequeueCount() */
+	public long getDequeueCount();
+
+}
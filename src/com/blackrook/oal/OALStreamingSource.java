@@ -0,0 +1,500 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.sound.sampled.AudioFormat;
+
+import com.blackrook.commons.Common;
+import com.blackrook.oal.exception.SoundException;
+
+/**
+ * A source that streams decoded sound data through a small ring of
+ * recycled buffers instead of decoding the entire sound up front.
+ * <p>
+ * Processed buffers are dequeued, refilled from a {@link JSPISoundHandle.Decoder},
+ * and enqueued again by a background thread (or by calling {@link #update()} manually),
+ * so only a few buffers' worth of PCM data is ever resident.
+ * <p>
+ * The positional attributes of the stream are set on its underlying source,
+ * returned by {@link #getSource()}. Do not alter that source's buffer bindings directly.
+ * @author Matthew Tropiano
+ */
+public class OALStreamingSource
+{
+	/** Default amount of buffers in the stream ring. */
+	public static final int DEFAULT_BUFFER_COUNT = 4;
+	/** Default size of each stream buffer in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 32768;
+	/** Default time between refill passes in milliseconds. */
+	public static final long DEFAULT_UPDATE_INTERVAL = 10L;
+	/** Default amount of buffers' worth of data decoded ahead. */
+	public static final int DEFAULT_READ_AHEAD = 2;
+
+	/** Next stream thread id. */
+	private static int streamThreadId = 0;
+
+	/** Owning system. */
+	private OALSystem system;
+	/** Underlying source. */
+	private OALSource source;
+	/** Stream buffers. */
+	private OALBuffer[] buffers;
+	/** Handle to stream from. */
+	private JSPISoundHandle handle;
+	/** Current decoder. */
+	private JSPISoundHandle.Decoder decoder;
+	/** Decoded format. */
+	private AudioFormat decodedFormat;
+
+	/** Decoded chunk staged for upload, if not reading ahead. */
+	private ByteBuffer chunkBuffer;
+	/** Bytes decoded per chunk: the buffer size, rounded down to whole frames of the decoded format. */
+	private int chunkSize;
+	/** Amount of chunks decoded ahead. */
+	private int readAheadChunks;
+
+	/** Does this stream loop? */
+	private boolean looping;
+	/** Has this stream been started? */
+	private boolean streaming;
+	/** Is this stream paused? */
+	private boolean paused;
+	/** Has the decoder run out of data? */
+	private boolean endOfStream;
+
+	/** Refill thread. */
+	private StreamThread streamThread;
+	/** Time between refill passes. */
+	private long updateInterval;
+
+	/**
+	 * Creates a new streaming source.
+	 * @param system the owning system.
+	 * @param handle the handle to stream from.
+	 * @param bufferCount the amount of buffers to cycle.
+	 * @param bufferSize the size of each buffer in bytes, rounded down to whole frames once the decoded format is known.
+	 * @throws SoundException if the source or buffers cannot be allocated.
+	 * @throws IllegalArgumentException if bufferCount is less than 2 or bufferSize is less than 1.
+	 */
+	OALStreamingSource(OALSystem system, JSPISoundHandle handle, int bufferCount, int bufferSize)
+	{
+		if (bufferCount < 2)
+			throw new IllegalArgumentException("A stream requires at least 2 buffers.");
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Stream buffer size must be greater than 0.");
+
+		this.system = system;
+		this.handle = handle;
+		this.source = system.createSource();
+		this.buffers = system.createBuffers(bufferCount);
+		this.chunkBuffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.nativeOrder());
+		this.chunkSize = bufferSize;
+		this.readAheadChunks = DEFAULT_READ_AHEAD;
+		this.decoder = null;
+		this.decodedFormat = null;
+		this.looping = false;
+		this.streaming = false;
+		this.paused = false;
+		this.endOfStream = false;
+		this.streamThread = null;
+		this.updateInterval = DEFAULT_UPDATE_INTERVAL;
+	}
+
+	/**
+	 * Returns the underlying source used for playback.
+	 * Use this to set the gain, pitch, position and other attributes of the stream.
+	 */
+	public OALSource getSource()
+	{
+		return source;
+	}
+
+	/**
+	 * Returns the handle that this streams from.
+	 */
+	public JSPISoundHandle getHandle()
+	{
+		return handle;
+	}
+
+	/**
+	 * Sets if this stream restarts from the beginning when it runs out of data.
+	 * Turning this off lets data already decoded ahead past the end play out.
+	 * @param looping true to loop, false to not.
+	 */
+	public synchronized void setLooping(boolean looping)
+	{
+		this.looping = looping;
+		if (decoder != null)
+			decoder.setLooping(looping);
+	}
+
+	/**
+	 * Returns true if this stream restarts from the beginning when it runs out of data.
+	 */
+	public boolean isLooping()
+	{
+		return looping;
+	}
+
+	/**
+	 * Sets the time between refill passes made by the background thread.
+	 * This should be comfortably less than the play time of one buffer.
+	 * @param millis the interval in milliseconds.
+	 */
+	public void setUpdateInterval(long millis)
+	{
+		this.updateInterval = Math.max(1L, millis);
+	}
+
+	/**
+	 * Returns the time between refill passes made by the background thread in milliseconds.
+	 */
+	public long getUpdateInterval()
+	{
+		return updateInterval;
+	}
+
+	/**
+	 * Sets how many buffers' worth of data is decoded ahead on a background thread,
+	 * which keeps decoding hiccups away from the refill pass. 0 turns read-ahead off.
+	 * This takes effect the next time the stream is started.
+	 * @param chunks the amount of chunks to decode ahead.
+	 */
+	public synchronized void setReadAhead(int chunks)
+	{
+		this.readAheadChunks = Math.max(0, chunks);
+	}
+
+	/**
+	 * Returns how many buffers' worth of data is decoded ahead on a background thread.
+	 */
+	public int getReadAhead()
+	{
+		return readAheadChunks;
+	}
+
+	/**
+	 * Returns true if this stream is started and has not run out of data.
+	 */
+	public synchronized boolean isStreaming()
+	{
+		return streaming;
+	}
+
+	/**
+	 * Starts or resumes playback of this stream, and starts the
+	 * refill thread if it isn't running.
+	 * @throws IOException if the stream could not be opened or read.
+	 */
+	public void play() throws IOException
+	{
+		start();
+		startThread();
+	}
+
+	/**
+	 * Starts or resumes playback of this stream without starting the refill thread.
+	 * The caller is responsible for calling {@link #update()} often enough to keep
+	 * the stream fed.
+	 * @throws IOException if the stream could not be opened or read.
+	 */
+	public synchronized void start() throws IOException
+	{
+		if (paused)
+		{
+			paused = false;
+			source.play();
+			return;
+		}
+
+		if (streaming)
+			return;
+
+		openDecoder();
+		endOfStream = false;
+		for (OALBuffer b : buffers)
+		{
+			if (!fill(b))
+				break;
+			source.enqueueBuffer(b);
+		}
+		streaming = source.isBoundToABuffer();
+		if (streaming)
+			source.play();
+	}
+
+	/**
+	 * Pauses this stream. The refill thread keeps running but does nothing until resumed.
+	 */
+	public synchronized void pause()
+	{
+		if (streaming && !paused)
+		{
+			paused = true;
+			source.pause();
+		}
+	}
+
+	/**
+	 * Stops this stream, stops the refill thread, and releases its buffers from the source.
+	 * The next call to {@link #play()} starts from the beginning.
+	 */
+	public void stop()
+	{
+		stopThread();
+		synchronized (this)
+		{
+			source.stop();
+			source.dequeueAllBuffers();
+			closeDecoder();
+			streaming = false;
+			paused = false;
+			endOfStream = false;
+		}
+	}
+
+	/**
+	 * Refills and requeues all buffers that the source has finished playing.
+	 * This is called by the refill thread, but can be called manually if
+	 * the stream was started with {@link #start()}.
+	 * If the source ran dry before this was called, playback is restarted.
+	 * @return true if this stream is still streaming, false if it has ended.
+	 * @throws IOException if the stream could not be read.
+	 */
+	public synchronized boolean update() throws IOException
+	{
+		if (!streaming)
+			return false;
+		if (paused)
+			return true;
+
+		int processed = source.getProcessedBufferCount();
+		while (processed-- > 0)
+		{
+			OALBuffer b = source.dequeueBuffer();
+			if (b != null && fill(b))
+				source.enqueueBuffer(b);
+		}
+
+		if (!source.isBoundToABuffer())
+		{
+			streaming = false;
+			closeDecoder();
+			return false;
+		}
+
+		// underrun - source played out everything queued before we got to it.
+		if (!source.isPlaying())
+		{
+			system.traceStreamUnderrun(this);
+			source.play();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stops this stream and frees its source and buffers.
+	 * This stream cannot be used after this is called.
+	 */
+	public void destroy()
+	{
+		stop();
+		source.destroy();
+		for (OALBuffer b : buffers)
+			b.destroy();
+		system.removeStreamingSource(this);
+	}
+
+	// Fills a buffer with the next chunk of data. Returns false if no data was read.
+	private boolean fill(OALBuffer buffer) throws IOException
+	{
+		if (endOfStream)
+			return false;
+		if (decoder.isReadingAhead())
+			return fillFromChunk(buffer);
+
+		chunkBuffer.clear();
+		chunkBuffer.limit(chunkSize);
+		int len = decoder.readPCM(chunkBuffer);
+		// the decoder loops by itself - this is for looping turned on after it ran out.
+		while (chunkBuffer.hasRemaining() && looping)
+		{
+			openDecoder();
+			int l = decoder.readPCM(chunkBuffer);
+			if (l == 0)
+				break;
+			len += l;
+		}
+
+		if (chunkBuffer.hasRemaining())
+			endOfStream = true;
+		if (len == 0)
+			return false;
+
+		chunkBuffer.flip();
+		buffer.setFrequencyAndFormat(decodedFormat);
+		buffer.loadPCMData(chunkBuffer, len);
+		return true;
+	}
+
+	// Fills a buffer with the next chunk decoded ahead, without copying it. 
+	// Returns false if no data was read.
+	private boolean fillFromChunk(OALBuffer buffer) throws IOException
+	{
+		ByteBuffer c = decoder.readChunk();
+		// the decoder loops by itself - this is for looping turned on after it ran out.
+		if (c == null && looping)
+		{
+			openDecoder();
+			c = decoder.readChunk();
+		}
+		if (c == null)
+		{
+			endOfStream = true;
+			return false;
+		}
+
+		boolean last = c.remaining() < chunkSize;
+		buffer.setFrequencyAndFormat(decodedFormat);
+		buffer.loadPCMData(c, c.remaining());
+		decoder.recycleChunk(c);
+
+		// the last chunk is short - loop around on the next fill, if looping was turned on since.
+		if (last)
+		{
+			if (looping)
+				openDecoder();
+			else
+				endOfStream = true;
+		}
+		return true;
+	}
+
+	// Opens (or reopens) the decoder.
+	private void openDecoder() throws IOException
+	{
+		closeDecoder();
+		decoder = handle.getDecoder(system.isFloatFormatSupported());
+		decoder.setLooping(looping);
+		decodedFormat = decoder.getDecodedAudioFormat();
+
+		// whole frames only, and at least one.
+		int frameSize = decodedFormat.getFrameSize();
+		if (chunkBuffer.capacity() < frameSize)
+			chunkBuffer = ByteBuffer.allocateDirect(frameSize).order(ByteOrder.nativeOrder());
+		chunkSize = chunkBuffer.capacity() - chunkBuffer.capacity() % frameSize;
+
+		if (readAheadChunks > 0)
+			decoder.startReadAhead(chunkSize, readAheadChunks);
+	}
+
+	// Closes the decoder.
+	private void closeDecoder()
+	{
+		if (decoder != null)
+			Common.close(decoder);
+		decoder = null;
+	}
+
+	// Starts the refill thread.
+	private synchronized void startThread()
+	{
+		if (streamThread != null && streamThread.isAlive())
+			return;
+		streamThread = new StreamThread();
+		streamThread.start();
+	}
+
+	// Stops the refill thread and waits for it to end.
+	private void stopThread()
+	{
+		StreamThread t;
+		synchronized (this)
+		{
+			t = streamThread;
+			streamThread = null;
+		}
+		if (t == null)
+			return;
+
+		t.running = false;
+		t.interrupt();
+		if (t != Thread.currentThread())
+		{
+			try {
+				t.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static synchronized int nextThreadId()
+	{
+		return streamThreadId++;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("StreamingSource ");
+		sb.append(source.getALId()).append(' ');
+		sb.append(handle.getName());
+		return sb.toString();
+	}
+
+	/**
+	 * Background thread that keeps the stream fed.
+	 */
+	private class StreamThread extends Thread
+	{
+		private volatile boolean running;
+
+		StreamThread()
+		{
+			super("OALStreamingSource-" + nextThreadId());
+			setDaemon(true);
+			running = true;
+		}
+
+		@Override
+		public void run()
+		{
+			while (running)
+			{
+				try {
+					if (!update())
+						running = false;
+				} catch (IOException e) {
+					running = false;
+					throw new SoundException("Stream of " + handle.getName() + " could not be read.", e);
+				}
+
+				if (running)
+				{
+					try {
+						Thread.sleep(updateInterval);
+					} catch (InterruptedException e) {
+						running = false;
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -11,8 +11,26 @@
 package com.blackrook.oal;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.sound.sampled.AudioFormat;
 
 import com.blackrook.commons.hash.Hash;
+import com.blackrook.commons.list.List;
+import com.blackrook.oal.backend.CountingBackend;
+import com.blackrook.oal.backend.JOALBackend;
+import com.blackrook.oal.backend.OALBackend;
+import com.blackrook.oal.backend.SoftwareBackend;
 import com.blackrook.oal.effect.AutowahEffect;
 import com.blackrook.oal.effect.ChorusEffect;
 import com.blackrook.oal.effect.CompressorEffect;
@@ -26,16 +44,17 @@ import com.blackrook.oal.effect.ReverbEffect;
 import com.blackrook.oal.effect.RingModulatorEffect;
 import com.blackrook.oal.effect.VocalMorpherEffect;
 import com.blackrook.oal.enums.DistanceModel;
+import com.blackrook.oal.enums.ErrorCheckMode;
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+import com.blackrook.oal.enums.SoundFormat;
 import com.blackrook.oal.exception.*;
 import com.blackrook.oal.filter.BandPassFilter;
 import com.blackrook.oal.filter.HighPassFilter;
 import com.blackrook.oal.filter.LowPassFilter;
 import com.jogamp.openal.AL;
-import com.jogamp.openal.ALC;
-import com.jogamp.openal.ALCcontext;
-import com.jogamp.openal.ALCdevice;
+import com.jogamp.openal.ALException;
 import com.jogamp.openal.ALExt;
-import com.jogamp.openal.ALFactory;
 
 /**
  * This class is a central sound system class designed to manage an OpenAL instance and environment.
@@ -44,17 +63,28 @@ import com.jogamp.openal.ALFactory;
  */
 public final class OALSystem
 {
-	/** System AL instance. */
-	private AL al;
-	/** System ALC instance. */
-	private ALC alc;
-	/** System ALExt instance. */
-	private ALExt alext;
-
-	/** This device. */
-	private ALCdevice alcDevice;
-	/** This context instance. */
-	private ALCcontext alcContext;
+	/** Reserved name kind: buffers. */
+	static final int NAME_BUFFER = 0;
+	/** Reserved name kind: sources. */
+	static final int NAME_SOURCE = 1;
+	/** Reserved name kind: effects. */
+	static final int NAME_EFFECT = 2;
+	/** Reserved name kind: filters. */
+	static final int NAME_FILTER = 3;
+	/** Reserved name kind: auxiliary effect slots. */
+	static final int NAME_EFFECT_SLOT = 4;
+	/** Amount of reserved name kinds. */
+	private static final int NAME_KINDS = 5;
+	
+	/** System property for choosing the default backend: "joal" or "software". */
+	public static final String BACKEND_PROPERTY = "com.blackrook.oal.backend";
+	/** System property for counting every backend call in the statistics: "true" or "false" (default). */
+	public static final String COUNT_CALLS_PROPERTY = "com.blackrook.oal.countCalls";
+
+	/** The backend that all calls are made through. */
+	private OALBackend backend;
+	/** The backend, for reading its call counts (same as backend), or null if calls are not counted. */
+	private CountingBackend counter;
 	/** Distance model. */
 	private DistanceModel currentDistanceModel;
 
@@ -62,57 +92,339 @@ public final class OALSystem
 	private OALListener listener;
 	/** Object references. */
 	private Hash<OALObject> createdObjects;
+	/** Streaming source references. */
+	private List<OALStreamingSource> streamingSources;
+	/** Buffer loaders created by this system. */
+	private List<OALBufferLoader> bufferLoaders;
+	/** Reserved, unused object names by kind. */
+	private int[][] reservedNames;
+	/** Amount of reserved names by kind. */
+	private int[] reservedNameCount;
+	/** Direct buffer reused for loading buffer data. */
+	private ByteBuffer loadBuffer;
 
 	/** Maximum effect slots per source. */
 	private int maxEffectSlots;
+	/** Buffer format support, by format ordinal. */
+	private boolean[] supportedFormats;
+	
+	/** Command thread, if started. */
+	private OALCommandThread commandThread;
+	/** Source monitor thread, if started. */
+	private volatile OALSourceMonitor sourceMonitor;
+
+	/** Loopback mixing frequency, or 0 if not a loopback device. */
+	private int renderFrequency;
+	/** Loopback channel layout, or null if not a loopback device. */
+	private RenderChannels renderChannels;
+	/** Loopback sample type, or null if not a loopback device. */
+	private RenderSampleType renderSampleType;
+
+	/** Error checking policy. */
+	private ErrorCheckMode errorCheckMode;
+	/** Amount of calls made since the last deferred error check. */
+	private int deferredCallCount;
+	/** First object to make a call since the last deferred error check. */
+	private Object deferredFirstCaller;
+	/** Last object to make a call since the last deferred error check. */
+	private Object deferredLastCaller;
+	/** Error read before an allocation and kept for the next deferred error check. */
+	private int deferredError;
+
+	/** AL errors found. */
+	private AtomicLong errorCount;
+	/** Buffers enqueued on sources. */
+	private AtomicLong enqueueCount;
+	/** Buffers dequeued from sources. */
+	private AtomicLong dequeueCount;
+	/** Live objects, by name kind. */
+	private AtomicIntegerArray liveObjects;
+	/** Bytes of sample data in live buffers. */
+	private AtomicLong bufferBytes;
+	/** Registered management bean name, or null if not registered. */
+	private ObjectName mbeanName;
+	/** Trace listeners, replaced on change. */
+	private volatile OALTraceListener[] traceListeners;
 	
 	/**
 	 * Creates a new SoundSystem with the current device as a new sound device and 
 	 * the current context as its first context, made current.
+	 * @see #OALSystem(String)
 	 */
 	public OALSystem()
 	{
-		this(null);
+		this((String)null);
 	}
 	
 	/**
-	 * Creates a new SoundSystem.
+	 * Creates a new SoundSystem on the default backend.
+	 * The backend is chosen by the {@value #BACKEND_PROPERTY} system property ("joal" or "software"). 
+	 * If it is not set, OpenAL is used through JOAL, and if OpenAL can't be loaded, 
+	 * the system falls back to a {@link SoftwareBackend}.
 	 * NOTE: Passing 'null' as the device name will create a new system with the default (current) device and context.
 	 * @param deviceName the name of the device.
+	 * @throws SoundSystemException if the device couldn't be opened.
 	 */
 	public OALSystem(String deviceName)
 	{
-		al = ALFactory.getAL();
-		alc = ALFactory.getALC();
-		alext = ALFactory.getALExt();
-		createdObjects = new Hash<>();
-		
-		String dname = deviceName != null ? "device \""+deviceName+"\"" : "default device";
-		
-		// create device.
-		alcDevice = alc.alcOpenDevice(deviceName);
-		if (alcDevice == null)
-			throw new SoundSystemException("The " + dname + " couldn't be opened.");
-
-		alcContext = alc.alcCreateContext(alcDevice, null);
-		if (alcContext == null)
-			throw new SoundSystemException("The context for " + dname + " couldn't be created.");				
-
-		if (!alc.alcMakeContextCurrent(alcContext))
-			throw new SoundSystemException("The context for " + dname + " couldn't be made current.");
+		initialize();
+		setBackend(openBackend(deviceName, 0, null, null));
+		initializeContext();
+	}
+	
+	/**
+	 * Creates a new SoundSystem on a specific backend.
+	 * NOTE: Passing 'null' as the device name will create a new system with the default (current) device and context.
+	 * @param backend the backend to make all calls through. It is opened by this system.
+	 * @param deviceName the name of the device.
+	 */
+	public OALSystem(OALBackend backend, String deviceName)
+	{
+		initialize();
+		setBackend(openBackend(backend, deviceName, 0, null, null));
+		initializeContext();
+	}
+	
+	/**
+	 * Creates a new SoundSystem on a loopback device, which does not play anything
+	 * through a sound card. Instead, its mix is rendered only on demand, via 
+	 * {@link #renderSamples(ByteBuffer, int)} or {@link #renderSamples(FloatBuffer, int)},
+	 * as fast as the caller asks for it. 
+	 * This is useful for rendering faster than real time, or running without any sound hardware.
+	 * <p>
+	 * The backend is chosen the same way as {@link #OALSystem(String)}. OpenAL needs the 
+	 * ALC_SOFT_loopback extension for this, so if it is loaded without it, choose a {@link SoftwareBackend} instead.
+	 * @param frequency the mixing frequency in Hz.
+	 * @param channels the channel layout of the rendered mix.
+	 * @param type the sample type of the rendered mix.
+	 * @throws SoundSystemException if loopback devices are not supported, or the render format isn't.
+	 */
+	public OALSystem(int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		initialize();
+		setBackend(openBackend(null, frequency, channels, type));
+		initializeLoopback(frequency, channels, type);
+	}
+	
+	/**
+	 * Creates a new SoundSystem on a loopback device of a specific backend.
+	 * @param backend the backend to make all calls through. It is opened by this system.
+	 * @param frequency the mixing frequency in Hz.
+	 * @param channels the channel layout of the rendered mix.
+	 * @param type the sample type of the rendered mix.
+	 * @throws SoundSystemException if loopback devices are not supported, or the render format isn't.
+	 * @see #OALSystem(int, RenderChannels, RenderSampleType)
+	 */
+	public OALSystem(OALBackend backend, int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		initialize();
+		setBackend(openBackend(backend, null, frequency, channels, type));
+		initializeLoopback(frequency, channels, type);
+	}
+	
+	// Creates and opens the default backend, on a loopback device if channels is not null.
+	private static OALBackend openBackend(String deviceName, int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		String name = System.getProperty(BACKEND_PROPERTY);
+		if (name != null)
+			return openBackend(createBackend(name), deviceName, frequency, channels, type);
 
-		listener = new OALListener(al, alc);
+		JOALBackend joal;
+		try {
+			joal = new JOALBackend();
+		} catch (LinkageError | ALException e) {
+			// no native OpenAL. Failing to open a device is not a reason to switch, though.
+			try {
+				return openBackend(new SoftwareBackend(), deviceName, frequency, channels, type);
+			} catch (RuntimeException f) {
+				f.addSuppressed(e);
+				throw f;
+			}
+		}
+		return openBackend(joal, deviceName, frequency, channels, type);
+	}
+	
+	// Opens a backend, on a loopback device if channels is not null.
+	private static OALBackend openBackend(OALBackend backend, String deviceName, int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		if (channels != null)
+			backend.openLoopback(frequency, channels, type);
+		else
+			backend.open(deviceName);
+		return backend;
+	}
+	
+	// Creates a backend by name.
+	private static OALBackend createBackend(String name)
+	{
+		if (name.equalsIgnoreCase("software"))
+			return new SoftwareBackend();
+		else if (name.equalsIgnoreCase("joal"))
+			return new JOALBackend();
+		else
+			throw new SoundSystemException("Unknown backend \"" + name + "\" in " + BACKEND_PROPERTY + ".");
+	}
+	
+	// Sets the opened backend, wrapped so that its calls are counted if asked for.
+	private void setBackend(OALBackend opened)
+	{
+		if (opened instanceof CountingBackend)
+			counter = (CountingBackend)opened;
+		else if (Boolean.getBoolean(COUNT_CALLS_PROPERTY))
+			counter = new CountingBackend(opened);
+		else
+			counter = null;
+		backend = counter != null ? counter : opened;
+	}
+	
+	// Initializes the system's fields.
+	private void initialize()
+	{
+		createdObjects = new Hash<>();
+		streamingSources = new List<>();
+		bufferLoaders = new List<>();
+		reservedNames = new int[NAME_KINDS][0];
+		reservedNameCount = new int[NAME_KINDS];
+		currentDistanceModel = DistanceModel.INVERSE_DISTANCE_CLAMPED;
+		errorCheckMode = ErrorCheckMode.IMMEDIATE;
+		deferredCallCount = 0;
+		deferredFirstCaller = null;
+		deferredLastCaller = null;
+		deferredError = AL.AL_NO_ERROR;
+		errorCount = new AtomicLong(0L);
+		enqueueCount = new AtomicLong(0L);
+		dequeueCount = new AtomicLong(0L);
+		liveObjects = new AtomicIntegerArray(NAME_KINDS);
+		bufferBytes = new AtomicLong(0L);
+		mbeanName = null;
+		traceListeners = new OALTraceListener[0];
+		renderFrequency = 0;
+		renderChannels = null;
+		renderSampleType = null;
+	}
+	
+	// Sets up a loopback system after its device is opened.
+	private void initializeLoopback(int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		renderFrequency = frequency;
+		renderChannels = channels;
+		renderSampleType = type;
+		initializeContext();
+	}
+	
+	// Reads the defaults of the opened device.
+	private void initializeContext()
+	{
+		listener = new OALListener(this);
 		
 		// get device defaults
 		maxEffectSlots = getALCInteger(ALExt.ALC_MAX_AUXILIARY_SENDS);
+		
+		// check buffer formats that need extensions
+		SoundFormat[] formats = SoundFormat.values();
+		supportedFormats = new boolean[formats.length];
+		for (int i = 0; i < formats.length; i++)
+			supportedFormats[i] = formats[i].extension == null || backend.alIsExtensionPresent(formats[i].extension);
 	}
 	
+	/**
+	 * Returns true if this system is on a loopback device.
+	 * @see #OALSystem(int, RenderChannels, RenderSampleType)
+	 */
+	public boolean isLoopback()
+	{
+		return renderChannels != null;
+	}
+	
+	/**
+	 * Returns the mixing frequency of this loopback system, or 0 if this is not a loopback system.
+	 */
+	public int getRenderFrequency()
+	{
+		return renderFrequency;
+	}
+	
+	/**
+	 * Returns the rendered channel layout of this loopback system, or null if this is not a loopback system.
+	 */
+	public RenderChannels getRenderChannels()
+	{
+		return renderChannels;
+	}
+	
+	/**
+	 * Returns the rendered sample type of this loopback system, or null if this is not a loopback system.
+	 */
+	public RenderSampleType getRenderSampleType()
+	{
+		return renderSampleType;
+	}
+	
+	/**
+	 * Returns the size of one rendered sample frame of this loopback system in bytes,
+	 * or 0 if this is not a loopback system.
+	 */
+	public int getRenderFrameSize()
+	{
+		return isLoopback() ? renderChannels.channels * renderSampleType.bytes : 0;
+	}
+	
+	/**
+	 * Mixes the next sample frames of this loopback system into a buffer, 
+	 * starting at its current position. The position is advanced past the rendered data.
+	 * The samples are in the system's render format, in native byte order.
+	 * @param out the direct buffer to render into.
+	 * @param frames the amount of sample frames to render.
+	 * @throws SoundSystemException if this is not a loopback system.
+	 * @throws IllegalArgumentException if the buffer is not direct or does not have enough space remaining.
+	 */
+	public synchronized void renderSamples(ByteBuffer out, int frames)
+	{
+		render(out, frames, 1);
+	}
+	
+	/**
+	 * Mixes the next sample frames of this loopback system into a buffer, 
+	 * starting at its current position. The position is advanced past the rendered data.
+	 * @param out the direct buffer to render into.
+	 * @param frames the amount of sample frames to render.
+	 * @throws SoundSystemException if this is not a loopback system.
+	 * @throws IllegalArgumentException if this system does not render {@link RenderSampleType#FLOAT} samples,
+	 * or the buffer is not direct or does not have enough space remaining.
+	 */
+	public synchronized void renderSamples(FloatBuffer out, int frames)
+	{
+		if (renderSampleType != null && renderSampleType != RenderSampleType.FLOAT)
+			throw new IllegalArgumentException("This system renders " + renderSampleType + " samples, not FLOAT.");
+		render(out, frames, 4);
+	}
+	
+	// Renders samples into a buffer.
+	private void render(Buffer out, int frames, int elementSize)
+	{
+		if (!isLoopback())
+			throw new SoundSystemException("This system is not on a loopback device.");
+		if (!out.isDirect())
+			throw new IllegalArgumentException("Render buffer must be direct.");
+		
+		int elements = frames * getRenderFrameSize() / elementSize;
+		if (out.remaining() < elements)
+			throw new IllegalArgumentException("Render buffer has " + out.remaining() + " elements remaining, needs " + elements + ".");
+		
+		backend.renderSamples(out, frames);
+		out.position(out.position() + elements);
+	}
+
 	/**
 	 * Returns a list of all devices on this system.
 	 */
 	public static String[] getDeviceNames()
 	{
-		return ALFactory.getALC().alcGetDeviceSpecifiers(); 
+		try {
+			return JOALBackend.getDeviceNames();
+		} catch (LinkageError | RuntimeException e) {
+			return SoftwareBackend.getDeviceNames();
+		}
 	}
 
 	/**
@@ -120,32 +432,391 @@ public final class OALSystem
 	 */
 	public static String[] getCaptureDeviceNames()
 	{
-		return ALFactory.getALC().alcGetCaptureDeviceSpecifiers(); 
+		try {
+			return JOALBackend.getCaptureDeviceNames();
+		} catch (LinkageError | RuntimeException e) {
+			return SoftwareBackend.getCaptureDeviceNames();
+		}
+	}
+
+	/**
+	 * Returns the backend that this system makes all of its calls through.
+	 * This is the backend that was opened, or a {@link CountingBackend} around it
+	 * if the {@value #COUNT_CALLS_PROPERTY} system property is "true".
+	 */
+	public OALBackend getBackend()
+	{
+		return backend;
+	}
+
+	/**
+	 * Returns a snapshot of this system's live objects and activity.
+	 * This only reads counters kept as objects are created, loaded and destroyed,
+	 * so it is cheap enough to call every frame, and safe to call from any thread.
+	 */
+	public OALStatistics getStatistics()
+	{
+		return new OALStatistics(System.nanoTime(), 
+			liveObjects.get(NAME_SOURCE), liveObjects.get(NAME_BUFFER), liveObjects.get(NAME_EFFECT), 
+			liveObjects.get(NAME_FILTER), liveObjects.get(NAME_EFFECT_SLOT), bufferBytes.get(),
+			getCallCount(), errorCount.get(), enqueueCount.get(), dequeueCount.get());
+	}
+
+	// Returns the amount of backend calls made, or -1 if they are not counted.
+	private long getCallCount()
+	{
+		return counter != null ? counter.getTotalCount() : -1L;
+	}
+
+	/**
+	 * Registers this system's statistics with the platform MBean server, 
+	 * as "com.blackrook.oal:type=OALSystem,id=" followed by this system's identity hash code.
+	 * Does nothing if they are already registered. They are unregistered on {@link #shutDown()}.
+	 * @throws SoundException if the bean couldn't be registered.
+	 * @see OALStatisticsMXBean
+	 */
+	public synchronized void registerMBean()
+	{
+		if (mbeanName != null)
+			return;
+		try {
+			ObjectName name = new ObjectName("com.blackrook.oal:type=OALSystem,id=" + System.identityHashCode(this));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new StatisticsBean(), name);
+			mbeanName = name;
+		} catch (JMException e) {
+			throw new SoundException("Couldn't register the statistics MBean.", e);
+		}
+	}
+
+	/**
+	 * Unregisters this system's statistics from the platform MBean server.
+	 * Does nothing if they are not registered.
+	 * @throws SoundException if the bean couldn't be unregistered.
+	 */
+	public synchronized void unregisterMBean()
+	{
+		if (mbeanName == null)
+			return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+		} catch (JMException e) {
+			throw new SoundException("Couldn't unregister the statistics MBean.", e);
+		} finally {
+			mbeanName = null;
+		}
+	}
+
+	/**
+	 * Adds a listener that traces what this system is doing.
+	 * @param listener the listener to add.
+	 */
+	public synchronized void addTraceListener(OALTraceListener listener)
+	{
+		OALTraceListener[] out = Arrays.copyOf(traceListeners, traceListeners.length + 1);
+		out[out.length - 1] = listener;
+		traceListeners = out;
+	}
+
+	/**
+	 * Removes a trace listener.
+	 * @param listener the listener to remove.
+	 */
+	public synchronized void removeTraceListener(OALTraceListener listener)
+	{
+		OALTraceListener[] listeners = traceListeners;
+		for (int i = 0; i < listeners.length; i++)
+		{
+			if (listeners[i] == listener)
+			{
+				OALTraceListener[] out = new OALTraceListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, out, 0, i);
+				System.arraycopy(listeners, i + 1, out, i, out.length - i);
+				traceListeners = out;
+				return;
+			}
+		}
+	}
+
+	/** Returns true if there are trace listeners, so that work should be timed. */
+	boolean isTracing()
+	{
+		return traceListeners.length > 0;
+	}
+
+	/** Traces a decode. */
+	void traceBufferDecoded(AudioFormat format, int bytes, long nanos)
+	{
+		for (OALTraceListener listener : traceListeners)
+			listener.bufferDecoded(format, bytes, nanos);
+	}
+
+	/** Traces a buffer upload. */
+	void traceBufferUploaded(OALBuffer buffer, int bytes, long nanos)
+	{
+		for (OALTraceListener listener : traceListeners)
+			listener.bufferUploaded(buffer, bytes, nanos);
+	}
+
+	/** Traces a source play. */
+	void traceSourcePlayed(OALSource source)
+	{
+		for (OALTraceListener listener : traceListeners)
+			listener.sourcePlayed(source);
+	}
+
+	/** Traces a source stop. */
+	void traceSourceStopped(OALSource source)
+	{
+		for (OALTraceListener listener : traceListeners)
+			listener.sourceStopped(source);
+	}
+
+	/** Traces a stream underrun. */
+	void traceStreamUnderrun(OALStreamingSource stream)
+	{
+		for (OALTraceListener listener : traceListeners)
+			listener.streamUnderrun(stream);
+	}
+
+	// Counts and traces an AL error.
+	private void foundError(int error)
+	{
+		errorCount.incrementAndGet();
+		OALTraceListener[] listeners = traceListeners;
+		if (listeners.length > 0)
+		{
+			String message = backend.alGetString(error);
+			for (OALTraceListener listener : listeners)
+				listener.alError(error, message);
+		}
+	}
+
+	/** Counts a buffer enqueued on a source. */
+	void countEnqueue()
+	{
+		enqueueCount.incrementAndGet();
+	}
+
+	/** Counts a buffer dequeued from a source. */
+	void countDequeue()
+	{
+		dequeueCount.incrementAndGet();
+	}
+
+	/** Counts a change in the size of a live buffer's sample data. */
+	void countBufferBytes(long delta)
+	{
+		bufferBytes.addAndGet(delta);
+	}
+
+	synchronized void addObjectReference(OALObject object)
+	{
+		createdObjects.put(object);
+		int kind = getNameKind(object);
+		if (kind >= 0)
+			liveObjects.incrementAndGet(kind);
+	}
+
+	synchronized void removeObjectReference(OALObject object)
+	{
+		if (!createdObjects.remove(object))
+			return;
+		int kind = getNameKind(object);
+		if (kind >= 0)
+			liveObjects.decrementAndGet(kind);
+		if (kind == NAME_BUFFER)
+			bufferBytes.addAndGet(-((OALBuffer)object).getSize());
 	}
 
-	AL getAL()
+	synchronized void removeBufferLoader(OALBufferLoader loader)
 	{
-		return al;
+		bufferLoaders.remove(loader);
+	}
+
+	synchronized void removeStreamingSource(OALStreamingSource source)
+	{
+		streamingSources.remove(source);
+	}
+
+	/**
+	 * Borrows a cleared, native-ordered direct buffer for loading data into buffers.
+	 * The pooled buffer is handed out if it is large enough and not in use,
+	 * otherwise a new one is allocated.
+	 * @param capacity the minimum capacity in bytes.
+	 * @return a direct buffer.
+	 * @see #releaseLoadBuffer(ByteBuffer)
+	 */
+	synchronized ByteBuffer acquireLoadBuffer(int capacity)
+	{
+		ByteBuffer out = loadBuffer;
+		if (out != null && out.capacity() >= capacity)
+			loadBuffer = null;
+		else
+			out = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+		out.clear();
+		return out;
 	}
 	
-	ALC getALC() 
+	/**
+	 * Returns a borrowed load buffer, keeping it for reuse if it is the largest one seen.
+	 * @param buffer the buffer to return.
+	 */
+	synchronized void releaseLoadBuffer(ByteBuffer buffer)
 	{
-		return alc;
+		if (loadBuffer == null || loadBuffer.capacity() < buffer.capacity())
+			loadBuffer = buffer;
 	}
 	
-	ALExt getALExt()
+	/**
+	 * Releases the direct buffer kept for loading sound data into buffers.
+	 * It is kept at the size of the largest sound loaded so far, so this
+	 * is useful after loading a lot of large sounds at once, like at the end of a level load.
+	 */
+	public synchronized void trimLoadBuffer()
 	{
-		return alext;
+		loadBuffer = null;
 	}
 
-	void addObjectReference(OALObject object)
+	/**
+	 * Takes a reserved object name of a particular kind, if any are reserved.
+	 * @param kind the name kind.
+	 * @param out the output array. The name is written to index 0.
+	 * @return true if a name was taken, false if none are reserved.
+	 */
+	synchronized boolean takeReservedName(int kind, int[] out)
 	{
-		createdObjects.put(object);
+		if (reservedNameCount[kind] == 0)
+			return false;
+		out[0] = reservedNames[kind][--reservedNameCount[kind]];
+		return true;
 	}
+	
+	// Generates many names of a particular kind in one call and reserves them.
+	private synchronized void reserveNames(int kind, int amount)
+	{
+		if (amount <= 0)
+			return;
+		
+		int[] names = new int[amount];
+		prepareAllocation();
+		genNames(kind, amount, names);
+		allocationCheck(this, kind, amount, names);
 
-	void removeObjectReference(OALObject object)
+		int count = reservedNameCount[kind];
+		if (reservedNames[kind].length < count + amount)
+			reservedNames[kind] = Arrays.copyOf(reservedNames[kind], count + amount);
+		// reversed, so that they are taken in the order generated.
+		for (int i = amount - 1; i >= 0; i--)
+			reservedNames[kind][count++] = names[i];
+		reservedNameCount[kind] = count;
+	}
+	
+	// Generates names of a particular kind.
+	private void genNames(int kind, int amount, int[] names)
+	{
+		switch (kind)
+		{
+			case NAME_BUFFER:
+				backend.alGenBuffers(amount, names, 0);
+				break;
+			case NAME_SOURCE:
+				backend.alGenSources(amount, names, 0);
+				break;
+			case NAME_EFFECT:
+				backend.alGenEffects(amount, names, 0);
+				break;
+			case NAME_FILTER:
+				backend.alGenFilters(amount, names, 0);
+				break;
+			case NAME_EFFECT_SLOT:
+				backend.alGenAuxiliaryEffectSlots(amount, names, 0);
+				break;
+		}
+	}
+	
+	// Deletes names of a particular kind.
+	private void deleteNames(int kind, int amount, int[] names)
+	{
+		switch (kind)
+		{
+			case NAME_BUFFER:
+				backend.alDeleteBuffers(amount, names, 0);
+				break;
+			case NAME_SOURCE:
+				backend.alDeleteSources(amount, names, 0);
+				break;
+			case NAME_EFFECT:
+				backend.alDeleteEffects(amount, names, 0);
+				break;
+			case NAME_FILTER:
+				backend.alDeleteFilters(amount, names, 0);
+				break;
+			case NAME_EFFECT_SLOT:
+				backend.alDeleteAuxiliaryEffectSlots(amount, names, 0);
+				break;
+		}
+	}
+	
+	// Returns the name kind of an object, or -1 if not known.
+	private static int getNameKind(OALObject object)
 	{
-		createdObjects.remove(object);
+		if (object instanceof OALSource)
+			return NAME_SOURCE;
+		else if (object instanceof OALBuffer)
+			return NAME_BUFFER;
+		else if (object instanceof OALEffect)
+			return NAME_EFFECT;
+		else if (object instanceof OALFilter)
+			return NAME_FILTER;
+		else if (object instanceof OALEffectSlot)
+			return NAME_EFFECT_SLOT;
+		else
+			return -1;
+	}
+	
+	// Deletes all created objects and reserved names, one call per kind of object.
+	private synchronized void freeAllObjects()
+	{
+		int[][] names = new int[NAME_KINDS][];
+		int[] counts = new int[NAME_KINDS];
+		for (int k = 0; k < NAME_KINDS; k++)
+		{
+			names[k] = new int[createdObjects.size() + reservedNameCount[k]];
+			System.arraycopy(reservedNames[k], 0, names[k], 0, reservedNameCount[k]);
+			counts[k] = reservedNameCount[k];
+			reservedNameCount[k] = 0;
+		}
+
+		List<OALObject> others = new List<>();
+		for (OALObject object : createdObjects)
+		{
+			int kind = getNameKind(object);
+			if (kind < 0)
+			{
+				others.add(object);
+				continue;
+			}
+			names[kind][counts[kind]++] = object.getALId();
+			object.invalidate();
+		}
+		createdObjects.clear();
+		for (int k = 0; k < NAME_KINDS; k++)
+			liveObjects.set(k, 0);
+		bufferBytes.set(0L);
+
+		for (OALObject object : others)
+			object.destroy();
+
+		// sources reference buffers, filters and slots, and slots reference effects.
+		final int[] ORDER = {NAME_SOURCE, NAME_EFFECT_SLOT, NAME_EFFECT, NAME_FILTER, NAME_BUFFER};
+		for (int kind : ORDER)
+		{
+			if (counts[kind] > 0)
+			{
+				deleteNames(kind, counts[kind], names[kind]);
+				errorCheck(this);
+			}
+		}
 	}
 	
 	// Returns an AL enum integer.
@@ -153,7 +824,7 @@ public final class OALSystem
 	private int getALInteger(int enumerant)
 	{
 		int[] OUTPUT = new int[1];
-		al.alGetIntegerv(enumerant, OUTPUT, 0);
+		backend.alGetIntegerv(enumerant, OUTPUT, 0);
 		getError();
 		return OUTPUT[0];
 	}
@@ -162,10 +833,145 @@ public final class OALSystem
 	// Returns an ALC enum integer.
 	private int getALCInteger(int enumerant)
 	{
-		int[] OUTPUT = new int[1];
-		alc.alcGetIntegerv(alcDevice, enumerant, 1, OUTPUT, 0);
+		int out = backend.alcGetInteger(enumerant);
 		getError();
-		return OUTPUT[0];
+		return out;
+	}
+	
+	/**
+	 * Starts a dedicated thread for making OpenAL calls, with the default command capacity.
+	 * If a command thread is already running, this returns it.
+	 * @return the running command thread.
+	 * @see OALCommandThread#DEFAULT_CAPACITY
+	 */
+	public OALCommandThread startCommandThread()
+	{
+		return startCommandThread(OALCommandThread.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Starts a dedicated thread for making OpenAL calls.
+	 * Other threads post commands to it without blocking on native calls.
+	 * If a command thread is already running, this returns it.
+	 * @param capacity the maximum amount of commands that can be waiting at once (rounded up to a power of two).
+	 * @return the running command thread.
+	 */
+	public synchronized OALCommandThread startCommandThread(int capacity)
+	{
+		if (commandThread == null)
+		{
+			commandThread = new OALCommandThread(this, capacity);
+			commandThread.start();
+		}
+		return commandThread;
+	}
+	
+	/**
+	 * Returns this system's command thread, or null if it was not started.
+	 */
+	public synchronized OALCommandThread getCommandThread()
+	{
+		return commandThread;
+	}
+	
+	/**
+	 * Stops this system's command thread, if started, after running all of its pending commands.
+	 */
+	public void stopCommandThread()
+	{
+		OALCommandThread thread;
+		synchronized (this)
+		{
+			thread = commandThread;
+			commandThread = null;
+		}
+		if (thread != null)
+			thread.shutDown();
+	}
+	
+	/**
+	 * Starts a thread that watches all playing sources, with the default time between passes.
+	 * If a source monitor is already running, this returns it.
+	 * @return the running source monitor.
+	 * @see OALSourceMonitor#DEFAULT_INTERVAL
+	 */
+	public OALSourceMonitor startSourceMonitor()
+	{
+		return startSourceMonitor(OALSourceMonitor.DEFAULT_INTERVAL);
+	}
+	
+	/**
+	 * Starts a thread that watches all playing sources, and fires events on them
+	 * when they stop on their own or finish playing queued buffers.
+	 * Only sources played after this is started are watched.
+	 * If a source monitor is already running, this returns it.
+	 * @param intervalMillis the time between passes in milliseconds.
+	 * @return the running source monitor.
+	 */
+	public synchronized OALSourceMonitor startSourceMonitor(long intervalMillis)
+	{
+		if (sourceMonitor == null)
+		{
+			sourceMonitor = new OALSourceMonitor(this, intervalMillis);
+			sourceMonitor.start();
+		}
+		return sourceMonitor;
+	}
+	
+	/**
+	 * Returns this system's source monitor, or null if it was not started.
+	 */
+	public OALSourceMonitor getSourceMonitor()
+	{
+		return sourceMonitor;
+	}
+	
+	/**
+	 * Stops this system's source monitor, if started.
+	 * Threads waiting on the end of sources via {@link OALSource#waitForEnd()} go back to polling.
+	 */
+	public void stopSourceMonitor()
+	{
+		OALSourceMonitor monitor;
+		synchronized (this)
+		{
+			monitor = sourceMonitor;
+			sourceMonitor = null;
+		}
+		if (monitor != null)
+			monitor.shutDown();
+	}
+	
+	/**
+	 * Starts watching a source with the source monitor, if it is running.
+	 */
+	void watchSource(OALSource source)
+	{
+		OALSourceMonitor monitor = sourceMonitor;
+		if (monitor != null)
+			monitor.watch(source);
+	}
+	
+	/**
+	 * Stops watching a source with the source monitor, if it is running.
+	 */
+	void unwatchSource(OALSource source)
+	{
+		OALSourceMonitor monitor = sourceMonitor;
+		if (monitor != null)
+			monitor.unwatch(source);
+	}
+
+	/**
+	 * Unqueues a buffer from a source, through the source monitor if it is running.
+	 */
+	void unqueueSourceBuffer(OALSource source, int[] bufferId)
+	{
+		OALSourceMonitor monitor = sourceMonitor;
+		if (monitor != null)
+			monitor.unqueue(source, bufferId);
+		else
+			backend.alSourceUnqueueBuffers(source.getALId(), 1, bufferId, 0);
 	}
 	
 	/**
@@ -173,7 +979,7 @@ public final class OALSystem
 	 */
 	public void suspendCurrentContext()
 	{
-		alc.alcSuspendContext(alcContext);
+		backend.alcSuspendContext();
 		getError();
 	}
 	
@@ -182,10 +988,91 @@ public final class OALSystem
 	 */
 	public void processCurrentContext()
 	{
-		alc.alcProcessContext(alcContext);
+		backend.alcProcessContext();
 		getError();
 	}
 	
+	/**
+	 * Sets the positions, velocities and/or directions of many sources in one pass.
+	 * <p>
+	 * The vector arrays are packed as three floats (x, y, z) per entry, where entry <code>i</code>
+	 * applies to <code>sources[indices[i]]</code> (or <code>sources[i]</code> if indices is null).
+	 * Any vector array can be null to leave that attribute alone. Unchanged values are skipped,
+	 * context processing is suspended for the duration of the update, and errors are checked 
+	 * once for the whole batch (according to the error checking mode).
+	 * <p>
+	 * Sources with automatic velocity calculate their velocity from the new position unless
+	 * velocities are also provided, in which case the provided ones win.
+	 * @param sources the sources to update.
+	 * @param indices the indices into the source array for each entry, or null for entry i to be source i.
+	 * @param count the amount of entries to apply.
+	 * @param positions the packed positions, or null.
+	 * @param velocities the packed velocities, or null.
+	 * @param directions the packed directions, or null.
+	 * @throws SoundException if an error is raised.
+	 * @throws ArrayIndexOutOfBoundsException if the arrays are too short for the amount of entries.
+	 */
+	public void updateSources(OALSource[] sources, int[] indices, int count, float[] positions, float[] velocities, float[] directions)
+	{
+		boolean called = false;
+		backend.alcSuspendContext();
+		try {
+			for (int i = 0, v = 0; i < count; i++, v += 3)
+			{
+				OALSource source = sources[indices != null ? indices[i] : i];
+				if (positions != null)
+					called |= source.updatePosition(positions[v], positions[v + 1], positions[v + 2]);
+				if (velocities != null)
+					called |= source.updateVelocity(velocities[v], velocities[v + 1], velocities[v + 2]);
+				if (directions != null)
+					called |= source.updateDirection(directions[v], directions[v + 1], directions[v + 2]);
+			}
+		} finally {
+			backend.alcProcessContext();
+		}
+		if (called)
+			errorCheck(this);
+	}
+	
+	/**
+	 * Sets the positions, velocities and/or directions of many sources in one pass.
+	 * Works exactly like {@link #updateSources(OALSource[], int[], int, float[], float[], float[])},
+	 * except the vectors are read from buffers, starting at each buffer's current position.
+	 * The buffers' positions are not changed.
+	 * @param sources the sources to update.
+	 * @param indices the indices into the source array for each entry, or null for entry i to be source i.
+	 * @param count the amount of entries to apply.
+	 * @param positions the packed positions, or null.
+	 * @param velocities the packed velocities, or null.
+	 * @param directions the packed directions, or null.
+	 * @throws SoundException if an error is raised.
+	 * @throws IndexOutOfBoundsException if the buffers are too short for the amount of entries.
+	 */
+	public void updateSources(OALSource[] sources, int[] indices, int count, FloatBuffer positions, FloatBuffer velocities, FloatBuffer directions)
+	{
+		boolean called = false;
+		int p = positions != null ? positions.position() : 0;
+		int vl = velocities != null ? velocities.position() : 0;
+		int d = directions != null ? directions.position() : 0;
+		backend.alcSuspendContext();
+		try {
+			for (int i = 0, v = 0; i < count; i++, v += 3)
+			{
+				OALSource source = sources[indices != null ? indices[i] : i];
+				if (positions != null)
+					called |= source.updatePosition(positions.get(p + v), positions.get(p + v + 1), positions.get(p + v + 2));
+				if (velocities != null)
+					called |= source.updateVelocity(velocities.get(vl + v), velocities.get(vl + v + 1), velocities.get(vl + v + 2));
+				if (directions != null)
+					called |= source.updateDirection(directions.get(d + v), directions.get(d + v + 1), directions.get(d + v + 2));
+			}
+		} finally {
+			backend.alcProcessContext();
+		}
+		if (called)
+			errorCheck(this);
+	}
+	
 	/**
 	 * Allocates a new source and assigns it internally to the current context.
 	 * @return the newly allocated source.
@@ -207,6 +1094,66 @@ public final class OALSystem
 		return new OALSource(this, autoVelocity, maxEffectSlots);
 	}
 
+	/**
+	 * Allocates many new sources, generating all of their names in one call.
+	 * @param amount the amount of sources to create.
+	 * @return the newly allocated sources.
+	 * @throws SoundException if the sources can't be created.
+	 */
+	public OALSource[] createSources(int amount)
+	{
+		return createSources(amount, false);
+	}
+	
+	/**
+	 * Allocates many new sources, generating all of their names in one call.
+	 * @param amount the amount of sources to create.
+	 * @param autoVelocity if true, set auto velocity to on for these Sources.
+	 * @return the newly allocated sources.
+	 * @throws SoundException if the sources can't be created.
+	 */
+	public OALSource[] createSources(int amount, boolean autoVelocity)
+	{
+		reserveNames(NAME_SOURCE, amount);
+		OALSource[] out = new OALSource[amount];
+		for (int i = 0; i < amount; i++)
+			out[i] = createSource(autoVelocity);
+		return out;
+	}
+
+	/**
+	 * Allocates a new streaming source that plays the sound data readable by a handle
+	 * without decoding all of it into memory first, using the default amount and size 
+	 * of stream buffers.
+	 * @param handle the handle to the sound data to stream.
+	 * @return the newly allocated streaming source.
+	 * @throws SoundSystemException if the source can't be created.
+	 * @throws SoundException if the stream buffers can't be allocated.
+	 * @see OALStreamingSource#DEFAULT_BUFFER_COUNT
+	 * @see OALStreamingSource#DEFAULT_BUFFER_SIZE
+	 */
+	public OALStreamingSource createStreamingSource(JSPISoundHandle handle)
+	{
+		return createStreamingSource(handle, OALStreamingSource.DEFAULT_BUFFER_COUNT, OALStreamingSource.DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Allocates a new streaming source that plays the sound data readable by a handle
+	 * without decoding all of it into memory first.
+	 * @param handle the handle to the sound data to stream.
+	 * @param bufferCount the amount of buffers to cycle (at least 2).
+	 * @param bufferSize the size of each buffer in bytes. It is rounded down to a whole number of decoded frames.
+	 * @return the newly allocated streaming source.
+	 * @throws SoundSystemException if the source can't be created.
+	 * @throws SoundException if the stream buffers can't be allocated.
+	 */
+	public synchronized OALStreamingSource createStreamingSource(JSPISoundHandle handle, int bufferCount, int bufferSize)
+	{
+		OALStreamingSource out = new OALStreamingSource(this, handle, bufferCount, bufferSize);
+		streamingSources.add(out);
+		return out;
+	}
+
 	/**
 	 * Allocates a new buffer for loading data into. Buffers are independent
 	 * of device context. 
@@ -219,28 +1166,182 @@ public final class OALSystem
 	}
 	
 	/**
-	 * Allocates a new buffer for loading data into. Buffers are independent
-	 * of device context. 
+	 * Allocates many new buffers for loading data into, generating all of 
+	 * their names in one call. Buffers are independent of device context. 
 	 * @return a set of newly allocated buffers.
 	 * @throws SoundException if the Buffer can't be allocated somehow.
 	 */
 	public OALBuffer[] createBuffers(int amount)
 	{
+		reserveNames(NAME_BUFFER, amount);
 		OALBuffer[] out = new OALBuffer[amount];
 		for (int i = 0; i < amount; i++)
 			out[i] = createBuffer();
 		return out;
 	}
 	
+	/**
+	 * Sets the error checking policy for all objects created by this system.
+	 * By default, this is {@link ErrorCheckMode#IMMEDIATE}.
+	 * If this is changed away from {@link ErrorCheckMode#DEFERRED}, any pending deferred 
+	 * errors are checked first.
+	 * @param mode the new mode.
+	 * @throws SoundException if a deferred error was pending.
+	 */
+	public void setErrorCheckMode(ErrorCheckMode mode)
+	{
+		if (errorCheckMode == ErrorCheckMode.DEFERRED && mode != ErrorCheckMode.DEFERRED)
+			checkErrors();
+		errorCheckMode = mode;
+	}
+	
+	/**
+	 * Returns the error checking policy for all objects created by this system.
+	 */
+	public ErrorCheckMode getErrorCheckMode()
+	{
+		return errorCheckMode;
+	}
+	
+	/**
+	 * Checks for an OpenAL error raised by any call made since the last check,
+	 * and throws a SoundException attributing it to that batch of calls.
+	 * In {@link ErrorCheckMode#DEFERRED} mode, this should be called at a regular 
+	 * flush point, like once per frame.
+	 * @throws SoundException if an error was raised.
+	 */
+	public void checkErrors()
+	{
+		int count = deferredCallCount;
+		Object first = deferredFirstCaller;
+		Object last = deferredLastCaller;
+		deferredCallCount = 0;
+		deferredFirstCaller = null;
+		deferredLastCaller = null;
+
+		int error = deferredError;
+		deferredError = AL.AL_NO_ERROR;
+		if (error == AL.AL_NO_ERROR && (error = backend.alGetError()) != AL.AL_NO_ERROR)
+			foundError(error);
+
+		if (error != AL.AL_NO_ERROR)
+		{
+			StringBuilder sb = new StringBuilder();
+			sb.append("Batch of ").append(count).append(" call(s)");
+			if (first != null)
+				sb.append(" from ").append(first).append(" to ").append(last);
+			sb.append(": AL returned \"").append(backend.alGetString(error)).append("\".");
+			throw new SoundException(sb.toString());
+		}
+	}
+	
+	/**
+	 * Checks or records a call made by an object, depending on the error checking mode.
+	 * @param caller the object that made the call. 
+	 */
+	void errorCheck(Object caller)
+	{
+		switch (errorCheckMode)
+		{
+			case IMMEDIATE:
+			{
+				int error = backend.alGetError();
+				if (error != AL.AL_NO_ERROR)
+				{
+					foundError(error);
+					throw new SoundException("Object " + caller.getClass().getSimpleName() + ": AL returned \"" + backend.alGetString(error) + "\"");
+				}
+				break;
+			}
+			case DEFERRED:
+			{
+				if (deferredCallCount++ == 0)
+					deferredFirstCaller = caller;
+				deferredLastCaller = caller;
+				break;
+			}
+			case DISABLED:
+				break;
+		}
+	}
+	
+	/**
+	 * Readies the error state for generating object names, regardless of error checking mode.
+	 * Errors raised before are cleared, but if errors are deferred, the first one is kept
+	 * for the next {@link #checkErrors()}, so that an allocation is only checked against its own call.
+	 */
+	void prepareAllocation()
+	{
+		int error;
+		while ((error = backend.alGetError()) != AL.AL_NO_ERROR)
+		{
+			foundError(error);
+			if (errorCheckMode == ErrorCheckMode.DEFERRED && deferredError == AL.AL_NO_ERROR)
+				deferredError = error;
+		}
+	}
+	
+	/**
+	 * Checks the call that generated an object's name, regardless of error checking mode.
+	 * @param object the object that made the call. 
+	 * @param name the generated name.
+	 */
+	void allocationCheck(OALObject object, int name)
+	{
+		int kind = getNameKind(object);
+		allocationCheck(object, kind, kind < 0 ? 0 : 1, new int[]{name});
+	}
+	
+	/**
+	 * Checks the call that generated object names, regardless of error checking mode.
+	 * If it raised an error, the names are deleted in case any were generated.
+	 * @param caller the object that made the call. 
+	 * @param kind the name kind.
+	 * @param amount the amount of names.
+	 * @param names the generated names.
+	 */
+	private void allocationCheck(Object caller, int kind, int amount, int[] names)
+	{
+		int error = backend.alGetError();
+		if (error == AL.AL_NO_ERROR)
+			return;
+
+		foundError(error);
+		if (amount > 0)
+		{
+			// nothing should have been generated, but make sure. Deleting name 0 does nothing.
+			deleteNames(kind, amount, names);
+			backend.alGetError();
+		}
+		throw new SoundException("Object " + caller.getClass().getSimpleName() + ": AL returned \"" + backend.alGetString(error) + "\"");
+	}
+	
+	/**
+	 * Clears the OpenAL error state, if errors are checked immediately.
+	 * Otherwise, this does nothing so that pending deferred errors are not lost. 
+	 */
+	void clearError()
+	{
+		if (errorCheckMode == ErrorCheckMode.IMMEDIATE)
+		{
+			int error;
+			while ((error = backend.alGetError()) != AL.AL_NO_ERROR)
+				foundError(error);
+		}
+	}
+	
 	/**
 	 * Convenience method for checking for an OpenAL error and throwing a SoundException
 	 * if an error is raised. 
 	 */
 	public void getError()
 	{
-		int error = al.alGetError();
+		int error = backend.alGetError();
 		if (error != AL.AL_NO_ERROR)
-			throw new SoundException("OpenAL returned \""+al.alGetString(error)+"\".");
+		{
+			foundError(error);
+			throw new SoundException("OpenAL returned \""+backend.alGetString(error)+"\".");
+		}
 	}
 	
 	/**
@@ -249,16 +1350,16 @@ public final class OALSystem
 	 */
 	public void getContextError()
 	{
-		int error = alc.alcGetError(alcDevice);
+		int error = backend.alcGetError();
 		if (error != AL.AL_NO_ERROR)
-			throw new SoundException("OpenAL returned \""+alc.alcGetString(alcDevice, error)+"\".");
+			throw new SoundException("OpenAL returned \""+backend.alcGetString(error)+"\".");
 	}
 	
 	/**
 	 * Allocates a new buffer with data loaded into it. All of the sound data
 	 * readable by the SoundData instance is read into the buffer.
 	 * If you know that the data being loaded is very long or large, you
-	 * should consider using a Streaming Source to conserve memory.
+	 * should consider using a {@link OALStreamingSource} to conserve memory.
 	 * Buffers are independant of device context. 
 	 * @param handle the handle to the sound data to load into this buffer.
 	 * @return a newly allocated buffer.
@@ -274,7 +1375,7 @@ public final class OALSystem
 	 * Allocates a new buffer with data loaded into it. All of the sound data
 	 * readable by the SoundDataDecoder instance is read into the buffer.
 	 * If you know that the data being loaded is very long or large, you
-	 * should consider using a Streaming Source to conserve memory.
+	 * should consider using a {@link OALStreamingSource} to conserve memory.
 	 * Buffers are independent of device context. 
 	 * @param dataDecoder the decoder of the sound data to load into this buffer.
 	 * @return a newly allocated buffer.
@@ -286,6 +1387,92 @@ public final class OALSystem
 		return new OALBuffer(this, dataDecoder);
 	}
 	
+	/**
+	 * Allocates a new buffer with data loaded into it, compressed to IMA4 ADPCM
+	 * (AL_EXT_IMA4) so that it takes about a quarter of the memory of 16-bit data.
+	 * Only 16-bit mono or stereo data is compressed - anything else, or everything if the
+	 * extension is not present, is loaded uncompressed, like {@link #createBuffer(JSPISoundHandle)}.
+	 * Compression is lossy, so this is better suited to ambience and dialogue than music.
+	 * @param handle the handle to the sound data to load into this buffer.
+	 * @return a newly allocated buffer.
+	 * @throws IOException if the data can't be read.
+	 * @throws SoundException if the Buffer can't be allocated somehow.
+	 * @see ADPCMEncoder
+	 */
+	public OALBuffer createCompressedBuffer(JSPISoundHandle handle) throws IOException
+	{
+		return new OALBuffer(this, handle, true);
+	}
+	
+	/**
+	 * Allocates a new buffer with a decoder's data loaded into it, compressed to IMA4 ADPCM
+	 * (AL_EXT_IMA4) if it is 16-bit mono or stereo data and the extension is present.
+	 * @param dataDecoder the decoder of the sound data to load into this buffer.
+	 * @return a newly allocated buffer.
+	 * @throws IOException if the data can't be read.
+	 * @throws SoundException if the Buffer can't be allocated somehow.
+	 * @see #createCompressedBuffer(JSPISoundHandle)
+	 */
+	public OALBuffer createCompressedBuffer(JSPISoundHandle.Decoder dataDecoder) throws IOException
+	{
+		return new OALBuffer(this, dataDecoder, true);
+	}
+	
+	/**
+	 * Creates a new reference-counted buffer cache, for sharing buffers
+	 * loaded from the same sound data among many sources.
+	 * @param byteBudget the maximum total size of cached, unreferenced buffers in bytes.
+	 * @return the new cache.
+	 * @see OALBufferCache
+	 */
+	public OALBufferCache createBufferCache(long byteBudget)
+	{
+		return new OALBufferCache(this, byteBudget);
+	}
+	
+	/**
+	 * Creates a new asynchronous buffer loader that decodes on 
+	 * as many worker threads as there are available processors.
+	 * @return the new loader.
+	 * @see OALBufferLoader
+	 */
+	public OALBufferLoader createBufferLoader()
+	{
+		return createBufferLoader(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a new asynchronous buffer loader that decodes on its own worker threads.
+	 * The threads are stopped when the loader or this system is shut down.
+	 * @param threads the amount of worker threads.
+	 * @return the new loader.
+	 * @throws IllegalArgumentException if threads is less than 1.
+	 * @see OALBufferLoader
+	 */
+	public OALBufferLoader createBufferLoader(int threads)
+	{
+		return addBufferLoader(new OALBufferLoader(this, threads));
+	}
+	
+	/**
+	 * Creates a new asynchronous buffer loader that decodes using an existing executor.
+	 * The loader is shut down with this system, but the executor is never shut down by it.
+	 * @param executor the executor to decode on.
+	 * @return the new loader.
+	 * @see OALBufferLoader
+	 */
+	public OALBufferLoader createBufferLoader(ExecutorService executor)
+	{
+		return addBufferLoader(new OALBufferLoader(this, executor, false));
+	}
+	
+	// Keeps a loader for shutting down with this system.
+	private synchronized OALBufferLoader addBufferLoader(OALBufferLoader loader)
+	{
+		bufferLoaders.add(loader);
+		return loader;
+	}
+	
 	/**
 	 * Creates a new Auxiliary Effect Slot for adding a filter and effects to Sources.
 	 * These slots can be added to sources. If you have more than one source 
@@ -300,6 +1487,59 @@ public final class OALSystem
 		return new OALEffectSlot(this);
 	}
 	
+	/**
+	 * Creates a new voice pool that allocates up to a maximum amount of real sources
+	 * and shares them among any amount of virtual voices.
+	 * If the device runs out of sources first, the pool uses as many as it could allocate.
+	 * @param maxSources the maximum amount of sources for the pool to allocate.
+	 * @return the new voice pool.
+	 * @throws SoundException if not even one source could be allocated.
+	 * @see OALVoicePool
+	 */
+	public OALVoicePool createVoicePool(int maxSources)
+	{
+		return new OALVoicePool(this, maxSources);
+	}
+
+	/**
+	 * Creates many new Auxiliary Effect Slots, generating all of their names in one call.
+	 * @param amount the amount of slots to create.
+	 * @return the new AuxEffectSlot objects.
+	 * @throws SoundException	if the slots can't be allocated somehow.
+	 */
+	public OALEffectSlot[] createEffectSlots(int amount)
+	{
+		reserveNames(NAME_EFFECT_SLOT, amount);
+		OALEffectSlot[] out = new OALEffectSlot[amount];
+		for (int i = 0; i < amount; i++)
+			out[i] = createEffectSlot();
+		return out;
+	}
+	
+	/**
+	 * Generates many effect names in one call, to be used by the next effects created.
+	 * Useful for avoiding one call per effect when loading many of them at once.
+	 * Unused reserved names are freed on shutdown.
+	 * @param amount the amount of names to reserve.
+	 * @throws SoundException if the names can't be allocated somehow.
+	 */
+	public void reserveEffectNames(int amount)
+	{
+		reserveNames(NAME_EFFECT, amount);
+	}
+	
+	/**
+	 * Generates many filter names in one call, to be used by the next filters created.
+	 * Useful for avoiding one call per filter when loading many of them at once.
+	 * Unused reserved names are freed on shutdown.
+	 * @param amount the amount of names to reserve.
+	 * @throws SoundException if the names can't be allocated somehow.
+	 */
+	public void reserveFilterNames(int amount)
+	{
+		reserveNames(NAME_FILTER, amount);
+	}
+	
 	/**
 	 * Creates a new Autowah effect.
 	 * @return	a new effect of this type with default values set.
@@ -449,7 +1689,7 @@ public final class OALSystem
 	 */
 	public String getALRendererName()
 	{
-		return al.alGetString(AL.AL_RENDERER);
+		return backend.alGetString(AL.AL_RENDERER);
 	}
 	
 	/**
@@ -457,7 +1697,7 @@ public final class OALSystem
 	 */
 	public String getALVersionName()
 	{
-		return al.alGetString(AL.AL_VERSION);
+		return backend.alGetString(AL.AL_VERSION);
 	}
 
 	/**
@@ -465,7 +1705,7 @@ public final class OALSystem
 	 */
 	public String getALVendorName()
 	{
-		return al.alGetString(AL.AL_VENDOR);
+		return backend.alGetString(AL.AL_VENDOR);
 	}
 	
 	/**
@@ -473,7 +1713,35 @@ public final class OALSystem
 	 */
 	public String getALExtensions()
 	{
-		return al.alGetString(AL.AL_EXTENSIONS);
+		return backend.alGetString(AL.AL_EXTENSIONS);
+	}
+	
+	/**
+	 * Checks if buffers can be loaded with a sound format.
+	 * Float and multichannel formats need the AL_EXT_FLOAT32 and AL_EXT_MCFORMATS extensions,
+	 * which are checked once, when this system is created.
+	 * @param format the format to check.
+	 * @return true if supported, false if not or if the format is null.
+	 */
+	public boolean isFormatSupported(SoundFormat format)
+	{
+		return format != null && supportedFormats[format.ordinal()];
+	}
+	
+	/**
+	 * Checks if buffers can be loaded with 32-bit float samples (AL_EXT_FLOAT32).
+	 */
+	public boolean isFloatFormatSupported()
+	{
+		return isFormatSupported(SoundFormat.MONO_FLOAT32);
+	}
+	
+	/**
+	 * Checks if buffers can be loaded with more than 2 channels (AL_EXT_MCFORMATS).
+	 */
+	public boolean isMultichannelFormatSupported()
+	{
+		return isFormatSupported(SoundFormat.QUAD16);
 	}
 	
 	/**
@@ -483,7 +1751,7 @@ public final class OALSystem
 	 */
 	public void setDopplerFactor(float f)
 	{
-		al.alDopplerFactor(f);
+		backend.alDopplerFactor(f);
 		getError();
 	}
 
@@ -492,7 +1760,7 @@ public final class OALSystem
 	 */
 	public float getDopplerFactor()
 	{
-		return al.alGetFloat(AL.AL_DOPPLER_FACTOR);
+		return backend.alGetFloat(AL.AL_DOPPLER_FACTOR);
 	}
 
 	/**
@@ -501,7 +1769,7 @@ public final class OALSystem
 	 */
 	public void setSpeedOfSound(float s)
 	{
-		al.alDopplerVelocity(s);
+		backend.alDopplerVelocity(s);
 		getError();
 	}
 
@@ -510,7 +1778,7 @@ public final class OALSystem
 	 */
 	public float getSpeedOfSound()
 	{
-		return al.alGetFloat(AL.AL_DOPPLER_VELOCITY);
+		return backend.alGetFloat(AL.AL_DOPPLER_VELOCITY);
 	}
 	
 	/**
@@ -520,7 +1788,7 @@ public final class OALSystem
 	 */
 	public void setDistanceModel(DistanceModel model)
 	{
-		al.alDistanceModel(model.alVal);
+		backend.alDistanceModel(model.alVal);
 		getError();
 		currentDistanceModel = model;
 	}
@@ -528,32 +1796,119 @@ public final class OALSystem
 	/**
 	 * Gets the current context's distance model.
 	 */
-	public DistanceModel getDistanceModel(DistanceModel model)
+	public DistanceModel getDistanceModel()
 	{
 		return currentDistanceModel;
 	}
 
+	/**
+	 * Gets the current context's distance model.
+	 * @deprecated the parameter is ignored. Use {@link #getDistanceModel()}.
+	 */
+	@Deprecated
+	public DistanceModel getDistanceModel(DistanceModel model)
+	{
+		return getDistanceModel();
+	}
+
 	/**
 	 * Runs all Shut Down hooks, destroys all contexts and closes all open devices.
 	 */
 	public void shutDown()
 	{
-		for (OALObject object : createdObjects)
-			object.destroy();
-		createdObjects.clear();
+		OALBufferLoader[] loaders;
+		synchronized (this)
+		{
+			loaders = new OALBufferLoader[bufferLoaders.size()];
+			for (int i = 0; i < loaders.length; i++)
+				loaders[i] = bufferLoaders.getByIndex(i);
+		}
+		for (OALBufferLoader loader : loaders)
+			loader.shutDown();
+
+		stopCommandThread();
+		stopSourceMonitor();
+
+		synchronized (this)
+		{
+			for (OALStreamingSource stream : streamingSources)
+				stream.stop();
+			streamingSources.clear();
+		}
+
+		freeAllObjects();
+		unregisterMBean();
 		
 		//suspendCurrentContext();
-		alc.alcMakeContextCurrent(null);
-		getContextError();
-		alc.alcDestroyContext(alcContext);
-		getContextError();
-		alcContext = null;
-
-		alc.alcCloseDevice(alcDevice);
-		getContextError();
-		alcDevice = null;
+		backend.close();
 	}
 
+	/**
+	 * The management bean for this system's statistics.
+	 */
+	private class StatisticsBean implements OALStatisticsMXBean
+	{
+		@Override
+		public int getSourceCount()
+		{
+			return liveObjects.get(NAME_SOURCE);
+		}
+
+		@Override
+		public int getBufferCount()
+		{
+			return liveObjects.get(NAME_BUFFER);
+		}
+
+		@Override
+		public int getEffectCount()
+		{
+			return liveObjects.get(NAME_EFFECT);
+		}
+
+		@Override
+		public int getFilterCount()
+		{
+			return liveObjects.get(NAME_FILTER);
+		}
+
+		@Override
+		public int getEffectSlotCount()
+		{
+			return liveObjects.get(NAME_EFFECT_SLOT);
+		}
+
+		@Override
+		public long getBufferBytes()
+		{
+			return bufferBytes.get();
+		}
+
+		@Override
+		public long getCallCount()
+		{
+			return OALSystem.this.getCallCount();
+		}
+
+		@Override
+		public long getErrorCount()
+		{
+			return errorCount.get();
+		}
+
+		@Override
+		public long getEnqueueCount()
+		{
+			return enqueueCount.get();
+		}
+
+		@Override
+		public long getDequeueCount()
+		{
+			return dequeueCount.get();
+		}
+	}
+	
 	@Override
 	public void finalize() throws Throwable
 	{
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Adapter class with methods that do nothing for easy
+ * trace listener implementation.
+ * @author Matthew Tropiano
+ */
+public class OALTraceAdapter implements OALTraceListener
+{
+
+	@Override
+	public void bufferDecoded(AudioFormat format, int bytes, long nanos)
+	{
+		// Do nothing.
+	}
+
+	@Override
+	public void bufferUploaded(OALBuffer buffer, int bytes, long nanos)
+	{
+		// Do nothing.
+	}
+
+	@Override
+	public void sourcePlayed(OALSource source)
+	{
+		// Do nothing.
+	}
+
+	@Override
+	public void sourceStopped(OALSource source)
+	{
+		// Do nothing.
+	}
+
+	@Override
+	public void streamUnderrun(OALStreamingSource stream)
+	{
+		// Do nothing.
+	}
+
+	@Override
+	public void alError(int error, String message)
+	{
+		// Do nothing.
+	}
+
+}
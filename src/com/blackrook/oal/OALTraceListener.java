@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * A listener for tracing what a whole sound system is doing, added via
+ * {@link OALSystem#addTraceListener(OALTraceListener)}, for forwarding
+ * to a profiler or a recording.
+ * <p>
+ * Methods are called on the thread that did the work, which may be a loader,
+ * streaming or source monitor thread, so they should be quick and thread-safe.
+ * While no trace listeners are added, nothing is timed.
+ * @author Matthew Tropiano
+ */
+public interface OALTraceListener
+{
+	/**
+	 * Called when sound data is fully decoded for loading into a buffer.
+	 * @param format 	the decoded format.
+	 * @param bytes 	the amount of decoded bytes.
+	 * @param nanos 	the time taken to decode, in nanoseconds.
+	 */
+	public void bufferDecoded(AudioFormat format, int bytes, long nanos);
+
+	/**
+	 * Called when sample data is uploaded to a buffer.
+	 * @param buffer 	the buffer loaded. Its format is the format of the data.
+	 * @param bytes 	the amount of bytes uploaded.
+	 * @param nanos 	the time taken to upload, in nanoseconds.
+	 */
+	public void bufferUploaded(OALBuffer buffer, int bytes, long nanos);
+
+	/**
+	 * Called when a Source is played.
+	 * @param source 	the source that was played.
+	 */
+	public void sourcePlayed(OALSource source);
+
+	/**
+	 * Called when a Source is stopped, or stops on its own while the source monitor is running.
+	 * @param source 	the source that was stopped.
+	 */
+	public void sourceStopped(OALSource source);
+
+	/**
+	 * Called when a stream played out all of its queued buffers before they were refilled.
+	 * @param stream 	the stream that ran dry.
+	 */
+	public void streamUnderrun(OALStreamingSource stream);
+
+	/**
+	 * Called when the system finds an AL error.
+	 * @param error 	the AL error code.
+	 * @param message 	the error's description.
+	 */
+	public void alError(int error, String message);
+
+}
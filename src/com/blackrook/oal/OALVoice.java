@@ -0,0 +1,462 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+/**
+ * A lightweight, logical sound managed by an {@link OALVoicePool}.
+ * <p>
+ * A voice holds the attributes of a sound without holding a real {@link OALSource}.
+ * While it is playing, the pool binds it to a real source if it is among the most
+ * important voices, and keeps it on a virtual timeline if it is not, so that it resumes
+ * at the right offset once it gets a source back.
+ * <p>
+ * All methods are synchronized on the owning pool.
+ * @author Matthew Tropiano
+ */
+public final class OALVoice
+{
+	/** Voice state: stopped. */
+	static final int STATE_STOPPED = 0;
+	/** Voice state: playing. */
+	static final int STATE_PLAYING = 1;
+	/** Voice state: paused. */
+	static final int STATE_PAUSED = 2;
+
+	/** Owning pool. */
+	private OALVoicePool pool;
+	/** Buffer to play. */
+	private OALBuffer buffer;
+	/** Voice priority. */
+	private int priority;
+
+	/** Voice position. */
+	private float[] position;
+	/** Voice gain. */
+	private float gain;
+	/** Voice pitch. */
+	private float pitch;
+	/** Voice rolloff factor. */
+	private float rolloff;
+	/** Voice reference distance. */
+	private float referenceDistance;
+	/** Voice max distance. */
+	private float maxDistance;
+	/** Is this voice looping? */
+	private boolean looping;
+	/** Is this voice relative to the listener? */
+	private boolean relative;
+
+	/** Voice state. */
+	int state;
+	/** Virtual playback position in seconds. */
+	float time;
+	/** Last calculated audibility. */
+	float audibility;
+	/** Bound source, if any. */
+	OALSource source;
+
+	/**
+	 * Creates a new voice.
+	 * @param pool the owning pool.
+	 * @param buffer the buffer to play.
+	 * @param priority the voice priority.
+	 */
+	OALVoice(OALVoicePool pool, OALBuffer buffer, int priority)
+	{
+		this.pool = pool;
+		this.buffer = buffer;
+		this.priority = priority;
+		this.position = new float[3];
+		this.gain = 1.0f;
+		this.pitch = 1.0f;
+		this.rolloff = 1.0f;
+		this.referenceDistance = 1.0f;
+		this.maxDistance = Float.MAX_VALUE;
+		this.looping = false;
+		this.relative = false;
+		this.state = STATE_STOPPED;
+		this.time = 0f;
+		this.audibility = 0f;
+		this.source = null;
+	}
+
+	/**
+	 * Returns the pool that owns this voice.
+	 */
+	public OALVoicePool getPool()
+	{
+		return pool;
+	}
+
+	/**
+	 * Returns the buffer that this voice plays.
+	 */
+	public OALBuffer getBuffer()
+	{
+		return buffer;
+	}
+
+	/**
+	 * Sets the buffer that this voice plays.
+	 * This stops the voice.
+	 * @param buffer the new buffer.
+	 */
+	public void setBuffer(OALBuffer buffer)
+	{
+		synchronized (pool)
+		{
+			stop();
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Returns this voice's priority.
+	 */
+	public int getPriority()
+	{
+		return priority;
+	}
+
+	/**
+	 * Sets this voice's priority.
+	 * Voices with higher priority get real sources before more audible voices of lower priority.
+	 * @param priority the new priority.
+	 */
+	public void setPriority(int priority)
+	{
+		synchronized (pool)
+		{
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * Sets this voice's position.
+	 */
+	public void setPosition(float x, float y, float z)
+	{
+		synchronized (pool)
+		{
+			position[0] = x;
+			position[1] = y;
+			position[2] = z;
+			if (source != null)
+				source.setPosition(x, y, z);
+		}
+	}
+
+	/**
+	 * Sets this voice's gain.
+	 */
+	public void setGain(float f)
+	{
+		synchronized (pool)
+		{
+			gain = f;
+			if (source != null)
+				source.setGain(f);
+		}
+	}
+
+	/**
+	 * Sets this voice's pitch.
+	 * This also affects how fast it advances while virtual.
+	 */
+	public void setPitch(float f)
+	{
+		synchronized (pool)
+		{
+			pitch = f;
+			if (source != null)
+				source.setPitch(f);
+		}
+	}
+
+	/**
+	 * Sets this voice's rolloff factor.
+	 */
+	public void setRolloff(float f)
+	{
+		synchronized (pool)
+		{
+			rolloff = f;
+			if (source != null)
+				source.setRolloff(f);
+		}
+	}
+
+	/**
+	 * Sets this voice's reference distance.
+	 */
+	public void setReferenceDistance(float f)
+	{
+		synchronized (pool)
+		{
+			referenceDistance = f;
+			if (source != null)
+				source.setReferenceDistance(f);
+		}
+	}
+
+	/**
+	 * Sets this voice's max distance.
+	 */
+	public void setMaxDistance(float f)
+	{
+		synchronized (pool)
+		{
+			maxDistance = f;
+			if (source != null)
+				source.setMaxDistance(f);
+		}
+	}
+
+	/**
+	 * Sets if this voice loops.
+	 */
+	public void setLooping(boolean loop)
+	{
+		synchronized (pool)
+		{
+			looping = loop;
+			if (source != null)
+				source.setLooping(loop);
+		}
+	}
+
+	/**
+	 * Sets if this voice's position is relative to the listener.
+	 */
+	public void setRelative(boolean r)
+	{
+		synchronized (pool)
+		{
+			relative = r;
+			if (source != null)
+				source.setRelative(r);
+		}
+	}
+
+	/**
+	 * Sets the playback position of this voice in seconds.
+	 * @param seconds the offset in seconds.
+	 */
+	public void setSecondOffset(float seconds)
+	{
+		synchronized (pool)
+		{
+			time = Math.max(0f, seconds);
+			if (source != null)
+				source.setSecondOffset(time);
+		}
+	}
+
+	/**
+	 * Gets the playback position of this voice in seconds,
+	 * whether it is bound to a real source or not.
+	 */
+	public float getSecondOffset()
+	{
+		synchronized (pool)
+		{
+			if (source != null && state != STATE_STOPPED)
+				return source.getSecondOffset();
+			return time;
+		}
+	}
+
+	/** Returns this voice's X-coordinate. */
+	public float getPositionX()
+	{
+		return position[0];
+	}
+
+	/** Returns this voice's Y-coordinate. */
+	public float getPositionY()
+	{
+		return position[1];
+	}
+
+	/** Returns this voice's Z-coordinate. */
+	public float getPositionZ()
+	{
+		return position[2];
+	}
+
+	/** Returns this voice's gain. */
+	public float getGain()
+	{
+		return gain;
+	}
+
+	/** Returns this voice's pitch. */
+	public float getPitch()
+	{
+		return pitch;
+	}
+
+	/** Returns this voice's rolloff factor. */
+	public float getRolloff()
+	{
+		return rolloff;
+	}
+
+	/** Returns this voice's reference distance. */
+	public float getReferenceDistance()
+	{
+		return referenceDistance;
+	}
+
+	/** Returns this voice's max distance. */
+	public float getMaxDistance()
+	{
+		return maxDistance;
+	}
+
+	/** Returns true if this voice loops. */
+	public boolean isLooping()
+	{
+		return looping;
+	}
+
+	/** Returns true if this voice is relative to the listener. */
+	public boolean isRelative()
+	{
+		return relative;
+	}
+
+	/**
+	 * Returns the audibility of this voice calculated on the last pool update.
+	 */
+	public float getAudibility()
+	{
+		return audibility;
+	}
+
+	/**
+	 * Plays this voice, or resumes it if paused.
+	 * It is bound to a real source right away if one is free, or on the next pool update.
+	 */
+	public void play()
+	{
+		synchronized (pool)
+		{
+			if (buffer == null)
+				return;
+			if (state == STATE_STOPPED)
+				time = 0f;
+			state = STATE_PLAYING;
+			if (source != null)
+				source.play();
+			else
+				pool.voicePlayed(this);
+		}
+	}
+
+	/**
+	 * Pauses this voice.
+	 * Its real source, if any, is released on the next pool update.
+	 */
+	public void pause()
+	{
+		synchronized (pool)
+		{
+			if (state != STATE_PLAYING)
+				return;
+			state = STATE_PAUSED;
+			if (source != null)
+				source.pause();
+		}
+	}
+
+	/**
+	 * Stops this voice and releases its real source, if any.
+	 */
+	public void stop()
+	{
+		synchronized (pool)
+		{
+			state = STATE_STOPPED;
+			time = 0f;
+			if (source != null)
+				pool.unbind(this);
+		}
+	}
+
+	/**
+	 * Stops this voice and removes it from its pool.
+	 * This voice should not be used after this is called.
+	 */
+	public void release()
+	{
+		synchronized (pool)
+		{
+			stop();
+			pool.removeVoice(this);
+		}
+	}
+
+	/** Returns true if this voice is playing, real or virtual. */
+	public boolean isPlaying()
+	{
+		return state == STATE_PLAYING;
+	}
+
+	/** Returns true if this voice is paused. */
+	public boolean isPaused()
+	{
+		return state == STATE_PAUSED;
+	}
+
+	/** Returns true if this voice is stopped. */
+	public boolean isStopped()
+	{
+		return state == STATE_STOPPED;
+	}
+
+	/** Returns true if this voice is not stopped and is not bound to a real source. */
+	public boolean isVirtual()
+	{
+		synchronized (pool)
+		{
+			return state != STATE_STOPPED && source == null;
+		}
+	}
+
+	/**
+	 * Copies this voice's attributes to a source.
+	 */
+	void applyTo(OALSource s)
+	{
+		s.setBuffer(buffer);
+		s.setPosition(position);
+		s.setGain(gain);
+		s.setPitch(pitch);
+		s.setRolloff(rolloff);
+		s.setReferenceDistance(referenceDistance);
+		s.setMaxDistance(maxDistance);
+		s.setLooping(looping);
+		s.setRelative(relative);
+		s.setSecondOffset(time);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("Voice ");
+		sb.append(source != null ? "(real) " : "(virtual) ");
+		sb.append(buffer);
+		return sb.toString();
+	}
+
+}
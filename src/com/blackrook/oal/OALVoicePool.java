@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.blackrook.commons.linkedlist.Queue;
+import com.blackrook.commons.list.List;
+import com.blackrook.commons.math.geometry.Point3F;
+import com.blackrook.oal.enums.DistanceModel;
+import com.blackrook.oal.exception.SoundException;
+
+/**
+ * A pool of real sources shared by any amount of {@link OALVoice}s.
+ * <p>
+ * All of the pool's sources are allocated up front. On each {@link #update()}, the
+ * playing voices are ranked by priority, then by audibility (gain attenuated by the
+ * current distance model), and the top-ranked audible ones are bound to real sources.
+ * The rest become virtual: they keep advancing on a virtual timeline and pick up at the
+ * right offset when they are bound again, and stop on their own if they run out.
+ * <p>
+ * This should be updated often, usually once per frame.
+ * @author Matthew Tropiano
+ */
+public class OALVoicePool
+{
+	/** Default audibility at or below which a voice is never bound to a real source. */
+	public static final float DEFAULT_MIN_AUDIBILITY = 0.0001f;
+
+	/** Ranks voices by priority, then audibility, highest first. */
+	private static final Comparator<OALVoice> RANK_COMPARATOR = new Comparator<OALVoice>()
+	{
+		@Override
+		public int compare(OALVoice v1, OALVoice v2)
+		{
+			if (v1.getPriority() != v2.getPriority())
+				return v1.getPriority() > v2.getPriority() ? -1 : 1;
+			return Float.compare(v2.audibility, v1.audibility);
+		}
+	};
+
+	/** Owning system. */
+	private OALSystem system;
+	/** All real sources. */
+	private OALSource[] sources;
+	/** Real sources not bound to a voice. */
+	private Queue<OALSource> freeSources;
+	/** All voices. */
+	private List<OALVoice> voices;
+	/** Scratch array for ranking voices. */
+	private OALVoice[] ranking;
+	/** Audibility at or below which a voice is never bound. */
+	private float minAudibility;
+	/** Time of last update in nanoseconds. */
+	private long lastUpdateNanos;
+
+	/**
+	 * Creates a new voice pool.
+	 * @param system the owning system.
+	 * @param maxSources the maximum amount of real sources to allocate.
+	 * @throws SoundException if not even one source could be allocated.
+	 * @throws IllegalArgumentException if maxSources is less than 1.
+	 */
+	OALVoicePool(OALSystem system, int maxSources)
+	{
+		if (maxSources < 1)
+			throw new IllegalArgumentException("A voice pool requires at least 1 source.");
+
+		this.system = system;
+
+		// allocate until the limit, or until the device runs out.
+		OALSource[] created = new OALSource[maxSources];
+		int count = 0;
+		try {
+			while (count < maxSources)
+			{
+				created[count] = system.createSource();
+				count++;
+			}
+		} catch (SoundException e) {
+			if (count == 0)
+				throw e;
+		}
+
+		this.sources = Arrays.copyOf(created, count);
+		this.freeSources = new Queue<OALSource>();
+		for (OALSource s : sources)
+			freeSources.add(s);
+		this.voices = new List<OALVoice>();
+		this.ranking = new OALVoice[0];
+		this.minAudibility = DEFAULT_MIN_AUDIBILITY;
+		this.lastUpdateNanos = 0L;
+	}
+
+	/**
+	 * Creates a new voice in this pool with a priority of 0.
+	 * @param buffer the buffer for the voice to play.
+	 * @return a new voice.
+	 */
+	public OALVoice createVoice(OALBuffer buffer)
+	{
+		return createVoice(buffer, 0);
+	}
+
+	/**
+	 * Creates a new voice in this pool.
+	 * @param buffer the buffer for the voice to play.
+	 * @param priority the voice priority. Higher priority voices are bound first.
+	 * @return a new voice.
+	 */
+	public synchronized OALVoice createVoice(OALBuffer buffer, int priority)
+	{
+		OALVoice out = new OALVoice(this, buffer, priority);
+		voices.add(out);
+		return out;
+	}
+
+	/**
+	 * Sets the audibility at or below which a voice is never bound to a real source.
+	 * @param audibility the new threshold.
+	 */
+	public synchronized void setMinimumAudibility(float audibility)
+	{
+		this.minAudibility = audibility;
+	}
+
+	/**
+	 * Returns the audibility at or below which a voice is never bound to a real source.
+	 */
+	public float getMinimumAudibility()
+	{
+		return minAudibility;
+	}
+
+	/**
+	 * Returns the amount of real sources in this pool.
+	 */
+	public int getSourceCount()
+	{
+		return sources.length;
+	}
+
+	/**
+	 * Returns the amount of real sources not bound to a voice.
+	 */
+	public synchronized int getFreeSourceCount()
+	{
+		return freeSources.size();
+	}
+
+	/**
+	 * Returns the amount of voices in this pool.
+	 */
+	public synchronized int getVoiceCount()
+	{
+		return voices.size();
+	}
+
+	/**
+	 * Advances virtual voices, ranks the playing voices, and rebinds real sources
+	 * to the highest-ranked audible voices.
+	 */
+	public synchronized void update()
+	{
+		long now = System.nanoTime();
+		float elapsed = lastUpdateNanos == 0L ? 0f : (now - lastUpdateNanos) / 1000000000f;
+		lastUpdateNanos = now;
+
+		DistanceModel model = system.getDistanceModel();
+		Point3F listenerPosition = system.getListener().getPosition();
+
+		if (ranking.length < voices.size())
+			ranking = new OALVoice[voices.size()];
+
+		int n = 0;
+		for (OALVoice voice : voices)
+		{
+			if (voice.state == OALVoice.STATE_STOPPED)
+				continue;
+
+			if (voice.state == OALVoice.STATE_PAUSED)
+			{
+				if (voice.source != null)
+					unbind(voice);
+				continue;
+			}
+
+			if (voice.source != null)
+			{
+				if (voice.source.isStopped())
+				{
+					voice.state = OALVoice.STATE_STOPPED;
+					voice.time = 0f;
+					unbind(voice);
+					continue;
+				}
+			}
+			else if (!advance(voice, elapsed))
+				continue;
+
+			voice.audibility = getAudibility(voice, model, listenerPosition);
+			ranking[n++] = voice;
+		}
+
+		Arrays.sort(ranking, 0, n, RANK_COMPARATOR);
+
+		// release sources first so that they can be rebound.
+		for (int i = 0; i < n; i++)
+		{
+			OALVoice voice = ranking[i];
+			if (voice.source != null && !shouldBeReal(voice, i))
+				unbind(voice);
+		}
+		for (int i = 0; i < n; i++)
+		{
+			OALVoice voice = ranking[i];
+			if (voice.source == null && shouldBeReal(voice, i) && !freeSources.isEmpty())
+				bind(voice, freeSources.dequeue());
+		}
+
+		Arrays.fill(ranking, 0, n, null);
+	}
+
+	/**
+	 * Stops all voices in this pool.
+	 */
+	public synchronized void stopAll()
+	{
+		for (OALVoice voice : voices)
+			voice.stop();
+	}
+
+	/**
+	 * Stops and removes all voices, and frees all of this pool's real sources.
+	 * This pool cannot be used after this is called.
+	 */
+	public synchronized void destroy()
+	{
+		stopAll();
+		voices.clear();
+		for (OALSource s : sources)
+			s.destroy();
+	}
+
+	/**
+	 * Called when a voice is played, to bind it right away if a source is free.
+	 */
+	void voicePlayed(OALVoice voice)
+	{
+		if (!freeSources.isEmpty())
+			bind(voice, freeSources.dequeue());
+	}
+
+	/**
+	 * Removes a voice from this pool.
+	 */
+	synchronized void removeVoice(OALVoice voice)
+	{
+		voices.remove(voice);
+	}
+
+	/**
+	 * Releases a voice's real source, saving its playback position if it is not stopped.
+	 */
+	void unbind(OALVoice voice)
+	{
+		OALSource s = voice.source;
+		if (voice.state != OALVoice.STATE_STOPPED)
+			voice.time = s.getSecondOffset();
+		s.stop();
+		s.setBuffer(null);
+		voice.source = null;
+		freeSources.add(s);
+	}
+
+	// Binds a voice to a real source and plays it.
+	private void bind(OALVoice voice, OALSource s)
+	{
+		voice.source = s;
+		voice.applyTo(s);
+		if (voice.state == OALVoice.STATE_PLAYING)
+			s.play();
+	}
+
+	// Checks if a voice at a rank should have a real source.
+	private boolean shouldBeReal(OALVoice voice, int rank)
+	{
+		return rank < sources.length && voice.audibility > minAudibility;
+	}
+
+	// Advances a virtual voice. Returns false if it ran out and stopped.
+	private static boolean advance(OALVoice voice, float elapsed)
+	{
+		float duration = voice.getBuffer().getDuration();
+		voice.time += elapsed * voice.getPitch();
+		if (voice.time >= duration)
+		{
+			if (voice.isLooping() && duration > 0f)
+				voice.time %= duration;
+			else
+			{
+				voice.state = OALVoice.STATE_STOPPED;
+				voice.time = 0f;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Calculates the audibility of a voice.
+	private static float getAudibility(OALVoice voice, DistanceModel model, Point3F listenerPosition)
+	{
+		float dx = voice.getPositionX();
+		float dy = voice.getPositionY();
+		float dz = voice.getPositionZ();
+		if (!voice.isRelative())
+		{
+			dx -= listenerPosition.x;
+			dy -= listenerPosition.y;
+			dz -= listenerPosition.z;
+		}
+		float distance = (float)Math.sqrt(dx * dx + dy * dy + dz * dz);
+		return voice.getGain() * model.getGain(distance, voice.getReferenceDistance(), voice.getMaxDistance(), voice.getRolloff());
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("VoicePool ");
+		sb.append(sources.length).append(" sources, ");
+		sb.append(voices.size()).append(" voices");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,534 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.backend;
+
+import java.nio.Buffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+
+/**
+ * A backend that counts the calls made through another backend, the bytes of sample
+ * data uploaded to buffers, and the objects that are still alive.
+ * <p>
+ * Wrapped around a {@link SoftwareBackend} opened on its {@link SoftwareBackend#NULL_DEVICE_NAME null device},
+ * a sound system can be created without OpenAL or a sound card, and checked for
+ * how many calls an operation makes:
+ * <pre>
+ * CountingBackend counter = new CountingBackend(new SoftwareBackend());
+ * OALSystem system = new OALSystem(counter, SoftwareBackend.NULL_DEVICE_NAME);
+ * counter.reset();
+ * source.setPosition(0f, 0f, 0f);
+ * long calls = counter.getCount(CountingBackend.Call.AL_SOURCEFV);
+ * </pre>
+ * Calls are counted as they are made, even if they end in an error. All counts
+ * are safe to read while other threads make calls.
+ * @author Matthew Tropiano
+ */
+public class CountingBackend implements OALBackend
+{
+	/**
+	 * The calls that are counted, one for each backend method.
+	 */
+	public static enum Call
+	{
+		OPEN,
+		OPEN_LOOPBACK,
+		CLOSE,
+		RENDER_SAMPLES,
+		ALC_GET_ERROR,
+		ALC_GET_STRING,
+		ALC_GET_INTEGER,
+		ALC_SUSPEND_CONTEXT,
+		ALC_PROCESS_CONTEXT,
+		AL_GET_ERROR,
+		AL_GET_STRING,
+		AL_IS_EXTENSION_PRESENT,
+		AL_GET_FLOAT,
+		AL_DISTANCE_MODEL,
+		AL_DOPPLER_FACTOR,
+		AL_DOPPLER_VELOCITY,
+		AL_LISTENERF,
+		AL_LISTENERFV,
+		AL_GEN_BUFFERS,
+		AL_DELETE_BUFFERS,
+		AL_BUFFER_DATA,
+		AL_GEN_SOURCES,
+		AL_DELETE_SOURCES,
+		AL_SOURCEF,
+		AL_SOURCEFV,
+		AL_SOURCEI,
+		AL_SOURCE3I,
+		AL_GET_SOURCEF,
+		AL_GET_SOURCEI,
+		AL_SOURCE_PLAY,
+		AL_SOURCE_PAUSE,
+		AL_SOURCE_STOP,
+		AL_SOURCE_REWIND,
+		AL_SOURCE_QUEUE_BUFFERS,
+		AL_SOURCE_UNQUEUE_BUFFERS,
+		AL_GEN_EFFECTS,
+		AL_DELETE_EFFECTS,
+		AL_EFFECTI,
+		AL_EFFECTF,
+		AL_GEN_FILTERS,
+		AL_DELETE_FILTERS,
+		AL_FILTERI,
+		AL_FILTERF,
+		AL_GEN_AUXILIARY_EFFECT_SLOTS,
+		AL_DELETE_AUXILIARY_EFFECT_SLOTS,
+		AL_AUXILIARY_EFFECT_SLOTI,
+		AL_AUXILIARY_EFFECT_SLOTF;
+	}
+
+	/**
+	 * The kinds of objects that are counted.
+	 */
+	public static enum ObjectType
+	{
+		BUFFER,
+		SOURCE,
+		EFFECT,
+		FILTER,
+		EFFECT_SLOT;
+	}
+
+	/** Calls used for indexing. */
+	private static final Call[] CALLS = Call.values();
+
+	/** The backend that calls are passed to. */
+	private OALBackend backend;
+	/** Call counts, by call ordinal. */
+	private AtomicLongArray calls;
+	/** Live object counts, by object type ordinal. */
+	private AtomicLongArray live;
+	/** Bytes uploaded to buffers. */
+	private AtomicLong bytesUploaded;
+
+	/**
+	 * Creates a new counting backend.
+	 * @param backend the backend to pass all calls to.
+	 */
+	public CountingBackend(OALBackend backend)
+	{
+		this.backend = backend;
+		this.calls = new AtomicLongArray(CALLS.length);
+		this.live = new AtomicLongArray(ObjectType.values().length);
+		this.bytesUploaded = new AtomicLong(0L);
+	}
+
+	/**
+	 * Returns the backend that this passes its calls to.
+	 */
+	public OALBackend getBackend()
+	{
+		return backend;
+	}
+
+	/**
+	 * Returns how many times a call was made since creation or the last {@link #reset()}.
+	 * @param call the call.
+	 */
+	public long getCount(Call call)
+	{
+		return calls.get(call.ordinal());
+	}
+
+	/**
+	 * Returns how many calls were made in total since creation or the last {@link #reset()}.
+	 */
+	public long getTotalCount()
+	{
+		long out = 0L;
+		for (int i = 0; i < CALLS.length; i++)
+			out += calls.get(i);
+		return out;
+	}
+
+	/**
+	 * Returns how many bytes of sample data were uploaded to buffers
+	 * since creation or the last {@link #reset()}.
+	 */
+	public long getBytesUploaded()
+	{
+		return bytesUploaded.get();
+	}
+
+	/**
+	 * Returns how many objects of a type were generated and not yet deleted.
+	 * This is not cleared by {@link #reset()}.
+	 * @param type the type of object.
+	 */
+	public long getLiveCount(ObjectType type)
+	{
+		return live.get(type.ordinal());
+	}
+
+	/**
+	 * Clears the call counts and uploaded bytes.
+	 * Live object counts are kept, since the objects still exist.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < CALLS.length; i++)
+			calls.set(i, 0L);
+		bytesUploaded.set(0L);
+	}
+
+	// Counts a call.
+	private void count(Call call)
+	{
+		calls.incrementAndGet(call.ordinal());
+	}
+
+	@Override
+	public void open(String deviceName)
+	{
+		count(Call.OPEN);
+		backend.open(deviceName);
+	}
+
+	@Override
+	public void openLoopback(int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		count(Call.OPEN_LOOPBACK);
+		backend.openLoopback(frequency, channels, type);
+	}
+
+	@Override
+	public void close()
+	{
+		count(Call.CLOSE);
+		backend.close();
+	}
+
+	@Override
+	public void renderSamples(Buffer out, int frames)
+	{
+		count(Call.RENDER_SAMPLES);
+		backend.renderSamples(out, frames);
+	}
+
+	@Override
+	public int alcGetError()
+	{
+		count(Call.ALC_GET_ERROR);
+		return backend.alcGetError();
+	}
+
+	@Override
+	public String alcGetString(int param)
+	{
+		count(Call.ALC_GET_STRING);
+		return backend.alcGetString(param);
+	}
+
+	@Override
+	public int alcGetInteger(int param)
+	{
+		count(Call.ALC_GET_INTEGER);
+		return backend.alcGetInteger(param);
+	}
+
+	@Override
+	public void alcSuspendContext()
+	{
+		count(Call.ALC_SUSPEND_CONTEXT);
+		backend.alcSuspendContext();
+	}
+
+	@Override
+	public void alcProcessContext()
+	{
+		count(Call.ALC_PROCESS_CONTEXT);
+		backend.alcProcessContext();
+	}
+
+	@Override
+	public int alGetError()
+	{
+		count(Call.AL_GET_ERROR);
+		return backend.alGetError();
+	}
+
+	@Override
+	public String alGetString(int param)
+	{
+		count(Call.AL_GET_STRING);
+		return backend.alGetString(param);
+	}
+
+	@Override
+	public boolean alIsExtensionPresent(String extName)
+	{
+		count(Call.AL_IS_EXTENSION_PRESENT);
+		return backend.alIsExtensionPresent(extName);
+	}
+
+	@Override
+	public float alGetFloat(int param)
+	{
+		count(Call.AL_GET_FLOAT);
+		return backend.alGetFloat(param);
+	}
+
+	@Override
+	public void alDistanceModel(int model)
+	{
+		count(Call.AL_DISTANCE_MODEL);
+		backend.alDistanceModel(model);
+	}
+
+	@Override
+	public void alDopplerFactor(float value)
+	{
+		count(Call.AL_DOPPLER_FACTOR);
+		backend.alDopplerFactor(value);
+	}
+
+	@Override
+	public void alDopplerVelocity(float value)
+	{
+		count(Call.AL_DOPPLER_VELOCITY);
+		backend.alDopplerVelocity(value);
+	}
+
+	@Override
+	public void alListenerf(int param, float value)
+	{
+		count(Call.AL_LISTENERF);
+		backend.alListenerf(param, value);
+	}
+
+	@Override
+	public void alListenerfv(int param, float[] values, int offset)
+	{
+		count(Call.AL_LISTENERFV);
+		backend.alListenerfv(param, values, offset);
+	}
+
+	@Override
+	public void alGenBuffers(int n, int[] buffers, int offset)
+	{
+		count(Call.AL_GEN_BUFFERS);
+		backend.alGenBuffers(n, buffers, offset);
+		live.addAndGet(ObjectType.BUFFER.ordinal(), n);
+	}
+
+	@Override
+	public void alDeleteBuffers(int n, int[] buffers, int offset)
+	{
+		count(Call.AL_DELETE_BUFFERS);
+		live.addAndGet(ObjectType.BUFFER.ordinal(), -n);
+		backend.alDeleteBuffers(n, buffers, offset);
+	}
+
+	@Override
+	public void alBufferData(int buffer, int format, Buffer data, int size, int frequency)
+	{
+		count(Call.AL_BUFFER_DATA);
+		bytesUploaded.addAndGet(size);
+		backend.alBufferData(buffer, format, data, size, frequency);
+	}
+
+	@Override
+	public void alGenSources(int n, int[] sources, int offset)
+	{
+		count(Call.AL_GEN_SOURCES);
+		backend.alGenSources(n, sources, offset);
+		live.addAndGet(ObjectType.SOURCE.ordinal(), n);
+	}
+
+	@Override
+	public void alDeleteSources(int n, int[] sources, int offset)
+	{
+		count(Call.AL_DELETE_SOURCES);
+		live.addAndGet(ObjectType.SOURCE.ordinal(), -n);
+		backend.alDeleteSources(n, sources, offset);
+	}
+
+	@Override
+	public void alSourcef(int source, int param, float value)
+	{
+		count(Call.AL_SOURCEF);
+		backend.alSourcef(source, param, value);
+	}
+
+	@Override
+	public void alSourcefv(int source, int param, float[] values, int offset)
+	{
+		count(Call.AL_SOURCEFV);
+		backend.alSourcefv(source, param, values, offset);
+	}
+
+	@Override
+	public void alSourcei(int source, int param, int value)
+	{
+		count(Call.AL_SOURCEI);
+		backend.alSourcei(source, param, value);
+	}
+
+	@Override
+	public void alSource3i(int source, int param, int value1, int value2, int value3)
+	{
+		count(Call.AL_SOURCE3I);
+		backend.alSource3i(source, param, value1, value2, value3);
+	}
+
+	@Override
+	public void alGetSourcef(int source, int param, float[] values, int offset)
+	{
+		count(Call.AL_GET_SOURCEF);
+		backend.alGetSourcef(source, param, values, offset);
+	}
+
+	@Override
+	public void alGetSourcei(int source, int param, int[] values, int offset)
+	{
+		count(Call.AL_GET_SOURCEI);
+		backend.alGetSourcei(source, param, values, offset);
+	}
+
+	@Override
+	public void alSourcePlay(int source)
+	{
+		count(Call.AL_SOURCE_PLAY);
+		backend.alSourcePlay(source);
+	}
+
+	@Override
+	public void alSourcePause(int source)
+	{
+		count(Call.AL_SOURCE_PAUSE);
+		backend.alSourcePause(source);
+	}
+
+	@Override
+	public void alSourceStop(int source)
+	{
+		count(Call.AL_SOURCE_STOP);
+		backend.alSourceStop(source);
+	}
+
+	@Override
+	public void alSourceRewind(int source)
+	{
+		count(Call.AL_SOURCE_REWIND);
+		backend.alSourceRewind(source);
+	}
+
+	@Override
+	public void alSourceQueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		count(Call.AL_SOURCE_QUEUE_BUFFERS);
+		backend.alSourceQueueBuffers(source, n, buffers, offset);
+	}
+
+	@Override
+	public void alSourceUnqueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		count(Call.AL_SOURCE_UNQUEUE_BUFFERS);
+		backend.alSourceUnqueueBuffers(source, n, buffers, offset);
+	}
+
+	@Override
+	public void alGenEffects(int n, int[] effects, int offset)
+	{
+		count(Call.AL_GEN_EFFECTS);
+		backend.alGenEffects(n, effects, offset);
+		live.addAndGet(ObjectType.EFFECT.ordinal(), n);
+	}
+
+	@Override
+	public void alDeleteEffects(int n, int[] effects, int offset)
+	{
+		count(Call.AL_DELETE_EFFECTS);
+		live.addAndGet(ObjectType.EFFECT.ordinal(), -n);
+		backend.alDeleteEffects(n, effects, offset);
+	}
+
+	@Override
+	public void alEffecti(int effect, int param, int value)
+	{
+		count(Call.AL_EFFECTI);
+		backend.alEffecti(effect, param, value);
+	}
+
+	@Override
+	public void alEffectf(int effect, int param, float value)
+	{
+		count(Call.AL_EFFECTF);
+		backend.alEffectf(effect, param, value);
+	}
+
+	@Override
+	public void alGenFilters(int n, int[] filters, int offset)
+	{
+		count(Call.AL_GEN_FILTERS);
+		backend.alGenFilters(n, filters, offset);
+		live.addAndGet(ObjectType.FILTER.ordinal(), n);
+	}
+
+	@Override
+	public void alDeleteFilters(int n, int[] filters, int offset)
+	{
+		count(Call.AL_DELETE_FILTERS);
+		live.addAndGet(ObjectType.FILTER.ordinal(), -n);
+		backend.alDeleteFilters(n, filters, offset);
+	}
+
+	@Override
+	public void alFilteri(int filter, int param, int value)
+	{
+		count(Call.AL_FILTERI);
+		backend.alFilteri(filter, param, value);
+	}
+
+	@Override
+	public void alFilterf(int filter, int param, float value)
+	{
+		count(Call.AL_FILTERF);
+		backend.alFilterf(filter, param, value);
+	}
+
+	@Override
+	public void alGenAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		count(Call.AL_GEN_AUXILIARY_EFFECT_SLOTS);
+		backend.alGenAuxiliaryEffectSlots(n, slots, offset);
+		live.addAndGet(ObjectType.EFFECT_SLOT.ordinal(), n);
+	}
+
+	@Override
+	public void alDeleteAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		count(Call.AL_DELETE_AUXILIARY_EFFECT_SLOTS);
+		live.addAndGet(ObjectType.EFFECT_SLOT.ordinal(), -n);
+		backend.alDeleteAuxiliaryEffectSlots(n, slots, offset);
+	}
+
+	@Override
+	public void alAuxiliaryEffectSloti(int slot, int param, int value)
+	{
+		count(Call.AL_AUXILIARY_EFFECT_SLOTI);
+		backend.alAuxiliaryEffectSloti(slot, param, value);
+	}
+
+	@Override
+	public void alAuxiliaryEffectSlotf(int slot, int param, float value)
+	{
+		count(Call.AL_AUXILIARY_EFFECT_SLOTF);
+		backend.alAuxiliaryEffectSlotf(slot, param, value);
+	}
+
+}
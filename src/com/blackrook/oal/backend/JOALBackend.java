@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.backend;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+import com.blackrook.oal.exception.SoundSystemException;
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.openal.AL;
+import com.jogamp.openal.ALC;
+import com.jogamp.openal.ALCcontext;
+import com.jogamp.openal.ALCdevice;
+import com.jogamp.openal.ALExt;
+import com.jogamp.openal.ALFactory;
+
+/**
+ * A backend that makes its calls through JOAL, into the native OpenAL library.
+ * @author Matthew Tropiano
+ */
+public class JOALBackend implements OALBackend
+{
+	/** AL instance. */
+	private AL al;
+	/** ALC instance. */
+	private ALC alc;
+	/** ALExt instance. */
+	private ALExt alext;
+
+	/** This device. */
+	private ALCdevice alcDevice;
+	/** This context instance. */
+	private ALCcontext alcContext;
+
+	// ======= Temp data for value retrieval.
+	private final int[] OUTPUT = new int[1];
+
+	/**
+	 * Creates a new JOAL backend.
+	 * @throws com.jogamp.openal.ALException if the native OpenAL library couldn't be loaded.
+	 */
+	public JOALBackend()
+	{
+		al = ALFactory.getAL();
+		alc = ALFactory.getALC();
+		alext = ALFactory.getALExt();
+	}
+
+	/**
+	 * Returns a list of all devices that OpenAL can open.
+	 */
+	public static String[] getDeviceNames()
+	{
+		return ALFactory.getALC().alcGetDeviceSpecifiers();
+	}
+
+	/**
+	 * Returns a list of all capture devices that OpenAL can open.
+	 */
+	public static String[] getCaptureDeviceNames()
+	{
+		return ALFactory.getALC().alcGetCaptureDeviceSpecifiers();
+	}
+
+	@Override
+	public void open(String deviceName)
+	{
+		String dname = deviceName != null ? "device \""+deviceName+"\"" : "default device";
+
+		alcDevice = alc.alcOpenDevice(deviceName);
+		if (alcDevice == null)
+			throw new SoundSystemException("The " + dname + " couldn't be opened.");
+
+		createContext(dname, null);
+	}
+
+	@Override
+	public void openLoopback(int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		if (!alc.alcIsExtensionPresent(null, "ALC_SOFT_loopback"))
+			throw new SoundSystemException("Loopback devices are not supported (ALC_SOFT_loopback is not present).");
+
+		String dname = "loopback device";
+
+		alcDevice = alext.alcLoopbackOpenDeviceSOFT(null);
+		if (alcDevice == null)
+			throw new SoundSystemException("The " + dname + " couldn't be opened.");
+
+		if (!alext.alcIsRenderFormatSupportedSOFT(alcDevice, frequency, channels.alVal, type.alVal))
+		{
+			alc.alcCloseDevice(alcDevice);
+			alcDevice = null;
+			throw new SoundSystemException("The " + dname + " does not support rendering " + frequency + " Hz, " + channels + ", " + type + ".");
+		}
+
+		int[] attributes = {
+			ALExt.ALC_FORMAT_CHANNELS_SOFT, channels.alVal,
+			ALExt.ALC_FORMAT_TYPE_SOFT, type.alVal,
+			ALC.ALC_FREQUENCY, frequency,
+			0
+		};
+		createContext(dname, Buffers.newDirectIntBuffer(attributes));
+	}
+
+	// Creates the context on the opened device, and makes it current.
+	private void createContext(String dname, IntBuffer attributes)
+	{
+		alcContext = alc.alcCreateContext(alcDevice, attributes);
+		if (alcContext == null)
+		{
+			alc.alcCloseDevice(alcDevice);
+			alcDevice = null;
+			throw new SoundSystemException("The context for " + dname + " couldn't be created.");
+		}
+
+		if (!alc.alcMakeContextCurrent(alcContext))
+			throw new SoundSystemException("The context for " + dname + " couldn't be made current.");
+	}
+
+	@Override
+	public void close()
+	{
+		alc.alcMakeContextCurrent(null);
+		contextErrorCheck();
+		alc.alcDestroyContext(alcContext);
+		contextErrorCheck();
+		alcContext = null;
+
+		alc.alcCloseDevice(alcDevice);
+		contextErrorCheck();
+		alcDevice = null;
+	}
+
+	// Throws an exception on a device error.
+	private void contextErrorCheck()
+	{
+		int error = alc.alcGetError(alcDevice);
+		if (error != ALC.ALC_NO_ERROR)
+			throw new SoundSystemException("OpenAL returned \""+alc.alcGetString(alcDevice, error)+"\".");
+	}
+
+	@Override
+	public void renderSamples(Buffer out, int frames)
+	{
+		alext.alcRenderSamplesSOFT(alcDevice, out, frames);
+	}
+
+	@Override
+	public int alcGetError()
+	{
+		return alc.alcGetError(alcDevice);
+	}
+
+	@Override
+	public String alcGetString(int param)
+	{
+		return alc.alcGetString(alcDevice, param);
+	}
+
+	@Override
+	public synchronized int alcGetInteger(int param)
+	{
+		alc.alcGetIntegerv(alcDevice, param, 1, OUTPUT, 0);
+		return OUTPUT[0];
+	}
+
+	@Override
+	public void alcSuspendContext()
+	{
+		alc.alcSuspendContext(alcContext);
+	}
+
+	@Override
+	public void alcProcessContext()
+	{
+		alc.alcProcessContext(alcContext);
+	}
+
+	@Override
+	public int alGetError()
+	{
+		return al.alGetError();
+	}
+
+	@Override
+	public String alGetString(int param)
+	{
+		return al.alGetString(param);
+	}
+
+	@Override
+	public boolean alIsExtensionPresent(String extName)
+	{
+		return al.alIsExtensionPresent(extName);
+	}
+
+	@Override
+	public float alGetFloat(int param)
+	{
+		return al.alGetFloat(param);
+	}
+
+	@Override
+	public void alDistanceModel(int model)
+	{
+		al.alDistanceModel(model);
+	}
+
+	@Override
+	public void alDopplerFactor(float value)
+	{
+		al.alDopplerFactor(value);
+	}
+
+	@Override
+	public void alDopplerVelocity(float value)
+	{
+		al.alDopplerVelocity(value);
+	}
+
+	@Override
+	public void alListenerf(int param, float value)
+	{
+		al.alListenerf(param, value);
+	}
+
+	@Override
+	public void alListenerfv(int param, float[] values, int offset)
+	{
+		al.alListenerfv(param, values, offset);
+	}
+
+	@Override
+	public void alGenBuffers(int n, int[] buffers, int offset)
+	{
+		al.alGenBuffers(n, buffers, offset);
+	}
+
+	@Override
+	public void alDeleteBuffers(int n, int[] buffers, int offset)
+	{
+		al.alDeleteBuffers(n, buffers, offset);
+	}
+
+	@Override
+	public void alBufferData(int buffer, int format, Buffer data, int size, int frequency)
+	{
+		al.alBufferData(buffer, format, data, size, frequency);
+	}
+
+	@Override
+	public void alGenSources(int n, int[] sources, int offset)
+	{
+		al.alGenSources(n, sources, offset);
+	}
+
+	@Override
+	public void alDeleteSources(int n, int[] sources, int offset)
+	{
+		al.alDeleteSources(n, sources, offset);
+	}
+
+	@Override
+	public void alSourcef(int source, int param, float value)
+	{
+		al.alSourcef(source, param, value);
+	}
+
+	@Override
+	public void alSourcefv(int source, int param, float[] values, int offset)
+	{
+		al.alSourcefv(source, param, values, offset);
+	}
+
+	@Override
+	public void alSourcei(int source, int param, int value)
+	{
+		al.alSourcei(source, param, value);
+	}
+
+	@Override
+	public void alSource3i(int source, int param, int value1, int value2, int value3)
+	{
+		al.alSource3i(source, param, value1, value2, value3);
+	}
+
+	@Override
+	public void alGetSourcef(int source, int param, float[] values, int offset)
+	{
+		al.alGetSourcef(source, param, values, offset);
+	}
+
+	@Override
+	public void alGetSourcei(int source, int param, int[] values, int offset)
+	{
+		al.alGetSourcei(source, param, values, offset);
+	}
+
+	@Override
+	public void alSourcePlay(int source)
+	{
+		al.alSourcePlay(source);
+	}
+
+	@Override
+	public void alSourcePause(int source)
+	{
+		al.alSourcePause(source);
+	}
+
+	@Override
+	public void alSourceStop(int source)
+	{
+		al.alSourceStop(source);
+	}
+
+	@Override
+	public void alSourceRewind(int source)
+	{
+		al.alSourceRewind(source);
+	}
+
+	@Override
+	public void alSourceQueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		al.alSourceQueueBuffers(source, n, buffers, offset);
+	}
+
+	@Override
+	public void alSourceUnqueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		al.alSourceUnqueueBuffers(source, n, buffers, offset);
+	}
+
+	@Override
+	public void alGenEffects(int n, int[] effects, int offset)
+	{
+		alext.alGenEffects(n, effects, offset);
+	}
+
+	@Override
+	public void alDeleteEffects(int n, int[] effects, int offset)
+	{
+		alext.alDeleteEffects(n, effects, offset);
+	}
+
+	@Override
+	public void alEffecti(int effect, int param, int value)
+	{
+		alext.alEffecti(effect, param, value);
+	}
+
+	@Override
+	public void alEffectf(int effect, int param, float value)
+	{
+		alext.alEffectf(effect, param, value);
+	}
+
+	@Override
+	public void alGenFilters(int n, int[] filters, int offset)
+	{
+		alext.alGenFilters(n, filters, offset);
+	}
+
+	@Override
+	public void alDeleteFilters(int n, int[] filters, int offset)
+	{
+		alext.alDeleteFilters(n, filters, offset);
+	}
+
+	@Override
+	public void alFilteri(int filter, int param, int value)
+	{
+		alext.alFilteri(filter, param, value);
+	}
+
+	@Override
+	public void alFilterf(int filter, int param, float value)
+	{
+		alext.alFilterf(filter, param, value);
+	}
+
+	@Override
+	public void alGenAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		alext.alGenAuxiliaryEffectSlots(n, slots, offset);
+	}
+
+	@Override
+	public void alDeleteAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		alext.alDeleteAuxiliaryEffectSlots(n, slots, offset);
+	}
+
+	@Override
+	public void alAuxiliaryEffectSloti(int slot, int param, int value)
+	{
+		alext.alAuxiliaryEffectSloti(slot, param, value);
+	}
+
+	@Override
+	public void alAuxiliaryEffectSlotf(int slot, int param, float value)
+	{
+		alext.alAuxiliaryEffectSlotf(slot, param, value);
+	}
+
+}
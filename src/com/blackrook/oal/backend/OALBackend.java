@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.backend;
+
+import java.nio.Buffer;
+
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+import com.blackrook.oal.exception.SoundSystemException;
+
+/**
+ * The OpenAL implementation that a sound system makes all of its calls through.
+ * <p>
+ * The AL and EFX calls take the same parameters as their OpenAL counterparts, and use
+ * the same enumerants and error codes. The ALC calls are made against the one device
+ * and context that a backend opens, so they do not take device or context handles.
+ * <p>
+ * This is an internal interface: the sound system decides when each call is made,
+ * so objects from this library should not be mixed with direct calls to a backend.
+ * @author Matthew Tropiano
+ */
+public interface OALBackend
+{
+	/**
+	 * Opens a playback device and creates its context, made current.
+	 * @param deviceName the name of the device, or null for the default device.
+	 * @throws SoundSystemException if the device or its context couldn't be created.
+	 */
+	public void open(String deviceName);
+
+	/**
+	 * Opens a loopback device and creates its context, made current.
+	 * Nothing is played through a sound card: the mix is only rendered via {@link #renderSamples(Buffer, int)}.
+	 * @param frequency the mixing frequency in Hz.
+	 * @param channels the channel layout of the rendered mix.
+	 * @param type the sample type of the rendered mix.
+	 * @throws SoundSystemException if loopback devices are not supported, or the render format isn't.
+	 */
+	public void openLoopback(int frequency, RenderChannels channels, RenderSampleType type);
+
+	/**
+	 * Destroys the context and closes the device.
+	 * @throws SoundSystemException if the context or device couldn't be closed.
+	 */
+	public void close();
+
+	/**
+	 * Mixes the next sample frames of a loopback device into a direct buffer, starting at its position.
+	 * The buffer's position is not changed.
+	 * @param out the buffer to render into.
+	 * @param frames the amount of sample frames to render.
+	 */
+	public void renderSamples(Buffer out, int frames);
+
+	/** Returns and clears the device error state. */
+	public int alcGetError();
+
+	/** Returns a device string, or the description of a device error code. */
+	public String alcGetString(int param);
+
+	/** Returns a device integer. */
+	public int alcGetInteger(int param);
+
+	/** Suspends processing of the context. */
+	public void alcSuspendContext();
+
+	/** Resumes processing of the context. */
+	public void alcProcessContext();
+
+	/** Returns and clears the context error state. */
+	public int alGetError();
+
+	/** Returns a context string, or the description of an error code. */
+	public String alGetString(int param);
+
+	/** Checks if an AL extension is present. */
+	public boolean alIsExtensionPresent(String extName);
+
+	/** Returns a context float. */
+	public float alGetFloat(int param);
+
+	/** Sets the distance model. */
+	public void alDistanceModel(int model);
+
+	/** Sets the Doppler factor. */
+	public void alDopplerFactor(float value);
+
+	/** Sets the Doppler velocity (speed of sound factor). */
+	public void alDopplerVelocity(float value);
+
+	/** Sets a listener float. */
+	public void alListenerf(int param, float value);
+
+	/** Sets a listener vector. */
+	public void alListenerfv(int param, float[] values, int offset);
+
+	/** Generates buffer names. */
+	public void alGenBuffers(int n, int[] buffers, int offset);
+
+	/** Deletes buffers. */
+	public void alDeleteBuffers(int n, int[] buffers, int offset);
+
+	/** Loads sample data into a buffer, from the data's position. */
+	public void alBufferData(int buffer, int format, Buffer data, int size, int frequency);
+
+	/** Generates source names. */
+	public void alGenSources(int n, int[] sources, int offset);
+
+	/** Deletes sources. */
+	public void alDeleteSources(int n, int[] sources, int offset);
+
+	/** Sets a source float. */
+	public void alSourcef(int source, int param, float value);
+
+	/** Sets a source vector. */
+	public void alSourcefv(int source, int param, float[] values, int offset);
+
+	/** Sets a source integer. */
+	public void alSourcei(int source, int param, int value);
+
+	/** Sets a source integer triplet. */
+	public void alSource3i(int source, int param, int value1, int value2, int value3);
+
+	/** Gets a source float. */
+	public void alGetSourcef(int source, int param, float[] values, int offset);
+
+	/** Gets a source integer. */
+	public void alGetSourcei(int source, int param, int[] values, int offset);
+
+	/** Plays a source. */
+	public void alSourcePlay(int source);
+
+	/** Pauses a source. */
+	public void alSourcePause(int source);
+
+	/** Stops a source. */
+	public void alSourceStop(int source);
+
+	/** Rewinds a source. */
+	public void alSourceRewind(int source);
+
+	/** Queues buffers on a source. */
+	public void alSourceQueueBuffers(int source, int n, int[] buffers, int offset);
+
+	/** Unqueues processed buffers from a source. */
+	public void alSourceUnqueueBuffers(int source, int n, int[] buffers, int offset);
+
+	/** Generates effect names. */
+	public void alGenEffects(int n, int[] effects, int offset);
+
+	/** Deletes effects. */
+	public void alDeleteEffects(int n, int[] effects, int offset);
+
+	/** Sets an effect integer. */
+	public void alEffecti(int effect, int param, int value);
+
+	/** Sets an effect float. */
+	public void alEffectf(int effect, int param, float value);
+
+	/** Generates filter names. */
+	public void alGenFilters(int n, int[] filters, int offset);
+
+	/** Deletes filters. */
+	public void alDeleteFilters(int n, int[] filters, int offset);
+
+	/** Sets a filter integer. */
+	public void alFilteri(int filter, int param, int value);
+
+	/** Sets a filter float. */
+	public void alFilterf(int filter, int param, float value);
+
+	/** Generates auxiliary effect slot names. */
+	public void alGenAuxiliaryEffectSlots(int n, int[] slots, int offset);
+
+	/** Deletes auxiliary effect slots. */
+	public void alDeleteAuxiliaryEffectSlots(int n, int[] slots, int offset);
+
+	/** Sets an auxiliary effect slot integer. */
+	public void alAuxiliaryEffectSloti(int slot, int param, int value);
+
+	/** Sets an auxiliary effect slot float. */
+	public void alAuxiliaryEffectSlotf(int slot, int param, float value);
+
+}
@@ -0,0 +1,1796 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.backend;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.TargetDataLine;
+
+import com.blackrook.oal.enums.DistanceModel;
+import com.blackrook.oal.enums.RenderChannels;
+import com.blackrook.oal.enums.RenderSampleType;
+import com.blackrook.oal.enums.SoundFormat;
+import com.blackrook.oal.exception.SoundSystemException;
+import com.jogamp.openal.AL;
+import com.jogamp.openal.ALC;
+import com.jogamp.openal.ALExt;
+
+/**
+ * A backend that mixes in Java, without a native OpenAL library.
+ * Playback devices play through a Java Sound line, and loopback devices support every render format.
+ * <p>
+ * Sources are mixed to stereo with OpenAL's distance models, cones, gain clamping and
+ * Doppler shift, resampled to the device frequency with linear interpolation, and panned
+ * with equal power. Direct low-pass and band-pass filters are applied as one-pole filters,
+ * and the gain of every direct filter is applied.
+ * <p>
+ * Limitations: buffers can only be mono or stereo 8-bit, 16-bit or float samples, and
+ * effects and effect slots are kept but not processed (no sources have auxiliary sends).
+ * <p>
+ * Opening the device named {@link #NULL_DEVICE_NAME} keeps all of the AL state without playing
+ * anything or starting a mixing thread, for running without a sound card (like in tests).
+ * Nothing is ever mixed on it, so playing sources never advance or stop by themselves.
+ * @author Matthew Tropiano
+ */
+public class SoftwareBackend implements OALBackend
+{
+	/** Name of the default device. */
+	public static final String DEVICE_NAME = "Software Mixer";
+	/** Name of the device that plays nothing. */
+	public static final String NULL_DEVICE_NAME = "Null Device";
+	/** Mixing frequency of playback devices in Hz. */
+	public static final int DEFAULT_FREQUENCY = 44100;
+
+	/** Sample frames mixed at a time. */
+	private static final int BLOCK_FRAMES = 512;
+	/** Blocks buffered by playback lines. */
+	private static final int LINE_BLOCKS = 4;
+	/** Largest resampling step, in buffer frames per output frame. */
+	private static final double MAX_STEP = 255.0;
+	/** Speed of sound in units per second, before the Doppler velocity. */
+	private static final float SPEED_OF_SOUND = 343.3f;
+	/** Reference frequency for high frequency gain in Hz. */
+	private static final double HF_REFERENCE = 5000.0;
+	/** Supported AL extensions. */
+	private static final String EXTENSIONS = "AL_EXT_FLOAT32";
+
+	/** Buffer formats. */
+	private static final SoundFormat[] FORMATS = SoundFormat.values();
+	/** Distance models. */
+	private static final DistanceModel[] MODELS = DistanceModel.values();
+	/** Empty sample data. */
+	private static final float[] NO_DATA = new float[0];
+
+	/** Opened device name, or null if not open. */
+	private String deviceName;
+	/** Mixing frequency. */
+	private int frequency;
+	/** Cosine of the high frequency reference, at the mixing frequency. */
+	private double hfCosine;
+	/** Loopback channel layout, or null if not a loopback device. */
+	private RenderChannels renderChannels;
+	/** Loopback sample type, or null if not a loopback device. */
+	private RenderSampleType renderSampleType;
+	/** Playback line, or null if a loopback device. */
+	private SourceDataLine line;
+	/** Playback thread, or null if a loopback device. */
+	private MixerThread mixerThread;
+
+	/** Current AL error. */
+	private int alError;
+	/** Current ALC error. */
+	private int alcError;
+
+	/** Listener position. */
+	private final float[] listenerPosition;
+	/** Listener velocity. */
+	private final float[] listenerVelocity;
+	/** Listener orientation (facing, then up). */
+	private final float[] listenerOrientation;
+	/** Listener gain. */
+	private float listenerGain;
+	/** Distance model. */
+	private DistanceModel distanceModel;
+	/** Doppler factor. */
+	private float dopplerFactor;
+	/** Doppler velocity. */
+	private float dopplerVelocity;
+
+	/** Buffers by name. */
+	private final NameTable<SampleBuffer> buffers;
+	/** Sources by name. */
+	private final NameTable<Source> sources;
+	/** Effects by name. */
+	private final NameTable<Effect> effects;
+	/** Filters by name. */
+	private final NameTable<Filter> filters;
+	/** Effect slots by name. */
+	private final NameTable<EffectSlot> slots;
+
+	// ======= Mixing data, reused every block.
+	private final float[] mix;
+	private final float[] listenerRight;
+	private float mixLeft;
+	private float mixRight;
+	private double mixStep;
+
+	// ======= Temp data for value retrieval.
+	private final float[] FLOAT_OUTPUT = new float[1];
+
+	/**
+	 * Creates a new software backend.
+	 */
+	public SoftwareBackend()
+	{
+		this.listenerPosition = new float[3];
+		this.listenerVelocity = new float[3];
+		this.listenerOrientation = new float[]{0f, 0f, -1f, 0f, 1f, 0f};
+		this.listenerGain = 1f;
+		this.distanceModel = DistanceModel.INVERSE_DISTANCE_CLAMPED;
+		this.dopplerFactor = 1f;
+		this.dopplerVelocity = 1f;
+		this.alError = AL.AL_NO_ERROR;
+		this.alcError = ALC.ALC_NO_ERROR;
+		this.buffers = new NameTable<SampleBuffer>();
+		this.sources = new NameTable<Source>();
+		this.effects = new NameTable<Effect>();
+		this.filters = new NameTable<Filter>();
+		this.slots = new NameTable<EffectSlot>();
+		this.mix = new float[BLOCK_FRAMES * 2];
+		this.listenerRight = new float[3];
+	}
+
+	/**
+	 * Returns a list of all Java Sound mixers that can be opened as devices.
+	 */
+	public static String[] getDeviceNames()
+	{
+		return getMixerNames(SourceDataLine.class);
+	}
+
+	/**
+	 * Returns a list of all Java Sound mixers that can capture.
+	 */
+	public static String[] getCaptureDeviceNames()
+	{
+		return getMixerNames(TargetDataLine.class);
+	}
+
+	// Returns the names of the mixers that support a line type.
+	private static String[] getMixerNames(Class<? extends Line> lineType)
+	{
+		Line.Info lineInfo = new Line.Info(lineType);
+		Mixer.Info[] infos = AudioSystem.getMixerInfo();
+		String[] out = new String[infos.length];
+		int n = 0;
+		for (Mixer.Info info : infos)
+			if (AudioSystem.getMixer(info).isLineSupported(lineInfo))
+				out[n++] = info.getName();
+		return Arrays.copyOf(out, n);
+	}
+
+	@Override
+	public synchronized void open(String deviceName)
+	{
+		if (NULL_DEVICE_NAME.equals(deviceName))
+		{
+			initialize(NULL_DEVICE_NAME, DEFAULT_FREQUENCY);
+			return;
+		}
+
+		String dname = deviceName != null ? "device \""+deviceName+"\"" : "default device";
+
+		AudioFormat format = new AudioFormat(DEFAULT_FREQUENCY, 16, 2, true, false);
+		try {
+			if (deviceName == null || deviceName.equals(DEVICE_NAME))
+				line = AudioSystem.getSourceDataLine(format);
+			else
+			{
+				for (Mixer.Info info : AudioSystem.getMixerInfo())
+					if (info.getName().equals(deviceName))
+						line = AudioSystem.getSourceDataLine(format, info);
+				if (line == null)
+					throw new SoundSystemException("The " + dname + " couldn't be opened.");
+			}
+			line.open(format, BLOCK_FRAMES * LINE_BLOCKS * format.getFrameSize());
+		} catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+			line = null;
+			throw new SoundSystemException("The " + dname + " couldn't be opened.", e);
+		}
+
+		initialize(deviceName != null ? deviceName : DEVICE_NAME, DEFAULT_FREQUENCY);
+		line.start();
+		mixerThread = new MixerThread();
+		mixerThread.start();
+	}
+
+	@Override
+	public synchronized void openLoopback(int frequency, RenderChannels channels, RenderSampleType type)
+	{
+		if (frequency <= 0)
+			throw new SoundSystemException("The loopback device does not support rendering " + frequency + " Hz, " + channels + ", " + type + ".");
+
+		initialize(DEVICE_NAME, frequency);
+		renderChannels = channels;
+		renderSampleType = type;
+	}
+
+	// Sets the device state on open.
+	private void initialize(String name, int frequency)
+	{
+		this.deviceName = name;
+		this.frequency = frequency;
+		this.hfCosine = Math.cos(2.0 * Math.PI * HF_REFERENCE / frequency);
+	}
+
+	@Override
+	public void close()
+	{
+		MixerThread thread;
+		synchronized (this)
+		{
+			if (deviceName == null)
+			{
+				alcError(ALC.ALC_INVALID_DEVICE);
+				return;
+			}
+			thread = mixerThread;
+			mixerThread = null;
+		}
+
+		// joined outside of the lock, since the thread takes it to mix.
+		if (thread != null)
+		{
+			thread.running = false;
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (this)
+		{
+			if (line != null)
+			{
+				line.stop();
+				line.close();
+				line = null;
+			}
+			deviceName = null;
+			renderChannels = null;
+			renderSampleType = null;
+			buffers.clear();
+			sources.clear();
+			effects.clear();
+			filters.clear();
+			slots.clear();
+		}
+	}
+
+	@Override
+	public synchronized void renderSamples(Buffer out, int frames)
+	{
+		if (renderChannels == null)
+		{
+			alcError(ALC.ALC_INVALID_DEVICE);
+			return;
+		}
+
+		ByteBuffer bytes = out instanceof ByteBuffer ? ((ByteBuffer)out).duplicate().order(ByteOrder.nativeOrder()) : null;
+		FloatBuffer floats = out instanceof FloatBuffer ? (FloatBuffer)out : null;
+		if (bytes == null && floats == null)
+		{
+			alcError(ALC.ALC_INVALID_VALUE);
+			return;
+		}
+
+		int channels = renderChannels.channels;
+		int pos = out.position();
+		while (frames > 0)
+		{
+			int n = Math.min(frames, BLOCK_FRAMES);
+			mix(n);
+			for (int i = 0, m = 0; i < n; i++, m += 2)
+			{
+				for (int c = 0; c < channels; c++)
+				{
+					// mono is downmixed, and channels past the front pair are silent.
+					float v = channels == 1 ? (mix[m] + mix[m + 1]) * 0.5f : (c < 2 ? mix[m + c] : 0f);
+					if (floats != null)
+						floats.put(pos++, v);
+					else
+						pos = putSample(bytes, pos, v);
+				}
+			}
+			frames -= n;
+		}
+	}
+
+	// Writes a sample in the render sample type. Returns the next position.
+	private int putSample(ByteBuffer out, int pos, float v)
+	{
+		v = Math.max(-1f, Math.min(v, 1f));
+		switch (renderSampleType)
+		{
+			case BYTE:
+				out.put(pos, (byte)(v * 127f));
+				return pos + 1;
+			case UNSIGNED_BYTE:
+				out.put(pos, (byte)((int)(v * 127f) + 128));
+				return pos + 1;
+			case SHORT:
+				out.putShort(pos, (short)(v * 32767f));
+				return pos + 2;
+			case UNSIGNED_SHORT:
+				out.putShort(pos, (short)((int)(v * 32767f) + 32768));
+				return pos + 2;
+			case INT:
+				out.putInt(pos, (int)(v * 2147483647.0));
+				return pos + 4;
+			case UNSIGNED_INT:
+				out.putInt(pos, (int)((long)(v * 2147483647.0) + 2147483648L));
+				return pos + 4;
+			default:
+			case FLOAT:
+				out.putFloat(pos, v);
+				return pos + 4;
+		}
+	}
+
+	@Override
+	public synchronized int alcGetError()
+	{
+		int out = alcError;
+		alcError = ALC.ALC_NO_ERROR;
+		return out;
+	}
+
+	@Override
+	public synchronized String alcGetString(int param)
+	{
+		switch (param)
+		{
+			case ALC.ALC_NO_ERROR:
+				return "No Error";
+			case ALC.ALC_INVALID_DEVICE:
+				return "Invalid Device";
+			case ALC.ALC_INVALID_CONTEXT:
+				return "Invalid Context";
+			case ALC.ALC_INVALID_ENUM:
+				return "Invalid Enum";
+			case ALC.ALC_INVALID_VALUE:
+				return "Invalid Value";
+			case ALC.ALC_OUT_OF_MEMORY:
+				return "Out of Memory";
+			case ALC.ALC_DEVICE_SPECIFIER:
+				return deviceName;
+			default:
+				alcError(ALC.ALC_INVALID_ENUM);
+				return null;
+		}
+	}
+
+	@Override
+	public synchronized int alcGetInteger(int param)
+	{
+		switch (param)
+		{
+			case ALC.ALC_MAJOR_VERSION:
+				return 1;
+			case ALC.ALC_MINOR_VERSION:
+				return 1;
+			case ALC.ALC_FREQUENCY:
+				return frequency;
+			case ALC.ALC_MONO_SOURCES:
+				return 255;
+			case ALC.ALC_STEREO_SOURCES:
+				return 1;
+			case ALExt.ALC_MAX_AUXILIARY_SENDS:
+				return 0;
+			default:
+				alcError(ALC.ALC_INVALID_ENUM);
+				return 0;
+		}
+	}
+
+	@Override
+	public void alcSuspendContext()
+	{
+		// Does nothing, like most implementations: calls are applied when made.
+	}
+
+	@Override
+	public void alcProcessContext()
+	{
+		// Does nothing, like most implementations: calls are applied when made.
+	}
+
+	// Sets the ALC error, if one isn't set already.
+	private void alcError(int error)
+	{
+		if (alcError == ALC.ALC_NO_ERROR)
+			alcError = error;
+	}
+
+	@Override
+	public synchronized int alGetError()
+	{
+		int out = alError;
+		alError = AL.AL_NO_ERROR;
+		return out;
+	}
+
+	@Override
+	public synchronized String alGetString(int param)
+	{
+		switch (param)
+		{
+			case AL.AL_NO_ERROR:
+				return "No Error";
+			case AL.AL_INVALID_NAME:
+				return "Invalid Name";
+			case AL.AL_INVALID_ENUM:
+				return "Invalid Enum";
+			case AL.AL_INVALID_VALUE:
+				return "Invalid Value";
+			case AL.AL_INVALID_OPERATION:
+				return "Invalid Operation";
+			case AL.AL_OUT_OF_MEMORY:
+				return "Out of Memory";
+			case AL.AL_VENDOR:
+				return "Black Rook Software";
+			case AL.AL_VERSION:
+				return "1.1";
+			case AL.AL_RENDERER:
+				return DEVICE_NAME;
+			case AL.AL_EXTENSIONS:
+				return EXTENSIONS;
+			default:
+				alError(AL.AL_INVALID_ENUM);
+				return null;
+		}
+	}
+
+	@Override
+	public boolean alIsExtensionPresent(String extName)
+	{
+		return EXTENSIONS.equalsIgnoreCase(extName);
+	}
+
+	@Override
+	public synchronized float alGetFloat(int param)
+	{
+		switch (param)
+		{
+			case AL.AL_DOPPLER_FACTOR:
+				return dopplerFactor;
+			case AL.AL_DOPPLER_VELOCITY:
+				return dopplerVelocity;
+			case AL.AL_SPEED_OF_SOUND:
+				return SPEED_OF_SOUND;
+			case AL.AL_DISTANCE_MODEL:
+				return distanceModel.alVal;
+			default:
+				alError(AL.AL_INVALID_ENUM);
+				return 0f;
+		}
+	}
+
+	@Override
+	public synchronized void alDistanceModel(int model)
+	{
+		for (DistanceModel m : MODELS)
+		{
+			if (m.alVal == model)
+			{
+				distanceModel = m;
+				return;
+			}
+		}
+		alError(AL.AL_INVALID_VALUE);
+	}
+
+	@Override
+	public synchronized void alDopplerFactor(float value)
+	{
+		if (value < 0f)
+			alError(AL.AL_INVALID_VALUE);
+		else
+			dopplerFactor = value;
+	}
+
+	@Override
+	public synchronized void alDopplerVelocity(float value)
+	{
+		if (value <= 0f)
+			alError(AL.AL_INVALID_VALUE);
+		else
+			dopplerVelocity = value;
+	}
+
+	@Override
+	public synchronized void alListenerf(int param, float value)
+	{
+		switch (param)
+		{
+			case AL.AL_GAIN:
+				if (value < 0f)
+					alError(AL.AL_INVALID_VALUE);
+				else
+					listenerGain = value;
+				break;
+			default:
+				alError(AL.AL_INVALID_ENUM);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alListenerfv(int param, float[] values, int offset)
+	{
+		switch (param)
+		{
+			case AL.AL_POSITION:
+				System.arraycopy(values, offset, listenerPosition, 0, 3);
+				break;
+			case AL.AL_VELOCITY:
+				System.arraycopy(values, offset, listenerVelocity, 0, 3);
+				break;
+			case AL.AL_ORIENTATION:
+				System.arraycopy(values, offset, listenerOrientation, 0, 6);
+				break;
+			default:
+				alListenerf(param, values[offset]);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alGenBuffers(int n, int[] buffers, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		for (int i = 0; i < n; i++)
+			buffers[offset + i] = this.buffers.add(new SampleBuffer());
+	}
+
+	@Override
+	public synchronized void alDeleteBuffers(int n, int[] buffers, int offset)
+	{
+		if (!checkNames(this.buffers, n, buffers, offset))
+			return;
+		for (int i = 0; i < n; i++)
+		{
+			SampleBuffer buffer = this.buffers.get(buffers[offset + i]);
+			if (buffer != null && buffer.references > 0)
+			{
+				alError(AL.AL_INVALID_OPERATION);
+				return;
+			}
+		}
+		for (int i = 0; i < n; i++)
+			this.buffers.remove(buffers[offset + i]);
+	}
+
+	@Override
+	public synchronized void alBufferData(int buffer, int format, Buffer data, int size, int frequency)
+	{
+		SampleBuffer b = buffers.get(buffer);
+		if (b == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+		if (b.references > 0)
+		{
+			alError(AL.AL_INVALID_OPERATION);
+			return;
+		}
+
+		SoundFormat f = null;
+		for (SoundFormat sf : FORMATS)
+			if (sf.alVal == format)
+				f = sf;
+		if (f == null || f.isCompressed() || f.channels > 2)
+		{
+			alError(AL.AL_INVALID_ENUM);
+			return;
+		}
+		if (frequency <= 0 || size < 0 || size % f.getFrameSize() != 0 || !(data instanceof ByteBuffer) || size > data.remaining())
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+
+		ByteBuffer in = ((ByteBuffer)data).duplicate().order(ByteOrder.nativeOrder());
+		int pos = in.position();
+		int samples = size / (f.bits / 8);
+		float[] out = b.data.length >= samples ? b.data : new float[samples];
+		switch (f.bits)
+		{
+			case 8:
+				for (int i = 0; i < samples; i++)
+					out[i] = ((in.get(pos + i) & 0x0ff) - 128) / 128f;
+				break;
+			case 16:
+				for (int i = 0; i < samples; i++)
+					out[i] = in.getShort(pos + i * 2) / 32768f;
+				break;
+			default:
+				for (int i = 0; i < samples; i++)
+					out[i] = in.getFloat(pos + i * 4);
+				break;
+		}
+
+		b.data = out;
+		b.channels = f.channels;
+		b.frames = samples / f.channels;
+		b.frequency = frequency;
+	}
+
+	@Override
+	public synchronized void alGenSources(int n, int[] sources, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		for (int i = 0; i < n; i++)
+			sources[offset + i] = this.sources.add(new Source());
+	}
+
+	@Override
+	public synchronized void alDeleteSources(int n, int[] sources, int offset)
+	{
+		if (!checkNames(this.sources, n, sources, offset))
+			return;
+		for (int i = 0; i < n; i++)
+		{
+			Source s = this.sources.get(sources[offset + i]);
+			if (s != null)
+			{
+				clearQueue(s);
+				this.sources.remove(sources[offset + i]);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void alSourcef(int source, int param, float value)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		if (value < 0f || Float.isNaN(value))
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+
+		switch (param)
+		{
+			case AL.AL_PITCH:
+				s.pitch = value;
+				break;
+			case AL.AL_GAIN:
+				s.gain = value;
+				break;
+			case AL.AL_MIN_GAIN:
+				s.minGain = value;
+				break;
+			case AL.AL_MAX_GAIN:
+				s.maxGain = value;
+				break;
+			case AL.AL_ROLLOFF_FACTOR:
+				s.rolloff = value;
+				break;
+			case AL.AL_REFERENCE_DISTANCE:
+				s.referenceDistance = value;
+				break;
+			case AL.AL_MAX_DISTANCE:
+				s.maxDistance = value;
+				break;
+			case AL.AL_CONE_INNER_ANGLE:
+				s.innerCone = Math.min(value, 360f);
+				break;
+			case AL.AL_CONE_OUTER_ANGLE:
+				s.outerCone = Math.min(value, 360f);
+				break;
+			case AL.AL_CONE_OUTER_GAIN:
+				s.outerConeGain = Math.min(value, 1f);
+				break;
+			case AL.AL_SEC_OFFSET:
+				setOffset(s, value);
+				break;
+			case AL.AL_SAMPLE_OFFSET:
+				setOffset(s, s.queueCount > 0 ? value / s.queue[0].frequency : 0f);
+				break;
+			default:
+				alError(AL.AL_INVALID_ENUM);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alSourcefv(int source, int param, float[] values, int offset)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		switch (param)
+		{
+			case AL.AL_POSITION:
+				System.arraycopy(values, offset, s.position, 0, 3);
+				break;
+			case AL.AL_VELOCITY:
+				System.arraycopy(values, offset, s.velocity, 0, 3);
+				break;
+			case AL.AL_DIRECTION:
+				System.arraycopy(values, offset, s.direction, 0, 3);
+				break;
+			default:
+				alSourcef(source, param, values[offset]);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alSourcei(int source, int param, int value)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		switch (param)
+		{
+			case AL.AL_LOOPING:
+				s.looping = value != AL.AL_FALSE;
+				break;
+			case AL.AL_SOURCE_RELATIVE:
+				s.relative = value != AL.AL_FALSE;
+				break;
+			case AL.AL_BUFFER:
+			{
+				SampleBuffer b = null;
+				if (value != 0 && (b = buffers.get(value)) == null)
+					alError(AL.AL_INVALID_NAME);
+				else if (s.state != AL.AL_INITIAL && s.state != AL.AL_STOPPED)
+					alError(AL.AL_INVALID_OPERATION);
+				else
+				{
+					clearQueue(s);
+					if (b != null)
+					{
+						enqueue(s, value, b);
+						s.type = AL.AL_STATIC;
+					}
+				}
+				break;
+			}
+			case ALExt.AL_DIRECT_FILTER:
+			{
+				// filter settings are copied when attached, like OpenAL does.
+				Filter f = null;
+				if (value != ALExt.AL_FILTER_NULL && (f = filters.get(value)) == null)
+					alError(AL.AL_INVALID_NAME);
+				else if (f == null)
+				{
+					s.filterType = ALExt.AL_FILTER_NULL;
+					s.filterGain = 1f;
+					s.filterGainHF = 1f;
+				}
+				else
+				{
+					s.filterType = f.type;
+					s.filterGain = f.gain;
+					s.filterGainHF = f.gainHF;
+				}
+				break;
+			}
+			default:
+				alSourcef(source, param, value);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alSource3i(int source, int param, int value1, int value2, int value3)
+	{
+		if (sources.get(source) == null)
+			alError(AL.AL_INVALID_NAME);
+		else if (param == ALExt.AL_AUXILIARY_SEND_FILTER)
+			alError(AL.AL_INVALID_VALUE); // no auxiliary sends.
+		else
+			alError(AL.AL_INVALID_ENUM);
+	}
+
+	@Override
+	public synchronized void alGetSourcef(int source, int param, float[] values, int offset)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		switch (param)
+		{
+			case AL.AL_PITCH:
+				values[offset] = s.pitch;
+				break;
+			case AL.AL_GAIN:
+				values[offset] = s.gain;
+				break;
+			case AL.AL_MIN_GAIN:
+				values[offset] = s.minGain;
+				break;
+			case AL.AL_MAX_GAIN:
+				values[offset] = s.maxGain;
+				break;
+			case AL.AL_ROLLOFF_FACTOR:
+				values[offset] = s.rolloff;
+				break;
+			case AL.AL_REFERENCE_DISTANCE:
+				values[offset] = s.referenceDistance;
+				break;
+			case AL.AL_MAX_DISTANCE:
+				values[offset] = s.maxDistance;
+				break;
+			case AL.AL_CONE_INNER_ANGLE:
+				values[offset] = s.innerCone;
+				break;
+			case AL.AL_CONE_OUTER_ANGLE:
+				values[offset] = s.outerCone;
+				break;
+			case AL.AL_CONE_OUTER_GAIN:
+				values[offset] = s.outerConeGain;
+				break;
+			case AL.AL_SEC_OFFSET:
+				values[offset] = (float)getOffset(s);
+				break;
+			case AL.AL_SAMPLE_OFFSET:
+				values[offset] = s.queueCount > 0 ? (float)(getOffset(s) * s.queue[0].frequency) : 0f;
+				break;
+			default:
+				alError(AL.AL_INVALID_ENUM);
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alGetSourcei(int source, int param, int[] values, int offset)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		switch (param)
+		{
+			case AL.AL_SOURCE_STATE:
+				values[offset] = s.state;
+				break;
+			case AL.AL_SOURCE_TYPE:
+				values[offset] = s.type;
+				break;
+			case AL.AL_LOOPING:
+				values[offset] = s.looping ? AL.AL_TRUE : AL.AL_FALSE;
+				break;
+			case AL.AL_SOURCE_RELATIVE:
+				values[offset] = s.relative ? AL.AL_TRUE : AL.AL_FALSE;
+				break;
+			case AL.AL_BUFFER:
+				values[offset] = s.queueCount > 0 ? s.queueNames[Math.min(s.current, s.queueCount - 1)] : 0;
+				break;
+			case AL.AL_BUFFERS_QUEUED:
+				values[offset] = s.queueCount;
+				break;
+			case AL.AL_BUFFERS_PROCESSED:
+				values[offset] = getProcessed(s);
+				break;
+			case AL.AL_SAMPLE_OFFSET:
+				values[offset] = s.queueCount > 0 ? (int)(getOffset(s) * s.queue[0].frequency) : 0;
+				break;
+			default:
+				alGetSourcef(source, param, FLOAT_OUTPUT, 0);
+				values[offset] = (int)FLOAT_OUTPUT[0];
+				break;
+		}
+	}
+
+	@Override
+	public synchronized void alSourcePlay(int source)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		if (s.state == AL.AL_PAUSED)
+		{
+			s.state = AL.AL_PLAYING;
+			return;
+		}
+
+		s.current = 0;
+		s.cursor = 0.0;
+		s.history0 = 0f;
+		s.history1 = 0f;
+		s.ramp = false;
+		s.state = AL.AL_PLAYING;
+		if (s.pendingOffset > 0.0)
+			seek(s, s.pendingOffset);
+		s.pendingOffset = 0.0;
+
+		// nothing to play stops right away.
+		long frames = 0L;
+		for (int i = 0; i < s.queueCount; i++)
+			frames += s.queue[i].frames;
+		if (frames == 0L)
+			stopSource(s);
+	}
+
+	@Override
+	public synchronized void alSourcePause(int source)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+			alError(AL.AL_INVALID_NAME);
+		else if (s.state == AL.AL_PLAYING)
+			s.state = AL.AL_PAUSED;
+	}
+
+	@Override
+	public synchronized void alSourceStop(int source)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+			alError(AL.AL_INVALID_NAME);
+		else
+		{
+			stopSource(s);
+			s.pendingOffset = 0.0;
+		}
+	}
+
+	@Override
+	public synchronized void alSourceRewind(int source)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+			alError(AL.AL_INVALID_NAME);
+		else
+		{
+			s.state = AL.AL_INITIAL;
+			s.current = 0;
+			s.cursor = 0.0;
+			s.pendingOffset = 0.0;
+		}
+	}
+
+	@Override
+	public synchronized void alSourceQueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		if (s.type == AL.AL_STATIC)
+		{
+			alError(AL.AL_INVALID_OPERATION);
+			return;
+		}
+
+		// all queued buffers need the same channel count.
+		int channels = s.queueCount > 0 ? s.queue[0].channels : 0;
+		for (int i = 0; i < n; i++)
+		{
+			SampleBuffer b = this.buffers.get(buffers[offset + i]);
+			if (b == null)
+			{
+				alError(AL.AL_INVALID_NAME);
+				return;
+			}
+			if (channels == 0)
+				channels = b.channels;
+			else if (b.channels != channels)
+			{
+				alError(AL.AL_INVALID_OPERATION);
+				return;
+			}
+		}
+
+		for (int i = 0; i < n; i++)
+			enqueue(s, buffers[offset + i], this.buffers.get(buffers[offset + i]));
+		if (n > 0)
+			s.type = AL.AL_STREAMING;
+	}
+
+	@Override
+	public synchronized void alSourceUnqueueBuffers(int source, int n, int[] buffers, int offset)
+	{
+		Source s = sources.get(source);
+		if (s == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+		if (n < 0 || n > getProcessed(s))
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+
+		for (int i = 0; i < n; i++)
+		{
+			buffers[offset + i] = s.queueNames[i];
+			s.queue[i].references--;
+		}
+		int left = s.queueCount - n;
+		System.arraycopy(s.queue, n, s.queue, 0, left);
+		System.arraycopy(s.queueNames, n, s.queueNames, 0, left);
+		Arrays.fill(s.queue, left, s.queueCount, null);
+		s.queueCount = left;
+		s.current = Math.max(0, s.current - n);
+		if (left == 0)
+			s.type = AL.AL_UNDETERMINED;
+	}
+
+	@Override
+	public synchronized void alGenEffects(int n, int[] effects, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		for (int i = 0; i < n; i++)
+			effects[offset + i] = this.effects.add(new Effect());
+	}
+
+	@Override
+	public synchronized void alDeleteEffects(int n, int[] effects, int offset)
+	{
+		if (checkNames(this.effects, n, effects, offset))
+			for (int i = 0; i < n; i++)
+				this.effects.remove(effects[offset + i]);
+	}
+
+	@Override
+	public synchronized void alEffecti(int effect, int param, int value)
+	{
+		Effect e = effects.get(effect);
+		if (e == null)
+			alError(AL.AL_INVALID_NAME);
+		else if (param == ALExt.AL_EFFECT_TYPE)
+			e.type = value;
+	}
+
+	@Override
+	public synchronized void alEffectf(int effect, int param, float value)
+	{
+		// parameters are accepted, but effects are not processed.
+		if (effects.get(effect) == null)
+			alError(AL.AL_INVALID_NAME);
+	}
+
+	@Override
+	public synchronized void alGenFilters(int n, int[] filters, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		for (int i = 0; i < n; i++)
+			filters[offset + i] = this.filters.add(new Filter());
+	}
+
+	@Override
+	public synchronized void alDeleteFilters(int n, int[] filters, int offset)
+	{
+		if (checkNames(this.filters, n, filters, offset))
+			for (int i = 0; i < n; i++)
+				this.filters.remove(filters[offset + i]);
+	}
+
+	@Override
+	public synchronized void alFilteri(int filter, int param, int value)
+	{
+		Filter f = filters.get(filter);
+		if (f == null)
+			alError(AL.AL_INVALID_NAME);
+		else if (param != ALExt.AL_FILTER_TYPE)
+			alFilterf(filter, param, value);
+		else if (value != ALExt.AL_FILTER_NULL && value != ALExt.AL_FILTER_LOWPASS && value != ALExt.AL_FILTER_HIGHPASS && value != ALExt.AL_FILTER_BANDPASS)
+			alError(AL.AL_INVALID_VALUE);
+		else
+		{
+			f.type = value;
+			f.gain = 1f;
+			f.gainHF = 1f;
+		}
+	}
+
+	@Override
+	public synchronized void alFilterf(int filter, int param, float value)
+	{
+		Filter f = filters.get(filter);
+		if (f == null)
+		{
+			alError(AL.AL_INVALID_NAME);
+			return;
+		}
+
+		// the gain parameters share values between filter types.
+		if (param == ALExt.AL_LOWPASS_GAIN)
+			f.gain = value;
+		else if (f.type == ALExt.AL_FILTER_LOWPASS && param == ALExt.AL_LOWPASS_GAINHF)
+			f.gainHF = value;
+		else if (f.type == ALExt.AL_FILTER_BANDPASS && param == ALExt.AL_BANDPASS_GAINHF)
+			f.gainHF = value;
+		else if (f.type == ALExt.AL_FILTER_NULL)
+			alError(AL.AL_INVALID_ENUM);
+		// low frequency gains are accepted, but not applied.
+	}
+
+	@Override
+	public synchronized void alGenAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return;
+		}
+		for (int i = 0; i < n; i++)
+			slots[offset + i] = this.slots.add(new EffectSlot());
+	}
+
+	@Override
+	public synchronized void alDeleteAuxiliaryEffectSlots(int n, int[] slots, int offset)
+	{
+		if (checkNames(this.slots, n, slots, offset))
+			for (int i = 0; i < n; i++)
+				this.slots.remove(slots[offset + i]);
+	}
+
+	@Override
+	public synchronized void alAuxiliaryEffectSloti(int slot, int param, int value)
+	{
+		EffectSlot s = slots.get(slot);
+		if (s == null)
+			alError(AL.AL_INVALID_NAME);
+		else if (param == ALExt.AL_EFFECTSLOT_EFFECT)
+		{
+			if (value != ALExt.AL_EFFECT_NULL && effects.get(value) == null)
+				alError(AL.AL_INVALID_VALUE);
+			else
+				s.effect = value;
+		}
+	}
+
+	@Override
+	public synchronized void alAuxiliaryEffectSlotf(int slot, int param, float value)
+	{
+		if (slots.get(slot) == null)
+			alError(AL.AL_INVALID_NAME);
+	}
+
+	// Sets the AL error, if one isn't set already.
+	private void alError(int error)
+	{
+		if (alError == AL.AL_NO_ERROR)
+			alError = error;
+	}
+
+	// Checks that all names in a delete call are valid or 0.
+	private boolean checkNames(NameTable<?> table, int n, int[] names, int offset)
+	{
+		if (n < 0)
+		{
+			alError(AL.AL_INVALID_VALUE);
+			return false;
+		}
+		for (int i = 0; i < n; i++)
+		{
+			int name = names[offset + i];
+			if (name != 0 && table.get(name) == null)
+			{
+				alError(AL.AL_INVALID_NAME);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Adds a buffer to the end of a source's queue.
+	private static void enqueue(Source s, int name, SampleBuffer b)
+	{
+		if (s.queueCount == s.queue.length)
+		{
+			s.queue = Arrays.copyOf(s.queue, s.queueCount * 2);
+			s.queueNames = Arrays.copyOf(s.queueNames, s.queueCount * 2);
+		}
+		s.queue[s.queueCount] = b;
+		s.queueNames[s.queueCount] = name;
+		s.queueCount++;
+		b.references++;
+	}
+
+	// Stops a source and removes all of its buffers.
+	private static void clearQueue(Source s)
+	{
+		for (int i = 0; i < s.queueCount; i++)
+			s.queue[i].references--;
+		Arrays.fill(s.queue, 0, s.queueCount, null);
+		s.queueCount = 0;
+		s.current = 0;
+		s.cursor = 0.0;
+		s.type = AL.AL_UNDETERMINED;
+	}
+
+	// Stops a source, marking all of its buffers processed.
+	private static void stopSource(Source s)
+	{
+		s.state = AL.AL_STOPPED;
+		s.current = s.queueCount;
+		s.cursor = 0.0;
+	}
+
+	// Returns the amount of processed buffers.
+	private static int getProcessed(Source s)
+	{
+		switch (s.state)
+		{
+			case AL.AL_STOPPED:
+				return s.queueCount;
+			case AL.AL_INITIAL:
+				return 0;
+			default:
+				return s.looping ? 0 : s.current;
+		}
+	}
+
+	// Returns a source's playback position in seconds from the start of its queue.
+	private static double getOffset(Source s)
+	{
+		if (s.state != AL.AL_PLAYING && s.state != AL.AL_PAUSED)
+			return s.pendingOffset;
+		double out = 0.0;
+		for (int i = 0; i < s.current && i < s.queueCount; i++)
+			out += (double)s.queue[i].frames / s.queue[i].frequency;
+		if (s.current < s.queueCount)
+			out += s.cursor / s.queue[s.current].frequency;
+		return out;
+	}
+
+	// Sets a source's playback position, now if playing, or on the next play.
+	private void setOffset(Source s, double seconds)
+	{
+		if (s.state == AL.AL_PLAYING || s.state == AL.AL_PAUSED)
+		{
+			if (!seek(s, seconds))
+				alError(AL.AL_INVALID_VALUE);
+		}
+		else
+			s.pendingOffset = seconds;
+	}
+
+	// Moves a source's playback position. False if past the end of the queue.
+	private static boolean seek(Source s, double seconds)
+	{
+		for (int i = 0; i < s.queueCount; i++)
+		{
+			SampleBuffer b = s.queue[i];
+			double length = (double)b.frames / b.frequency;
+			if (seconds < length)
+			{
+				s.current = i;
+				s.cursor = seconds * b.frequency;
+				return true;
+			}
+			seconds -= length;
+		}
+		return false;
+	}
+
+	// Moves a source to its next buffer. False if it stopped.
+	private static boolean nextBuffer(Source s)
+	{
+		if (s.current + 1 < s.queueCount)
+			s.current++;
+		else if (s.looping)
+			s.current = 0;
+		else
+		{
+			stopSource(s);
+			return false;
+		}
+		return true;
+	}
+
+	// Mixes the next block of all playing sources into the mix buffer, as interleaved stereo.
+	private void mix(int frames)
+	{
+		Arrays.fill(mix, 0, frames * 2, 0f);
+
+		// listener's right-hand vector: facing x up.
+		float[] o = listenerOrientation;
+		float rx = o[1] * o[5] - o[2] * o[4];
+		float ry = o[2] * o[3] - o[0] * o[5];
+		float rz = o[0] * o[4] - o[1] * o[3];
+		float len = (float)Math.sqrt(rx * rx + ry * ry + rz * rz);
+		if (len > 0f)
+		{
+			listenerRight[0] = rx / len;
+			listenerRight[1] = ry / len;
+			listenerRight[2] = rz / len;
+		}
+		else
+		{
+			listenerRight[0] = 1f;
+			listenerRight[1] = 0f;
+			listenerRight[2] = 0f;
+		}
+
+		for (int i = 1, n = sources.size(); i <= n; i++)
+		{
+			Source s = sources.get(i);
+			if (s != null && s.state == AL.AL_PLAYING)
+				mixSource(s, frames);
+		}
+	}
+
+	// Mixes the next block of a source.
+	private void mixSource(Source s, int frames)
+	{
+		double cursor = s.cursor;
+		SampleBuffer buffer = s.queue[s.current];
+		while (cursor >= buffer.frames)
+		{
+			cursor -= buffer.frames;
+			if (!nextBuffer(s))
+				return;
+			buffer = s.queue[s.current];
+		}
+
+		spatialize(s, buffer);
+		double step = mixStep;
+		float targetLeft = mixLeft;
+		float targetRight = mixRight;
+		float gainLeft = s.ramp ? s.lastLeft : targetLeft;
+		float gainRight = s.ramp ? s.lastRight : targetRight;
+		float rampLeft = (targetLeft - gainLeft) / frames;
+		float rampRight = (targetRight - gainRight) / frames;
+
+		// one-pole low-pass, for low-pass and band-pass filters.
+		float a = 0f;
+		if (s.filterType == ALExt.AL_FILTER_LOWPASS || s.filterType == ALExt.AL_FILTER_BANDPASS)
+			a = lowpassCoefficient(s.filterGainHF, hfCosine);
+
+		float[] out = mix;
+		float[] data = buffer.data;
+		int length = buffer.frames;
+		float h0 = s.history0;
+		float h1 = s.history1;
+		int i = 0;
+		while (i < frames)
+		{
+			// mix up to the end of the current buffer, and only then look for the next one.
+			int m = i * 2;
+			if (buffer.channels == 2)
+			{
+				for (; i < frames && cursor < length; i++, m += 2)
+				{
+					int index = (int)cursor;
+					int p = index * 2, q = index + 1 < length ? p + 2 : p;
+					float frac = (float)(cursor - index);
+					float v0 = data[p] + (data[q] - data[p]) * frac;
+					float v1 = data[p + 1] + (data[q + 1] - data[p + 1]) * frac;
+					h0 = v0 + a * (h0 - v0);
+					h1 = v1 + a * (h1 - v1);
+					out[m] += h0 * gainLeft;
+					out[m + 1] += h1 * gainRight;
+					gainLeft += rampLeft;
+					gainRight += rampRight;
+					cursor += step;
+				}
+			}
+			else
+			{
+				for (; i < frames && cursor < length; i++, m += 2)
+				{
+					int index = (int)cursor;
+					int next = index + 1 < length ? index + 1 : index;
+					float frac = (float)(cursor - index);
+					float v = data[index] + (data[next] - data[index]) * frac;
+					h0 = v + a * (h0 - v);
+					out[m] += h0 * gainLeft;
+					out[m + 1] += h0 * gainRight;
+					gainLeft += rampLeft;
+					gainRight += rampRight;
+					cursor += step;
+				}
+			}
+
+			boolean stopped = false;
+			while (cursor >= length)
+			{
+				cursor -= length;
+				if (!nextBuffer(s))
+				{
+					stopped = true;
+					break;
+				}
+				buffer = s.queue[s.current];
+				data = buffer.data;
+				length = buffer.frames;
+			}
+			if (stopped)
+				break;
+		}
+
+		if (s.state == AL.AL_PLAYING)
+			s.cursor = cursor;
+		// flush denormals out of the filter history.
+		s.history0 = Math.abs(h0) < 1e-15f ? 0f : h0;
+		s.history1 = Math.abs(h1) < 1e-15f ? 0f : h1;
+		s.lastLeft = targetLeft;
+		s.lastRight = targetRight;
+		s.ramp = true;
+	}
+
+	// Calculates a source's gains and resampling step for this block, into mixLeft, mixRight and mixStep.
+	private void spatialize(Source s, SampleBuffer buffer)
+	{
+		// relative sources are already in listener space.
+		float[] p = s.position;
+		float dx, dy, dz, lvx, lvy, lvz;
+		if (s.relative)
+		{
+			dx = p[0];
+			dy = p[1];
+			dz = p[2];
+			lvx = lvy = lvz = 0f;
+		}
+		else
+		{
+			dx = p[0] - listenerPosition[0];
+			dy = p[1] - listenerPosition[1];
+			dz = p[2] - listenerPosition[2];
+			lvx = listenerVelocity[0];
+			lvy = listenerVelocity[1];
+			lvz = listenerVelocity[2];
+		}
+		float distance = (float)Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+		float gain = s.gain * distanceModel.getGain(distance, s.referenceDistance, s.maxDistance, s.rolloff);
+
+		// cone angles are whole angles, so compare against twice the angle off of the direction.
+		float[] dir = s.direction;
+		if ((s.innerCone < 360f || s.outerCone < 360f) && distance > 0f)
+		{
+			float dirLength = (float)Math.sqrt(dir[0] * dir[0] + dir[1] * dir[1] + dir[2] * dir[2]);
+			if (dirLength > 0f)
+			{
+				float cos = -(dx * dir[0] + dy * dir[1] + dz * dir[2]) / (distance * dirLength);
+				float angle = (float)Math.toDegrees(Math.acos(Math.max(-1f, Math.min(cos, 1f)))) * 2f;
+				if (angle >= s.outerCone)
+					gain *= s.outerConeGain;
+				else if (angle > s.innerCone)
+					gain *= 1f + (s.outerConeGain - 1f) * (angle - s.innerCone) / (s.outerCone - s.innerCone);
+			}
+		}
+
+		gain = Math.max(s.minGain, Math.min(gain, s.maxGain)) * listenerGain;
+		if (s.filterType != ALExt.AL_FILTER_NULL)
+			gain *= s.filterGain;
+
+		// equal-power pan of mono sources.
+		if (buffer.channels == 1)
+		{
+			float pan = 0f;
+			if (distance > 0f)
+			{
+				float x = s.relative ? dx : dx * listenerRight[0] + dy * listenerRight[1] + dz * listenerRight[2];
+				pan = Math.max(-1f, Math.min(x / distance, 1f));
+			}
+			double theta = (pan + 1.0) * (Math.PI / 4.0);
+			mixLeft = gain * (float)Math.cos(theta);
+			mixRight = gain * (float)Math.sin(theta);
+		}
+		else
+		{
+			mixLeft = gain;
+			mixRight = gain;
+		}
+
+		// Doppler shift, along the source-to-listener axis.
+		double pitch = s.pitch;
+		if (dopplerFactor > 0f && distance > 0f)
+		{
+			float ss = SPEED_OF_SOUND * dopplerVelocity;
+			float limit = ss / dopplerFactor;
+			float[] v = s.velocity;
+			float vls = Math.min(-(dx * lvx + dy * lvy + dz * lvz) / distance, limit);
+			float vss = Math.min(-(dx * v[0] + dy * v[1] + dz * v[2]) / distance, limit);
+			float den = ss - dopplerFactor * vss;
+			if (den > 0f)
+				pitch *= (ss - dopplerFactor * vls) / den;
+		}
+
+		mixStep = Math.min((double)buffer.frequency / frequency * pitch, MAX_STEP);
+	}
+
+	/**
+	 * Calculates a one-pole low-pass coefficient for a high frequency gain,
+	 * the same way that OpenAL Soft does.
+	 * @param gain the gain at the reference frequency.
+	 * @param cw the cosine of the reference frequency, in radians per sample.
+	 */
+	private static float lowpassCoefficient(float gain, double cw)
+	{
+		if (gain >= 0.9999f)
+			return 0f;
+		double g = Math.max(gain, 0.001f);
+		return (float)((1.0 - g * cw - Math.sqrt(2.0 * g * (1.0 - cw) - g * g * (1.0 - cw * cw))) / (1.0 - g));
+	}
+
+	// Mixes a block and converts it to the playback line's format.
+	private synchronized void mixLine(byte[] out)
+	{
+		mix(BLOCK_FRAMES);
+		for (int i = 0, b = 0; i < BLOCK_FRAMES * 2; i++, b += 2)
+		{
+			int v = (int)(Math.max(-1f, Math.min(mix[i], 1f)) * 32767f);
+			out[b] = (byte)v;
+			out[b + 1] = (byte)(v >> 8);
+		}
+	}
+
+	/**
+	 * The thread that feeds a playback line.
+	 */
+	private class MixerThread extends Thread
+	{
+		/** Is this thread running? */
+		private volatile boolean running;
+
+		MixerThread()
+		{
+			super("SoftwareBackend-Mixer");
+			setDaemon(true);
+			this.running = true;
+		}
+
+		@Override
+		public void run()
+		{
+			byte[] out = new byte[BLOCK_FRAMES * 4];
+			while (running)
+			{
+				mixLine(out);
+				// blocks while the line is full, outside of the lock.
+				line.write(out, 0, out.length);
+			}
+		}
+	}
+
+	/**
+	 * Object names, which are reused after they are deleted. Name 0 is never used.
+	 */
+	private static final class NameTable<T>
+	{
+		/** Objects, by name - 1. */
+		private Object[] objects;
+		/** Deleted names. */
+		private int[] free;
+		/** Amount of deleted names. */
+		private int freeCount;
+		/** Highest name given out. */
+		private int size;
+
+		NameTable()
+		{
+			this.objects = new Object[16];
+			this.free = new int[16];
+			this.freeCount = 0;
+			this.size = 0;
+		}
+
+		// Adds an object and returns its name.
+		int add(T object)
+		{
+			int name;
+			if (freeCount > 0)
+				name = free[--freeCount];
+			else
+			{
+				if (size == objects.length)
+					objects = Arrays.copyOf(objects, size * 2);
+				name = ++size;
+			}
+			objects[name - 1] = object;
+			return name;
+		}
+
+		// Returns an object by name, or null if the name is not in use.
+		@SuppressWarnings("unchecked")
+		T get(int name)
+		{
+			return name > 0 && name <= size ? (T)objects[name - 1] : null;
+		}
+
+		// Removes an object by name, freeing the name.
+		void remove(int name)
+		{
+			if (get(name) == null)
+				return;
+			objects[name - 1] = null;
+			if (freeCount == free.length)
+				free = Arrays.copyOf(free, freeCount * 2);
+			free[freeCount++] = name;
+		}
+
+		// Returns the highest name given out.
+		int size()
+		{
+			return size;
+		}
+
+		// Removes all objects.
+		void clear()
+		{
+			Arrays.fill(objects, 0, size, null);
+			freeCount = 0;
+			size = 0;
+		}
+	}
+
+	/**
+	 * Buffer data, converted to floats.
+	 */
+	private static final class SampleBuffer
+	{
+		/** Interleaved samples. */
+		private float[] data = NO_DATA;
+		/** Amount of channels. */
+		private int channels = 1;
+		/** Amount of sample frames. */
+		private int frames = 0;
+		/** Sample rate. */
+		private int frequency = DEFAULT_FREQUENCY;
+		/** Amount of sources that have this queued. */
+		private int references = 0;
+	}
+
+	/**
+	 * Source state.
+	 */
+	private static final class Source
+	{
+		private float pitch = 1f;
+		private float gain = 1f;
+		private float minGain = 0f;
+		private float maxGain = 1f;
+		private float rolloff = 1f;
+		private float referenceDistance = 1f;
+		private float maxDistance = Float.MAX_VALUE;
+		private float innerCone = 360f;
+		private float outerCone = 360f;
+		private float outerConeGain = 0f;
+		private final float[] position = new float[3];
+		private final float[] velocity = new float[3];
+		private final float[] direction = new float[3];
+		private boolean looping = false;
+		private boolean relative = false;
+
+		/** Source type (static, streaming or undetermined). */
+		private int type = AL.AL_UNDETERMINED;
+		/** Playback state. */
+		private int state = AL.AL_INITIAL;
+		/** Queued buffers. */
+		private SampleBuffer[] queue = new SampleBuffer[4];
+		/** Queued buffer names. */
+		private int[] queueNames = new int[4];
+		/** Amount of queued buffers. */
+		private int queueCount = 0;
+		/** Index of the playing buffer. */
+		private int current = 0;
+		/** Position in the playing buffer, in sample frames. */
+		private double cursor = 0.0;
+		/** Offset in seconds to start from on the next play. */
+		private double pendingOffset = 0.0;
+
+		/** Direct filter type. */
+		private int filterType = ALExt.AL_FILTER_NULL;
+		/** Direct filter gain. */
+		private float filterGain = 1f;
+		/** Direct filter high frequency gain. */
+		private float filterGainHF = 1f;
+		/** Filter history, per channel. */
+		private float history0 = 0f;
+		private float history1 = 0f;
+
+		/** Left and right gain at the end of the last block. */
+		private float lastLeft = 0f;
+		private float lastRight = 0f;
+		/** Ramp from the last block's gains? False on the first block after play. */
+		private boolean ramp = false;
+	}
+
+	/**
+	 * Filter parameters.
+	 */
+	private static final class Filter
+	{
+		private int type = ALExt.AL_FILTER_NULL;
+		private float gain = 1f;
+		private float gainHF = 1f;
+	}
+
+	/**
+	 * Effect parameters.
+	 */
+	private static final class Effect
+	{
+		@SuppressWarnings("unused")
+		private int type = ALExt.AL_EFFECT_NULL;
+	}
+
+	/**
+	 * Effect slot parameters.
+	 */
+	private static final class EffectSlot
+	{
+		@SuppressWarnings("unused")
+		private int effect = ALExt.AL_EFFECT_NULL;
+	}
+
+}
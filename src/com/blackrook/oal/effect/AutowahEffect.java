@@ -30,10 +30,12 @@ public class AutowahEffect extends OALEffect
 	public AutowahEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_AUTOWAH);
+		begin();
 		setAttackTime(ALExt.AL_AUTOWAH_DEFAULT_ATTACK_TIME);
 		setReleaseTime(ALExt.AL_AUTOWAH_DEFAULT_RELEASE_TIME);
 		setResonance(ALExt.AL_AUTOWAH_DEFAULT_RESONANCE);
 		setPeakGain(ALExt.AL_AUTOWAH_DEFAULT_PEAK_GAIN);
+		commit();
 	}
 
 	/** Get autowah attack time in seconds. */
@@ -46,8 +48,7 @@ public class AutowahEffect extends OALEffect
 	public final void setAttackTime(float attackTime)
 	{
 		this.attackTime = attackTime;
-		alext.alEffectf(getALId(), ALExt.AL_AUTOWAH_ATTACK_TIME, RMath.clampValue(attackTime, ALExt.AL_AUTOWAH_MIN_ATTACK_TIME, ALExt.AL_AUTOWAH_MAX_ATTACK_TIME));
-		errorCheck();
+		setFloatParameter(ALExt.AL_AUTOWAH_ATTACK_TIME, RMath.clampValue(attackTime, ALExt.AL_AUTOWAH_MIN_ATTACK_TIME, ALExt.AL_AUTOWAH_MAX_ATTACK_TIME));
 	}
 
 	/** Autowah peak gain. */
@@ -60,8 +61,7 @@ public class AutowahEffect extends OALEffect
 	public final void setPeakGain(float peakGain)
 	{
 		this.peakGain = peakGain;
-		alext.alEffectf(getALId(), ALExt.AL_AUTOWAH_PEAK_GAIN, RMath.clampValue(peakGain, ALExt.AL_AUTOWAH_MIN_PEAK_GAIN, ALExt.AL_AUTOWAH_MAX_PEAK_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_AUTOWAH_PEAK_GAIN, RMath.clampValue(peakGain, ALExt.AL_AUTOWAH_MIN_PEAK_GAIN, ALExt.AL_AUTOWAH_MAX_PEAK_GAIN));
 	}
 
 	/** Get autowah release time in seconds. */
@@ -74,8 +74,7 @@ public class AutowahEffect extends OALEffect
 	public final void setReleaseTime(float releaseTime)
 	{
 		this.releaseTime = releaseTime;
-		alext.alEffectf(getALId(), ALExt.AL_AUTOWAH_RELEASE_TIME, RMath.clampValue(releaseTime, ALExt.AL_AUTOWAH_MIN_RELEASE_TIME, ALExt.AL_AUTOWAH_MAX_RELEASE_TIME));
-		errorCheck();
+		setFloatParameter(ALExt.AL_AUTOWAH_RELEASE_TIME, RMath.clampValue(releaseTime, ALExt.AL_AUTOWAH_MIN_RELEASE_TIME, ALExt.AL_AUTOWAH_MAX_RELEASE_TIME));
 	}
 
 	/** Get autowah resonance factor. */
@@ -88,8 +87,7 @@ public class AutowahEffect extends OALEffect
 	public final void setResonance(float resonance)
 	{
 		this.resonance = resonance;
-		alext.alEffectf(getALId(), ALExt.AL_AUTOWAH_RESONANCE, RMath.clampValue(resonance, ALExt.AL_AUTOWAH_MIN_RESONANCE, ALExt.AL_AUTOWAH_MAX_RESONANCE));
-		errorCheck();
+		setFloatParameter(ALExt.AL_AUTOWAH_RESONANCE, RMath.clampValue(resonance, ALExt.AL_AUTOWAH_MIN_RESONANCE, ALExt.AL_AUTOWAH_MAX_RESONANCE));
 	}
 	
 }
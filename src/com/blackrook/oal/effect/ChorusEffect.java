@@ -44,12 +44,14 @@ public class ChorusEffect extends OALEffect
 	public ChorusEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_CHORUS);
+		begin();
 		setWaveForm(WaveForm.TRIANGLE);
 		setPhase(ALExt.AL_CHORUS_DEFAULT_PHASE);
 		setRate(ALExt.AL_CHORUS_DEFAULT_RATE);
 		setDepth(ALExt.AL_CHORUS_DEFAULT_DEPTH);
 		setFeedback(ALExt.AL_CHORUS_DEFAULT_FEEDBACK);
 		setDelay(ALExt.AL_CHORUS_DEFAULT_DELAY);
+		commit();
 	}
 
 	/**
@@ -66,8 +68,7 @@ public class ChorusEffect extends OALEffect
 	public final void setDelay(float delay)
 	{
 		this.delay = delay;
-		alext.alEffectf(getALId(), ALExt.AL_CHORUS_DELAY, RMath.clampValue(delay, (float)ALExt.AL_CHORUS_MIN_DELAY, ALExt.AL_CHORUS_MAX_DELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_CHORUS_DELAY, RMath.clampValue(delay, (float)ALExt.AL_CHORUS_MIN_DELAY, ALExt.AL_CHORUS_MAX_DELAY));
 	}
 
 	/**
@@ -84,8 +85,7 @@ public class ChorusEffect extends OALEffect
 	public final void setDepth(float depth)
 	{
 		this.depth = depth;
-		alext.alEffectf(getALId(), ALExt.AL_CHORUS_DEPTH, RMath.clampValue(depth, (float)ALExt.AL_CHORUS_MIN_DEPTH, ALExt.AL_CHORUS_MAX_DEPTH));
-		errorCheck();
+		setFloatParameter(ALExt.AL_CHORUS_DEPTH, RMath.clampValue(depth, (float)ALExt.AL_CHORUS_MIN_DEPTH, ALExt.AL_CHORUS_MAX_DEPTH));
 	}
 
 	/**
@@ -102,8 +102,7 @@ public class ChorusEffect extends OALEffect
 	public final void setFeedback(float feedback)
 	{
 		this.feedback = feedback;
-		alext.alEffectf(getALId(), ALExt.AL_CHORUS_FEEDBACK, RMath.clampValue(feedback, ALExt.AL_CHORUS_MIN_FEEDBACK, ALExt.AL_CHORUS_MAX_FEEDBACK));
-		errorCheck();
+		setFloatParameter(ALExt.AL_CHORUS_FEEDBACK, RMath.clampValue(feedback, ALExt.AL_CHORUS_MIN_FEEDBACK, ALExt.AL_CHORUS_MAX_FEEDBACK));
 	}
 
 	/**
@@ -120,8 +119,7 @@ public class ChorusEffect extends OALEffect
 	public final void setPhase(int phase)
 	{
 		this.phase = phase;
-		alext.alEffecti(getALId(), ALExt.AL_CHORUS_PHASE, RMath.clampValue(phase, ALExt.AL_CHORUS_MIN_PHASE, ALExt.AL_CHORUS_MAX_PHASE));
-		errorCheck();
+		setIntParameter(ALExt.AL_CHORUS_PHASE, RMath.clampValue(phase, ALExt.AL_CHORUS_MIN_PHASE, ALExt.AL_CHORUS_MAX_PHASE));
 	}
 
 	/**
@@ -138,8 +136,7 @@ public class ChorusEffect extends OALEffect
 	public final void setRate(float rate)
 	{
 		this.rate = rate;
-		alext.alEffectf(getALId(), ALExt.AL_CHORUS_RATE, RMath.clampValue(rate, (float)ALExt.AL_CHORUS_MIN_RATE, ALExt.AL_CHORUS_MAX_RATE));
-		errorCheck();
+		setFloatParameter(ALExt.AL_CHORUS_RATE, RMath.clampValue(rate, (float)ALExt.AL_CHORUS_MIN_RATE, ALExt.AL_CHORUS_MAX_RATE));
 	}
 
 	/**
@@ -157,7 +154,6 @@ public class ChorusEffect extends OALEffect
 	public final void setWaveForm(WaveForm waveForm)
 	{
 		this.waveForm = waveForm;
-		alext.alEffecti(getALId(), ALExt.AL_CHORUS_WAVEFORM, waveForm.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_CHORUS_WAVEFORM, waveForm.alVal);
 	}
 }
@@ -23,7 +23,9 @@ public class CompressorEffect extends OALEffect
 	public CompressorEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_COMPRESSOR);
+		begin();
 		setEnabled(ALExt.AL_COMPRESSOR_DEFAULT_ONOFF != 0);
+		commit();
 	}
 
 	/** Is the effect enabled? */
@@ -36,8 +38,7 @@ public class CompressorEffect extends OALEffect
 	public final void setEnabled(boolean enabled)
 	{
 		this.enabled = enabled;
-		alext.alEffecti(getALId(), ALExt.AL_COMPRESSOR_ONOFF, enabled ? 1 : 0);
-		errorCheck();
+		setIntParameter(ALExt.AL_COMPRESSOR_ONOFF, enabled ? 1 : 0);
 	}
 	
 	
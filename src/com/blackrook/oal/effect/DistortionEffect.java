@@ -32,11 +32,13 @@ public class DistortionEffect extends OALEffect
 	public DistortionEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_DISTORTION);
+		begin();
 		setGain(ALExt.AL_DISTORTION_DEFAULT_GAIN);
 		setEdge(ALExt.AL_DISTORTION_DEFAULT_EDGE);
 		setLowPassCutoff(ALExt.AL_DISTORTION_DEFAULT_LOWPASS_CUTOFF);
 		setEqualizerCenter(ALExt.AL_DISTORTION_DEFAULT_EQCENTER);
 		setEqualizerBandwidth(ALExt.AL_DISTORTION_DEFAULT_EQBANDWIDTH);
+		commit();
 	}
 	
 	/** Get distortion gain. */
@@ -49,8 +51,7 @@ public class DistortionEffect extends OALEffect
 	public final void setGain(float gain)
 	{
 		this.gain = gain;
-		alext.alEffectf(getALId(), ALExt.AL_DISTORTION_GAIN, RMath.clampValue(gain, ALExt.AL_DISTORTION_MIN_GAIN, ALExt.AL_DISTORTION_MAX_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_DISTORTION_GAIN, RMath.clampValue(gain, ALExt.AL_DISTORTION_MIN_GAIN, ALExt.AL_DISTORTION_MAX_GAIN));
 	}
 
 	/** Get distortion edge. */
@@ -63,8 +64,7 @@ public class DistortionEffect extends OALEffect
 	public final void setEdge(float edge)
 	{
 		this.edge = edge;
-		alext.alEffectf(getALId(), ALExt.AL_DISTORTION_EDGE, RMath.clampValue(edge, (float)ALExt.AL_DISTORTION_MIN_EDGE, ALExt.AL_DISTORTION_MAX_EDGE));
-		errorCheck();
+		setFloatParameter(ALExt.AL_DISTORTION_EDGE, RMath.clampValue(edge, (float)ALExt.AL_DISTORTION_MIN_EDGE, ALExt.AL_DISTORTION_MAX_EDGE));
 	}
 
 	/** Get distortion equalizer bandwidth in Hertz. */
@@ -77,8 +77,7 @@ public class DistortionEffect extends OALEffect
 	public final void setEqualizerBandwidth(float eqBandwidth)
 	{
 		this.eqBandwidth = eqBandwidth;
-		alext.alEffectf(getALId(), ALExt.AL_DISTORTION_EQBANDWIDTH, RMath.clampValue(eqBandwidth, ALExt.AL_DISTORTION_MIN_EQBANDWIDTH, ALExt.AL_DISTORTION_MAX_EQBANDWIDTH));
-		errorCheck();
+		setFloatParameter(ALExt.AL_DISTORTION_EQBANDWIDTH, RMath.clampValue(eqBandwidth, ALExt.AL_DISTORTION_MIN_EQBANDWIDTH, ALExt.AL_DISTORTION_MAX_EQBANDWIDTH));
 	}
 
 	/** Get distortion equalizer centering in Hertz. */
@@ -91,8 +90,7 @@ public class DistortionEffect extends OALEffect
 	public final void setEqualizerCenter(float eqCenter)
 	{
 		this.eqCenter = eqCenter;
-		alext.alEffectf(getALId(), ALExt.AL_DISTORTION_EQCENTER, RMath.clampValue(eqCenter, ALExt.AL_DISTORTION_MIN_EQCENTER, ALExt.AL_DISTORTION_MAX_EQCENTER));
-		errorCheck();
+		setFloatParameter(ALExt.AL_DISTORTION_EQCENTER, RMath.clampValue(eqCenter, ALExt.AL_DISTORTION_MIN_EQCENTER, ALExt.AL_DISTORTION_MAX_EQCENTER));
 	}
 
 	/** Get distortion low-pass cutoff in Hertz. */
@@ -105,8 +103,7 @@ public class DistortionEffect extends OALEffect
 	public final void setLowPassCutoff(float lowPassCutoff)
 	{
 		this.lowPassCutoff = lowPassCutoff;
-		alext.alEffectf(getALId(), ALExt.AL_DISTORTION_LOWPASS_CUTOFF, RMath.clampValue(lowPassCutoff, ALExt.AL_DISTORTION_MIN_LOWPASS_CUTOFF, ALExt.AL_DISTORTION_MAX_LOWPASS_CUTOFF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_DISTORTION_LOWPASS_CUTOFF, RMath.clampValue(lowPassCutoff, ALExt.AL_DISTORTION_MIN_LOWPASS_CUTOFF, ALExt.AL_DISTORTION_MAX_LOWPASS_CUTOFF));
 	}
 
 }
@@ -32,11 +32,13 @@ public class EchoEffect extends OALEffect
 	public EchoEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_ECHO);
+		begin();
 		setDelay(ALExt.AL_ECHO_DEFAULT_DELAY);
 		setLRDelay(ALExt.AL_ECHO_DEFAULT_LRDELAY);
 		setDamping(ALExt.AL_ECHO_DEFAULT_DAMPING);
 		setFeedback(ALExt.AL_ECHO_DEFAULT_FEEDBACK);
 		setSpread(ALExt.AL_ECHO_DEFAULT_SPREAD);
+		commit();
 	}
 	
 	/**
@@ -53,8 +55,7 @@ public class EchoEffect extends OALEffect
 	public final void setDelay(float delay)
 	{
 		this.delay = delay;
-		alext.alEffectf(getALId(), ALExt.AL_ECHO_DELAY, RMath.clampValue(delay, (float)ALExt.AL_ECHO_MIN_DELAY, ALExt.AL_ECHO_MAX_DELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_ECHO_DELAY, RMath.clampValue(delay, (float)ALExt.AL_ECHO_MIN_DELAY, ALExt.AL_ECHO_MAX_DELAY));
 	}
 
 	/**
@@ -71,8 +72,7 @@ public class EchoEffect extends OALEffect
 	public final void setLRDelay(float lrDelay)
 	{
 		this.lrDelay = lrDelay;
-		alext.alEffectf(getALId(), ALExt.AL_ECHO_LRDELAY, RMath.clampValue(lrDelay, (float)ALExt.AL_ECHO_MIN_LRDELAY, ALExt.AL_ECHO_MAX_LRDELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_ECHO_LRDELAY, RMath.clampValue(lrDelay, (float)ALExt.AL_ECHO_MIN_LRDELAY, ALExt.AL_ECHO_MAX_LRDELAY));
 	}
 
 	/**
@@ -89,8 +89,7 @@ public class EchoEffect extends OALEffect
 	public final void setFeedback(float feedback)
 	{
 		this.feedback = feedback;
-		alext.alEffectf(getALId(), ALExt.AL_ECHO_FEEDBACK, RMath.clampValue(feedback, (float)ALExt.AL_ECHO_MIN_FEEDBACK, ALExt.AL_ECHO_MAX_FEEDBACK));
-		errorCheck();
+		setFloatParameter(ALExt.AL_ECHO_FEEDBACK, RMath.clampValue(feedback, (float)ALExt.AL_ECHO_MIN_FEEDBACK, ALExt.AL_ECHO_MAX_FEEDBACK));
 	}
 
 	/**
@@ -107,8 +106,7 @@ public class EchoEffect extends OALEffect
 	public final void setDamping(float damping)
 	{
 		this.damping = damping;
-		alext.alEffectf(getALId(), ALExt.AL_ECHO_DAMPING, RMath.clampValue(damping, (float)ALExt.AL_ECHO_MIN_DAMPING, ALExt.AL_ECHO_MAX_DAMPING));
-		errorCheck();
+		setFloatParameter(ALExt.AL_ECHO_DAMPING, RMath.clampValue(damping, (float)ALExt.AL_ECHO_MIN_DAMPING, ALExt.AL_ECHO_MAX_DAMPING));
 	}
 
 	/**
@@ -125,8 +123,7 @@ public class EchoEffect extends OALEffect
 	public final void setSpread(float spread)
 	{
 		this.spread = spread;
-		alext.alEffectf(getALId(), ALExt.AL_ECHO_SPREAD, RMath.clampValue(spread, ALExt.AL_ECHO_MIN_SPREAD, ALExt.AL_ECHO_MAX_SPREAD));
-		errorCheck();
+		setFloatParameter(ALExt.AL_ECHO_SPREAD, RMath.clampValue(spread, ALExt.AL_ECHO_MIN_SPREAD, ALExt.AL_ECHO_MAX_SPREAD));
 	}
 	
 }
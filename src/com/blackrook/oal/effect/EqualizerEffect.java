@@ -39,9 +39,24 @@ public class EqualizerEffect extends OALEffect
 	/** Equalizer high cutoff in Hertz. */
 	protected float highCutoff;
 	
+	/** AL parameters, in the order of a preset's packed values. */
+	private static final int[] PRESET_PARAMS = {
+		ALExt.AL_EQUALIZER_LOW_GAIN,
+		ALExt.AL_EQUALIZER_LOW_CUTOFF,
+		ALExt.AL_EQUALIZER_MID1_GAIN,
+		ALExt.AL_EQUALIZER_MID1_CENTER,
+		ALExt.AL_EQUALIZER_MID1_WIDTH,
+		ALExt.AL_EQUALIZER_MID2_GAIN,
+		ALExt.AL_EQUALIZER_MID2_CENTER,
+		ALExt.AL_EQUALIZER_MID2_WIDTH,
+		ALExt.AL_EQUALIZER_HIGH_GAIN,
+		ALExt.AL_EQUALIZER_HIGH_CUTOFF
+	};
+	
 	public EqualizerEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_EQUALIZER);
+		begin();
 		setLowGain(ALExt.AL_EQUALIZER_DEFAULT_LOW_GAIN);
 		setLowCutoff(ALExt.AL_EQUALIZER_DEFAULT_LOW_CUTOFF);
 		
@@ -55,6 +70,32 @@ public class EqualizerEffect extends OALEffect
 		
 		setHighGain(ALExt.AL_EQUALIZER_DEFAULT_HIGH_GAIN);
 		setHighCutoff(ALExt.AL_EQUALIZER_DEFAULT_HIGH_CUTOFF);
+		commit();
+	}
+
+	/**
+	 * Sets all of this effect's parameters from a preset, in one batch.
+	 * The preset's values are already clamped, so they are written as-is.
+	 * @param preset the preset to apply.
+	 */
+	public final void setPreset(EqualizerPreset preset)
+	{
+		float[] v = preset.values;
+		lowGain = v[EqualizerPreset.LOW_GAIN];
+		lowCutoff = v[EqualizerPreset.LOW_CUTOFF];
+		mid1Gain = v[EqualizerPreset.MID1_GAIN];
+		mid1Center = v[EqualizerPreset.MID1_CENTER];
+		mid1Width = v[EqualizerPreset.MID1_WIDTH];
+		mid2Gain = v[EqualizerPreset.MID2_GAIN];
+		mid2Center = v[EqualizerPreset.MID2_CENTER];
+		mid2Width = v[EqualizerPreset.MID2_WIDTH];
+		highGain = v[EqualizerPreset.HIGH_GAIN];
+		highCutoff = v[EqualizerPreset.HIGH_CUTOFF];
+		
+		begin();
+		for (int i = 0; i < PRESET_PARAMS.length; i++)
+			setFloatParameter(PRESET_PARAMS[i], v[i]);
+		commit();
 	}
 
 	/** Get equalizer high cutoff in Hertz. */
@@ -67,8 +108,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setHighCutoff(float highCutoff) 
 	{
 		this.highCutoff = highCutoff;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_HIGH_CUTOFF, RMath.clampValue(highCutoff, ALExt.AL_EQUALIZER_MIN_HIGH_CUTOFF, ALExt.AL_EQUALIZER_MAX_HIGH_CUTOFF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_HIGH_CUTOFF, RMath.clampValue(highCutoff, ALExt.AL_EQUALIZER_MIN_HIGH_CUTOFF, ALExt.AL_EQUALIZER_MAX_HIGH_CUTOFF));
 	}
 
 	/** Get equalizer high gain. */
@@ -81,8 +121,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setHighGain(float highGain)
 	{
 		this.highGain = highGain;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_HIGH_GAIN, RMath.clampValue(highGain, ALExt.AL_EQUALIZER_MIN_HIGH_GAIN, ALExt.AL_EQUALIZER_MAX_HIGH_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_HIGH_GAIN, RMath.clampValue(highGain, ALExt.AL_EQUALIZER_MIN_HIGH_GAIN, ALExt.AL_EQUALIZER_MAX_HIGH_GAIN));
 	}
 
 	/** Get equalizer low cutoff in Hertz. */
@@ -95,8 +134,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setLowCutoff(float lowCutoff) 
 	{
 		this.lowCutoff = lowCutoff;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_LOW_CUTOFF, RMath.clampValue(lowCutoff, ALExt.AL_EQUALIZER_MIN_LOW_CUTOFF, ALExt.AL_EQUALIZER_MAX_LOW_CUTOFF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_LOW_CUTOFF, RMath.clampValue(lowCutoff, ALExt.AL_EQUALIZER_MIN_LOW_CUTOFF, ALExt.AL_EQUALIZER_MAX_LOW_CUTOFF));
 	}
 
 	/** Get equalizer low gain. */
@@ -109,8 +147,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setLowGain(float lowGain) 
 	{
 		this.lowGain = lowGain;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_LOW_GAIN, RMath.clampValue(lowGain, ALExt.AL_EQUALIZER_MIN_LOW_GAIN, ALExt.AL_EQUALIZER_MAX_LOW_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_LOW_GAIN, RMath.clampValue(lowGain, ALExt.AL_EQUALIZER_MIN_LOW_GAIN, ALExt.AL_EQUALIZER_MAX_LOW_GAIN));
 	}
 
 	/** Get equalizer first mid center in Hertz. */
@@ -123,8 +160,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid1Center(float mid1Center) 
 	{
 		this.mid1Center = mid1Center;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID1_CENTER, RMath.clampValue(mid1Center, ALExt.AL_EQUALIZER_MIN_MID1_CENTER, ALExt.AL_EQUALIZER_MAX_MID1_CENTER));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID1_CENTER, RMath.clampValue(mid1Center, ALExt.AL_EQUALIZER_MIN_MID1_CENTER, ALExt.AL_EQUALIZER_MAX_MID1_CENTER));
 	}
 
 	/** Get equalizer first mid gain. */
@@ -137,8 +173,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid1Gain(float mid1Gain) 
 	{
 		this.mid1Gain = mid1Gain;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID1_GAIN, RMath.clampValue(mid1Gain, ALExt.AL_EQUALIZER_MIN_MID1_GAIN, ALExt.AL_EQUALIZER_MAX_MID1_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID1_GAIN, RMath.clampValue(mid1Gain, ALExt.AL_EQUALIZER_MIN_MID1_GAIN, ALExt.AL_EQUALIZER_MAX_MID1_GAIN));
 	}
 
 	/** Get equalizer first mid width. */
@@ -151,8 +186,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid1Width(float mid1Width) 
 	{
 		this.mid1Width = mid1Width;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID1_WIDTH, RMath.clampValue(mid1Width, ALExt.AL_EQUALIZER_MIN_MID1_WIDTH, ALExt.AL_EQUALIZER_MAX_MID1_WIDTH));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID1_WIDTH, RMath.clampValue(mid1Width, ALExt.AL_EQUALIZER_MIN_MID1_WIDTH, ALExt.AL_EQUALIZER_MAX_MID1_WIDTH));
 	}
 
 	/** Get equalizer second mid center in Hertz. */
@@ -165,8 +199,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid2Center(float mid2Center) 
 	{
 		this.mid2Center = mid2Center;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID2_CENTER, RMath.clampValue(mid2Center, ALExt.AL_EQUALIZER_MIN_MID2_CENTER, ALExt.AL_EQUALIZER_MAX_MID2_CENTER));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID2_CENTER, RMath.clampValue(mid2Center, ALExt.AL_EQUALIZER_MIN_MID2_CENTER, ALExt.AL_EQUALIZER_MAX_MID2_CENTER));
 	}
 
 	/** Get equalizer second mid gain. */
@@ -179,8 +212,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid2Gain(float mid2Gain) 
 	{
 		this.mid2Gain = mid2Gain;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID2_GAIN, RMath.clampValue(mid2Gain, ALExt.AL_EQUALIZER_MIN_MID2_GAIN, ALExt.AL_EQUALIZER_MAX_MID2_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID2_GAIN, RMath.clampValue(mid2Gain, ALExt.AL_EQUALIZER_MIN_MID2_GAIN, ALExt.AL_EQUALIZER_MAX_MID2_GAIN));
 	}
 
 	/** Get equalizer second mid width. */
@@ -193,8 +225,7 @@ public class EqualizerEffect extends OALEffect
 	public final void setMid2Width(float mid2Width) 
 	{
 		this.mid2Width = mid2Width;
-		alext.alEffectf(getALId(), ALExt.AL_EQUALIZER_MID2_WIDTH, RMath.clampValue(mid2Width, ALExt.AL_EQUALIZER_MIN_MID2_WIDTH, ALExt.AL_EQUALIZER_MAX_MID2_WIDTH));
-		errorCheck();
+		setFloatParameter(ALExt.AL_EQUALIZER_MID2_WIDTH, RMath.clampValue(mid2Width, ALExt.AL_EQUALIZER_MIN_MID2_WIDTH, ALExt.AL_EQUALIZER_MAX_MID2_WIDTH));
 	}
 	
 }
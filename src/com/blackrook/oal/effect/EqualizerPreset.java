@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ ******************************************************************************/
+package com.blackrook.oal.effect;
+
+import com.blackrook.commons.math.RMath;
+import com.jogamp.openal.ALExt;
+
+/**
+ * An immutable set of {@link EqualizerEffect} parameters, applied all at once
+ * with {@link EqualizerEffect#setPreset(EqualizerPreset)}.
+ * Values are clamped to their valid ranges when the preset is created, so applying
+ * one writes them as-is.
+ * @author Matthew Tropiano
+ */
+public final class EqualizerPreset
+{
+	// Indices into the packed values.
+	static final int LOW_GAIN = 0;
+	static final int LOW_CUTOFF = 1;
+	static final int MID1_GAIN = 2;
+	static final int MID1_CENTER = 3;
+	static final int MID1_WIDTH = 4;
+	static final int MID2_GAIN = 5;
+	static final int MID2_CENTER = 6;
+	static final int MID2_WIDTH = 7;
+	static final int HIGH_GAIN = 8;
+	static final int HIGH_CUTOFF = 9;
+	static final int VALUE_COUNT = 10;
+
+	/** No change (the EFX defaults). */
+	public static final EqualizerPreset FLAT = new EqualizerPreset("Flat", 1.0f, 200f, 1.0f, 500f, 1.0f, 1.0f, 3000f, 1.0f, 1.0f, 6000f);
+	/** Low frequencies doubled. */
+	public static final EqualizerPreset BASS_BOOST = new EqualizerPreset("Bass Boost", 2.0f, 200f, 1.0f, 500f, 1.0f, 1.0f, 3000f, 1.0f, 1.0f, 6000f);
+	/** High frequencies doubled. */
+	public static final EqualizerPreset TREBLE_BOOST = new EqualizerPreset("Treble Boost", 1.0f, 200f, 1.0f, 500f, 1.0f, 1.0f, 3000f, 1.0f, 2.0f, 6000f);
+	/** Highs cut, as if heard through a wall or from under something. */
+	public static final EqualizerPreset MUFFLED = new EqualizerPreset("Muffled", 1.0f, 200f, 1.0f, 500f, 1.0f, 0.5f, 3000f, 1.0f, 0.126f, 4000f);
+	/** Lows and highs cut, with the voice band raised. */
+	public static final EqualizerPreset TELEPHONE = new EqualizerPreset("Telephone", 0.126f, 400f, 1.5f, 1000f, 0.5f, 1.0f, 3000f, 1.0f, 0.126f, 4000f);
+	/** Lows and highs reduced, with the midrange raised. */
+	public static final EqualizerPreset RADIO = new EqualizerPreset("Radio", 0.25f, 300f, 1.8f, 1500f, 0.6f, 1.0f, 3000f, 1.0f, 0.25f, 5000f);
+
+	/** All built-in presets. */
+	private static final EqualizerPreset[] BUILT_IN = {
+		FLAT, BASS_BOOST, TREBLE_BOOST, MUFFLED, TELEPHONE, RADIO
+	};
+
+	/** Preset name. */
+	private String name;
+	/** Packed, clamped parameters. */
+	final float[] values;
+
+	/**
+	 * Creates a new equalizer preset. Values outside of their valid ranges are clamped.
+	 * @param name the preset name.
+	 * @param lowGain the low band gain (0.126 to 7.943).
+	 * @param lowCutoff the low band cutoff in Hz (50.0 to 800.0).
+	 * @param mid1Gain the first mid band gain (0.126 to 7.943).
+	 * @param mid1Center the first mid band center in Hz (200.0 to 3000.0).
+	 * @param mid1Width the first mid band width (0.01 to 1.0).
+	 * @param mid2Gain the second mid band gain (0.126 to 7.943).
+	 * @param mid2Center the second mid band center in Hz (1000.0 to 8000.0).
+	 * @param mid2Width the second mid band width (0.01 to 1.0).
+	 * @param highGain the high band gain (0.126 to 7.943).
+	 * @param highCutoff the high band cutoff in Hz (4000.0 to 16000.0).
+	 */
+	public EqualizerPreset(String name, float lowGain, float lowCutoff,
+		float mid1Gain, float mid1Center, float mid1Width,
+		float mid2Gain, float mid2Center, float mid2Width,
+		float highGain, float highCutoff)
+	{
+		this.name = name;
+		this.values = new float[VALUE_COUNT];
+		values[LOW_GAIN] = RMath.clampValue(lowGain, ALExt.AL_EQUALIZER_MIN_LOW_GAIN, ALExt.AL_EQUALIZER_MAX_LOW_GAIN);
+		values[LOW_CUTOFF] = RMath.clampValue(lowCutoff, ALExt.AL_EQUALIZER_MIN_LOW_CUTOFF, ALExt.AL_EQUALIZER_MAX_LOW_CUTOFF);
+		values[MID1_GAIN] = RMath.clampValue(mid1Gain, ALExt.AL_EQUALIZER_MIN_MID1_GAIN, ALExt.AL_EQUALIZER_MAX_MID1_GAIN);
+		values[MID1_CENTER] = RMath.clampValue(mid1Center, ALExt.AL_EQUALIZER_MIN_MID1_CENTER, ALExt.AL_EQUALIZER_MAX_MID1_CENTER);
+		values[MID1_WIDTH] = RMath.clampValue(mid1Width, ALExt.AL_EQUALIZER_MIN_MID1_WIDTH, ALExt.AL_EQUALIZER_MAX_MID1_WIDTH);
+		values[MID2_GAIN] = RMath.clampValue(mid2Gain, ALExt.AL_EQUALIZER_MIN_MID2_GAIN, ALExt.AL_EQUALIZER_MAX_MID2_GAIN);
+		values[MID2_CENTER] = RMath.clampValue(mid2Center, ALExt.AL_EQUALIZER_MIN_MID2_CENTER, ALExt.AL_EQUALIZER_MAX_MID2_CENTER);
+		values[MID2_WIDTH] = RMath.clampValue(mid2Width, ALExt.AL_EQUALIZER_MIN_MID2_WIDTH, ALExt.AL_EQUALIZER_MAX_MID2_WIDTH);
+		values[HIGH_GAIN] = RMath.clampValue(highGain, ALExt.AL_EQUALIZER_MIN_HIGH_GAIN, ALExt.AL_EQUALIZER_MAX_HIGH_GAIN);
+		values[HIGH_CUTOFF] = RMath.clampValue(highCutoff, ALExt.AL_EQUALIZER_MIN_HIGH_CUTOFF, ALExt.AL_EQUALIZER_MAX_HIGH_CUTOFF);
+	}
+
+	/**
+	 * Creates a new preset from the current parameters of an equalizer effect.
+	 * @param name the preset name.
+	 * @param effect the effect to read.
+	 * @return a new preset.
+	 */
+	public static EqualizerPreset from(String name, EqualizerEffect effect)
+	{
+		return new EqualizerPreset(name, effect.getLowGain(), effect.getLowCutoff(),
+			effect.getMid1Gain(), effect.getMid1Center(), effect.getMid1Width(),
+			effect.getMid2Gain(), effect.getMid2Center(), effect.getMid2Width(),
+			effect.getHighGain(), effect.getHighCutoff());
+	}
+
+	/**
+	 * Returns all of the built-in presets.
+	 */
+	public static EqualizerPreset[] values()
+	{
+		return BUILT_IN.clone();
+	}
+
+	/**
+	 * Returns a built-in preset by name, case-insensitively, or null if there isn't one.
+	 * @param name the preset name, like "Bass Boost".
+	 */
+	public static EqualizerPreset get(String name)
+	{
+		for (EqualizerPreset preset : BUILT_IN)
+			if (preset.name.equalsIgnoreCase(name))
+				return preset;
+		return null;
+	}
+
+	/**
+	 * Returns this preset's name.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns this preset's low band gain.
+	 */
+	public float getLowGain()
+	{
+		return values[LOW_GAIN];
+	}
+
+	/**
+	 * Returns this preset's low band cutoff in Hz.
+	 */
+	public float getLowCutoff()
+	{
+		return values[LOW_CUTOFF];
+	}
+
+	/**
+	 * Returns this preset's first mid band gain.
+	 */
+	public float getMid1Gain()
+	{
+		return values[MID1_GAIN];
+	}
+
+	/**
+	 * Returns this preset's first mid band center in Hz.
+	 */
+	public float getMid1Center()
+	{
+		return values[MID1_CENTER];
+	}
+
+	/**
+	 * Returns this preset's first mid band width.
+	 */
+	public float getMid1Width()
+	{
+		return values[MID1_WIDTH];
+	}
+
+	/**
+	 * Returns this preset's second mid band gain.
+	 */
+	public float getMid2Gain()
+	{
+		return values[MID2_GAIN];
+	}
+
+	/**
+	 * Returns this preset's second mid band center in Hz.
+	 */
+	public float getMid2Center()
+	{
+		return values[MID2_CENTER];
+	}
+
+	/**
+	 * Returns this preset's second mid band width.
+	 */
+	public float getMid2Width()
+	{
+		return values[MID2_WIDTH];
+	}
+
+	/**
+	 * Returns this preset's high band gain.
+	 */
+	public float getHighGain()
+	{
+		return values[HIGH_GAIN];
+	}
+
+	/**
+	 * Returns this preset's high band cutoff in Hz.
+	 */
+	public float getHighCutoff()
+	{
+		return values[HIGH_CUTOFF];
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EqualizerPreset " + name;
+	}
+
+}
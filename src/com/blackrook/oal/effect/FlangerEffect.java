@@ -44,12 +44,14 @@ public class FlangerEffect extends OALEffect
 	public FlangerEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_FLANGER);
+		begin();
 		setWaveForm(WaveForm.TRIANGLE);
 		setPhase(ALExt.AL_FLANGER_DEFAULT_PHASE);
 		setRate(ALExt.AL_FLANGER_DEFAULT_RATE);
 		setDepth(ALExt.AL_FLANGER_DEFAULT_DEPTH);
 		setFeedback(ALExt.AL_FLANGER_DEFAULT_FEEDBACK);
 		setDelay(ALExt.AL_FLANGER_DEFAULT_DELAY);
+		commit();
 	}
 
 	/**
@@ -66,8 +68,7 @@ public class FlangerEffect extends OALEffect
 	public final void setDelay(float delay)
 	{
 		this.delay = delay;
-		alext.alEffectf(getALId(), ALExt.AL_FLANGER_DELAY, RMath.clampValue(delay, (float)ALExt.AL_FLANGER_MIN_DELAY, ALExt.AL_FLANGER_MAX_DELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_FLANGER_DELAY, RMath.clampValue(delay, (float)ALExt.AL_FLANGER_MIN_DELAY, ALExt.AL_FLANGER_MAX_DELAY));
 	}
 
 	/**
@@ -84,8 +85,7 @@ public class FlangerEffect extends OALEffect
 	public final void setDepth(float depth)
 	{
 		this.depth = depth;
-		alext.alEffectf(getALId(), ALExt.AL_FLANGER_DEPTH, RMath.clampValue(depth, (float)ALExt.AL_FLANGER_MIN_DEPTH, ALExt.AL_FLANGER_MAX_DEPTH));
-		errorCheck();
+		setFloatParameter(ALExt.AL_FLANGER_DEPTH, RMath.clampValue(depth, (float)ALExt.AL_FLANGER_MIN_DEPTH, ALExt.AL_FLANGER_MAX_DEPTH));
 	}
 
 	/**
@@ -102,8 +102,7 @@ public class FlangerEffect extends OALEffect
 	public final void setFeedback(float feedback)
 	{
 		this.feedback = feedback;
-		alext.alEffectf(getALId(), ALExt.AL_FLANGER_FEEDBACK, RMath.clampValue(feedback, ALExt.AL_FLANGER_MIN_FEEDBACK, ALExt.AL_FLANGER_MAX_FEEDBACK));
-		errorCheck();
+		setFloatParameter(ALExt.AL_FLANGER_FEEDBACK, RMath.clampValue(feedback, ALExt.AL_FLANGER_MIN_FEEDBACK, ALExt.AL_FLANGER_MAX_FEEDBACK));
 	}
 
 	/**
@@ -120,8 +119,7 @@ public class FlangerEffect extends OALEffect
 	public final void setPhase(int phase)
 	{
 		this.phase = phase;
-		alext.alEffecti(getALId(), ALExt.AL_FLANGER_PHASE, RMath.clampValue(phase, ALExt.AL_FLANGER_MIN_PHASE, ALExt.AL_FLANGER_MAX_PHASE));
-		errorCheck();
+		setIntParameter(ALExt.AL_FLANGER_PHASE, RMath.clampValue(phase, ALExt.AL_FLANGER_MIN_PHASE, ALExt.AL_FLANGER_MAX_PHASE));
 	}
 
 	/**
@@ -138,8 +136,7 @@ public class FlangerEffect extends OALEffect
 	public final void setRate(float rate)
 	{
 		this.rate = rate;
-		alext.alEffectf(getALId(), ALExt.AL_FLANGER_RATE, RMath.clampValue(rate, (float)ALExt.AL_FLANGER_MIN_RATE, ALExt.AL_FLANGER_MAX_RATE));
-		errorCheck();
+		setFloatParameter(ALExt.AL_FLANGER_RATE, RMath.clampValue(rate, (float)ALExt.AL_FLANGER_MIN_RATE, ALExt.AL_FLANGER_MAX_RATE));
 	}
 
 	/**
@@ -157,8 +154,7 @@ public class FlangerEffect extends OALEffect
 	public final void setWaveForm(WaveForm waveForm)
 	{
 		this.waveForm = waveForm;
-		alext.alEffecti(getALId(), ALExt.AL_FLANGER_WAVEFORM, waveForm.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_FLANGER_WAVEFORM, waveForm.alVal);
 	}
 	
 }
@@ -39,9 +39,11 @@ public class FrequencyShiftEffect extends OALEffect
 	public FrequencyShiftEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_FREQUENCY_SHIFTER);
+		begin();
 		setFrequency((float)ALExt.AL_FREQUENCY_SHIFTER_DEFAULT_FREQUENCY);
 		setLeftDirection(Direction.DOWN);
 		setRightDirection(Direction.DOWN);
+		commit();
 	}
 
 	/** Get frequency shifter frequency. */
@@ -54,8 +56,7 @@ public class FrequencyShiftEffect extends OALEffect
 	public final void setFrequency(float frequency)
 	{
 		this.frequency = frequency;
-		alext.alEffectf(getALId(), ALExt.AL_FREQUENCY_SHIFTER_FREQUENCY, RMath.clampValue(frequency, (float)ALExt.AL_FREQUENCY_SHIFTER_MIN_FREQUENCY, ALExt.AL_FREQUENCY_SHIFTER_MAX_FREQUENCY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_FREQUENCY_SHIFTER_FREQUENCY, RMath.clampValue(frequency, (float)ALExt.AL_FREQUENCY_SHIFTER_MIN_FREQUENCY, ALExt.AL_FREQUENCY_SHIFTER_MAX_FREQUENCY));
 	}
 
 	/** Get frequency shifter left direction. */
@@ -71,8 +72,7 @@ public class FrequencyShiftEffect extends OALEffect
 	public final void setLeftDirection(Direction leftDir)
 	{
 		this.leftDir = leftDir;
-		alext.alEffecti(getALId(), ALExt.AL_FREQUENCY_SHIFTER_LEFT_DIRECTION, leftDir.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_FREQUENCY_SHIFTER_LEFT_DIRECTION, leftDir.alVal);
 	}
 
 	/** Get frequency shifter right direction. */
@@ -88,8 +88,7 @@ public class FrequencyShiftEffect extends OALEffect
 	public final void setRightDirection(Direction rightDir)
 	{
 		this.rightDir = rightDir;
-		alext.alEffecti(getALId(), ALExt.AL_FREQUENCY_SHIFTER_RIGHT_DIRECTION, rightDir.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_FREQUENCY_SHIFTER_RIGHT_DIRECTION, rightDir.alVal);
 	}
 	
 }
@@ -26,8 +26,10 @@ public class PitchShiftEffect extends OALEffect
 	public PitchShiftEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_PITCH_SHIFTER);
+		begin();
 		setCoarseTuning(ALExt.AL_PITCH_SHIFTER_DEFAULT_COARSE_TUNE);
 		setFineTuning(ALExt.AL_PITCH_SHIFTER_DEFAULT_FINE_TUNE);
+		commit();
 	}
 
 	/** Pitch shifter coarse tuning in semitones. */
@@ -40,8 +42,7 @@ public class PitchShiftEffect extends OALEffect
 	public final void setCoarseTuning(int coarse)
 	{
 		this.coarse = coarse;
-		alext.alEffecti(getALId(), ALExt.AL_PITCH_SHIFTER_COARSE_TUNE, RMath.clampValue(coarse, ALExt.AL_PITCH_SHIFTER_MIN_COARSE_TUNE, ALExt.AL_PITCH_SHIFTER_MAX_COARSE_TUNE));
-		errorCheck();
+		setIntParameter(ALExt.AL_PITCH_SHIFTER_COARSE_TUNE, RMath.clampValue(coarse, ALExt.AL_PITCH_SHIFTER_MIN_COARSE_TUNE, ALExt.AL_PITCH_SHIFTER_MAX_COARSE_TUNE));
 	}
 
 	/** Pitch shifter fine tuning in cents. */
@@ -54,8 +55,7 @@ public class PitchShiftEffect extends OALEffect
 	public final void setFineTuning(int fine)
 	{
 		this.fine = fine;
-		alext.alEffecti(getALId(), ALExt.AL_PITCH_SHIFTER_FINE_TUNE, RMath.clampValue(fine, ALExt.AL_PITCH_SHIFTER_MIN_FINE_TUNE, ALExt.AL_PITCH_SHIFTER_MAX_FINE_TUNE));
-		errorCheck();
+		setIntParameter(ALExt.AL_PITCH_SHIFTER_FINE_TUNE, RMath.clampValue(fine, ALExt.AL_PITCH_SHIFTER_MIN_FINE_TUNE, ALExt.AL_PITCH_SHIFTER_MAX_FINE_TUNE));
 	}
 	
 }
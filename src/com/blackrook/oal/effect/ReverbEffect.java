@@ -46,12 +46,29 @@ public class ReverbEffect extends OALEffect
 	/** Reverb decay high-frequency limit? */
 	protected boolean hfLimit;
 	
+	/** AL parameters, in the order of a preset's packed values. */
+	private static final int[] PRESET_PARAMS = {
+		ALExt.AL_REVERB_DENSITY,
+		ALExt.AL_REVERB_DIFFUSION,
+		ALExt.AL_REVERB_GAIN,
+		ALExt.AL_REVERB_GAINHF,
+		ALExt.AL_REVERB_DECAY_TIME,
+		ALExt.AL_REVERB_DECAY_HFRATIO,
+		ALExt.AL_REVERB_REFLECTIONS_GAIN,
+		ALExt.AL_REVERB_REFLECTIONS_DELAY,
+		ALExt.AL_REVERB_LATE_REVERB_GAIN,
+		ALExt.AL_REVERB_LATE_REVERB_DELAY,
+		ALExt.AL_REVERB_AIR_ABSORPTION_GAINHF,
+		ALExt.AL_REVERB_ROOM_ROLLOFF_FACTOR
+	};
+	
 	/**
 	 * Constructs a new ReverbEffect object with default settings. 
 	 */
 	public ReverbEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_REVERB);
+		begin();
 		setDensity(ALExt.AL_REVERB_DEFAULT_DENSITY);
 		setDiffusion(ALExt.AL_REVERB_DEFAULT_DIFFUSION);
 		setGain(ALExt.AL_REVERB_DEFAULT_GAIN);
@@ -65,6 +82,36 @@ public class ReverbEffect extends OALEffect
 		setAirAbsorptionGainHF(ALExt.AL_REVERB_DEFAULT_AIR_ABSORPTION_GAINHF);
 		setRoomRolloffFactor((float)ALExt.AL_REVERB_DEFAULT_ROOM_ROLLOFF_FACTOR);
 		setDecayHFLimit(true);
+		commit();
+	}
+
+	/**
+	 * Sets all of this effect's parameters from a preset, in one batch.
+	 * The preset's values are already clamped, so they are written as-is.
+	 * @param preset the preset to apply.
+	 */
+	public final void setPreset(ReverbPreset preset)
+	{
+		float[] v = preset.values;
+		density = v[ReverbPreset.DENSITY];
+		diffusion = v[ReverbPreset.DIFFUSION];
+		gain = v[ReverbPreset.GAIN];
+		gainHF = v[ReverbPreset.GAINHF];
+		decayTime = v[ReverbPreset.DECAY_TIME];
+		decayHFRatio = v[ReverbPreset.DECAY_HFRATIO];
+		reflectionGain = v[ReverbPreset.REFLECTIONS_GAIN];
+		reflectionDelay = v[ReverbPreset.REFLECTIONS_DELAY];
+		lateGain = v[ReverbPreset.LATE_REVERB_GAIN];
+		lateDelay = v[ReverbPreset.LATE_REVERB_DELAY];
+		airAbsorptionGainHF = v[ReverbPreset.AIR_ABSORPTION_GAINHF];
+		roomRolloffFactor = v[ReverbPreset.ROOM_ROLLOFF_FACTOR];
+		hfLimit = preset.decayHFLimit;
+		
+		begin();
+		for (int i = 0; i < PRESET_PARAMS.length; i++)
+			setFloatParameter(PRESET_PARAMS[i], v[i]);
+		setIntParameter(ALExt.AL_REVERB_DECAY_HFLIMIT, hfLimit ? AL.AL_TRUE : AL.AL_FALSE);
+		commit();
 	}
 
 	/** Get reverb high-frequency air absorption gain. */
@@ -77,8 +124,7 @@ public class ReverbEffect extends OALEffect
 	public final void setAirAbsorptionGainHF(float airAbsorptionGainHF)
 	{
 		this.airAbsorptionGainHF = airAbsorptionGainHF;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_AIR_ABSORPTION_GAINHF, RMath.clampValue(airAbsorptionGainHF, ALExt.AL_REVERB_MIN_AIR_ABSORPTION_GAINHF, ALExt.AL_REVERB_MAX_AIR_ABSORPTION_GAINHF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_AIR_ABSORPTION_GAINHF, RMath.clampValue(airAbsorptionGainHF, ALExt.AL_REVERB_MIN_AIR_ABSORPTION_GAINHF, ALExt.AL_REVERB_MAX_AIR_ABSORPTION_GAINHF));
 	}
 
 	/** Get reverb high-frequency ratio. */
@@ -91,8 +137,7 @@ public class ReverbEffect extends OALEffect
 	public final void setDecayHFRatio(float decayHFRatio)
 	{
 		this.decayHFRatio = decayHFRatio;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_DECAY_HFRATIO, RMath.clampValue(decayHFRatio, ALExt.AL_REVERB_MIN_DECAY_HFRATIO, ALExt.AL_REVERB_MAX_DECAY_HFRATIO));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_DECAY_HFRATIO, RMath.clampValue(decayHFRatio, ALExt.AL_REVERB_MIN_DECAY_HFRATIO, ALExt.AL_REVERB_MAX_DECAY_HFRATIO));
 	}
 
 	/** Get reverb decay time in seconds. */
@@ -105,8 +150,7 @@ public class ReverbEffect extends OALEffect
 	public final void setDecayTime(float decayTime)
 	{
 		this.decayTime = decayTime;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_DECAY_TIME, RMath.clampValue(decayTime, ALExt.AL_REVERB_MIN_DECAY_TIME, ALExt.AL_REVERB_MAX_DECAY_TIME));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_DECAY_TIME, RMath.clampValue(decayTime, ALExt.AL_REVERB_MIN_DECAY_TIME, ALExt.AL_REVERB_MAX_DECAY_TIME));
 	}
 
 	/** Get reverb density factor. */
@@ -119,8 +163,7 @@ public class ReverbEffect extends OALEffect
 	public final void setDensity(float density)
 	{
 		this.density = density;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_DENSITY, RMath.clampValue(density, (float)ALExt.AL_REVERB_MIN_DENSITY, ALExt.AL_REVERB_MAX_DENSITY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_DENSITY, RMath.clampValue(density, (float)ALExt.AL_REVERB_MIN_DENSITY, ALExt.AL_REVERB_MAX_DENSITY));
 	}
 
 	/** Get reverb diffusion factor. */
@@ -133,8 +176,7 @@ public class ReverbEffect extends OALEffect
 	public final void setDiffusion(float diffusion)
 	{
 		this.diffusion = diffusion;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_DIFFUSION, RMath.clampValue(diffusion, (float)ALExt.AL_REVERB_MIN_DIFFUSION, ALExt.AL_REVERB_MAX_DIFFUSION));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_DIFFUSION, RMath.clampValue(diffusion, (float)ALExt.AL_REVERB_MIN_DIFFUSION, ALExt.AL_REVERB_MAX_DIFFUSION));
 	}
 
 	/** Get reverb gain. */
@@ -147,8 +189,7 @@ public class ReverbEffect extends OALEffect
 	public final void setGain(float gain)
 	{
 		this.gain = gain;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_GAIN, RMath.clampValue(gain, (float)ALExt.AL_REVERB_MIN_GAIN, ALExt.AL_REVERB_MAX_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_GAIN, RMath.clampValue(gain, (float)ALExt.AL_REVERB_MIN_GAIN, ALExt.AL_REVERB_MAX_GAIN));
 	}
 
 	/** Get reverb high-frequency gain. */
@@ -161,8 +202,7 @@ public class ReverbEffect extends OALEffect
 	public final void setHFGain(float gainHF)
 	{
 		this.gainHF = gainHF;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_GAINHF, RMath.clampValue(gainHF, (float)ALExt.AL_REVERB_MIN_GAINHF, ALExt.AL_REVERB_MAX_GAINHF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_GAINHF, RMath.clampValue(gainHF, (float)ALExt.AL_REVERB_MIN_GAINHF, ALExt.AL_REVERB_MAX_GAINHF));
 	}
 
 	/** Is the reverb decay high-frequency limit set? */
@@ -175,8 +215,7 @@ public class ReverbEffect extends OALEffect
 	public final void setDecayHFLimit(boolean limit)
 	{
 		hfLimit = limit;
-		alext.alEffecti(getALId(), ALExt.AL_REVERB_DECAY_HFLIMIT, limit ? AL.AL_TRUE : AL.AL_FALSE);
-		errorCheck();
+		setIntParameter(ALExt.AL_REVERB_DECAY_HFLIMIT, limit ? AL.AL_TRUE : AL.AL_FALSE);
 	}
 
 	/** Get reverb reflection delay in seconds. */
@@ -189,8 +228,7 @@ public class ReverbEffect extends OALEffect
 	public final void setReflectionDelay(float reflectionDelay)
 	{
 		this.reflectionDelay = reflectionDelay;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_REFLECTIONS_DELAY, RMath.clampValue(reflectionDelay, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_DELAY, ALExt.AL_REVERB_MAX_REFLECTIONS_DELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_REFLECTIONS_DELAY, RMath.clampValue(reflectionDelay, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_DELAY, ALExt.AL_REVERB_MAX_REFLECTIONS_DELAY));
 	}
 
 	/** Set reverb reflection gain. */
@@ -203,8 +241,7 @@ public class ReverbEffect extends OALEffect
 	public final void setReflectionGain(float reflectionGain)
 	{
 		this.reflectionGain = reflectionGain;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_REFLECTIONS_GAIN, RMath.clampValue(reflectionGain, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_GAIN, ALExt.AL_REVERB_MAX_REFLECTIONS_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_REFLECTIONS_GAIN, RMath.clampValue(reflectionGain, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_GAIN, ALExt.AL_REVERB_MAX_REFLECTIONS_GAIN));
 	}
 
 	/** Get reverb room rolloff factor. */
@@ -217,8 +254,7 @@ public class ReverbEffect extends OALEffect
 	public final void setRoomRolloffFactor(float roomRolloffFactor)
 	{
 		this.roomRolloffFactor = roomRolloffFactor;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_ROOM_ROLLOFF_FACTOR, RMath.clampValue(roomRolloffFactor, (float)ALExt.AL_REVERB_MIN_ROOM_ROLLOFF_FACTOR, ALExt.AL_REVERB_MAX_ROOM_ROLLOFF_FACTOR));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_ROOM_ROLLOFF_FACTOR, RMath.clampValue(roomRolloffFactor, (float)ALExt.AL_REVERB_MIN_ROOM_ROLLOFF_FACTOR, ALExt.AL_REVERB_MAX_ROOM_ROLLOFF_FACTOR));
 	}
 
 	/** Get late reverb delay. */
@@ -231,8 +267,7 @@ public class ReverbEffect extends OALEffect
 	public final void setLateDelay(float lateDelay)
 	{
 		this.lateDelay = lateDelay;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_LATE_REVERB_DELAY, RMath.clampValue(lateDelay, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_DELAY, ALExt.AL_REVERB_MAX_LATE_REVERB_DELAY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_LATE_REVERB_DELAY, RMath.clampValue(lateDelay, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_DELAY, ALExt.AL_REVERB_MAX_LATE_REVERB_DELAY));
 	}
 
 	/** Get late reverb gain. */
@@ -245,8 +280,7 @@ public class ReverbEffect extends OALEffect
 	public final void setLateGain(float lateGain)
 	{
 		this.lateGain = lateGain;
-		alext.alEffectf(getALId(), ALExt.AL_REVERB_LATE_REVERB_GAIN, RMath.clampValue(lateGain, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_GAIN, ALExt.AL_REVERB_MAX_LATE_REVERB_GAIN));
-		errorCheck();
+		setFloatParameter(ALExt.AL_REVERB_LATE_REVERB_GAIN, RMath.clampValue(lateGain, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_GAIN, ALExt.AL_REVERB_MAX_LATE_REVERB_GAIN));
 	}
 
 }
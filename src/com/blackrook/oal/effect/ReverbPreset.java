@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ ******************************************************************************/
+package com.blackrook.oal.effect;
+
+import com.blackrook.commons.math.RMath;
+import com.jogamp.openal.ALExt;
+
+/**
+ * An immutable set of {@link ReverbEffect} parameters, applied all at once
+ * with {@link ReverbEffect#setPreset(ReverbPreset)}.
+ * <p>
+ * Values are clamped to their valid ranges when the preset is created, so applying
+ * one writes them as-is. The built-in presets are the standard EFX environment presets,
+ * reduced to the parameters of the standard (non-EAX) reverb.
+ * @author Matthew Tropiano
+ */
+public final class ReverbPreset
+{
+	// Indices into the packed values.
+	static final int DENSITY = 0;
+	static final int DIFFUSION = 1;
+	static final int GAIN = 2;
+	static final int GAINHF = 3;
+	static final int DECAY_TIME = 4;
+	static final int DECAY_HFRATIO = 5;
+	static final int REFLECTIONS_GAIN = 6;
+	static final int REFLECTIONS_DELAY = 7;
+	static final int LATE_REVERB_GAIN = 8;
+	static final int LATE_REVERB_DELAY = 9;
+	static final int AIR_ABSORPTION_GAINHF = 10;
+	static final int ROOM_ROLLOFF_FACTOR = 11;
+	static final int VALUE_COUNT = 12;
+
+	public static final ReverbPreset GENERIC = new ReverbPreset("Generic", 1.0000f, 1.0000f, 0.3162f, 0.8913f, 1.4900f, 0.8300f, 0.0500f, 0.0070f, 1.2589f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset PADDED_CELL = new ReverbPreset("Padded Cell", 0.1715f, 1.0000f, 0.3162f, 0.0010f, 0.1700f, 0.1000f, 0.2500f, 0.0010f, 1.2691f, 0.0020f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset ROOM = new ReverbPreset("Room", 0.4287f, 1.0000f, 0.3162f, 0.5929f, 0.4000f, 0.8300f, 0.1503f, 0.0020f, 1.0629f, 0.0030f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset BATHROOM = new ReverbPreset("Bathroom", 0.1715f, 1.0000f, 0.3162f, 0.2512f, 1.4900f, 0.5400f, 0.6531f, 0.0070f, 3.2734f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset LIVING_ROOM = new ReverbPreset("Living Room", 0.9766f, 1.0000f, 0.3162f, 0.0010f, 0.5000f, 0.1000f, 0.2051f, 0.0030f, 0.2805f, 0.0040f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset STONE_ROOM = new ReverbPreset("Stone Room", 1.0000f, 1.0000f, 0.3162f, 0.7079f, 2.3100f, 0.6400f, 0.4411f, 0.0120f, 1.1003f, 0.0170f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset AUDITORIUM = new ReverbPreset("Auditorium", 1.0000f, 1.0000f, 0.3162f, 0.5781f, 4.3200f, 0.5900f, 0.4032f, 0.0200f, 0.7170f, 0.0300f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset CONCERT_HALL = new ReverbPreset("Concert Hall", 1.0000f, 1.0000f, 0.3162f, 0.5623f, 3.9200f, 0.7000f, 0.2427f, 0.0200f, 0.9977f, 0.0290f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset CAVE = new ReverbPreset("Cave", 1.0000f, 1.0000f, 0.3162f, 1.0000f, 2.9100f, 1.3000f, 0.5000f, 0.0150f, 0.7063f, 0.0220f, 0.9943f, 0.0000f, false);
+	public static final ReverbPreset ARENA = new ReverbPreset("Arena", 1.0000f, 1.0000f, 0.3162f, 0.4477f, 7.2400f, 0.3300f, 0.2612f, 0.0200f, 1.0186f, 0.0300f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset HANGAR = new ReverbPreset("Hangar", 1.0000f, 1.0000f, 0.3162f, 0.3162f, 10.0500f, 0.2300f, 0.5000f, 0.0200f, 1.2560f, 0.0300f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset CARPETED_HALLWAY = new ReverbPreset("Carpeted Hallway", 0.4287f, 1.0000f, 0.3162f, 0.0100f, 0.3000f, 0.1000f, 0.1215f, 0.0020f, 0.1531f, 0.0300f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset HALLWAY = new ReverbPreset("Hallway", 0.3645f, 1.0000f, 0.3162f, 0.7079f, 1.4900f, 0.5900f, 0.2458f, 0.0070f, 1.6615f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset STONE_CORRIDOR = new ReverbPreset("Stone Corridor", 1.0000f, 1.0000f, 0.3162f, 0.7612f, 2.7000f, 0.7900f, 0.2472f, 0.0130f, 1.5758f, 0.0200f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset ALLEY = new ReverbPreset("Alley", 1.0000f, 0.3000f, 0.3162f, 0.7328f, 1.4900f, 0.8600f, 0.2500f, 0.0070f, 0.9954f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset FOREST = new ReverbPreset("Forest", 1.0000f, 0.3000f, 0.3162f, 0.0224f, 1.4900f, 0.5400f, 0.0525f, 0.1620f, 0.7682f, 0.0880f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset CITY = new ReverbPreset("City", 1.0000f, 0.5000f, 0.3162f, 0.3981f, 1.4900f, 0.6700f, 0.0730f, 0.0070f, 0.1427f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset MOUNTAINS = new ReverbPreset("Mountains", 1.0000f, 0.2700f, 0.3162f, 0.0562f, 1.4900f, 0.2100f, 0.0407f, 0.3000f, 0.1919f, 0.1000f, 0.9943f, 0.0000f, false);
+	public static final ReverbPreset QUARRY = new ReverbPreset("Quarry", 1.0000f, 1.0000f, 0.3162f, 0.3162f, 1.4900f, 0.8300f, 0.0000f, 0.0610f, 1.7783f, 0.0250f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset PLAIN = new ReverbPreset("Plain", 1.0000f, 0.2100f, 0.3162f, 0.1000f, 1.4900f, 0.5000f, 0.0585f, 0.1790f, 0.1089f, 0.1000f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset PARKING_LOT = new ReverbPreset("Parking Lot", 1.0000f, 1.0000f, 0.3162f, 1.0000f, 1.6500f, 1.5000f, 0.2082f, 0.0080f, 0.2652f, 0.0120f, 0.9943f, 0.0000f, false);
+	public static final ReverbPreset SEWER_PIPE = new ReverbPreset("Sewer Pipe", 0.3071f, 0.8000f, 0.3162f, 0.3162f, 2.8100f, 0.1400f, 1.6387f, 0.0140f, 3.2471f, 0.0210f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset UNDERWATER = new ReverbPreset("Underwater", 0.3645f, 1.0000f, 0.3162f, 0.0100f, 1.4900f, 0.1000f, 0.5963f, 0.0070f, 7.0795f, 0.0110f, 0.9943f, 0.0000f, true);
+	public static final ReverbPreset DRUGGED = new ReverbPreset("Drugged", 0.4287f, 0.5000f, 0.3162f, 1.0000f, 8.3900f, 1.3900f, 0.8760f, 0.0020f, 3.1081f, 0.0300f, 0.9943f, 0.0000f, false);
+	public static final ReverbPreset DIZZY = new ReverbPreset("Dizzy", 0.3645f, 0.6000f, 0.3162f, 0.6310f, 17.2300f, 0.5600f, 0.1392f, 0.0200f, 0.4937f, 0.0300f, 0.9943f, 0.0000f, false);
+	public static final ReverbPreset PSYCHOTIC = new ReverbPreset("Psychotic", 0.0625f, 0.5000f, 0.3162f, 0.8404f, 7.5600f, 0.9100f, 0.4864f, 0.0200f, 2.4378f, 0.0300f, 0.9943f, 0.0000f, false);
+
+	/** All built-in presets. */
+	private static final ReverbPreset[] BUILT_IN = {
+		GENERIC, PADDED_CELL, ROOM, BATHROOM, LIVING_ROOM, STONE_ROOM, AUDITORIUM, CONCERT_HALL,
+		CAVE, ARENA, HANGAR, CARPETED_HALLWAY, HALLWAY, STONE_CORRIDOR, ALLEY, FOREST, CITY,
+		MOUNTAINS, QUARRY, PLAIN, PARKING_LOT, SEWER_PIPE, UNDERWATER, DRUGGED, DIZZY, PSYCHOTIC
+	};
+
+	/** Preset name. */
+	private String name;
+	/** Packed, clamped float parameters. */
+	final float[] values;
+	/** Decay HF limit. */
+	final boolean decayHFLimit;
+
+	/**
+	 * Creates a new reverb preset. Values outside of their valid ranges are clamped.
+	 * @param name the preset name.
+	 * @param density the density (0.0 to 1.0).
+	 * @param diffusion the diffusion (0.0 to 1.0).
+	 * @param gain the gain (0.0 to 1.0).
+	 * @param gainHF the high-frequency gain (0.0 to 1.0).
+	 * @param decayTime the decay time in seconds (0.1 to 20.0).
+	 * @param decayHFRatio the high-frequency decay ratio (0.1 to 2.0).
+	 * @param reflectionGain the reflection gain (0.0 to 3.16).
+	 * @param reflectionDelay the reflection delay in seconds (0.0 to 0.3).
+	 * @param lateGain the late reverb gain (0.0 to 10.0).
+	 * @param lateDelay the late reverb delay in seconds (0.0 to 0.1).
+	 * @param airAbsorptionGainHF the air absorption high-frequency gain (0.892 to 1.0).
+	 * @param roomRolloffFactor the room rolloff factor (0.0 to 10.0).
+	 * @param decayHFLimit if true, high-frequency decay is limited by air absorption.
+	 */
+	public ReverbPreset(String name, float density, float diffusion, float gain, float gainHF,
+		float decayTime, float decayHFRatio, float reflectionGain, float reflectionDelay,
+		float lateGain, float lateDelay, float airAbsorptionGainHF, float roomRolloffFactor, boolean decayHFLimit)
+	{
+		this.name = name;
+		this.values = new float[VALUE_COUNT];
+		values[DENSITY] = RMath.clampValue(density, (float)ALExt.AL_REVERB_MIN_DENSITY, ALExt.AL_REVERB_MAX_DENSITY);
+		values[DIFFUSION] = RMath.clampValue(diffusion, (float)ALExt.AL_REVERB_MIN_DIFFUSION, ALExt.AL_REVERB_MAX_DIFFUSION);
+		values[GAIN] = RMath.clampValue(gain, (float)ALExt.AL_REVERB_MIN_GAIN, ALExt.AL_REVERB_MAX_GAIN);
+		values[GAINHF] = RMath.clampValue(gainHF, (float)ALExt.AL_REVERB_MIN_GAINHF, ALExt.AL_REVERB_MAX_GAINHF);
+		values[DECAY_TIME] = RMath.clampValue(decayTime, ALExt.AL_REVERB_MIN_DECAY_TIME, ALExt.AL_REVERB_MAX_DECAY_TIME);
+		values[DECAY_HFRATIO] = RMath.clampValue(decayHFRatio, ALExt.AL_REVERB_MIN_DECAY_HFRATIO, ALExt.AL_REVERB_MAX_DECAY_HFRATIO);
+		values[REFLECTIONS_GAIN] = RMath.clampValue(reflectionGain, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_GAIN, ALExt.AL_REVERB_MAX_REFLECTIONS_GAIN);
+		values[REFLECTIONS_DELAY] = RMath.clampValue(reflectionDelay, (float)ALExt.AL_REVERB_MIN_REFLECTIONS_DELAY, ALExt.AL_REVERB_MAX_REFLECTIONS_DELAY);
+		values[LATE_REVERB_GAIN] = RMath.clampValue(lateGain, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_GAIN, ALExt.AL_REVERB_MAX_LATE_REVERB_GAIN);
+		values[LATE_REVERB_DELAY] = RMath.clampValue(lateDelay, (float)ALExt.AL_REVERB_MIN_LATE_REVERB_DELAY, ALExt.AL_REVERB_MAX_LATE_REVERB_DELAY);
+		values[AIR_ABSORPTION_GAINHF] = RMath.clampValue(airAbsorptionGainHF, ALExt.AL_REVERB_MIN_AIR_ABSORPTION_GAINHF, ALExt.AL_REVERB_MAX_AIR_ABSORPTION_GAINHF);
+		values[ROOM_ROLLOFF_FACTOR] = RMath.clampValue(roomRolloffFactor, (float)ALExt.AL_REVERB_MIN_ROOM_ROLLOFF_FACTOR, ALExt.AL_REVERB_MAX_ROOM_ROLLOFF_FACTOR);
+		this.decayHFLimit = decayHFLimit;
+	}
+
+	/**
+	 * Creates a new preset from the current parameters of a reverb effect.
+	 * @param name the preset name.
+	 * @param effect the effect to read.
+	 * @return a new preset.
+	 */
+	public static ReverbPreset from(String name, ReverbEffect effect)
+	{
+		return new ReverbPreset(name, effect.getDensity(), effect.getDiffusion(), effect.getGain(), effect.getHFGain(),
+			effect.getDecayTime(), effect.getDecayHFRatio(), effect.getReflectionGain(), effect.getReflectionDelay(),
+			effect.getLateGain(), effect.getLateDelay(), effect.getAirAbsorptionGainHF(), effect.getRoomRolloffFactor(),
+			effect.isDecayHFLimit());
+	}
+
+	/**
+	 * Returns all of the built-in presets.
+	 */
+	public static ReverbPreset[] values()
+	{
+		return BUILT_IN.clone();
+	}
+
+	/**
+	 * Returns a built-in preset by name, case-insensitively, or null if there isn't one.
+	 * @param name the preset name, like "Stone Corridor".
+	 */
+	public static ReverbPreset get(String name)
+	{
+		for (ReverbPreset preset : BUILT_IN)
+			if (preset.name.equalsIgnoreCase(name))
+				return preset;
+		return null;
+	}
+
+	/**
+	 * Returns this preset's name.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns this preset's density.
+	 */
+	public float getDensity()
+	{
+		return values[DENSITY];
+	}
+
+	/**
+	 * Returns this preset's diffusion.
+	 */
+	public float getDiffusion()
+	{
+		return values[DIFFUSION];
+	}
+
+	/**
+	 * Returns this preset's gain.
+	 */
+	public float getGain()
+	{
+		return values[GAIN];
+	}
+
+	/**
+	 * Returns this preset's high-frequency gain.
+	 */
+	public float getHFGain()
+	{
+		return values[GAINHF];
+	}
+
+	/**
+	 * Returns this preset's decay time in seconds.
+	 */
+	public float getDecayTime()
+	{
+		return values[DECAY_TIME];
+	}
+
+	/**
+	 * Returns this preset's high-frequency decay ratio.
+	 */
+	public float getDecayHFRatio()
+	{
+		return values[DECAY_HFRATIO];
+	}
+
+	/**
+	 * Returns this preset's reflection gain.
+	 */
+	public float getReflectionGain()
+	{
+		return values[REFLECTIONS_GAIN];
+	}
+
+	/**
+	 * Returns this preset's reflection delay in seconds.
+	 */
+	public float getReflectionDelay()
+	{
+		return values[REFLECTIONS_DELAY];
+	}
+
+	/**
+	 * Returns this preset's late reverb gain.
+	 */
+	public float getLateGain()
+	{
+		return values[LATE_REVERB_GAIN];
+	}
+
+	/**
+	 * Returns this preset's late reverb delay in seconds.
+	 */
+	public float getLateDelay()
+	{
+		return values[LATE_REVERB_DELAY];
+	}
+
+	/**
+	 * Returns this preset's air absorption high-frequency gain.
+	 */
+	public float getAirAbsorptionGainHF()
+	{
+		return values[AIR_ABSORPTION_GAINHF];
+	}
+
+	/**
+	 * Returns this preset's room rolloff factor.
+	 */
+	public float getRoomRolloffFactor()
+	{
+		return values[ROOM_ROLLOFF_FACTOR];
+	}
+
+	/**
+	 * Returns true if this preset limits high-frequency decay by air absorption.
+	 */
+	public boolean isDecayHFLimit()
+	{
+		return decayHFLimit;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ReverbPreset " + name;
+	}
+
+}
@@ -39,9 +39,11 @@ public class RingModulatorEffect extends OALEffect
 	public RingModulatorEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_RING_MODULATOR);
+		begin();
 		setWaveform(WaveForm.SINUSOID);
 		setFrequency(ALExt.AL_RING_MODULATOR_DEFAULT_FREQUENCY);
 		setHighPassCutoff(ALExt.AL_RING_MODULATOR_DEFAULT_HIGHPASS_CUTOFF);
+		commit();
 	}
 	
 	/** Get ring modulator waveform. */
@@ -54,8 +56,7 @@ public class RingModulatorEffect extends OALEffect
 	public final void setWaveform(WaveForm waveform)
 	{
 		this.waveForm = waveform;
-		alext.alEffecti(getALId(), ALExt.AL_RING_MODULATOR_WAVEFORM, waveform.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_RING_MODULATOR_WAVEFORM, waveform.alVal);
 	}
 
 	/** Get ring modulator shifter frequency. */
@@ -68,8 +69,7 @@ public class RingModulatorEffect extends OALEffect
 	public final void setFrequency(float frequency)
 	{
 		this.frequency = frequency;
-		alext.alEffectf(getALId(), ALExt.AL_RING_MODULATOR_FREQUENCY, RMath.clampValue(frequency, (float)ALExt.AL_RING_MODULATOR_MIN_FREQUENCY, ALExt.AL_RING_MODULATOR_MAX_FREQUENCY));
-		errorCheck();
+		setFloatParameter(ALExt.AL_RING_MODULATOR_FREQUENCY, RMath.clampValue(frequency, (float)ALExt.AL_RING_MODULATOR_MIN_FREQUENCY, ALExt.AL_RING_MODULATOR_MAX_FREQUENCY));
 	}
 
 	/** Get ring modulator high-pass cutoff in Hertz. */
@@ -82,8 +82,7 @@ public class RingModulatorEffect extends OALEffect
 	public final void setHighPassCutoff(float highPassCutoff)
 	{
 		this.highPassCutoff = highPassCutoff;
-		alext.alEffectf(getALId(), ALExt.AL_RING_MODULATOR_HIGHPASS_CUTOFF, RMath.clampValue(highPassCutoff, (float)ALExt.AL_RING_MODULATOR_MIN_HIGHPASS_CUTOFF, ALExt.AL_RING_MODULATOR_MAX_HIGHPASS_CUTOFF));
-		errorCheck();
+		setFloatParameter(ALExt.AL_RING_MODULATOR_HIGHPASS_CUTOFF, RMath.clampValue(highPassCutoff, (float)ALExt.AL_RING_MODULATOR_MIN_HIGHPASS_CUTOFF, ALExt.AL_RING_MODULATOR_MAX_HIGHPASS_CUTOFF));
 	}
 
 }
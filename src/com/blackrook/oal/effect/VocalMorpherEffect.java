@@ -83,12 +83,14 @@ public class VocalMorpherEffect extends OALEffect
 	public VocalMorpherEffect(OALSystem system)
 	{
 		super(system, ALExt.AL_EFFECT_VOCAL_MORPHER);
+		begin();
 		setPhonemeA(Phoneme.A);
 		setPhonemeB(Phoneme.ER);
 		setPhonemeACoarseTuning(ALExt.AL_VOCAL_MORPHER_DEFAULT_PHONEMEA_COARSE_TUNING);
 		setPhonemeBCoarseTuning(ALExt.AL_VOCAL_MORPHER_DEFAULT_PHONEMEB_COARSE_TUNING);
 		setWaveform(WaveForm.SINUSOID);
 		setRate(ALExt.AL_VOCAL_MORPHER_DEFAULT_RATE);
+		commit();
 	}
 
 	/** Get morpher phoneme A. */
@@ -101,8 +103,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setPhonemeA(Phoneme phonemeA)
 	{
 		this.phonemeA = phonemeA;
-		alext.alEffecti(getALId(), ALExt.AL_VOCAL_MORPHER_PHONEMEA, phonemeA.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_VOCAL_MORPHER_PHONEMEA, phonemeA.alVal);
 	}
 
 	/** Get morpher phoneme A coarse tuning in semitones. */
@@ -115,8 +116,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setPhonemeACoarseTuning(int phonemeACoarseTuning)
 	{
 		this.phonemeACoarseTuning = phonemeACoarseTuning;
-		alext.alEffecti(getALId(), ALExt.AL_VOCAL_MORPHER_PHONEMEA_COARSE_TUNING, RMath.clampValue(phonemeACoarseTuning, ALExt.AL_VOCAL_MORPHER_MIN_PHONEMEA_COARSE_TUNING, ALExt.AL_VOCAL_MORPHER_MAX_PHONEMEA_COARSE_TUNING));
-		errorCheck();
+		setIntParameter(ALExt.AL_VOCAL_MORPHER_PHONEMEA_COARSE_TUNING, RMath.clampValue(phonemeACoarseTuning, ALExt.AL_VOCAL_MORPHER_MIN_PHONEMEA_COARSE_TUNING, ALExt.AL_VOCAL_MORPHER_MAX_PHONEMEA_COARSE_TUNING));
 	}
 
 	/** Get morpher phoneme B. */
@@ -129,8 +129,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setPhonemeB(Phoneme phonemeB)
 	{
 		this.phonemeB = phonemeB;
-		alext.alEffecti(getALId(), ALExt.AL_VOCAL_MORPHER_PHONEMEB, phonemeB.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_VOCAL_MORPHER_PHONEMEB, phonemeB.alVal);
 	}
 
 	/** Get morpher phoneme B coarse tuning in semitones. */
@@ -143,8 +142,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setPhonemeBCoarseTuning(int phonemeBCoarseTuning)
 	{
 		this.phonemeBCoarseTuning = phonemeBCoarseTuning;
-		alext.alEffecti(getALId(), ALExt.AL_VOCAL_MORPHER_PHONEMEB_COARSE_TUNING, RMath.clampValue(phonemeBCoarseTuning, ALExt.AL_VOCAL_MORPHER_MIN_PHONEMEB_COARSE_TUNING, ALExt.AL_VOCAL_MORPHER_MAX_PHONEMEB_COARSE_TUNING));
-		errorCheck();
+		setIntParameter(ALExt.AL_VOCAL_MORPHER_PHONEMEB_COARSE_TUNING, RMath.clampValue(phonemeBCoarseTuning, ALExt.AL_VOCAL_MORPHER_MIN_PHONEMEB_COARSE_TUNING, ALExt.AL_VOCAL_MORPHER_MAX_PHONEMEB_COARSE_TUNING));
 	}
 
 	/** Get vocal morpher rate in Hertz. */
@@ -157,8 +155,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setRate(float rate)
 	{
 		this.rate = rate;
-		alext.alEffectf(getALId(), ALExt.AL_VOCAL_MORPHER_RATE, RMath.clampValue(rate, (float)ALExt.AL_VOCAL_MORPHER_MIN_RATE, ALExt.AL_VOCAL_MORPHER_MAX_RATE));
-		errorCheck();
+		setFloatParameter(ALExt.AL_VOCAL_MORPHER_RATE, RMath.clampValue(rate, (float)ALExt.AL_VOCAL_MORPHER_MIN_RATE, ALExt.AL_VOCAL_MORPHER_MAX_RATE));
 	}
 
 	/** Get morpher waveform. */
@@ -171,8 +168,7 @@ public class VocalMorpherEffect extends OALEffect
 	public final void setWaveform(WaveForm waveform)
 	{
 		this.waveForm = waveform;
-		alext.alEffecti(getALId(), ALExt.AL_VOCAL_MORPHER_WAVEFORM, waveform.alVal);
-		errorCheck();
+		setIntParameter(ALExt.AL_VOCAL_MORPHER_WAVEFORM, waveform.alVal);
 	}
 	
 }
@@ -29,4 +29,48 @@ public enum DistanceModel
 	private DistanceModel(int val) 
 	{alVal = val;}
 
+	/**
+	 * Calculates the attenuated gain of a Source using this model,
+	 * the same way that OpenAL does.
+	 * @param distance the distance between the Source and the Listener.
+	 * @param referenceDistance the Source's reference distance.
+	 * @param maxDistance the Source's maximum distance.
+	 * @param rolloff the Source's rolloff factor.
+	 * @return the attenuation factor, from 0 to 1 (or more if closer than reference distance on unclamped models).
+	 */
+	public float getGain(float distance, float referenceDistance, float maxDistance, float rolloff)
+	{
+		switch (this)
+		{
+			default:
+			case NONE:
+				return 1f;
+			case INVERSE_DISTANCE_CLAMPED:
+				distance = Math.min(Math.max(distance, referenceDistance), maxDistance);
+				// fall through
+			case INVERSE_DISTANCE:
+			{
+				float d = referenceDistance + rolloff * (distance - referenceDistance);
+				return d <= 0f ? 1f : referenceDistance / d;
+			}
+			case LINEAR_DISTANCE_CLAMPED:
+				distance = Math.min(Math.max(distance, referenceDistance), maxDistance);
+				// fall through
+			case LINEAR_DISTANCE:
+			{
+				if (maxDistance <= referenceDistance)
+					return 1f;
+				float d = Math.min(distance, maxDistance) - referenceDistance;
+				return Math.max(0f, 1f - rolloff * d / (maxDistance - referenceDistance));
+			}
+			case EXPONENT_DISTANCE_CLAMPED:
+				distance = Math.min(Math.max(distance, referenceDistance), maxDistance);
+				// fall through
+			case EXPONENT_DISTANCE:
+				if (distance <= 0f || referenceDistance <= 0f)
+					return 1f;
+				return (float)Math.pow(distance / referenceDistance, -rolloff);
+		}
+	}
+
 }
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ ******************************************************************************/
+package com.blackrook.oal.enums;
+
+/**
+ * Error checking policy for calls made into OpenAL by objects in a sound system.
+ * @author Matthew Tropiano
+ */
+public enum ErrorCheckMode
+{
+	/** 
+	 * The OpenAL error state is checked after every call,
+	 * and an error is thrown by the call that raised it. 
+	 */
+	IMMEDIATE,
+	
+	/** 
+	 * The OpenAL error state is only checked when the system's errors are checked
+	 * explicitly, usually once per frame. An error raised is attributed to the batch
+	 * of calls made since the last check. Object allocation is still checked immediately. 
+	 */
+	DEFERRED,
+	
+	/** 
+	 * The OpenAL error state is never checked, except on object allocation. 
+	 */
+	DISABLED;
+	
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ ******************************************************************************/
+package com.blackrook.oal.enums;
+
+import com.jogamp.openal.ALExt;
+
+/**
+ * Channel layout enumeration for rendering the mix of a loopback device.
+ * @author Matthew Tropiano
+ */
+public enum RenderChannels
+{
+	MONO(ALExt.ALC_MONO_SOFT, 1),
+	STEREO(ALExt.ALC_STEREO_SOFT, 2),
+	QUAD(ALExt.ALC_QUAD_SOFT, 4),
+	SURROUND_5_1(ALExt.ALC_5POINT1_SOFT, 6),
+	SURROUND_6_1(ALExt.ALC_6POINT1_SOFT, 7),
+	SURROUND_7_1(ALExt.ALC_7POINT1_SOFT, 8);
+	
+	public final int alVal;
+	/** Number of channels. */
+	public final int channels;
+	
+	private RenderChannels(int val, int channels) 
+	{alVal = val; this.channels = channels;}
+
+}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ ******************************************************************************/
+package com.blackrook.oal.enums;
+
+import com.jogamp.openal.ALExt;
+
+/**
+ * Sample type enumeration for rendering the mix of a loopback device.
+ * @author Matthew Tropiano
+ */
+public enum RenderSampleType
+{
+	BYTE(ALExt.ALC_BYTE_SOFT, 1),
+	UNSIGNED_BYTE(ALExt.ALC_UNSIGNED_BYTE_SOFT, 1),
+	SHORT(ALExt.ALC_SHORT_SOFT, 2),
+	UNSIGNED_SHORT(ALExt.ALC_UNSIGNED_SHORT_SOFT, 2),
+	INT(ALExt.ALC_INT_SOFT, 4),
+	UNSIGNED_INT(ALExt.ALC_UNSIGNED_INT_SOFT, 4),
+	FLOAT(ALExt.ALC_FLOAT_SOFT, 4);
+	
+	public final int alVal;
+	/** Size of one sample in bytes. */
+	public final int bytes;
+	
+	private RenderSampleType(int val, int bytes) 
+	{alVal = val; this.bytes = bytes;}
+
+}
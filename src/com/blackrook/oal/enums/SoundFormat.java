@@ -11,6 +11,13 @@ import com.jogamp.openal.AL;
 
 /**
  * Sound format enumeration.
+ * <p>
+ * Formats past the basic mono/stereo 8- and 16-bit ones need an OpenAL extension
+ * (see {@link #extension}), so check <code>OALSystem.isFormatSupported(SoundFormat)</code>
+ * before using them.
+ * <p>
+ * The ADPCM formats are compressed: data for them is a whole number of blocks of 
+ * {@link #blockSize} bytes, each holding {@link #blockFrames} sample frames.
  * @author Matthew Tropiano
  */
 public enum SoundFormat
@@ -18,21 +25,104 @@ public enum SoundFormat
 	MONO8(AL.AL_FORMAT_MONO8,8,1),
 	MONO16(AL.AL_FORMAT_MONO16,16,1),
 	STEREO8(AL.AL_FORMAT_STEREO8,8,2),
-	STEREO16(AL.AL_FORMAT_STEREO16,16,2);
+	STEREO16(AL.AL_FORMAT_STEREO16,16,2),
+	
+	MONO_FLOAT32(0x10010,32,1,true,SoundFormat.EXT_FLOAT32),
+	STEREO_FLOAT32(0x10011,32,2,true,SoundFormat.EXT_FLOAT32),
+	
+	QUAD8(0x1204,8,4,false,SoundFormat.EXT_MCFORMATS),
+	QUAD16(0x1205,16,4,false,SoundFormat.EXT_MCFORMATS),
+	QUAD_FLOAT32(0x1206,32,4,true,SoundFormat.EXT_MCFORMATS),
+	SURROUND51_8(0x120A,8,6,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND51_16(0x120B,16,6,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND51_FLOAT32(0x120C,32,6,true,SoundFormat.EXT_MCFORMATS),
+	SURROUND61_8(0x120D,8,7,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND61_16(0x120E,16,7,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND61_FLOAT32(0x120F,32,7,true,SoundFormat.EXT_MCFORMATS),
+	SURROUND71_8(0x1210,8,8,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND71_16(0x1211,16,8,false,SoundFormat.EXT_MCFORMATS),
+	SURROUND71_FLOAT32(0x1212,32,8,true,SoundFormat.EXT_MCFORMATS),
+	
+	MONO_IMA4(0x1300,4,1,SoundFormat.EXT_IMA4,65,36),
+	STEREO_IMA4(0x1301,4,2,SoundFormat.EXT_IMA4,65,36),
+	MONO_MSADPCM(0x1302,4,1,SoundFormat.EXT_MSADPCM,64,38),
+	STEREO_MSADPCM(0x1303,4,2,SoundFormat.EXT_MSADPCM,64,38);
+	
+	/** Extension name for 32-bit float formats. */
+	public static final String EXT_FLOAT32 = "AL_EXT_FLOAT32";
+	/** Extension name for multichannel formats. */
+	public static final String EXT_MCFORMATS = "AL_EXT_MCFORMATS";
+	/** Extension name for IMA4 ADPCM formats. */
+	public static final String EXT_IMA4 = "AL_EXT_IMA4";
+	/** Extension name for Microsoft ADPCM formats. */
+	public static final String EXT_MSADPCM = "AL_SOFT_MSADPCM";
+	
+	/** All formats, for lookup. */
+	private static final SoundFormat[] VALUES = values();
 	
 	public final int alVal;
 	/** Sample resolution. */
 	public final int bits;
 	/** Number of channels. */
 	public final int channels;
+	/** Are samples floating-point? */
+	public final boolean floating;
+	/** Name of the OpenAL extension required for this format, or null if none is required. */
+	public final String extension;
+	/** Sample frames per block of data (1 for uncompressed formats). */
+	public final int blockFrames;
+	/** Bytes per block of data, all channels. */
+	public final int blockSize;
 	
 	private SoundFormat(int val, int bits, int channels) 
-	{alVal = val; this.bits = bits; this.channels = channels;}
+	{this(val, bits, channels, false, null);}
+
+	private SoundFormat(int val, int bits, int channels, boolean floating, String extension) 
+	{alVal = val; this.bits = bits; this.channels = channels; this.floating = floating; this.extension = extension;
+	blockFrames = 1; blockSize = channels * (bits / 8);}
 
+	private SoundFormat(int val, int bits, int channels, String extension, int blockFrames, int channelBlockSize) 
+	{alVal = val; this.bits = bits; this.channels = channels; this.floating = false; this.extension = extension;
+	this.blockFrames = blockFrames; this.blockSize = channels * channelBlockSize;}
+
+	/**
+	 * Returns the size of a single sample frame in bytes (all channels),
+	 * or 0 if this is a compressed format.
+	 */
+	public int getFrameSize()
+	{
+		return isCompressed() ? 0 : blockSize;
+	}
+	
+	/**
+	 * Returns true if this format's data is compressed into blocks of many frames.
+	 */
+	public boolean isCompressed()
+	{
+		return blockFrames > 1;
+	}
+	
+	/**
+	 * Returns the uncompressed format that matches a set of channels, bits, and sample type.
+	 * @param channels amount of channels.
+	 * @param bits bits per sample.
+	 * @param floating if true, look for a floating-point format.
+	 * @return the matching format, or null if there isn't one.
+	 */
+	public static SoundFormat get(int channels, int bits, boolean floating)
+	{
+		for (SoundFormat format : VALUES)
+			if (!format.isCompressed() && format.channels == channels && format.bits == bits && format.floating == floating)
+				return format;
+		return null;
+	}
+	
 	@Override
 	public String toString()
 	{
-		return bits + "-bit, " + channels + " ch.";
+		if (isCompressed())
+			return name().substring(name().indexOf('_') + 1) + ", " + channels + " ch.";
+		return bits + "-bit" + (floating ? " float" : "") + ", " + channels + " ch.";
 	}
 	
 }
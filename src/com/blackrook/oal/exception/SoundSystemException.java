@@ -24,4 +24,9 @@ public class SoundSystemException extends RuntimeException {
 	{
 		super(message);
 	}
+
+	public SoundSystemException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
 }
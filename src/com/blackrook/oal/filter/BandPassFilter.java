@@ -48,7 +48,7 @@ public class BandPassFilter extends OALFilter
 	public void setGain(float gain)
 	{
 		this.gain = gain;
-		alext.alFilterf(getALId(), ALExt.AL_BANDPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAIN, ALExt.AL_BANDPASS_MAX_GAIN));
+		backend.alFilterf(getALId(), ALExt.AL_BANDPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAIN, ALExt.AL_BANDPASS_MAX_GAIN));
 		errorCheck();
 	}
 
@@ -67,7 +67,7 @@ public class BandPassFilter extends OALFilter
 	public void setLFGain(float gain)
 	{
 		this.gainLF = gain;
-		alext.alFilterf(getALId(), ALExt.AL_BANDPASS_GAINLF, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAINLF, ALExt.AL_BANDPASS_MAX_GAINLF));
+		backend.alFilterf(getALId(), ALExt.AL_BANDPASS_GAINLF, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAINLF, ALExt.AL_BANDPASS_MAX_GAINLF));
 		errorCheck();
 	}
 
@@ -86,7 +86,7 @@ public class BandPassFilter extends OALFilter
 	public void setHFGain(float gain)
 	{
 		this.gainHF = gain;
-		alext.alFilterf(getALId(), ALExt.AL_BANDPASS_GAINHF, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAINHF, ALExt.AL_BANDPASS_MAX_GAINHF));
+		backend.alFilterf(getALId(), ALExt.AL_BANDPASS_GAINHF, RMath.clampValue(gain, (float)ALExt.AL_BANDPASS_MIN_GAINHF, ALExt.AL_BANDPASS_MAX_GAINHF));
 		errorCheck();
 	}
 	
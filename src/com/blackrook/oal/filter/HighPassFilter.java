@@ -45,7 +45,7 @@ public class HighPassFilter extends OALFilter
 	public void setGain(float gain)
 	{
 		this.gain = gain;
-		alext.alFilterf(getALId(), ALExt.AL_HIGHPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_HIGHPASS_MIN_GAIN, ALExt.AL_HIGHPASS_MAX_GAIN));
+		backend.alFilterf(getALId(), ALExt.AL_HIGHPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_HIGHPASS_MIN_GAIN, ALExt.AL_HIGHPASS_MAX_GAIN));
 		errorCheck();
 	}
 	
@@ -64,7 +64,7 @@ public class HighPassFilter extends OALFilter
 	public void setLFGain(float gain)
 	{
 		this.gainLF = gain;
-		alext.alFilterf(getALId(), ALExt.AL_HIGHPASS_GAINLF, RMath.clampValue(gain, (float)ALExt.AL_HIGHPASS_MIN_GAINLF, ALExt.AL_HIGHPASS_MAX_GAINLF));
+		backend.alFilterf(getALId(), ALExt.AL_HIGHPASS_GAINLF, RMath.clampValue(gain, (float)ALExt.AL_HIGHPASS_MIN_GAINLF, ALExt.AL_HIGHPASS_MAX_GAINLF));
 		errorCheck();
 	}
 	
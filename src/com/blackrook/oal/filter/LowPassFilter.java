@@ -45,7 +45,7 @@ public class LowPassFilter extends OALFilter
 	public void setGain(float gain)
 	{
 		this.gain = gain;
-		alext.alFilterf(getALId(), ALExt.AL_LOWPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_LOWPASS_MIN_GAIN, ALExt.AL_LOWPASS_MAX_GAIN));
+		backend.alFilterf(getALId(), ALExt.AL_LOWPASS_GAIN, RMath.clampValue(gain, (float)ALExt.AL_LOWPASS_MIN_GAIN, ALExt.AL_LOWPASS_MAX_GAIN));
 		errorCheck();
 	}
 	
@@ -64,7 +64,7 @@ public class LowPassFilter extends OALFilter
 	public void setHFGain(float gain)
 	{
 		this.gainHF = gain;
-		alext.alFilterf(getALId(), ALExt.AL_LOWPASS_GAINHF, RMath.clampValue(gain, (float)ALExt.AL_LOWPASS_MIN_GAINHF, ALExt.AL_LOWPASS_MAX_GAINHF));
+		backend.alFilterf(getALId(), ALExt.AL_LOWPASS_GAINHF, RMath.clampValue(gain, (float)ALExt.AL_LOWPASS_MIN_GAINHF, ALExt.AL_LOWPASS_MAX_GAINHF));
 		errorCheck();
 	}
 	
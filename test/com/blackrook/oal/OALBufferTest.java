@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.Buffer;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import com.blackrook.oal.backend.CountingBackend;
+import com.blackrook.oal.backend.SoftwareBackend;
+import com.blackrook.oal.enums.SoundFormat;
+
+/**
+ * Buffer loading tests, run against a {@link SoftwareBackend} on its null device
+ * that also takes IMA4 data, so that compressed loads run the encoder.
+ * Run by the "test" target of the build script. Any failed check ends the run with an error.
+ * @author Matthew Tropiano
+ */
+public final class OALBufferTest
+{
+	/** Sound lengths in frames, around the shortest that fits a whole IMA4 block. */
+	private static final int[] FRAMES = {1, 10, 17, 18, 65, 100};
+
+	private OALBufferTest()
+	{
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		shortSoundsCompress();
+		System.out.println("OALBufferTest: all passed.");
+	}
+
+	/**
+	 * Decoded sounds of any length, even shorter than an IMA4 block, compress to IMA4.
+	 */
+	static void shortSoundsCompress() throws Exception
+	{
+		IMA4Backend backend = new IMA4Backend();
+		OALSystem system = new OALSystem(backend, SoftwareBackend.NULL_DEVICE_NAME);
+		try {
+			for (int channels = 1; channels <= 2; channels++)
+			{
+				for (int frames : FRAMES)
+				{
+					JSPISoundHandle handle = new JSPISoundHandle("test.wav", createWAV(frames, channels));
+					JSPISoundHandle.Decoder decoder = handle.getDecoder();
+					try {
+						OALBuffer buffer = system.createCompressedBuffer(decoder);
+						String what = frames + " frame(s), " + channels + " channel(s)";
+						check(what + ": compressed", true, buffer.getFormat().isCompressed());
+						check(what + ": bytes", ADPCMEncoder.getIMA4Length(frames, channels), buffer.getSize());
+						check(what + ": bytes uploaded", buffer.getSize(), backend.lastIMA4Size);
+					} finally {
+						decoder.close();
+					}
+				}
+			}
+		} finally {
+			system.shutDown();
+		}
+	}
+
+	// Creates a WAV file of 16-bit silence.
+	private static byte[] createWAV(int frames, int channels) throws Exception
+	{
+		AudioFormat format = new AudioFormat(22050f, 16, channels, true, false);
+		byte[] data = new byte[frames * channels * 2];
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(data), format, frames), AudioFileFormat.Type.WAVE, out);
+		return out.toByteArray();
+	}
+
+	// Fails if a value is not the expected one.
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+			throw new AssertionError(what + ": expected " + expected + ", got " + actual + ".");
+	}
+
+	/**
+	 * A software backend that reports AL_EXT_IMA4 and takes IMA4 uploads without playing them.
+	 */
+	private static class IMA4Backend extends CountingBackend
+	{
+		/** Size of the last IMA4 upload. */
+		private int lastIMA4Size;
+
+		IMA4Backend()
+		{
+			super(new SoftwareBackend());
+			this.lastIMA4Size = -1;
+		}
+
+		@Override
+		public boolean alIsExtensionPresent(String extName)
+		{
+			return SoundFormat.EXT_IMA4.equalsIgnoreCase(extName) || super.alIsExtensionPresent(extName);
+		}
+
+		@Override
+		public void alBufferData(int buffer, int format, Buffer data, int size, int frequency)
+		{
+			if (format == SoundFormat.MONO_IMA4.alVal || format == SoundFormat.STEREO_IMA4.alVal)
+				lastIMA4Size = size;
+			else
+				super.alBufferData(buffer, format, data, size, frequency);
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2014, 2015 Black Rook Software
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/lgpl-2.1.html
+ *
+ * Contributors:
+ *     Matt Tropiano - initial API and implementation
+ *******************************************************************************/
+package com.blackrook.oal.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.blackrook.oal.OALBuffer;
+import com.blackrook.oal.OALSource;
+import com.blackrook.oal.OALSystem;
+
+/**
+ * Call budget tests for the library's hot paths, run against a {@link CountingBackend}
+ * around a {@link SoftwareBackend} on its null device, so no OpenAL or sound card is needed.
+ * Run by the "test" target of the build script. Any failed check ends the run with an error.
+ * @author Matthew Tropiano
+ */
+public final class CountingBackendTest
+{
+	/** Buffers loaded by the buffer budget test. */
+	private static final int BUFFER_COUNT = 100;
+	/** Most calls that creating and loading one buffer may make. */
+	private static final int CALLS_PER_BUFFER = 6;
+	/** Bytes loaded into each buffer. */
+	private static final int BUFFER_BYTES = 4096;
+
+	private CountingBackendTest()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		unchangedSourcePositionMakesNoCalls();
+		loadingBuffersStaysWithinBudget();
+		System.out.println("CountingBackendTest: all passed.");
+	}
+
+	/**
+	 * Setting a source to the position that it already has makes no calls at all.
+	 */
+	static void unchangedSourcePositionMakesNoCalls()
+	{
+		CountingBackend counter = new CountingBackend(new SoftwareBackend());
+		OALSystem system = new OALSystem(counter, SoftwareBackend.NULL_DEVICE_NAME);
+		try {
+			OALSource source = system.createSource();
+			source.setPosition(1f, 2f, 3f);
+
+			counter.reset();
+			source.setPosition(1f, 2f, 3f);
+			check("calls for an unchanged source position", 0L, counter.getTotalCount());
+		} finally {
+			system.shutDown();
+		}
+	}
+
+	/**
+	 * Creating and loading buffers makes a fixed amount of calls per buffer.
+	 */
+	static void loadingBuffersStaysWithinBudget()
+	{
+		CountingBackend counter = new CountingBackend(new SoftwareBackend());
+		OALSystem system = new OALSystem(counter, SoftwareBackend.NULL_DEVICE_NAME);
+		try {
+			ByteBuffer data = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.nativeOrder());
+
+			counter.reset();
+			for (int i = 0; i < BUFFER_COUNT; i++)
+			{
+				OALBuffer buffer = system.createBuffer();
+				buffer.loadPCMData(data, BUFFER_BYTES);
+			}
+
+			check("buffers generated", BUFFER_COUNT, counter.getCount(CountingBackend.Call.AL_GEN_BUFFERS));
+			check("buffer uploads", BUFFER_COUNT, counter.getCount(CountingBackend.Call.AL_BUFFER_DATA));
+			check("bytes uploaded", (long)BUFFER_COUNT * BUFFER_BYTES, counter.getBytesUploaded());
+			check("live buffers", BUFFER_COUNT, counter.getLiveCount(CountingBackend.ObjectType.BUFFER));
+			checkAtMost("calls for " + BUFFER_COUNT + " buffers", (long)BUFFER_COUNT * CALLS_PER_BUFFER, counter.getTotalCount());
+		} finally {
+			system.shutDown();
+		}
+	}
+
+	// Fails if a count is not the expected one.
+	private static void check(String what, long expected, long actual)
+	{
+		if (actual != expected)
+			throw new AssertionError(what + ": expected " + expected + ", got " + actual + ".");
+	}
+
+	// Fails if a count is over a limit.
+	private static void checkAtMost(String what, long limit, long actual)
+	{
+		if (actual > limit)
+			throw new AssertionError(what + ": expected at most " + limit + ", got " + actual + ".");
+	}
+
+}